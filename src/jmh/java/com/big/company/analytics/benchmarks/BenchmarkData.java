@@ -0,0 +1,128 @@
+package com.big.company.analytics.benchmarks;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.OrgChartSpec;
+import com.big.company.analytics.domain.OrgChartSpec.FanOutDistribution;
+import com.big.company.analytics.domain.OrgChartSpec.RowOrder;
+import com.big.company.analytics.services.impl.EmployeeCsvFileGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds synthetic employee lists and CSV files used as benchmark fixtures.
+ */
+public final class BenchmarkData {
+
+    /**
+     * Seed used for salaries and shuffling, so every fork benchmarks the same data.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Number of direct subordinates of each manager on a {@link OrgShape#BALANCED} hierarchy.
+     */
+    private static final int BALANCED_FAN_OUT = 5;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Shape of the generated hierarchy.
+     */
+    public enum OrgShape {
+        /**
+         * Every employee reports directly to the CEO.
+         */
+        FLAT,
+        /**
+         * Every employee reports to the previous one, producing a single reporting line.
+         */
+        DEEP_CHAIN,
+        /**
+         * Every manager has the same number of direct subordinates.
+         */
+        BALANCED
+    }
+
+    /**
+     * Order in which the employees appear on the list (and on the CSV file).
+     */
+    public enum InputOrder {
+        /**
+         * Managers always appear before their subordinates.
+         */
+        TOP_DOWN,
+        /**
+         * Subordinates always appear before their managers.
+         */
+        BOTTOM_UP,
+        /**
+         * Random order.
+         */
+        SHUFFLED
+    }
+
+    /**
+     * Creates a list of employees with the given size, shape and order. Employee ids start at 1 (the CEO).
+     *
+     * @param size  number of employees, CEO included
+     * @param shape shape of the hierarchy
+     * @param order order of the employees on the list
+     * @return the list of employees
+     */
+    public static List<Employee> employees(int size, OrgShape shape, InputOrder order) {
+        Random random = new Random(SEED);
+        List<Employee> employees = new ArrayList<>(size);
+        employees.add(new Employee(1, "First1", "Last1", 200000, null));
+        for (int id = 2; id <= size; id++) {
+            int managerId = switch (shape) {
+                case FLAT -> 1;
+                case DEEP_CHAIN -> id - 1;
+                case BALANCED -> (id - 2) / BALANCED_FAN_OUT + 1;
+            };
+            employees.add(new Employee(id, "First" + id, "Last" + id, 30000 + random.nextInt(120000), managerId));
+        }
+
+        switch (order) {
+            case BOTTOM_UP -> Collections.reverse(employees);
+            case SHUFFLED -> Collections.shuffle(employees, random);
+            default -> {
+            }
+        }
+        return employees;
+    }
+
+    /**
+     * Generates a temporary CSV file with header with the given size, shape and order, deleted when the JVM exits.
+     * The file is streamed to disk by {@link EmployeeCsvFileGenerator}, so the employees are never held in memory.
+     *
+     * @param size  number of employees, CEO included
+     * @param shape shape of the hierarchy
+     * @param order order of the employees on the file
+     * @return the CSV file
+     */
+    public static File csvFile(int size, OrgShape shape, InputOrder order) {
+        OrgChartSpec.Builder builder = OrgChartSpec.builder(size)
+                .seed(SEED)
+                .rowOrder(RowOrder.valueOf(order.name()));
+        switch (shape) {
+            case FLAT -> builder.maxDepth(1).minFanOut(size).maxFanOut(size).fanOutDistribution(FanOutDistribution.FIXED);
+            case DEEP_CHAIN -> builder.maxDepth(size).minFanOut(1).maxFanOut(1).fanOutDistribution(FanOutDistribution.FIXED);
+            case BALANCED -> builder.maxDepth(size).maxFanOut(BALANCED_FAN_OUT).fanOutDistribution(FanOutDistribution.FIXED);
+        }
+        try {
+            File file = File.createTempFile("employees-", ".csv");
+            file.deleteOnExit();
+            new EmployeeCsvFileGenerator().generateFile(builder.build(), file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.big.company.analytics.benchmarks;
+
+import com.big.company.analytics.benchmarks.BenchmarkData.InputOrder;
+import com.big.company.analytics.benchmarks.BenchmarkData.OrgShape;
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.services.FileReaderService;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader.ParsingMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the CSV reading stage ({@link EmployeeCsvFileReader#readFile(File)}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileReaderBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"FLAT", "DEEP_CHAIN", "BALANCED"})
+    public OrgShape shape;
+
+    @Param({"TOP_DOWN", "BOTTOM_UP", "SHUFFLED"})
+    public InputOrder order;
+
+    @Param({"BUFFERED", "MEMORY_MAPPED", "PARALLEL"})
+    public ParsingMode parsingMode;
+
+    private File file;
+
+    private FileReaderService<Employee> fileReaderService;
+
+    @Setup
+    public void setUp() {
+        file = BenchmarkData.csvFile(size, shape, order);
+        fileReaderService = new EmployeeCsvFileReader(true, parsingMode);
+    }
+
+    @Benchmark
+    public List<Employee> readFile() {
+        return fileReaderService.readFile(file);
+    }
+}
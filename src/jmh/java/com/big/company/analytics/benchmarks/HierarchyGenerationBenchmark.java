@@ -0,0 +1,76 @@
+package com.big.company.analytics.benchmarks;
+
+import com.big.company.analytics.benchmarks.BenchmarkData.InputOrder;
+import com.big.company.analytics.benchmarks.BenchmarkData.OrgShape;
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.services.EmployeeNodeService;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.IndexedEmployeeNodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the hierarchy building stage ({@link EmployeeNodeService#generateEmployeesHierarchy(List)}).
+ * <p>
+ * The retry-queue generator is quadratic, so large sizes should be restricted to the indexed one, e.g.
+ * {@code -p generator=INDEXED}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HierarchyGenerationBenchmark {
+
+    /**
+     * Implementations of {@link EmployeeNodeService} under benchmark.
+     */
+    public enum Generator {
+        RETRY_QUEUE,
+        INDEXED
+    }
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /**
+     * {@link OrgShape#DEEP_CHAIN} is left out of the default shapes, it is run on its own with {@code -p shape=DEEP_CHAIN}.
+     */
+    @Param({"FLAT", "BALANCED"})
+    public OrgShape shape;
+
+    @Param({"TOP_DOWN", "BOTTOM_UP", "SHUFFLED"})
+    public InputOrder order;
+
+    @Param({"RETRY_QUEUE", "INDEXED"})
+    public Generator generator;
+
+    private List<Employee> employees;
+
+    private EmployeeNodeService nodeService;
+
+    @Setup
+    public void setUp() {
+        employees = BenchmarkData.employees(size, shape, order);
+        nodeService = (generator == Generator.INDEXED) ? new IndexedEmployeeNodeGenerator() : new EmployeeNodeGenerator();
+    }
+
+    @Benchmark
+    public EmployeeNode generateEmployeesHierarchy() {
+        return nodeService.generateEmployeesHierarchy(employees);
+    }
+}
@@ -0,0 +1,129 @@
+package com.big.company.analytics.benchmarks;
+
+import com.big.company.analytics.benchmarks.BenchmarkData.InputOrder;
+import com.big.company.analytics.benchmarks.BenchmarkData.OrgShape;
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.domain.OffHeapEmployeeHierarchy;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.services.EmployeeReportService;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.IndexedEmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.ParallelEmployeeHierarchyReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks both reports of {@link EmployeeHierarchyReportService}, separately and fused in a single pass, and the
+ * salary policy report of {@link ParallelEmployeeHierarchyReportService}, over the {@code EmployeeNode} tree, the
+ * columnar {@code EmployeeTable} and its off-heap copy.
+ * The console output of the reports is discarded, but its formatting cost is still measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReportBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /**
+     * {@link OrgShape#DEEP_CHAIN} is left out of the default shapes, it is run on its own with {@code -p shape=DEEP_CHAIN}.
+     */
+    @Param({"FLAT", "BALANCED"})
+    public OrgShape shape;
+
+    private EmployeeNode employeesHierarchy;
+
+    private EmployeeTable employeeTable;
+
+    private OffHeapEmployeeHierarchy offHeapHierarchy;
+
+    private EmployeeReportService reportService;
+
+    private EmployeeReportService parallelReportService;
+
+    private PrintStream console;
+
+    @Setup
+    public void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        employeesHierarchy = new IndexedEmployeeNodeGenerator()
+                .generateEmployeesHierarchy(BenchmarkData.employees(size, shape, InputOrder.TOP_DOWN));
+        employeeTable = EmployeeTable.from(employeesHierarchy);
+        offHeapHierarchy = OffHeapEmployeeHierarchy.copyOf(employeeTable);
+        reportService = new EmployeeHierarchyReportService();
+        parallelReportService = new ParallelEmployeeHierarchyReportService();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation() {
+        return reportService.reportManagersSalaryPolicyViolation(employeesHierarchy);
+    }
+
+    @Benchmark
+    public Map<Employee, SalaryPolicyViolation> reportParallelManagersSalaryPolicyViolation() {
+        return parallelReportService.reportManagersSalaryPolicyViolation(employeesHierarchy);
+    }
+
+    @Benchmark
+    public Map<Employee, Integer> reportManagersWithExcessiveReportingLines() {
+        return reportService.reportManagersWithExcessiveReportingLines(employeesHierarchy);
+    }
+
+    @Benchmark
+    public Map<Employee, SalaryPolicyViolation> reportTableManagersSalaryPolicyViolation() {
+        return reportService.reportManagersSalaryPolicyViolation(employeeTable, 20, 50);
+    }
+
+    @Benchmark
+    public Map<Employee, Integer> reportTableManagersWithExcessiveReportingLines() {
+        return reportService.reportManagersWithExcessiveReportingLines(employeeTable, 4);
+    }
+
+    @Benchmark
+    public Map<Employee, SalaryPolicyViolation> reportOffHeapManagersSalaryPolicyViolation() {
+        return reportService.reportManagersSalaryPolicyViolation(offHeapHierarchy, 20, 50);
+    }
+
+    @Benchmark
+    public Map<Employee, Integer> reportOffHeapManagersWithExcessiveReportingLines() {
+        return reportService.reportManagersWithExcessiveReportingLines(offHeapHierarchy, 4);
+    }
+
+    @Benchmark
+    public EmployeeHierarchyReport reportAll() {
+        return reportService.reportAll(employeesHierarchy);
+    }
+
+    @Benchmark
+    public EmployeeHierarchyReport reportTableAll() {
+        return reportService.reportAll(employeeTable, 20, 50, 4);
+    }
+}
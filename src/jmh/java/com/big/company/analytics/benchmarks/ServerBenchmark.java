@@ -0,0 +1,79 @@
+package com.big.company.analytics.benchmarks;
+
+import com.big.company.analytics.benchmarks.BenchmarkData.InputOrder;
+import com.big.company.analytics.benchmarks.BenchmarkData.OrgShape;
+import com.big.company.analytics.services.impl.AnalyticsServer;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the salary policy queries of the {@link AnalyticsServer} over HTTP, each with a random percentage range,
+ * reporting the throughput and the latency percentiles (p99 included) of the sample time mode.
+ * Concurrent clients are JMH threads, each keeping its connection open, so run with 1k and 10k threads:
+ * <pre>
+ * java -jar target/benchmarks.jar ServerBenchmark -t 1000
+ * java -jar target/benchmarks.jar ServerBenchmark -t 10000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ServerBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private AnalyticsServer server;
+
+    private HttpClient client;
+
+    private PrintStream console;
+
+    @Setup
+    public void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        server = new AnalyticsServer(new EmployeeCsvFileReader(), BenchmarkData.csvFile(size, OrgShape.BALANCED, InputOrder.TOP_DOWN), 0);
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public String querySalaryPolicy() throws IOException, InterruptedException {
+        int minimumPercentage = ThreadLocalRandom.current().nextInt(0, 50);
+        int maximumPercentage = minimumPercentage + ThreadLocalRandom.current().nextInt(0, 50);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(String.format("http://localhost:%d/salary-policy?min=%d&max=%d",
+                server.port(), minimumPercentage, maximumPercentage))).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
@@ -3,13 +3,24 @@ package com.big.company.analytics;
 import com.big.company.analytics.domain.Employee;
 import com.big.company.analytics.services.EmployeeNodeService;
 import com.big.company.analytics.services.EmployeeReportService;
+import com.big.company.analytics.services.AnalyticsService;
 import com.big.company.analytics.services.FileReaderService;
+import com.big.company.analytics.services.ReportSink;
 import com.big.company.analytics.services.impl.AnalyticsManager;
+import com.big.company.analytics.services.impl.AnalyticsManager.ExecutionMode;
+import com.big.company.analytics.services.impl.BatchAnalyticsManager;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader.ParsingMode;
 import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
-import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.EmployeeSnapshotFileReader;
+import com.big.company.analytics.services.impl.EmployeeTableGenerator;
+import com.big.company.analytics.services.impl.HierarchyReportEngine;
+import com.big.company.analytics.services.impl.IndexedEmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.ReportFormat;
+import com.big.company.analytics.services.impl.ReportResultCache;
 
 import java.io.File;
+import java.util.Locale;
 import java.util.Optional;
 
 public class MainApplication {
@@ -20,21 +31,119 @@ public class MainApplication {
      */
     public static final String FILE_SYSTEM_PROPERTY = "file";
     public static final String DEFAULT_HAS_HEADER_VALUE = "true";
+    /**
+     * System property key for specifying the parsing mode of the file (buffered, memory_mapped or parallel).
+     */
+    public static final String PARSING_MODE_SYSTEM_PROPERTY = "parsing_mode";
+    public static final String DEFAULT_PARSING_MODE_VALUE = "buffered";
+    /**
+     * System property key for specifying the execution mode of the read and build of the hierarchy (sequential or pipelined).
+     */
+    public static final String EXECUTION_MODE_SYSTEM_PROPERTY = "execution_mode";
+    public static final String DEFAULT_EXECUTION_MODE_VALUE = "sequential";
+    /**
+     * System property key for specifying the glob of the file names, when the file is a directory.
+     */
+    public static final String GLOB_SYSTEM_PROPERTY = "glob";
+    /**
+     * System property key for specifying how many files of a directory are processed at once.
+     */
+    public static final String PARALLELISM_SYSTEM_PROPERTY = "parallelism";
+    /**
+     * System property key for specifying the file (or named pipe) the reports are written into, instead of the console.
+     */
+    public static final String OUTPUT_SYSTEM_PROPERTY = "output";
+    /**
+     * System property key for specifying the format the reports are written in.
+     */
+    public static final String OUTPUT_FORMAT_SYSTEM_PROPERTY = "output_format";
+    /**
+     * Default format of the reports.
+     */
+    public static final String DEFAULT_OUTPUT_FORMAT_VALUE = "text";
+    /**
+     * System property key for specifying the directory where the reports are cached by file content, shared by runs.
+     */
+    public static final String CACHE_DIR_SYSTEM_PROPERTY = "cache_dir";
+    /**
+     * System property key for specifying how many reports are kept on the cache directory.
+     */
+    public static final String CACHE_SIZE_SYSTEM_PROPERTY = "cache_size";
+    public static final String DEFAULT_CACHE_SIZE_VALUE = "64";
+    /**
+     * System property key for specifying how many managers, the worst ones, are reported on the salary policy report of a file.
+     */
+    public static final String SALARY_POLICY_LIMIT_SYSTEM_PROPERTY = "salary_policy_limit";
+    /**
+     * System property key for specifying how many employees, the worst ones, are reported on the reporting lines report of a file.
+     */
+    public static final String REPORTING_LINES_LIMIT_SYSTEM_PROPERTY = "reporting_lines_limit";
+    /**
+     * System property key for specifying the minimum allowed percentage a manager earns over its direct subordinates.
+     */
+    public static final String MINIMUM_PERCENTAGE_SYSTEM_PROPERTY = "min_percentage";
+    /**
+     * System property key for specifying the maximum allowed percentage a manager earns over its direct subordinates.
+     */
+    public static final String MAXIMUM_PERCENTAGE_SYSTEM_PROPERTY = "max_percentage";
+    /**
+     * System property key for specifying the maximum allowed number of managers between an employee and the CEO.
+     */
+    public static final String REPORTING_LINES_THRESHOLD_SYSTEM_PROPERTY = "reporting_lines_threshold";
 
 
     public static void main(String[] args) {
 
         String hasHeader = Optional.ofNullable(System.getProperty(HAS_HEADER_SYSTEM_PROPERTY)).orElse(DEFAULT_HAS_HEADER_VALUE);
-        FileReaderService<Employee> fileReaderService = new EmployeeCsvFileReader(!hasHeader.equals("false"));
+        String parsingMode = Optional.ofNullable(System.getProperty(PARSING_MODE_SYSTEM_PROPERTY)).orElse(DEFAULT_PARSING_MODE_VALUE);
+        FileReaderService<Employee> fileReaderService = new EmployeeSnapshotFileReader(new EmployeeCsvFileReader(!hasHeader.equals("false"),
+                ParsingMode.valueOf(parsingMode.toUpperCase(Locale.ROOT))));
+
+        String outputPath = System.getProperty(OUTPUT_SYSTEM_PROPERTY);
+        String outputFormat = Optional.ofNullable(System.getProperty(OUTPUT_FORMAT_SYSTEM_PROPERTY)).orElse(DEFAULT_OUTPUT_FORMAT_VALUE);
+        ReportFormat reportFormat = ReportFormat.valueOf(outputFormat.toUpperCase(Locale.ROOT));
+        try (ReportSink sink = (outputPath != null) ? reportFormat.toFile(new File(outputPath)) : reportFormat.toConsole()) {
+            run(fileReaderService, new EmployeeHierarchyReportService(new HierarchyReportEngine(), sink));
+        }
+    }
 
-        EmployeeNodeService nodeService = new EmployeeNodeGenerator();
-        EmployeeReportService reportService = new EmployeeHierarchyReportService();
+    private static void run(FileReaderService<Employee> fileReaderService, EmployeeReportService reportService) {
+        EmployeeNodeService nodeService = new IndexedEmployeeNodeGenerator();
 
         String filePath = System.getProperty(FILE_SYSTEM_PROPERTY);
-        AnalyticsManager analyticsManager = (filePath != null) ?
-                new AnalyticsManager(fileReaderService, nodeService, reportService, new File(filePath)) :
-                new AnalyticsManager(fileReaderService, nodeService, reportService);
+        Integer minimumPercentage = integerProperty(MINIMUM_PERCENTAGE_SYSTEM_PROPERTY);
+        Integer maximumPercentage = integerProperty(MAXIMUM_PERCENTAGE_SYSTEM_PROPERTY);
+        Integer reportingLinesThreshold = integerProperty(REPORTING_LINES_THRESHOLD_SYSTEM_PROPERTY);
+        if (filePath != null && new File(filePath).isDirectory()) {
+            new BatchAnalyticsManager(fileReaderService, new EmployeeTableGenerator(), reportService, new File(filePath),
+                    System.getProperty(GLOB_SYSTEM_PROPERTY), integerProperty(PARALLELISM_SYSTEM_PROPERTY),
+                    minimumPercentage, maximumPercentage, reportingLinesThreshold).runAnalytics();
+            return;
+        }
+        String executionMode = Optional.ofNullable(System.getProperty(EXECUTION_MODE_SYSTEM_PROPERTY)).orElse(DEFAULT_EXECUTION_MODE_VALUE);
+        AnalyticsService analyticsManager = ((filePath != null) ?
+                new AnalyticsManager(fileReaderService, nodeService, reportService, new File(filePath),
+                        minimumPercentage, maximumPercentage, reportingLinesThreshold, reportResultCache()) :
+                new AnalyticsManager(fileReaderService, nodeService, reportService))
+                .withExecutionMode(ExecutionMode.valueOf(executionMode.toUpperCase(Locale.ROOT)))
+                .withReportLimits(integerProperty(SALARY_POLICY_LIMIT_SYSTEM_PROPERTY), integerProperty(REPORTING_LINES_LIMIT_SYSTEM_PROPERTY));
 
         analyticsManager.runAnalytics();
     }
+
+    private static Integer integerProperty(String key) {
+        return Optional.ofNullable(System.getProperty(key)).map(Integer::valueOf).orElse(null);
+    }
+
+    /**
+     * Creates the cache of the reports on the directory given by the cache_dir system property.
+     *
+     * @return the cache of the reports, or null if no cache directory is given
+     */
+    static ReportResultCache reportResultCache() {
+        String cacheDir = System.getProperty(CACHE_DIR_SYSTEM_PROPERTY);
+        if (cacheDir == null) return null;
+        int cacheSize = Integer.parseInt(Optional.ofNullable(System.getProperty(CACHE_SIZE_SYSTEM_PROPERTY)).orElse(DEFAULT_CACHE_SIZE_VALUE));
+        return new ReportResultCache(cacheSize, new File(cacheDir));
+    }
 }
@@ -0,0 +1,74 @@
+package com.big.company.analytics;
+
+import com.big.company.analytics.domain.OrgChartSpec;
+import com.big.company.analytics.domain.OrgChartSpec.FanOutDistribution;
+import com.big.company.analytics.domain.OrgChartSpec.RowOrder;
+import com.big.company.analytics.domain.OrgChartSpec.SalaryDistribution;
+import com.big.company.analytics.services.EmployeeFileGeneratorService;
+import com.big.company.analytics.services.impl.EmployeeCsvFileGenerator;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Command line entry point that writes a synthetic employees CSV file for load tests and benchmarks.
+ * Every setting of {@link OrgChartSpec} can be given as a system property; missing ones keep the builder defaults.
+ */
+public class OrgChartGeneratorApplication {
+
+    /**
+     * System property key for specifying the generated file path.
+     */
+    public static final String FILE_SYSTEM_PROPERTY = "file";
+    public static final String EMPLOYEES_SYSTEM_PROPERTY = "employees";
+    public static final String MAX_DEPTH_SYSTEM_PROPERTY = "max_depth";
+    public static final String MIN_FAN_OUT_SYSTEM_PROPERTY = "min_fan_out";
+    public static final String MAX_FAN_OUT_SYSTEM_PROPERTY = "max_fan_out";
+    public static final String FAN_OUT_DISTRIBUTION_SYSTEM_PROPERTY = "fan_out_distribution";
+    public static final String CEO_SALARY_SYSTEM_PROPERTY = "ceo_salary";
+    public static final String SALARY_DECAY_SYSTEM_PROPERTY = "salary_decay";
+    public static final String SALARY_SPREAD_SYSTEM_PROPERTY = "salary_spread";
+    public static final String SALARY_DISTRIBUTION_SYSTEM_PROPERTY = "salary_distribution";
+    public static final String ROW_ORDER_SYSTEM_PROPERTY = "row_order";
+    public static final String HAS_HEADER_SYSTEM_PROPERTY = "has_header";
+    public static final String COLUMNS_SYSTEM_PROPERTY = "columns";
+    public static final String SEED_SYSTEM_PROPERTY = "seed";
+    public static final String DEFAULT_FILE_VALUE = "GeneratedData.csv";
+    public static final String DEFAULT_EMPLOYEES_VALUE = "1000";
+
+    public static void main(String[] args) {
+        int employees = Integer.parseInt(Optional.ofNullable(System.getProperty(EMPLOYEES_SYSTEM_PROPERTY)).orElse(DEFAULT_EMPLOYEES_VALUE));
+        OrgChartSpec.Builder builder = OrgChartSpec.builder(employees);
+
+        property(MAX_DEPTH_SYSTEM_PROPERTY).map(Integer::valueOf).ifPresent(builder::maxDepth);
+        property(MIN_FAN_OUT_SYSTEM_PROPERTY).map(Integer::valueOf).ifPresent(builder::minFanOut);
+        property(MAX_FAN_OUT_SYSTEM_PROPERTY).map(Integer::valueOf).ifPresent(builder::maxFanOut);
+        property(FAN_OUT_DISTRIBUTION_SYSTEM_PROPERTY).map(FanOutDistribution::valueOf).ifPresent(builder::fanOutDistribution);
+        property(CEO_SALARY_SYSTEM_PROPERTY).map(Integer::valueOf).ifPresent(builder::ceoSalary);
+        property(SALARY_DECAY_SYSTEM_PROPERTY).map(Double::valueOf).ifPresent(builder::salaryDecay);
+        property(SALARY_SPREAD_SYSTEM_PROPERTY).map(Double::valueOf).ifPresent(builder::salarySpread);
+        property(SALARY_DISTRIBUTION_SYSTEM_PROPERTY).map(SalaryDistribution::valueOf).ifPresent(builder::salaryDistribution);
+        property(ROW_ORDER_SYSTEM_PROPERTY).map(RowOrder::valueOf).ifPresent(builder::rowOrder);
+        property(HAS_HEADER_SYSTEM_PROPERTY).map(hasHeader -> !hasHeader.equals("FALSE")).ifPresent(builder::hasHeader);
+        Optional.ofNullable(System.getProperty(COLUMNS_SYSTEM_PROPERTY)).map(columns -> columns.split(",")).ifPresent(builder::columns);
+        property(SEED_SYSTEM_PROPERTY).map(Long::valueOf).ifPresent(builder::seed);
+
+        File file = new File(Optional.ofNullable(System.getProperty(FILE_SYSTEM_PROPERTY)).orElse(DEFAULT_FILE_VALUE));
+        EmployeeFileGeneratorService generatorService = new EmployeeCsvFileGenerator();
+
+        System.out.printf("Generating %d employees on file: %s%n", employees, file.getPath());
+        long generated = generatorService.generateFile(builder.build(), file);
+        System.out.printf("Employees generated: %d%n", generated);
+    }
+
+    /**
+     * Reads a system property, upper-cased so enum names are case-insensitive.
+     *
+     * @param key the system property key
+     * @return the upper-cased value of the system property, if defined
+     */
+    private static Optional<String> property(String key) {
+        return Optional.ofNullable(System.getProperty(key)).map(value -> value.trim().toUpperCase(Locale.ROOT));
+    }
+}
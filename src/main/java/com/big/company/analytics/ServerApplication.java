@@ -0,0 +1,62 @@
+package com.big.company.analytics;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.services.FileReaderService;
+import com.big.company.analytics.services.impl.AnalyticsManager;
+import com.big.company.analytics.services.impl.AnalyticsServer;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader.ParsingMode;
+import com.big.company.analytics.services.impl.EmployeeSnapshotFileReader;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Command line entry point that runs the resident {@link AnalyticsServer}, keeping the employee hierarchy of a file
+ * loaded and reloading it when the file changes, until the JVM is stopped.
+ */
+public class ServerApplication {
+
+    /**
+     * System property key for specifying the file path.
+     */
+    public static final String FILE_SYSTEM_PROPERTY = "file";
+    /**
+     * System property key for specifying the port the server listens on.
+     */
+    public static final String PORT_SYSTEM_PROPERTY = "port";
+    public static final String HAS_HEADER_SYSTEM_PROPERTY = "has_header";
+    public static final String PARSING_MODE_SYSTEM_PROPERTY = "parsing_mode";
+    /**
+     * System property key for specifying how many incoming connections wait to be accepted.
+     */
+    public static final String BACKLOG_SYSTEM_PROPERTY = "backlog";
+    public static final String DEFAULT_PORT_VALUE = "8080";
+    public static final String DEFAULT_BACKLOG_VALUE = "16384";
+    public static final String DEFAULT_HAS_HEADER_VALUE = "true";
+    public static final String DEFAULT_PARSING_MODE_VALUE = "buffered";
+    /**
+     * System property key for specifying the directory where the reports are cached by file content, shared by runs.
+     */
+    public static final String CACHE_DIR_SYSTEM_PROPERTY = MainApplication.CACHE_DIR_SYSTEM_PROPERTY;
+    /**
+     * System property key for specifying how many reports are kept on the cache directory.
+     */
+    public static final String CACHE_SIZE_SYSTEM_PROPERTY = MainApplication.CACHE_SIZE_SYSTEM_PROPERTY;
+
+    public static void main(String[] args) {
+        String hasHeader = Optional.ofNullable(System.getProperty(HAS_HEADER_SYSTEM_PROPERTY)).orElse(DEFAULT_HAS_HEADER_VALUE);
+        String parsingMode = Optional.ofNullable(System.getProperty(PARSING_MODE_SYSTEM_PROPERTY)).orElse(DEFAULT_PARSING_MODE_VALUE);
+        FileReaderService<Employee> fileReaderService = new EmployeeSnapshotFileReader(new EmployeeCsvFileReader(!hasHeader.equals("false"),
+                ParsingMode.valueOf(parsingMode.toUpperCase(Locale.ROOT))));
+
+        File file = new File(Optional.ofNullable(System.getProperty(FILE_SYSTEM_PROPERTY)).orElse(AnalyticsManager.DEFAULT_SAMPLE_DATA_CSV));
+        int port = Integer.parseInt(Optional.ofNullable(System.getProperty(PORT_SYSTEM_PROPERTY)).orElse(DEFAULT_PORT_VALUE));
+        int backlog = Integer.parseInt(Optional.ofNullable(System.getProperty(BACKLOG_SYSTEM_PROPERTY)).orElse(DEFAULT_BACKLOG_VALUE));
+
+        AnalyticsServer server = new AnalyticsServer(fileReaderService, file, port, backlog, MainApplication.reportResultCache());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+    }
+}
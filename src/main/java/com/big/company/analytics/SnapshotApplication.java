@@ -0,0 +1,52 @@
+package com.big.company.analytics;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.services.EmployeeSnapshotService;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader.ParsingMode;
+import com.big.company.analytics.services.impl.EmployeeSnapshotFileReader;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Command line entry point that parses an employees CSV file once and writes the built hierarchy to a binary
+ * snapshot file, which the {@link MainApplication} maps and reports without parsing the CSV file again.
+ * The employees are linked straight into the snapshot as they are parsed, so the hierarchy is never built on heap.
+ */
+public class SnapshotApplication {
+
+    /**
+     * System property key for specifying the CSV file path.
+     */
+    public static final String FILE_SYSTEM_PROPERTY = "file";
+    /**
+     * System property key for specifying the snapshot file path, by default the CSV file path with the snapshot extension.
+     */
+    public static final String SNAPSHOT_SYSTEM_PROPERTY = "snapshot";
+    public static final String HAS_HEADER_SYSTEM_PROPERTY = "has_header";
+    public static final String PARSING_MODE_SYSTEM_PROPERTY = "parsing_mode";
+    public static final String DEFAULT_FILE_VALUE = "SampleData.csv";
+    public static final String DEFAULT_HAS_HEADER_VALUE = "true";
+    public static final String DEFAULT_PARSING_MODE_VALUE = "buffered";
+
+    public static void main(String[] args) {
+        String hasHeader = Optional.ofNullable(System.getProperty(HAS_HEADER_SYSTEM_PROPERTY)).orElse(DEFAULT_HAS_HEADER_VALUE);
+        String parsingMode = Optional.ofNullable(System.getProperty(PARSING_MODE_SYSTEM_PROPERTY)).orElse(DEFAULT_PARSING_MODE_VALUE);
+        EmployeeCsvFileReader fileReaderService = new EmployeeCsvFileReader(!hasHeader.equals("false"),
+                ParsingMode.valueOf(parsingMode.toUpperCase(Locale.ROOT)));
+        EmployeeSnapshotService snapshotService = new EmployeeSnapshotFileReader(fileReaderService);
+
+        File file = new File(Optional.ofNullable(System.getProperty(FILE_SYSTEM_PROPERTY)).orElse(DEFAULT_FILE_VALUE));
+        File snapshot = new File(Optional.ofNullable(System.getProperty(SNAPSHOT_SYSTEM_PROPERTY))
+                .orElseGet(() -> file.getPath().replaceFirst("\\.[^.\\\\/]*$", "") + EmployeeSnapshotFileReader.SNAPSHOT_EXTENSION));
+
+        System.out.printf("Writing snapshot of file %s: %s%n", file.getPath(), snapshot.getPath());
+        try (Stream<Employee> employees = fileReaderService.streamFile(file)) {
+            snapshotService.writeSnapshot(employees, snapshot);
+        }
+        System.out.printf("Snapshot written: %d bytes%n", snapshot.length());
+    }
+}
@@ -0,0 +1,84 @@
+package com.big.company.analytics.domain;
+
+import java.util.Objects;
+
+/**
+ * Represents a change of an employee, as sent on a change log of the employees.
+ * Only the fields used by the operation are required:
+ * <ul>
+ *     <li>{@link Operation#ADD} and {@link Operation#UPDATE} require all fields of an {@code Employee}</li>
+ *     <li>{@link Operation#MOVE} requires the id and the manager id</li>
+ *     <li>{@link Operation#DELETE} requires only the id</li>
+ * </ul>
+ *
+ * @param operation the operation of the change
+ * @param id        the id of the changed employee
+ * @param firstName the first name, required on ADD and UPDATE
+ * @param lastName  the last name, required on ADD and UPDATE
+ * @param salary    the salary, required on ADD and UPDATE
+ * @param managerId the manager id, required on ADD and MOVE, null on UPDATE of the CEO
+ */
+public record EmployeeChange(
+        Operation operation,
+        Integer id,
+        String firstName,
+        String lastName,
+        Integer salary,
+        Integer managerId
+) {
+
+    /**
+     * Constructs an EmployeeChange object.
+     *
+     * @throws NullPointerException if the operation, the id or any field required by the operation is null
+     */
+    public EmployeeChange {
+        Objects.requireNonNull(operation, "Change operation is missing");
+        Objects.requireNonNull(id, "Employee id is missing");
+        switch (operation) {
+            case ADD, UPDATE -> {
+                Objects.requireNonNull(firstName, "Employee first name is missing");
+                Objects.requireNonNull(lastName, "Employee last name is missing");
+                Objects.requireNonNull(salary, "Employee salary is missing");
+                if (operation == Operation.ADD) Objects.requireNonNull(managerId, "Employee manager id is missing");
+            }
+            case MOVE -> Objects.requireNonNull(managerId, "Employee manager id is missing");
+            case DELETE -> {
+            }
+        }
+    }
+
+    /**
+     * Creates the {@code Employee} object of an ADD or UPDATE change.
+     *
+     * @return the employee with the changed data
+     * @throws IllegalStateException if the operation is not ADD or UPDATE
+     */
+    public Employee employee() {
+        if (operation != Operation.ADD && operation != Operation.UPDATE)
+            throw new IllegalStateException(String.format("Change %s has no employee data", operation));
+        return new Employee(id, firstName, lastName, salary, managerId);
+    }
+
+    /**
+     * Operations of a change of an employee.
+     */
+    public enum Operation {
+        /**
+         * Adds a new employee, a hire.
+         */
+        ADD,
+        /**
+         * Updates the names, the salary and, if changed, the manager of an employee.
+         */
+        UPDATE,
+        /**
+         * Removes an employee, a leaver. Its subordinates move to its manager.
+         */
+        DELETE,
+        /**
+         * Moves an employee, with its subordinates, to another manager.
+         */
+        MOVE
+    }
+}
@@ -0,0 +1,101 @@
+package com.big.company.analytics.domain;
+
+/**
+ * Represents an employee hierarchy tree where each employee is addressed by an index from 0 to {@code size() - 1}
+ * instead of by an object, so implementations can store the employees on primitive columns.
+ * <p>
+ * Indexes are only meaningful within the hierarchy that returned them and are not the employee ids.
+ */
+public interface EmployeeHierarchy {
+
+    /**
+     * Gets the number of employees of the hierarchy.
+     *
+     * @return the number of employees
+     */
+    int size();
+
+    /**
+     * Gets the index of the CEO, the root of the hierarchy.
+     *
+     * @return the index of the CEO
+     */
+    int root();
+
+    /**
+     * Gets the id of an employee.
+     *
+     * @param index the index of the employee
+     * @return the employee id
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    int id(int index);
+
+    /**
+     * Gets the first name of an employee.
+     *
+     * @param index the index of the employee
+     * @return the employee first name
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    String firstName(int index);
+
+    /**
+     * Gets the last name of an employee.
+     *
+     * @param index the index of the employee
+     * @return the employee last name
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    String lastName(int index);
+
+    /**
+     * Gets the salary of an employee.
+     *
+     * @param index the index of the employee
+     * @return the employee salary
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    int salary(int index);
+
+    /**
+     * Gets the index of the manager of an employee.
+     *
+     * @param index the index of the employee
+     * @return the index of the manager, or -1 for the CEO
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    int managerIndex(int index);
+
+    /**
+     * Gets the number of direct subordinates of an employee.
+     *
+     * @param index the index of the employee
+     * @return the number of direct subordinates
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    int subordinatesCount(int index);
+
+    /**
+     * Gets the index of a direct subordinate of an employee.
+     *
+     * @param index the index of the employee
+     * @param n     the position of the subordinate, from 0 to {@code subordinatesCount(index) - 1}
+     * @return the index of the subordinate
+     * @throws IndexOutOfBoundsException if any index is out of range
+     */
+    int subordinate(int index, int n);
+
+    /**
+     * Creates the {@code Employee} object of an employee.
+     *
+     * @param index the index of the employee
+     * @return a new {@code Employee} object with the employee data
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    default Employee employee(int index) {
+        int managerIndex = managerIndex(index);
+        return new Employee(id(index), firstName(index), lastName(index), salary(index),
+                (managerIndex < 0) ? null : id(managerIndex));
+    }
+}
@@ -0,0 +1,35 @@
+package com.big.company.analytics.domain;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Represents the result of all reports of an employee hierarchy, computed together.
+ *
+ * @param minimumPercentage       the minimum allowed percentage of a manager salary over its subordinates average
+ * @param maximumPercentage       the maximum allowed percentage of a manager salary over its subordinates average
+ * @param reportingLinesThreshold the maximum allowed number of reporting lines until the ceo
+ * @param salaryPolicyViolations  the managers with a salary policy violation and the violation
+ * @param excessiveReportingLines the employees with excessive reporting lines and how much over the threshold
+ * @param metrics                 the results of the extra metrics, by metric name
+ */
+public record EmployeeHierarchyReport(
+        int minimumPercentage,
+        int maximumPercentage,
+        int reportingLinesThreshold,
+        Map<Employee, SalaryPolicyViolation> salaryPolicyViolations,
+        Map<Employee, Integer> excessiveReportingLines,
+        Map<String, Object> metrics
+) {
+
+    /**
+     * Constructs an EmployeeHierarchyReport object.
+     *
+     * @throws NullPointerException if any of the maps is null
+     */
+    public EmployeeHierarchyReport {
+        Objects.requireNonNull(salaryPolicyViolations, "Salary policy violations must not be null");
+        Objects.requireNonNull(excessiveReportingLines, "Excessive reporting lines must not be null");
+        Objects.requireNonNull(metrics, "Metrics must not be null");
+    }
+}
@@ -2,7 +2,9 @@ package com.big.company.analytics.domain;
 
 import com.big.company.analytics.exception.EmployeeNodeException;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 
@@ -52,7 +54,7 @@ public record EmployeeNode(
         Integer managerId = employeeToAdd.getManagerId()
                 .orElseThrow(() -> new EmployeeNodeException("Employee doesn't have a manager"));
 
-        return addEmployeeRecursively(employeeToAdd, managerId);
+        return addEmployeeToManager(employeeToAdd, managerId);
     }
 
     /**
@@ -61,19 +63,24 @@ public record EmployeeNode(
      * it returns false. In this case, it's important to note that the order in which employees
      * are added may affect this operation. The functionality for handling unordered
      * collections should be treated before.
+     * <br>The manager is searched in depth-first order with an explicit stack, so deep hierarchies
+     * do not exhaust the thread stack.
      *
      * @param employeeToAdd The employee to add. Must not be null.
      * @param managerId     Manager id of the employee to be added. Must not be null.
      * @return true if the employee was successfully added, false if the manager was not found.
      */
-    private boolean addEmployeeRecursively(Employee employeeToAdd, Integer managerId) {
-        if (managerId.equals(employee.id())) {
-            EmployeeNode employeeNode = new EmployeeNode(employeeToAdd);
-            subordinates.add(employeeNode);
-            return true;
-        } else {
-            for (EmployeeNode subordinate : subordinates) {
-                if (subordinate.addEmployeeRecursively(employeeToAdd, managerId)) return true;
+    private boolean addEmployeeToManager(Employee employeeToAdd, Integer managerId) {
+        Deque<EmployeeNode> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            EmployeeNode node = stack.pop();
+            if (managerId.equals(node.employee().id())) {
+                node.subordinates().add(new EmployeeNode(employeeToAdd));
+                return true;
+            }
+            for (int i = node.subordinates().size() - 1; i >= 0; i--) {
+                stack.push(node.subordinates().get(i));
             }
         }
         return false;
@@ -81,14 +88,68 @@ public record EmployeeNode(
 
     /**
      * Gets the size of the hierarchy rooted at this node.
+     * The hierarchy is traversed with an explicit stack, so deep hierarchies do not exhaust the thread stack.
      *
      * @return The size of the hierarchy.
      */
     public int size() {
-        int size = 1;
-        for (EmployeeNode subordinate : subordinates) {
-            size += subordinate.size();
+        int size = 0;
+        Deque<EmployeeNode> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            size++;
+            stack.pop().subordinates().forEach(stack::push);
         }
         return size;
     }
+
+    /**
+     * Compares this hierarchy with another object. Two nodes are equal when their employees are equal
+     * and their subordinates are equal on the same order, as the record equality, but the hierarchies are
+     * compared with an explicit stack so deep hierarchies do not exhaust the thread stack.
+     *
+     * @param other the object to be compared
+     * @return true if the other object is an equal hierarchy
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof EmployeeNode otherNode)) return false;
+        Deque<EmployeeNode> stack = new ArrayDeque<>();
+        stack.push(this);
+        stack.push(otherNode);
+        while (!stack.isEmpty()) {
+            EmployeeNode right = stack.pop();
+            EmployeeNode left = stack.pop();
+            if (left == right) continue;
+            if (!left.employee().equals(right.employee())) return false;
+            if (left.subordinates().size() != right.subordinates().size()) return false;
+            for (int i = 0; i < left.subordinates().size(); i++) {
+                stack.push(left.subordinates().get(i));
+                stack.push(right.subordinates().get(i));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the hash code from the employee and the number of direct subordinates only, which is consistent
+     * with {@link #equals(Object)} without traversing the hierarchy.
+     *
+     * @return the hash code of this node
+     */
+    @Override
+    public int hashCode() {
+        return 31 * employee.hashCode() + subordinates.size();
+    }
+
+    /**
+     * Describes this node by its employee and the number of direct subordinates only, so describing a deep
+     * hierarchy, e.g. on logs or assertion messages, does not exhaust the thread stack.
+     *
+     * @return the description of this node
+     */
+    @Override
+    public String toString() {
+        return "EmployeeNode[employee=" + employee + ", subordinates=" + subordinates.size() + "]";
+    }
 }
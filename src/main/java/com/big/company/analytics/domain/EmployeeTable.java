@@ -0,0 +1,418 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An {@link EmployeeHierarchy} stored on primitive columns, one {@code int[]} per attribute.
+ * <p>
+ * Employees are indexed in breadth-first order from the CEO (index 0), so a manager always has a lower index than
+ * its subordinates. The direct subordinates of each employee are stored in compressed sparse row (CSR) layout:
+ * the subordinates of {@code index} are {@code subordinates[subordinateOffsets[index]]} up to (excluding)
+ * {@code subordinates[subordinateOffsets[index + 1]]}, keeping the order in which they were added.
+ * First and last names are interned on a shared dictionary and stored as codes.
+ * <p>
+ * Memory footprint: each employee takes 28 bytes on the columns (id, salary, manager index, first name code,
+ * last name code, subordinate offset and its own entry on the subordinates column, 4 bytes each), plus the
+ * dictionary of distinct names (roughly 50 bytes plus the name length for each distinct name). The same employee
+ * as an {@code EmployeeNode} holding an {@code Employee} takes around 150 bytes plus its two names.
+ * The table is immutable.
+ */
+public final class EmployeeTable implements EmployeeHierarchy {
+
+    private static final int ROOT_INDEX = 0;
+
+    private final int[] ids;
+    private final int[] salaries;
+    private final int[] managerIndexes;
+    private final int[] firstNames;
+    private final int[] lastNames;
+    private final int[] subordinateOffsets;
+    private final int[] subordinates;
+    private final String[] names;
+
+    private EmployeeTable(int[] ids, int[] salaries, int[] managerIndexes, int[] firstNames, int[] lastNames,
+                          int[] subordinateOffsets, int[] subordinates, String[] names) {
+        this.ids = ids;
+        this.salaries = salaries;
+        this.managerIndexes = managerIndexes;
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.subordinateOffsets = subordinateOffsets;
+        this.subordinates = subordinates;
+        this.names = names;
+    }
+
+    /**
+     * Creates a builder of an {@code EmployeeTable}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates an {@code EmployeeTable} with the employees of an {@code EmployeeNode} hierarchy,
+     * keeping the order of the subordinates.
+     *
+     * @param employeeHierarchy the root of the employee hierarchy
+     * @return the table of the hierarchy
+     * @throws NullPointerException  if employeeHierarchy is null
+     * @throws EmployeeNodeException if the hierarchy has more than one employee with the same id
+     */
+    public static EmployeeTable from(EmployeeNode employeeHierarchy) {
+        Objects.requireNonNull(employeeHierarchy, "Employees hierarchy must not be null");
+        Builder builder = builder();
+        Deque<EmployeeNode> queue = new ArrayDeque<>();
+        queue.add(employeeHierarchy);
+        while (!queue.isEmpty()) {
+            EmployeeNode node = queue.poll();
+            Employee employee = node.employee();
+            builder.add(new Employee(employee.id(), employee.firstName(), employee.lastName(), employee.salary(),
+                    (node == employeeHierarchy) ? null : employee.managerId()));
+            queue.addAll(node.subordinates());
+        }
+        return builder.build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int root() {
+        return ROOT_INDEX;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int id(int index) {
+        return ids[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String firstName(int index) {
+        return names[firstNames[index]];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lastName(int index) {
+        return names[lastNames[index]];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int salary(int index) {
+        return salaries[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int managerIndex(int index) {
+        return managerIndexes[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int subordinatesCount(int index) {
+        return subordinateOffsets[index + 1] - subordinateOffsets[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int subordinate(int index, int n) {
+        Objects.checkIndex(n, subordinatesCount(index));
+        return subordinates[subordinateOffsets[index] + n];
+    }
+
+    /**
+     * Gets the number of distinct first and last names stored on the names dictionary.
+     *
+     * @return the number of distinct names
+     */
+    public int distinctNames() {
+        return names.length;
+    }
+
+    /**
+     * Estimates the heap memory used by the table, in bytes: the columns plus the names dictionary
+     * (assuming compact Latin-1 Strings).
+     *
+     * @return the estimated memory footprint in bytes
+     */
+    public long estimatedMemoryFootprint() {
+        long columns = 4L * (ids.length + salaries.length + managerIndexes.length + firstNames.length
+                + lastNames.length + subordinateOffsets.length + subordinates.length);
+        long dictionary = 4L * names.length;
+        for (String name : names) {
+            dictionary += 40 + name.length();
+        }
+        return columns + dictionary;
+    }
+
+    /**
+     * Builder of {@link EmployeeTable}. Employees can be added on any order and are linked to their managers
+     * when the table is built, following the same rules of the {@code EmployeeNodeService} implementations.
+     * Only primitive columns and the names dictionary are kept while adding employees.
+     */
+    public static final class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private int size;
+        private int ceoRow = -1;
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private int[] salaries = new int[INITIAL_CAPACITY];
+        private int[] managerIds = new int[INITIAL_CAPACITY];
+        private int[] firstNames = new int[INITIAL_CAPACITY];
+        private int[] lastNames = new int[INITIAL_CAPACITY];
+        private final Map<String, Integer> nameCodes = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an employee to the table.
+         *
+         * @param employee the employee to be added
+         * @return this builder
+         * @throws NullPointerException if employee is null
+         * @throws EmployeeException    if the employee is a second CEO
+         */
+        public Builder add(Employee employee) {
+            Objects.requireNonNull(employee, "Employee must not be null");
+            if (employee.getManagerId().isEmpty()) {
+                if (ceoRow >= 0) throw new EmployeeException("Employee list has more than one CEO");
+                ceoRow = size;
+            }
+            if (size == ids.length) grow();
+
+            ids[size] = employee.id();
+            salaries[size] = employee.salary();
+            managerIds[size] = employee.getManagerId().orElse(0);
+            firstNames[size] = intern(employee.firstName());
+            lastNames[size] = intern(employee.lastName());
+            size++;
+            return this;
+        }
+
+        /**
+         * Links each employee to its manager and builds the table. Employees whose manager id was not found are
+         * removed, together with their subordinates.
+         *
+         * @return the built table
+         * @throws EmployeeException     if no CEO was added
+         * @throws EmployeeNodeException if the same id was added more than once or any employee reporting line
+         *                               has a cycle
+         */
+        public EmployeeTable build() {
+            if (ceoRow < 0) throw new EmployeeException("Employee list has no CEO");
+
+            long[] sortedIds = sortIds();
+            int[] managerRows = new int[size];
+            int[] offsets = new int[size + 1];
+            for (int row = 0; row < size; row++) {
+                int managerRow = (row == ceoRow) ? -1 : findRow(sortedIds, managerIds[row]);
+                if (row != ceoRow && managerRow < 0)
+                    System.out.printf("Warning -> Removing employee with id %d due no manager id %d was found on the list%n", ids[row], managerIds[row]);
+                managerRows[row] = managerRow;
+                if (managerRow >= 0) offsets[managerRow + 1]++;
+            }
+            for (int row = 0; row < size; row++) {
+                offsets[row + 1] += offsets[row];
+            }
+            int[] children = new int[offsets[size]];
+            int[] cursors = Arrays.copyOf(offsets, size);
+            for (int row = 0; row < size; row++) {
+                if (managerRows[row] >= 0) children[cursors[managerRows[row]]++] = row;
+            }
+
+            int[] order = new int[size];
+            int[] newIndexes = new int[size];
+            Arrays.fill(newIndexes, -1);
+            int reached = visitBreadthFirst(ceoRow, offsets, children, order, newIndexes, 0);
+            if (reached < size) validateReportingLines(managerRows, offsets, children, order, newIndexes, reached);
+
+            return compact(order, reached, managerRows, offsets, children, newIndexes);
+        }
+
+        /**
+         * Sorts the ids, each one paired with its row on the low 32 bits.
+         *
+         * @return the sorted pairs of id and row
+         * @throws EmployeeNodeException if the same id was added more than once
+         */
+        private long[] sortIds() {
+            long[] sortedIds = new long[size];
+            for (int row = 0; row < size; row++) {
+                sortedIds[row] = ((long) ids[row] << 32) | row;
+            }
+            Arrays.sort(sortedIds);
+            for (int i = 1; i < size; i++) {
+                if ((int) (sortedIds[i] >> 32) == (int) (sortedIds[i - 1] >> 32))
+                    throw new EmployeeNodeException(String.format("Employee id %d is duplicated on the list", (int) (sortedIds[i] >> 32)));
+            }
+            return sortedIds;
+        }
+
+        /**
+         * Finds the row of an employee id.
+         *
+         * @param sortedIds the sorted pairs of id and row
+         * @param id        the employee id
+         * @return the row of the employee, or -1 if not found
+         */
+        private int findRow(long[] sortedIds, int id) {
+            int low = 0;
+            int high = sortedIds.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int middleId = (int) (sortedIds[middle] >> 32);
+                if (middleId < id) low = middle + 1;
+                else if (middleId > id) high = middle - 1;
+                else return (int) sortedIds[middle];
+            }
+            return -1;
+        }
+
+        /**
+         * Visits the hierarchy rooted at the given row in breadth-first order, numbering each visited row.
+         *
+         * @param startRow   the row where the visit starts
+         * @param offsets    the CSR offsets of the children of each row
+         * @param children   the CSR children of each row
+         * @param order      the rows on visit order, filled from {@code visited}
+         * @param newIndexes the visit number of each row, -1 for the rows not visited yet
+         * @param visited    the number of rows visited before
+         * @return the number of rows visited, including the ones visited before
+         */
+        private int visitBreadthFirst(int startRow, int[] offsets, int[] children, int[] order, int[] newIndexes, int visited) {
+            int head = visited;
+            order[visited] = startRow;
+            newIndexes[startRow] = visited++;
+            while (head < visited) {
+                int row = order[head++];
+                for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                    order[visited] = children[i];
+                    newIndexes[children[i]] = visited++;
+                }
+            }
+            return visited;
+        }
+
+        /**
+         * Validates that every employee not reached from the CEO is reachable from a removed employee.
+         * Since each employee has at most one manager, the remaining ones must be part of (or report to) a cycle,
+         * and the one with the lowest id is reported.
+         *
+         * @param managerRows the row of the manager of each row, -1 if not found
+         * @param offsets     the CSR offsets of the children of each row
+         * @param children    the CSR children of each row
+         * @param order       the rows on visit order
+         * @param newIndexes  the visit number of each row, -1 for the rows not visited yet
+         * @param reached     the number of rows reached from the CEO
+         * @throws EmployeeNodeException if any employee reporting line has a cycle
+         */
+        private void validateReportingLines(int[] managerRows, int[] offsets, int[] children, int[] order, int[] newIndexes, int reached) {
+            int visited = reached;
+            for (int row = 0; row < size; row++) {
+                if (row != ceoRow && managerRows[row] < 0)
+                    visited = visitBreadthFirst(row, offsets, children, order, newIndexes, visited);
+            }
+            if (visited == size) return;
+
+            Integer cycleId = null;
+            for (int row = 0; row < size; row++) {
+                if (newIndexes[row] < 0 && (cycleId == null || ids[row] < cycleId)) cycleId = ids[row];
+            }
+            throw new EmployeeNodeException(String.format("Employee with id %d has a cycle on its reporting line", cycleId));
+        }
+
+        /**
+         * Copies the rows reached from the CEO to the table columns, on breadth-first order.
+         *
+         * @param order       the rows on visit order
+         * @param reached     the number of rows reached from the CEO
+         * @param managerRows the row of the manager of each row
+         * @param offsets     the CSR offsets of the children of each row
+         * @param children    the CSR children of each row
+         * @param newIndexes  the visit number of each row
+         * @return the table
+         */
+        private EmployeeTable compact(int[] order, int reached, int[] managerRows, int[] offsets, int[] children, int[] newIndexes) {
+            int[] tableIds = new int[reached];
+            int[] tableSalaries = new int[reached];
+            int[] tableManagerIndexes = new int[reached];
+            int[] tableFirstNames = new int[reached];
+            int[] tableLastNames = new int[reached];
+            int[] tableSubordinateOffsets = new int[reached + 1];
+            int[] tableSubordinates = new int[reached - 1];
+            for (int index = 0; index < reached; index++) {
+                int row = order[index];
+                tableIds[index] = ids[row];
+                tableSalaries[index] = salaries[row];
+                tableManagerIndexes[index] = (managerRows[row] < 0) ? -1 : newIndexes[managerRows[row]];
+                tableFirstNames[index] = firstNames[row];
+                tableLastNames[index] = lastNames[row];
+
+                int offset = tableSubordinateOffsets[index];
+                for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                    tableSubordinates[offset++] = newIndexes[children[i]];
+                }
+                tableSubordinateOffsets[index + 1] = offset;
+            }
+            return new EmployeeTable(tableIds, tableSalaries, tableManagerIndexes, tableFirstNames, tableLastNames,
+                    tableSubordinateOffsets, tableSubordinates, names.toArray(String[]::new));
+        }
+
+        private int intern(String name) {
+            Integer code = nameCodes.get(name);
+            if (code != null) return code;
+            nameCodes.put(name, names.size());
+            names.add(name);
+            return names.size() - 1;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            salaries = Arrays.copyOf(salaries, capacity);
+            managerIds = Arrays.copyOf(managerIds, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An {@link EmployeeHierarchy} that can be changed in place, without rebuilding it: employees can be added, removed,
+ * updated and moved to another manager.
+ * <p>
+ * Employees are stored on growable primitive columns, indexed from 0 to {@code size() - 1}. When an employee is
+ * removed, the employee on the last index takes its index, so indexes must not be kept across changes; use
+ * {@link #indexOf(int)} to find an employee by id. The direct subordinates of each employee are stored on their own
+ * array, and removing a subordinate moves the last one to its position, so the order of the subordinates is not kept.
+ * <p>
+ * Besides the columns, the hierarchy keeps for each employee its depth (the number of reporting lines until the CEO)
+ * and the sum of the salaries of its direct subordinates, current after each change:
+ * <ul>
+ *     <li>adding an employee and updating a salary or a name take constant time</li>
+ *     <li>moving an employee takes time proportional to the depth of its new manager, to reject cycles,
+ *     plus the size of its subtree, whose depths change</li>
+ *     <li>removing an employee moves its subordinates to its manager, taking time proportional to the size
+ *     of its subtree, whose depths change</li>
+ * </ul>
+ * The hierarchy is not thread safe.
+ */
+public final class MutableEmployeeHierarchy implements EmployeeHierarchy {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int[] NO_SUBORDINATES = new int[0];
+
+    private int size;
+    private int root = -1;
+    private int[] ids;
+    private int[] salaries;
+    private int[] managerIndexes;
+    private int[] depths;
+    private int[] positions;
+    private int[] subordinatesCounts;
+    private int[][] subordinates;
+    private long[] subordinatesSalarySums;
+    private String[] firstNames;
+    private String[] lastNames;
+    private final Map<Integer, Integer> indexes = new HashMap<>();
+
+    private MutableEmployeeHierarchy(int capacity) {
+        ids = new int[capacity];
+        salaries = new int[capacity];
+        managerIndexes = new int[capacity];
+        depths = new int[capacity];
+        positions = new int[capacity];
+        subordinatesCounts = new int[capacity];
+        subordinates = new int[capacity][];
+        subordinatesSalarySums = new long[capacity];
+        firstNames = new String[capacity];
+        lastNames = new String[capacity];
+    }
+
+    /**
+     * Creates a {@code MutableEmployeeHierarchy} with only the CEO.
+     *
+     * @param ceo the CEO of the hierarchy
+     * @return the hierarchy
+     * @throws NullPointerException if ceo is null
+     * @throws EmployeeException    if the employee has a manager
+     */
+    public static MutableEmployeeHierarchy withCeo(Employee ceo) {
+        Objects.requireNonNull(ceo, "Employee must not be null");
+        if (ceo.getManagerId().isPresent())
+            throw new EmployeeException(String.format("Employee with id %d is not a CEO", ceo.id()));
+
+        MutableEmployeeHierarchy hierarchy = new MutableEmployeeHierarchy(INITIAL_CAPACITY);
+        hierarchy.root = hierarchy.append(ceo, -1);
+        return hierarchy;
+    }
+
+    /**
+     * Creates a {@code MutableEmployeeHierarchy} with a copy of the employees of another hierarchy,
+     * keeping the order of the subordinates.
+     *
+     * @param employeeHierarchy the hierarchy to be copied
+     * @return the hierarchy
+     * @throws NullPointerException  if employeeHierarchy is null
+     * @throws EmployeeNodeException if the hierarchy has more than one employee with the same id
+     */
+    public static MutableEmployeeHierarchy from(EmployeeHierarchy employeeHierarchy) {
+        Objects.requireNonNull(employeeHierarchy, "Employees hierarchy must not be null");
+        MutableEmployeeHierarchy hierarchy = new MutableEmployeeHierarchy(Math.max(employeeHierarchy.size(), INITIAL_CAPACITY));
+        int[] copiedIndexes = new int[employeeHierarchy.size()];
+        int[] order = new int[employeeHierarchy.size()];
+        int head = 0;
+        int tail = 0;
+        order[tail++] = employeeHierarchy.root();
+        while (head < tail) {
+            int index = order[head++];
+            int managerIndex = employeeHierarchy.managerIndex(index);
+            copiedIndexes[index] = hierarchy.append(new Employee(employeeHierarchy.id(index), employeeHierarchy.firstName(index),
+                    employeeHierarchy.lastName(index), employeeHierarchy.salary(index),
+                    (managerIndex < 0) ? null : employeeHierarchy.id(managerIndex)), (managerIndex < 0) ? -1 : copiedIndexes[managerIndex]);
+            for (int n = 0; n < employeeHierarchy.subordinatesCount(index); n++) {
+                order[tail++] = employeeHierarchy.subordinate(index, n);
+            }
+        }
+        hierarchy.root = copiedIndexes[employeeHierarchy.root()];
+        return hierarchy;
+    }
+
+    /**
+     * Adds an employee as a subordinate of its manager.
+     *
+     * @param employee the employee to be added
+     * @return the index of the added employee
+     * @throws NullPointerException  if employee is null
+     * @throws EmployeeException     if the employee has no manager
+     * @throws EmployeeNodeException if the id is already on the hierarchy or the manager is not
+     */
+    public int add(Employee employee) {
+        Objects.requireNonNull(employee, "Employee must not be null");
+        int managerId = employee.getManagerId()
+                .orElseThrow(() -> new EmployeeException(String.format("Employee with id %d has no manager", employee.id())));
+        return append(employee, requireIndex(managerId, "Manager"));
+    }
+
+    /**
+     * Updates the names and the salary of an employee and, if its manager id changed, moves it to the new manager
+     * as in {@link #move(int, int)}.
+     *
+     * @param employee the employee with the new data
+     * @return the index of the updated employee
+     * @throws NullPointerException  if employee is null
+     * @throws EmployeeException     if the manager id is added to or removed from the CEO
+     * @throws EmployeeNodeException if the employee or its new manager is not on the hierarchy,
+     *                               or the move creates a cycle
+     */
+    public int update(Employee employee) {
+        Objects.requireNonNull(employee, "Employee must not be null");
+        int index = requireIndex(employee.id(), "Employee");
+        if ((index == root) != employee.getManagerId().isEmpty())
+            throw new EmployeeException(String.format("Employee with id %d cannot be changed to or from CEO", employee.id()));
+
+        if (index != root && employee.managerId() != ids[managerIndexes[index]]) move(employee.id(), employee.managerId());
+        firstNames[index] = employee.firstName();
+        lastNames[index] = employee.lastName();
+        updateSalary(index, employee.salary());
+        return index;
+    }
+
+    /**
+     * Moves an employee, with its whole subtree, to be a subordinate of another manager.
+     *
+     * @param id        the id of the employee
+     * @param managerId the id of the new manager
+     * @return the index of the moved employee
+     * @throws EmployeeException     if the employee is the CEO
+     * @throws EmployeeNodeException if the employee or the manager is not on the hierarchy, or the manager
+     *                               reports to the employee
+     */
+    public int move(int id, int managerId) {
+        int index = requireIndex(id, "Employee");
+        int managerIndex = requireIndex(managerId, "Manager");
+        if (index == root) throw new EmployeeException("CEO cannot be moved");
+        for (int ancestor = managerIndex; ancestor >= 0; ancestor = managerIndexes[ancestor]) {
+            if (ancestor == index)
+                throw new EmployeeNodeException(String.format("Employee with id %d has a cycle on its reporting line", id));
+        }
+        if (managerIndexes[index] == managerIndex) return index;
+
+        unlink(index);
+        link(index, managerIndex);
+        shiftDepths(index, depths[managerIndex] + 1 - depths[index]);
+        return index;
+    }
+
+    /**
+     * Removes an employee. Its direct subordinates are moved to its manager.
+     *
+     * @param id the id of the employee
+     * @throws EmployeeException     if the employee is the CEO
+     * @throws EmployeeNodeException if the employee is not on the hierarchy
+     */
+    public void remove(int id) {
+        int index = requireIndex(id, "Employee");
+        if (index == root) throw new EmployeeException("CEO cannot be removed");
+
+        int managerIndex = managerIndexes[index];
+        unlink(index);
+        while (subordinatesCounts[index] > 0) {
+            int subordinate = subordinates[index][subordinatesCounts[index] - 1];
+            unlink(subordinate);
+            link(subordinate, managerIndex);
+            shiftDepths(subordinate, -1);
+        }
+        indexes.remove(id);
+        relocate(size - 1, index);
+        size--;
+    }
+
+    /**
+     * Applies a change of an employee.
+     *
+     * @param change the change to be applied
+     * @throws NullPointerException  if change is null
+     * @throws EmployeeException     if the change is not allowed for the CEO
+     * @throws EmployeeNodeException if the change refers to employees not on the hierarchy, adds a duplicated id
+     *                               or creates a cycle
+     */
+    public void apply(EmployeeChange change) {
+        Objects.requireNonNull(change, "Change must not be null");
+        switch (change.operation()) {
+            case ADD -> add(change.employee());
+            case UPDATE -> update(change.employee());
+            case DELETE -> remove(change.id());
+            case MOVE -> move(change.id(), change.managerId());
+        }
+    }
+
+    /**
+     * Gets the index of an employee.
+     *
+     * @param id the employee id
+     * @return the index of the employee, or -1 if it is not on the hierarchy
+     */
+    public int indexOf(int id) {
+        Integer index = indexes.get(id);
+        return (index == null) ? -1 : index;
+    }
+
+    /**
+     * Gets the number of reporting lines between an employee and the CEO.
+     *
+     * @param index the index of the employee
+     * @return the depth of the employee, 0 for the CEO
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int depth(int index) {
+        return depths[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Gets the sum of the salaries of the direct subordinates of an employee.
+     *
+     * @param index the index of the employee
+     * @return the sum of the salaries of the direct subordinates, 0 if it has none
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long subordinatesSalarySum(int index) {
+        return subordinatesSalarySums[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int root() {
+        return root;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int id(int index) {
+        return ids[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String firstName(int index) {
+        return firstNames[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lastName(int index) {
+        return lastNames[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int salary(int index) {
+        return salaries[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int managerIndex(int index) {
+        return managerIndexes[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int subordinatesCount(int index) {
+        return subordinatesCounts[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int subordinate(int index, int n) {
+        Objects.checkIndex(n, subordinatesCount(index));
+        return subordinates[index][n];
+    }
+
+    /**
+     * Appends an employee on a new index, as a subordinate of the given manager.
+     *
+     * @param employee     the employee to be appended
+     * @param managerIndex the index of the manager, -1 for the CEO
+     * @return the index of the employee
+     * @throws EmployeeNodeException if the id is already on the hierarchy
+     */
+    private int append(Employee employee, int managerIndex) {
+        if (indexes.containsKey(employee.id()))
+            throw new EmployeeNodeException(String.format("Employee id %d is duplicated on the hierarchy", employee.id()));
+        if (size == ids.length) grow();
+
+        int index = size++;
+        ids[index] = employee.id();
+        salaries[index] = employee.salary();
+        firstNames[index] = employee.firstName();
+        lastNames[index] = employee.lastName();
+        subordinates[index] = NO_SUBORDINATES;
+        subordinatesCounts[index] = 0;
+        subordinatesSalarySums[index] = 0;
+        indexes.put(employee.id(), index);
+        if (managerIndex < 0) {
+            managerIndexes[index] = -1;
+            depths[index] = 0;
+        } else {
+            link(index, managerIndex);
+            depths[index] = depths[managerIndex] + 1;
+        }
+        return index;
+    }
+
+    /**
+     * Changes the salary of an employee, keeping the salary sum of its manager current.
+     *
+     * @param index  the index of the employee
+     * @param salary the new salary
+     */
+    private void updateSalary(int index, int salary) {
+        if (index != root) subordinatesSalarySums[managerIndexes[index]] += salary - salaries[index];
+        salaries[index] = salary;
+    }
+
+    /**
+     * Adds an employee as the last subordinate of a manager. Its depth is not changed.
+     *
+     * @param index        the index of the employee
+     * @param managerIndex the index of the manager
+     */
+    private void link(int index, int managerIndex) {
+        int count = subordinatesCounts[managerIndex];
+        if (count == subordinates[managerIndex].length)
+            subordinates[managerIndex] = Arrays.copyOf(subordinates[managerIndex], Math.max(4, count * 2));
+        subordinates[managerIndex][count] = index;
+        subordinatesCounts[managerIndex] = count + 1;
+        subordinatesSalarySums[managerIndex] += salaries[index];
+        managerIndexes[index] = managerIndex;
+        positions[index] = count;
+    }
+
+    /**
+     * Removes an employee from the subordinates of its manager, moving the last subordinate to its position.
+     *
+     * @param index the index of the employee
+     */
+    private void unlink(int index) {
+        int managerIndex = managerIndexes[index];
+        int last = subordinates[managerIndex][--subordinatesCounts[managerIndex]];
+        subordinates[managerIndex][positions[index]] = last;
+        positions[last] = positions[index];
+        subordinatesSalarySums[managerIndex] -= salaries[index];
+        managerIndexes[index] = -1;
+    }
+
+    /**
+     * Adds a difference to the depth of every employee of a subtree.
+     *
+     * @param index the index of the root of the subtree
+     * @param delta the difference to be added
+     */
+    private void shiftDepths(int index, int delta) {
+        if (delta == 0) return;
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = index;
+        while (top > 0) {
+            int current = stack[--top];
+            depths[current] += delta;
+            int count = subordinatesCounts[current];
+            if (top + count > stack.length) stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + count));
+            System.arraycopy(subordinates[current], 0, stack, top, count);
+            top += count;
+        }
+    }
+
+    /**
+     * Moves the employee on an index to another index, which must be free, updating every reference to it.
+     *
+     * @param from the current index of the employee
+     * @param to   the new index of the employee
+     */
+    private void relocate(int from, int to) {
+        if (from != to) {
+            ids[to] = ids[from];
+            salaries[to] = salaries[from];
+            managerIndexes[to] = managerIndexes[from];
+            depths[to] = depths[from];
+            positions[to] = positions[from];
+            subordinatesCounts[to] = subordinatesCounts[from];
+            subordinates[to] = subordinates[from];
+            subordinatesSalarySums[to] = subordinatesSalarySums[from];
+            firstNames[to] = firstNames[from];
+            lastNames[to] = lastNames[from];
+            indexes.put(ids[to], to);
+            if (managerIndexes[to] >= 0) subordinates[managerIndexes[to]][positions[to]] = to;
+            for (int n = 0; n < subordinatesCounts[to]; n++) {
+                managerIndexes[subordinates[to][n]] = to;
+            }
+            if (root == from) root = to;
+        }
+        subordinates[from] = null;
+        firstNames[from] = null;
+        lastNames[from] = null;
+    }
+
+    /**
+     * Gets the index of an employee that must be on the hierarchy.
+     *
+     * @param id   the employee id
+     * @param role the role of the employee on the error message
+     * @return the index of the employee
+     * @throws EmployeeNodeException if the employee is not on the hierarchy
+     */
+    private int requireIndex(int id, String role) {
+        Integer index = indexes.get(id);
+        if (index == null) throw new EmployeeNodeException(String.format("%s id %d was not found on the hierarchy", role, id));
+        return index;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        salaries = Arrays.copyOf(salaries, capacity);
+        managerIndexes = Arrays.copyOf(managerIndexes, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        subordinatesCounts = Arrays.copyOf(subordinatesCounts, capacity);
+        subordinates = Arrays.copyOf(subordinates, capacity);
+        subordinatesSalarySums = Arrays.copyOf(subordinatesSalarySums, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+    }
+}
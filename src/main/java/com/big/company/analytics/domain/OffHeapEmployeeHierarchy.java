@@ -0,0 +1,975 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.exception.FileWriterException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * An {@link EmployeeHierarchy} stored outside the Java heap, either on direct buffers or on a memory-mapped file.
+ * <p>
+ * The store has the same columns of {@link EmployeeTable}: ids, salaries, manager indexes (parent pointers),
+ * first and last name codes, and the subordinates in CSR layout (offsets and indexes). The distinct names are
+ * stored as UTF-8 bytes with their offsets. Only the employees returned by {@link #employee(int)} and the names
+ * are created on heap, so the reports can traverse it without creating {@code EmployeeNode} objects.
+ * <p>
+ * A store is either a copy of a hierarchy already built ({@link #copyOf(EmployeeHierarchy)}), or built straight from
+ * the employees by a {@link Builder}, which links them on scratch columns outside the heap, so an org chart larger
+ * than the Java heap can be stored.
+ * <p>
+ * A store file starts with a 32 bytes header (magic, version, size, root index, number of names, length of the
+ * name bytes and the CRC32C checksum of the columns) followed by the columns, all little-endian. The checksum is
+ * verified when the file is mapped, reading the file once sequentially, so a truncated or corrupted snapshot is
+ * rejected before any report runs on it. Each column holds at most 2GB, limiting the store to around 500 million
+ * employees. The memory is released when the store is no longer reachable.
+ */
+public final class OffHeapEmployeeHierarchy implements EmployeeHierarchy {
+
+    private static final int MAGIC = 0x454D5048;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int CHECKSUM_OFFSET = 28;
+
+    private final int size;
+    private final int root;
+    private final IntBuffer ids;
+    private final IntBuffer salaries;
+    private final IntBuffer managerIndexes;
+    private final IntBuffer firstNames;
+    private final IntBuffer lastNames;
+    private final IntBuffer subordinateOffsets;
+    private final IntBuffer subordinates;
+    private final IntBuffer nameOffsets;
+    private final ByteBuffer nameBytes;
+
+    private OffHeapEmployeeHierarchy(Layout layout, SectionAllocator allocator) throws IOException {
+        this.size = layout.size();
+        this.root = layout.root();
+        this.ids = allocator.allocate(layout.idsOffset(), 4L * size).asIntBuffer();
+        this.salaries = allocator.allocate(layout.salariesOffset(), 4L * size).asIntBuffer();
+        this.managerIndexes = allocator.allocate(layout.managerIndexesOffset(), 4L * size).asIntBuffer();
+        this.firstNames = allocator.allocate(layout.firstNamesOffset(), 4L * size).asIntBuffer();
+        this.lastNames = allocator.allocate(layout.lastNamesOffset(), 4L * size).asIntBuffer();
+        this.subordinateOffsets = allocator.allocate(layout.subordinateOffsetsOffset(), 4L * (size + 1)).asIntBuffer();
+        this.subordinates = allocator.allocate(layout.subordinatesOffset(), 4L * (size - 1)).asIntBuffer();
+        this.nameOffsets = allocator.allocate(layout.nameOffsetsOffset(), 4L * (layout.names() + 1)).asIntBuffer();
+        this.nameBytes = allocator.allocate(layout.nameBytesOffset(), layout.nameBytesLength());
+    }
+
+    /**
+     * Copies a hierarchy to direct buffers, keeping its indexes.
+     *
+     * @param employeeHierarchy the hierarchy to be copied
+     * @return the off-heap copy of the hierarchy
+     * @throws NullPointerException if employeeHierarchy is null
+     */
+    public static OffHeapEmployeeHierarchy copyOf(EmployeeHierarchy employeeHierarchy) {
+        Objects.requireNonNull(employeeHierarchy, "Employees hierarchy must not be null");
+        NamesDictionary dictionary = new NamesDictionary(employeeHierarchy);
+        return allocate(new Layout(employeeHierarchy, dictionary), store -> store.copyColumns(employeeHierarchy, dictionary));
+    }
+
+    /**
+     * Copies a hierarchy to a store file, keeping its indexes, and maps it. If the file already exists,
+     * it is replaced.
+     * <p>
+     * The store is written to a temporary file on the same directory, which is then atomically moved over the file,
+     * so processes that mapped the previous store keep reading it unchanged, and readers never see a partially
+     * written store.
+     *
+     * @param employeeHierarchy the hierarchy to be copied
+     * @param file              the store file to be written
+     * @return the store mapped from the file
+     * @throws NullPointerException if any params is null
+     * @throws FileWriterException  if the file cannot be written
+     */
+    public static OffHeapEmployeeHierarchy copyOf(EmployeeHierarchy employeeHierarchy, File file) {
+        Objects.requireNonNull(employeeHierarchy, "Employees hierarchy must not be null");
+        Objects.requireNonNull(file, "File should not be null");
+        NamesDictionary dictionary = new NamesDictionary(employeeHierarchy);
+        return write(new Layout(employeeHierarchy, dictionary), file, store -> store.copyColumns(employeeHierarchy, dictionary));
+    }
+
+    /**
+     * Creates a builder of a store on direct buffers, which links the employees as they are added without building
+     * the hierarchy on heap.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder(null);
+    }
+
+    /**
+     * Creates a builder of a store file, which links the employees as they are added without building the hierarchy
+     * on heap. The store file is written the same way of {@link #copyOf(EmployeeHierarchy, File)} when it is built.
+     *
+     * @param file the store file to be written
+     * @return a new builder
+     * @throws NullPointerException if file is null
+     */
+    public static Builder builder(File file) {
+        Objects.requireNonNull(file, "File should not be null");
+        return new Builder(file);
+    }
+
+    /**
+     * Maps a store file written by {@link #copyOf(EmployeeHierarchy, File)}, without loading it on heap.
+     *
+     * @param file the store file
+     * @return the store mapped from the file
+     * @throws NullPointerException if file is null
+     * @throws FileReaderException  if the file is not found, cannot be read or is not a valid store
+     */
+    public static OffHeapEmployeeHierarchy map(File file) {
+        Objects.requireNonNull(file, "File should not be null");
+        if (!file.isFile())
+            throw new FileReaderException(String.format("File not found | Filepath: %s | Filename: %s",
+                    Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
+
+        try (RandomAccessFile storeFile = new RandomAccessFile(file, "r")) {
+            FileChannel channel = storeFile.getChannel();
+            if (channel.size() < HEADER_SIZE) throw invalidStore(file);
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) == MAGIC && header.getInt(4) != VERSION)
+                throw new FileReaderException(String.format("Unsupported hierarchy store version %d, expected %d | Filepath: %s | Filename: %s",
+                        header.getInt(4), VERSION, Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
+            Layout layout = Layout.readHeader(header);
+            if (layout == null || layout.fileSize() != channel.size()) throw invalidStore(file);
+            if (header.getInt(CHECKSUM_OFFSET) != checksum(channel, layout.fileSize()))
+                throw new FileReaderException(String.format("Corrupted hierarchy store file, checksum mismatch | Filepath: %s | Filename: %s",
+                        Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
+
+            return new OffHeapEmployeeHierarchy(layout,
+                    (offset, length) -> channel.map(FileChannel.MapMode.READ_ONLY, offset, toSectionLength(length)).order(ByteOrder.LITTLE_ENDIAN));
+        } catch (IOException | SecurityException e) {
+            throw new FileReaderException("Error when reading the file");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int root() {
+        return root;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int id(int index) {
+        return ids.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String firstName(int index) {
+        return name(firstNames.get(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lastName(int index) {
+        return name(lastNames.get(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int salary(int index) {
+        return salaries.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int managerIndex(int index) {
+        return managerIndexes.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int subordinatesCount(int index) {
+        return subordinateOffsets.get(index + 1) - subordinateOffsets.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int subordinate(int index, int n) {
+        Objects.checkIndex(n, subordinatesCount(index));
+        return subordinates.get(subordinateOffsets.get(index) + n);
+    }
+
+    /**
+     * Decodes a name of the dictionary.
+     *
+     * @param code the code of the name
+     * @return the name
+     */
+    private String name(int code) {
+        int start = nameOffsets.get(code);
+        byte[] bytes = new byte[nameOffsets.get(code + 1) - start];
+        nameBytes.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the columns of a hierarchy to the store buffers.
+     *
+     * @param employeeHierarchy the hierarchy to be copied
+     * @param dictionary        the names dictionary of the hierarchy
+     */
+    private void copyColumns(EmployeeHierarchy employeeHierarchy, NamesDictionary dictionary) {
+        int subordinatesOffset = 0;
+        subordinateOffsets.put(0, 0);
+        for (int index = 0; index < size; index++) {
+            ids.put(index, employeeHierarchy.id(index));
+            salaries.put(index, employeeHierarchy.salary(index));
+            managerIndexes.put(index, employeeHierarchy.managerIndex(index));
+            firstNames.put(index, dictionary.code(employeeHierarchy.firstName(index)));
+            lastNames.put(index, dictionary.code(employeeHierarchy.lastName(index)));
+            for (int n = 0; n < employeeHierarchy.subordinatesCount(index); n++) {
+                subordinates.put(subordinatesOffset++, employeeHierarchy.subordinate(index, n));
+            }
+            subordinateOffsets.put(index + 1, subordinatesOffset);
+        }
+
+        int nameOffset = 0;
+        nameOffsets.put(0, 0);
+        for (int code = 0; code < dictionary.names.size(); code++) {
+            byte[] name = dictionary.names.get(code);
+            nameBytes.put(nameOffset, name);
+            nameOffset += name.length;
+            nameOffsets.put(code + 1, nameOffset);
+        }
+    }
+
+    /**
+     * Allocates a store on direct buffers and writes its columns.
+     *
+     * @param layout        the layout of the store
+     * @param columnsWriter the writer of the columns of the allocated store
+     * @return the store
+     */
+    private static OffHeapEmployeeHierarchy allocate(Layout layout, Consumer<OffHeapEmployeeHierarchy> columnsWriter) {
+        try {
+            OffHeapEmployeeHierarchy store = new OffHeapEmployeeHierarchy(layout,
+                    (offset, length) -> ByteBuffer.allocateDirect(toSectionLength(length)).order(ByteOrder.LITTLE_ENDIAN));
+            columnsWriter.accept(store);
+            return store;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes a store to a temporary file on the directory of the store file, writes its columns and its checksum,
+     * and atomically moves it over the store file.
+     *
+     * @param layout        the layout of the store
+     * @param file          the store file to be written
+     * @param columnsWriter the writer of the columns of the mapped store
+     * @return the store mapped from the file
+     * @throws FileWriterException if the file cannot be written
+     */
+    private static OffHeapEmployeeHierarchy write(Layout layout, File file, Consumer<OffHeapEmployeeHierarchy> columnsWriter) {
+        File temporaryFile = null;
+        try {
+            temporaryFile = File.createTempFile(file.getName() + ".", ".tmp", file.getAbsoluteFile().getParentFile());
+            OffHeapEmployeeHierarchy store;
+            try (RandomAccessFile storeFile = new RandomAccessFile(temporaryFile, "rw")) {
+                storeFile.setLength(layout.fileSize());
+                FileChannel channel = storeFile.getChannel();
+                ByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                layout.writeHeader(header);
+
+                store = new OffHeapEmployeeHierarchy(layout,
+                        (offset, length) -> channel.map(FileChannel.MapMode.READ_WRITE, offset, toSectionLength(length)).order(ByteOrder.LITTLE_ENDIAN));
+                columnsWriter.accept(store);
+                header.putInt(CHECKSUM_OFFSET, checksum(channel, layout.fileSize()));
+                channel.force(true);
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return store;
+        } catch (IOException | SecurityException e) {
+            if (temporaryFile != null) temporaryFile.delete();
+            throw writeError(file);
+        } catch (RuntimeException e) {
+            if (temporaryFile != null) temporaryFile.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * Computes the CRC32C checksum of the columns of a store file, everything after the header.
+     *
+     * @param channel  the channel of the store file
+     * @param fileSize the size of the store file
+     * @return the checksum
+     * @throws IOException if the file cannot be mapped
+     */
+    private static int checksum(FileChannel channel, long fileSize) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (long position = HEADER_SIZE; position < fileSize; position += Integer.MAX_VALUE) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(Integer.MAX_VALUE, fileSize - position)));
+        }
+        return (int) crc.getValue();
+    }
+
+    private static int toSectionLength(long length) {
+        if (length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(String.format("Column of %d bytes is larger than the maximum of %d bytes", length, Integer.MAX_VALUE));
+        return (int) length;
+    }
+
+    private static FileWriterException writeError(File file) {
+        return new FileWriterException(String.format("Error when writing the file | Filepath: %s | Filename: %s",
+                Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
+    }
+
+    private static FileReaderException invalidStore(File file) {
+        return new FileReaderException(String.format("Invalid hierarchy store file | Filepath: %s | Filename: %s",
+                Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
+    }
+
+    /**
+     * Allocates the buffer of a column of the store.
+     */
+    @FunctionalInterface
+    private interface SectionAllocator {
+
+        /**
+         * Allocates the buffer of a column.
+         *
+         * @param offset the offset of the column on the store file
+         * @param length the length of the column in bytes
+         * @return the little-endian buffer of the column
+         * @throws IOException if the column cannot be mapped
+         */
+        ByteBuffer allocate(long offset, long length) throws IOException;
+    }
+
+    /**
+     * Builder of {@link OffHeapEmployeeHierarchy} straight from the employees, without building the hierarchy on heap.
+     * Employees can be added on any order and are linked to their managers when the store is built, following the
+     * same rules of {@link EmployeeTable.Builder}, so the store has the same indexes of an {@code EmployeeTable} built
+     * from the same employees.
+     * <p>
+     * Nothing is kept on heap for each employee. The added employees, an open-addressing table from id to row and
+     * one of the distinct names are kept on scratch columns outside the heap, on direct buffers or, for a store file,
+     * on a temporary file memory-mapped on the same directory, growing by segments. When the store is built, a
+     * second pass finds the manager row of each employee on the ids table, lays the subordinates out in CSR layout
+     * and writes the columns on breadth-first order from the CEO. The scratch columns take around 60 bytes for each
+     * employee, so the org chart is bounded by the direct memory or the disk instead of the Java heap.
+     * <p>
+     * The scratch columns are released when the store is built or the builder is closed, and the builder cannot be
+     * used afterwards.
+     */
+    public static final class Builder implements AutoCloseable {
+        private static final int INITIAL_TABLE_CAPACITY = 1024;
+
+        private final File file;
+        private final ScratchSpace scratch;
+        private final ScratchColumn ids;
+        private final ScratchColumn salaries;
+        private final ScratchColumn managerIds;
+        private final ScratchColumn firstNames;
+        private final ScratchColumn lastNames;
+        private final ScratchColumn nameOffsets;
+        private final ScratchColumn nameBytes;
+        private ScratchColumn idsTable;
+        private long idsTableCapacity;
+        private ScratchColumn namesTable;
+        private long namesTableCapacity;
+        private int size;
+        private int ceoRow = -1;
+        private int names;
+        private long nameBytesLength;
+        private boolean closed;
+
+        private Builder(File file) {
+            this.file = file;
+            this.scratch = new ScratchSpace(file);
+            this.ids = new ScratchColumn(scratch);
+            this.salaries = new ScratchColumn(scratch);
+            this.managerIds = new ScratchColumn(scratch);
+            this.firstNames = new ScratchColumn(scratch);
+            this.lastNames = new ScratchColumn(scratch);
+            this.nameOffsets = new ScratchColumn(scratch);
+            this.nameBytes = new ScratchColumn(scratch);
+            this.idsTable = column(INITIAL_TABLE_CAPACITY);
+            this.idsTableCapacity = INITIAL_TABLE_CAPACITY;
+            this.namesTable = column(INITIAL_TABLE_CAPACITY);
+            this.namesTableCapacity = INITIAL_TABLE_CAPACITY;
+            nameOffsets.putInt(0, 0);
+        }
+
+        /**
+         * Adds an employee to the store.
+         *
+         * @param employee the employee to be added
+         * @return this builder
+         * @throws NullPointerException  if employee is null
+         * @throws IllegalStateException if the builder was already built or closed
+         * @throws EmployeeNodeException if an employee with the same id was already added
+         * @throws EmployeeException     if the employee is a second CEO
+         * @throws FileWriterException   if the scratch file cannot be written
+         */
+        public Builder add(Employee employee) {
+            Objects.requireNonNull(employee, "Employee must not be null");
+            requireOpen();
+            if (2L * (size + 1) > idsTableCapacity) growIdsTable();
+            long slot = idSlot(employee.id());
+            if (idsTable.getInt(slot) != 0)
+                throw new EmployeeNodeException(String.format("Employee id %d is duplicated on the list", employee.id()));
+            if (employee.getManagerId().isEmpty()) {
+                if (ceoRow >= 0) throw new EmployeeException("Employee list has more than one CEO");
+                ceoRow = size;
+            }
+
+            ids.putInt(size, employee.id());
+            salaries.putInt(size, employee.salary());
+            managerIds.putInt(size, employee.getManagerId().orElse(0));
+            firstNames.putInt(size, intern(employee.firstName()));
+            lastNames.putInt(size, intern(employee.lastName()));
+            idsTable.putInt(slot, size + 1);
+            size++;
+            return this;
+        }
+
+        /**
+         * Links each employee to its manager and builds the store. Employees whose manager id was not found are
+         * removed, together with their subordinates. The scratch columns are released.
+         *
+         * @return the store, mapped from the store file if the builder has one
+         * @throws IllegalStateException if the builder was already built or closed
+         * @throws EmployeeException     if no CEO was added
+         * @throws EmployeeNodeException if any employee reporting line has a cycle
+         * @throws FileWriterException   if the store file or the scratch file cannot be written
+         */
+        public OffHeapEmployeeHierarchy build() {
+            requireOpen();
+            try {
+                if (ceoRow < 0) throw new EmployeeException("Employee list has no CEO");
+
+                ScratchColumn managerRows = column(size);
+                ScratchColumn offsets = column(size + 1L);
+                for (int row = 0; row < size; row++) {
+                    int managerRow = (row == ceoRow) ? -1 : findRow(managerIds.getInt(row));
+                    if (row != ceoRow && managerRow < 0)
+                        System.out.printf("Warning -> Removing employee with id %d due no manager id %d was found on the list%n", ids.getInt(row), managerIds.getInt(row));
+                    managerRows.putInt(row, managerRow);
+                    if (managerRow >= 0) offsets.putInt(managerRow + 1, offsets.getInt(managerRow + 1) + 1);
+                }
+                for (int row = 0; row < size; row++) {
+                    offsets.putInt(row + 1, offsets.getInt(row + 1) + offsets.getInt(row));
+                }
+                // the manager ids are no longer needed, so their column holds the next free child slot of each row
+                ScratchColumn cursors = managerIds;
+                ScratchColumn children = column(offsets.getInt(size));
+                for (int row = 0; row < size; row++) {
+                    cursors.putInt(row, offsets.getInt(row));
+                }
+                for (int row = 0; row < size; row++) {
+                    int managerRow = managerRows.getInt(row);
+                    if (managerRow < 0) continue;
+                    int cursor = cursors.getInt(managerRow);
+                    children.putInt(cursor, row);
+                    cursors.putInt(managerRow, cursor + 1);
+                }
+
+                ScratchColumn order = column(size);
+                ScratchColumn visitNumbers = column(size);
+                int reached = visitBreadthFirst(ceoRow, offsets, children, order, visitNumbers, 0);
+                if (reached < size) validateReportingLines(managerRows, offsets, children, order, visitNumbers, reached);
+
+                Layout layout = new Layout(reached, 0, names, nameBytesLength);
+                Consumer<OffHeapEmployeeHierarchy> columnsWriter =
+                        store -> writeColumns(store, order, reached, managerRows, offsets, children, visitNumbers);
+                return (file == null) ? allocate(layout, columnsWriter) : write(layout, file, columnsWriter);
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Releases the scratch columns, deleting the scratch file. Closing a builder more than once has no effect.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            scratch.close();
+        }
+
+        /**
+         * Finds the row of an employee id.
+         *
+         * @param id the employee id
+         * @return the row of the employee, or -1 if not found
+         */
+        private int findRow(int id) {
+            return idsTable.getInt(idSlot(id)) - 1;
+        }
+
+        /**
+         * Finds the slot of an employee id on the ids table: the slot holding its row, or the empty slot where it
+         * would be added.
+         *
+         * @param id the employee id
+         * @return the slot of the id
+         */
+        private long idSlot(int id) {
+            long mask = idsTableCapacity - 1;
+            for (long slot = mix(id) & mask; ; slot = (slot + 1) & mask) {
+                int row = idsTable.getInt(slot) - 1;
+                if (row < 0 || ids.getInt(row) == id) return slot;
+            }
+        }
+
+        private void growIdsTable() {
+            idsTableCapacity *= 2;
+            idsTable = column(idsTableCapacity);
+            long mask = idsTableCapacity - 1;
+            for (int row = 0; row < size; row++) {
+                long slot = mix(ids.getInt(row)) & mask;
+                while (idsTable.getInt(slot) != 0) slot = (slot + 1) & mask;
+                idsTable.putInt(slot, row + 1);
+            }
+        }
+
+        /**
+         * Gets the code of a name, adding it to the names dictionary if it is new.
+         *
+         * @param name the name
+         * @return the code of the name
+         */
+        private int intern(String name) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (2L * (names + 1) > namesTableCapacity) growNamesTable();
+            long mask = namesTableCapacity - 1;
+            long slot = mix(Arrays.hashCode(bytes)) & mask;
+            for (int code = namesTable.getInt(slot) - 1; code >= 0; code = namesTable.getInt(slot) - 1) {
+                if (nameEquals(code, bytes)) return code;
+                slot = (slot + 1) & mask;
+            }
+
+            toSectionLength(nameBytesLength + bytes.length);
+            for (int i = 0; i < bytes.length; i++) {
+                nameBytes.putByte(nameBytesLength + i, bytes[i]);
+            }
+            nameBytesLength += bytes.length;
+            nameOffsets.putInt(names + 1, (int) nameBytesLength);
+            namesTable.putInt(slot, names + 1);
+            return names++;
+        }
+
+        private boolean nameEquals(int code, byte[] bytes) {
+            int start = nameOffsets.getInt(code);
+            if (nameOffsets.getInt(code + 1) - start != bytes.length) return false;
+            for (int i = 0; i < bytes.length; i++) {
+                if (nameBytes.getByte(start + i) != bytes[i]) return false;
+            }
+            return true;
+        }
+
+        private void growNamesTable() {
+            namesTableCapacity *= 2;
+            namesTable = column(namesTableCapacity);
+            long mask = namesTableCapacity - 1;
+            for (int code = 0; code < names; code++) {
+                int start = nameOffsets.getInt(code);
+                int hash = 1;
+                for (int position = start; position < nameOffsets.getInt(code + 1); position++) {
+                    hash = 31 * hash + nameBytes.getByte(position);
+                }
+                long slot = mix(hash) & mask;
+                while (namesTable.getInt(slot) != 0) slot = (slot + 1) & mask;
+                namesTable.putInt(slot, code + 1);
+            }
+        }
+
+        /**
+         * Visits the hierarchy rooted at the given row in breadth-first order, numbering each visited row.
+         *
+         * @param startRow     the row where the visit starts
+         * @param offsets      the CSR offsets of the children of each row
+         * @param children     the CSR children of each row
+         * @param order        the rows on visit order, filled from {@code visited}
+         * @param visitNumbers the visit number plus one of each row, 0 for the rows not visited yet
+         * @param visited      the number of rows visited before
+         * @return the number of rows visited, including the ones visited before
+         */
+        private int visitBreadthFirst(int startRow, ScratchColumn offsets, ScratchColumn children, ScratchColumn order,
+                                      ScratchColumn visitNumbers, int visited) {
+            int head = visited;
+            order.putInt(visited, startRow);
+            visitNumbers.putInt(startRow, ++visited);
+            while (head < visited) {
+                int row = order.getInt(head++);
+                for (int i = offsets.getInt(row); i < offsets.getInt(row + 1); i++) {
+                    int child = children.getInt(i);
+                    order.putInt(visited, child);
+                    visitNumbers.putInt(child, ++visited);
+                }
+            }
+            return visited;
+        }
+
+        /**
+         * Validates that every employee not reached from the CEO is reachable from a removed employee.
+         * Since each employee has at most one manager, the remaining ones must be part of (or report to) a cycle,
+         * and the one with the lowest id is reported.
+         *
+         * @param managerRows  the row of the manager of each row, -1 if not found
+         * @param offsets      the CSR offsets of the children of each row
+         * @param children     the CSR children of each row
+         * @param order        the rows on visit order
+         * @param visitNumbers the visit number plus one of each row, 0 for the rows not visited yet
+         * @param reached      the number of rows reached from the CEO
+         * @throws EmployeeNodeException if any employee reporting line has a cycle
+         */
+        private void validateReportingLines(ScratchColumn managerRows, ScratchColumn offsets, ScratchColumn children,
+                                            ScratchColumn order, ScratchColumn visitNumbers, int reached) {
+            int visited = reached;
+            for (int row = 0; row < size; row++) {
+                if (row != ceoRow && managerRows.getInt(row) < 0)
+                    visited = visitBreadthFirst(row, offsets, children, order, visitNumbers, visited);
+            }
+            if (visited == size) return;
+
+            Integer cycleId = null;
+            for (int row = 0; row < size; row++) {
+                if (visitNumbers.getInt(row) == 0 && (cycleId == null || ids.getInt(row) < cycleId)) cycleId = ids.getInt(row);
+            }
+            throw new EmployeeNodeException(String.format("Employee with id %d has a cycle on its reporting line", cycleId));
+        }
+
+        /**
+         * Writes the rows reached from the CEO to the store columns, on breadth-first order, and the names.
+         *
+         * @param store        the store to be written
+         * @param order        the rows on visit order
+         * @param reached      the number of rows reached from the CEO
+         * @param managerRows  the row of the manager of each row
+         * @param offsets      the CSR offsets of the children of each row
+         * @param children     the CSR children of each row
+         * @param visitNumbers the visit number plus one of each row
+         */
+        private void writeColumns(OffHeapEmployeeHierarchy store, ScratchColumn order, int reached, ScratchColumn managerRows,
+                                  ScratchColumn offsets, ScratchColumn children, ScratchColumn visitNumbers) {
+            int subordinatesOffset = 0;
+            store.subordinateOffsets.put(0, 0);
+            for (int index = 0; index < reached; index++) {
+                int row = order.getInt(index);
+                int managerRow = managerRows.getInt(row);
+                store.ids.put(index, ids.getInt(row));
+                store.salaries.put(index, salaries.getInt(row));
+                store.managerIndexes.put(index, (managerRow < 0) ? -1 : visitNumbers.getInt(managerRow) - 1);
+                store.firstNames.put(index, firstNames.getInt(row));
+                store.lastNames.put(index, lastNames.getInt(row));
+                for (int i = offsets.getInt(row); i < offsets.getInt(row + 1); i++) {
+                    store.subordinates.put(subordinatesOffset++, visitNumbers.getInt(children.getInt(i)) - 1);
+                }
+                store.subordinateOffsets.put(index + 1, subordinatesOffset);
+            }
+
+            for (int code = 0; code <= names; code++) {
+                store.nameOffsets.put(code, nameOffsets.getInt(code));
+            }
+            nameBytes.copyTo(store.nameBytes, nameBytesLength);
+        }
+
+        private ScratchColumn column(long length) {
+            ScratchColumn column = new ScratchColumn(scratch);
+            column.ensureCapacity(4 * length);
+            return column;
+        }
+
+        private void requireOpen() {
+            if (closed) throw new IllegalStateException("Builder is already built or closed");
+        }
+
+        private static long mix(int value) {
+            long hash = value * 0x9E3779B97F4A7C15L;
+            return hash ^ (hash >>> 32);
+        }
+    }
+
+    /**
+     * Allocates the segments of the scratch columns of a builder, on direct buffers or on a temporary file.
+     */
+    private static final class ScratchSpace implements AutoCloseable {
+        /**
+         * Segment size, as a power of two, of the direct buffers: small enough for small org charts.
+         */
+        private static final int DIRECT_SEGMENT_SHIFT = 20;
+        /**
+         * Segment size, as a power of two, of the scratch file: large enough to keep the number of mappings low.
+         */
+        private static final int FILE_SEGMENT_SHIFT = 24;
+
+        private final File storeFile;
+        private final int segmentShift;
+        private File file;
+        private RandomAccessFile randomAccessFile;
+        private long length;
+
+        /**
+         * Constructs the scratch space of a builder.
+         *
+         * @param storeFile the store file of the builder, whose directory holds the scratch file, or null for direct buffers
+         */
+        private ScratchSpace(File storeFile) {
+            this.storeFile = storeFile;
+            this.segmentShift = (storeFile == null) ? DIRECT_SEGMENT_SHIFT : FILE_SEGMENT_SHIFT;
+        }
+
+        /**
+         * Allocates a segment, zero filled.
+         *
+         * @return the segment
+         * @throws FileWriterException if the scratch file cannot be written
+         */
+        private ByteBuffer allocate() {
+            int segmentSize = 1 << segmentShift;
+            if (storeFile == null) return ByteBuffer.allocateDirect(segmentSize).order(ByteOrder.nativeOrder());
+            try {
+                if (file == null) {
+                    file = File.createTempFile(storeFile.getName() + ".", ".scratch", storeFile.getAbsoluteFile().getParentFile());
+                    randomAccessFile = new RandomAccessFile(file, "rw");
+                }
+                randomAccessFile.setLength(length + segmentSize);
+                ByteBuffer segment = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, length, segmentSize).order(ByteOrder.nativeOrder());
+                length += segmentSize;
+                return segment;
+            } catch (IOException | SecurityException e) {
+                throw writeError(storeFile);
+            }
+        }
+
+        /**
+         * Deletes the scratch file, if any. The mapped segments stay readable until they are no longer reachable.
+         */
+        @Override
+        public void close() {
+            if (file == null) return;
+            try {
+                randomAccessFile.close();
+            } catch (IOException e) {
+                // the file is deleted anyway
+            }
+            if (!file.delete()) file.deleteOnExit();
+            file = null;
+        }
+    }
+
+    /**
+     * Column of a builder outside the heap, growing by segments of its scratch space, addressed by int index or by
+     * byte position.
+     */
+    private static final class ScratchColumn {
+        private final ScratchSpace space;
+        private ByteBuffer[] segments = new ByteBuffer[0];
+
+        private ScratchColumn(ScratchSpace space) {
+            this.space = space;
+        }
+
+        /**
+         * Allocates the segments up to the given length, zero filled.
+         *
+         * @param length the length of the column in bytes
+         */
+        private void ensureCapacity(long length) {
+            while (((long) segments.length << space.segmentShift) < length) {
+                segments = Arrays.copyOf(segments, segments.length + 1);
+                segments[segments.length - 1] = space.allocate();
+            }
+        }
+
+        private int getInt(long index) {
+            long position = 4 * index;
+            return segments[(int) (position >>> space.segmentShift)].getInt(offset(position));
+        }
+
+        private void putInt(long index, int value) {
+            long position = 4 * index;
+            ensureCapacity(position + 4);
+            segments[(int) (position >>> space.segmentShift)].putInt(offset(position), value);
+        }
+
+        private byte getByte(long position) {
+            return segments[(int) (position >>> space.segmentShift)].get(offset(position));
+        }
+
+        private void putByte(long position, byte value) {
+            ensureCapacity(position + 1);
+            segments[(int) (position >>> space.segmentShift)].put(offset(position), value);
+        }
+
+        /**
+         * Copies the first bytes of the column to a buffer.
+         *
+         * @param target the buffer
+         * @param length the number of bytes to be copied
+         */
+        private void copyTo(ByteBuffer target, long length) {
+            int segmentSize = 1 << space.segmentShift;
+            for (long position = 0; position < length; position += segmentSize) {
+                target.put((int) position, segments[(int) (position >>> space.segmentShift)], 0, (int) Math.min(segmentSize, length - position));
+            }
+        }
+
+        private int offset(long position) {
+            return (int) (position & ((1 << space.segmentShift) - 1));
+        }
+    }
+
+    /**
+     * Distinct names of a hierarchy, encoded as UTF-8, with their codes.
+     */
+    private static final class NamesDictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<byte[]> names = new ArrayList<>();
+        private long bytesLength;
+
+        private NamesDictionary(EmployeeHierarchy employeeHierarchy) {
+            for (int index = 0; index < employeeHierarchy.size(); index++) {
+                add(employeeHierarchy.firstName(index));
+                add(employeeHierarchy.lastName(index));
+            }
+        }
+
+        private void add(String name) {
+            if (codes.containsKey(name)) return;
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            codes.put(name, names.size());
+            names.add(bytes);
+            bytesLength += bytes.length;
+        }
+
+        private int code(String name) {
+            return codes.get(name);
+        }
+    }
+
+    /**
+     * Sizes of a store and the offsets of its columns on the store file.
+     *
+     * @param size            the number of employees
+     * @param root            the index of the CEO
+     * @param names           the number of distinct names
+     * @param nameBytesLength the length of the encoded names, in bytes
+     */
+    private record Layout(int size, int root, int names, long nameBytesLength) {
+
+        private Layout(EmployeeHierarchy employeeHierarchy, NamesDictionary dictionary) {
+            this(employeeHierarchy.size(), employeeHierarchy.root(), dictionary.names.size(), dictionary.bytesLength);
+        }
+
+        /**
+         * Reads the layout from the header of a store file.
+         *
+         * @param header the header buffer
+         * @return the layout, or null if the header is not valid
+         */
+        private static Layout readHeader(ByteBuffer header) {
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) return null;
+            int size = header.getInt(8);
+            int root = header.getInt(12);
+            int names = header.getInt(16);
+            long nameBytesLength = header.getLong(20);
+            if (size < 1 || root < 0 || root >= size || names < 0 || nameBytesLength < 0) return null;
+            return new Layout(size, root, names, nameBytesLength);
+        }
+
+        private void writeHeader(ByteBuffer header) {
+            header.putInt(0, MAGIC)
+                    .putInt(4, VERSION)
+                    .putInt(8, size)
+                    .putInt(12, root)
+                    .putInt(16, names)
+                    .putLong(20, nameBytesLength);
+        }
+
+        private long idsOffset() {
+            return HEADER_SIZE;
+        }
+
+        private long salariesOffset() {
+            return idsOffset() + 4L * size;
+        }
+
+        private long managerIndexesOffset() {
+            return salariesOffset() + 4L * size;
+        }
+
+        private long firstNamesOffset() {
+            return managerIndexesOffset() + 4L * size;
+        }
+
+        private long lastNamesOffset() {
+            return firstNamesOffset() + 4L * size;
+        }
+
+        private long subordinateOffsetsOffset() {
+            return lastNamesOffset() + 4L * size;
+        }
+
+        private long subordinatesOffset() {
+            return subordinateOffsetsOffset() + 4L * (size + 1);
+        }
+
+        private long nameOffsetsOffset() {
+            return subordinatesOffset() + 4L * (size - 1);
+        }
+
+        private long nameBytesOffset() {
+            return nameOffsetsOffset() + 4L * (names + 1);
+        }
+
+        private long fileSize() {
+            return nameBytesOffset() + nameBytesLength;
+        }
+    }
+}
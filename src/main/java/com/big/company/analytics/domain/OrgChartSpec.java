@@ -0,0 +1,227 @@
+package com.big.company.analytics.domain;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Describes a synthetic organization chart to be generated.
+ * <p>
+ * Employees are created level by level from the CEO (depth 0) down to {@code maxDepth}. Each manager gets a number
+ * of direct subordinates drawn from the fan-out distribution, and each employee gets a salary around
+ * {@code ceoSalary * salaryDecay^depth}, spread according to the salary distribution.
+ *
+ * @param employees          number of employees to be generated, CEO included
+ * @param maxDepth           maximum depth of an employee, the CEO being at depth 0
+ * @param minFanOut          minimum number of direct subordinates of a manager
+ * @param maxFanOut          maximum number of direct subordinates of a manager
+ * @param fanOutDistribution distribution of the number of direct subordinates between min and max fan-out
+ * @param ceoSalary          average salary of the CEO level
+ * @param salaryDecay        ratio between the average salary of a level and the level above it
+ * @param salarySpread       relative spread of the salaries around the average of its level
+ * @param salaryDistribution distribution of the salaries around the average of its level
+ * @param rowOrder           order in which the employees are written
+ * @param hasHeader          {@code true} if a header line is written
+ * @param columns            order of the columns, a permutation of {@link #DEFAULT_COLUMNS} (case-insensitive)
+ * @param seed               seed of the random generator, the same spec always generates the same file
+ */
+public record OrgChartSpec(
+        int employees,
+        int maxDepth,
+        int minFanOut,
+        int maxFanOut,
+        FanOutDistribution fanOutDistribution,
+        int ceoSalary,
+        double salaryDecay,
+        double salarySpread,
+        SalaryDistribution salaryDistribution,
+        RowOrder rowOrder,
+        boolean hasHeader,
+        List<String> columns,
+        long seed
+) {
+
+    /**
+     * Default order of the columns, same as expected by the CSV reader when there is no header.
+     */
+    public static final List<String> DEFAULT_COLUMNS = List.of("id", "firstName", "lastName", "salary", "managerId");
+
+    /**
+     * Constructs an OrgChartSpec object.
+     *
+     * @throws NullPointerException     if any of the distributions, the row order or the columns is null
+     * @throws IllegalArgumentException if any of the values is out of range or the columns are not a permutation
+     *                                  of the default columns
+     */
+    public OrgChartSpec {
+        Objects.requireNonNull(fanOutDistribution, "Fan-out distribution must not be null");
+        Objects.requireNonNull(salaryDistribution, "Salary distribution must not be null");
+        Objects.requireNonNull(rowOrder, "Row order must not be null");
+        Objects.requireNonNull(columns, "Columns must not be null");
+
+        if (employees < 1) throw new IllegalArgumentException("Number of employees must be at least 1");
+        if (maxDepth < 1) throw new IllegalArgumentException("Max depth must be at least 1");
+        if (minFanOut < 0 || maxFanOut < 1 || minFanOut > maxFanOut)
+            throw new IllegalArgumentException("Fan-out must satisfy 0 <= min fan-out <= max fan-out and max fan-out >= 1");
+        if (ceoSalary < 1) throw new IllegalArgumentException("CEO salary must be positive");
+        if (salaryDecay <= 0 || salaryDecay > 1) throw new IllegalArgumentException("Salary decay must be in (0, 1]");
+        if (salarySpread < 0 || salarySpread >= 1) throw new IllegalArgumentException("Salary spread must be in [0, 1)");
+
+        List<String> lowerCaseColumns = columns.stream().map(String::toLowerCase).sorted().toList();
+        List<String> lowerCaseDefaultColumns = DEFAULT_COLUMNS.stream().map(String::toLowerCase).sorted().toList();
+        if (!lowerCaseColumns.equals(lowerCaseDefaultColumns))
+            throw new IllegalArgumentException(String.format("Columns must be a permutation of %s", DEFAULT_COLUMNS));
+        columns = List.copyOf(columns);
+    }
+
+    /**
+     * Creates a builder with default settings for the given number of employees.
+     *
+     * @param employees number of employees to be generated, CEO included
+     * @return a new builder
+     */
+    public static Builder builder(int employees) {
+        return new Builder(employees);
+    }
+
+    /**
+     * Distribution of the number of direct subordinates of each manager.
+     */
+    public enum FanOutDistribution {
+        /**
+         * Every manager has {@code maxFanOut} direct subordinates.
+         */
+        FIXED,
+        /**
+         * Uniformly distributed between {@code minFanOut} and {@code maxFanOut}.
+         */
+        UNIFORM,
+        /**
+         * Geometrically distributed from {@code minFanOut}, capped at {@code maxFanOut}: most managers have few
+         * direct subordinates and a few have many.
+         */
+        GEOMETRIC
+    }
+
+    /**
+     * Distribution of the salaries around the average salary of its level.
+     */
+    public enum SalaryDistribution {
+        /**
+         * Uniformly distributed within {@code average * (1 +- salarySpread)}.
+         */
+        UNIFORM,
+        /**
+         * Normally distributed with standard deviation {@code average * salarySpread}.
+         */
+        GAUSSIAN
+    }
+
+    /**
+     * Order in which the employees are written.
+     */
+    public enum RowOrder {
+        /**
+         * Managers always appear before their subordinates (level by level).
+         */
+        TOP_DOWN,
+        /**
+         * Subordinates always appear before their managers.
+         */
+        BOTTOM_UP,
+        /**
+         * Random order.
+         */
+        SHUFFLED
+    }
+
+    /**
+     * Builder of {@link OrgChartSpec} with default settings: up to 8 levels, 2 to 8 direct subordinates uniformly
+     * distributed, CEO salary of 250000 decaying 20% by level with 10% gaussian spread, top-down order, with header
+     * and default columns.
+     */
+    public static final class Builder {
+        private final int employees;
+        private int maxDepth = 8;
+        private int minFanOut = 2;
+        private int maxFanOut = 8;
+        private FanOutDistribution fanOutDistribution = FanOutDistribution.UNIFORM;
+        private int ceoSalary = 250000;
+        private double salaryDecay = 0.8;
+        private double salarySpread = 0.1;
+        private SalaryDistribution salaryDistribution = SalaryDistribution.GAUSSIAN;
+        private RowOrder rowOrder = RowOrder.TOP_DOWN;
+        private boolean hasHeader = true;
+        private List<String> columns = DEFAULT_COLUMNS;
+        private long seed = 42L;
+
+        private Builder(int employees) {
+            this.employees = employees;
+        }
+
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        public Builder minFanOut(int minFanOut) {
+            this.minFanOut = minFanOut;
+            return this;
+        }
+
+        public Builder maxFanOut(int maxFanOut) {
+            this.maxFanOut = maxFanOut;
+            return this;
+        }
+
+        public Builder fanOutDistribution(FanOutDistribution fanOutDistribution) {
+            this.fanOutDistribution = fanOutDistribution;
+            return this;
+        }
+
+        public Builder ceoSalary(int ceoSalary) {
+            this.ceoSalary = ceoSalary;
+            return this;
+        }
+
+        public Builder salaryDecay(double salaryDecay) {
+            this.salaryDecay = salaryDecay;
+            return this;
+        }
+
+        public Builder salarySpread(double salarySpread) {
+            this.salarySpread = salarySpread;
+            return this;
+        }
+
+        public Builder salaryDistribution(SalaryDistribution salaryDistribution) {
+            this.salaryDistribution = salaryDistribution;
+            return this;
+        }
+
+        public Builder rowOrder(RowOrder rowOrder) {
+            this.rowOrder = rowOrder;
+            return this;
+        }
+
+        public Builder hasHeader(boolean hasHeader) {
+            this.hasHeader = hasHeader;
+            return this;
+        }
+
+        public Builder columns(String... columns) {
+            this.columns = Arrays.asList(columns);
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public OrgChartSpec build() {
+            return new OrgChartSpec(employees, maxDepth, minFanOut, maxFanOut, fanOutDistribution,
+                    ceoSalary, salaryDecay, salarySpread, salaryDistribution, rowOrder, hasHeader, columns, seed);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.big.company.analytics.domain;
+
+import java.util.Locale;
+
+/**
+ * Represents a salary policy violation of a manager, as numbers, so the violations can be sorted and aggregated;
+ * they are described as text only when written.
+ *
+ * @param managerId            the id of the manager
+ * @param salary               the salary of the manager
+ * @param minimumSalaryAllowed the minimum salary allowed, a percentage over the average salary of its direct subordinates
+ * @param maximumSalaryAllowed the maximum salary allowed, a percentage over the average salary of its direct subordinates
+ * @param delta                how much the salary is over the maximum allowed if positive, or under the minimum allowed if negative
+ */
+public record SalaryPolicyViolation(
+        int managerId,
+        int salary,
+        double minimumSalaryAllowed,
+        double maximumSalaryAllowed,
+        double delta
+) {
+
+    /**
+     * Checks the salary of a manager against the salary policy.
+     *
+     * @param managerId         the id of the manager
+     * @param salary            the salary of the manager
+     * @param average           the average salary of its direct subordinates
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return the violation, or null if the salary is within the allowed range
+     */
+    public static SalaryPolicyViolation check(int managerId, int salary, double average, int minimumPercentage, int maximumPercentage) {
+        double minimumSalaryAllowed = salaryAllowed(average, minimumPercentage);
+        double maximumSalaryAllowed = salaryAllowed(average, maximumPercentage);
+
+        if (salary < minimumSalaryAllowed)
+            return new SalaryPolicyViolation(managerId, salary, minimumSalaryAllowed, maximumSalaryAllowed, salary - minimumSalaryAllowed);
+        if (salary > maximumSalaryAllowed)
+            return new SalaryPolicyViolation(managerId, salary, minimumSalaryAllowed, maximumSalaryAllowed, salary - maximumSalaryAllowed);
+        return null;
+    }
+
+    /**
+     * Gets the salary allowed a percentage over the average salary of the direct subordinates of a manager.
+     *
+     * @param average    the average salary of the direct subordinates
+     * @param percentage the percentage
+     * @return the salary allowed
+     */
+    public static double salaryAllowed(double average, int percentage) {
+        return average * (1 + ((double) percentage / 100));
+    }
+
+    /**
+     * @return whether the salary is under the minimum allowed
+     */
+    public boolean isUnderpaid() {
+        return delta < 0;
+    }
+
+    /**
+     * @return how much the salary is out of the allowed range, whichever the bound
+     */
+    public double magnitude() {
+        return Math.abs(delta);
+    }
+
+    /**
+     * Describes the violation, e.g. "Salary is 1500.00 lesser than the minimum salary allowed", with a '.' separator
+     * whatever the default locale.
+     *
+     * @return the violation description
+     */
+    public String description() {
+        return isUnderpaid()
+                ? String.format(Locale.ROOT, "Salary is %.2f lesser than the minimum salary allowed", -delta)
+                : String.format(Locale.ROOT, "Salary is %.2f higher than the maximum salary allowed", delta);
+    }
+}
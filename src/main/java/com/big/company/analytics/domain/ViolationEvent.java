@@ -0,0 +1,56 @@
+package com.big.company.analytics.domain;
+
+import java.util.Objects;
+
+/**
+ * Represents an employee entering or leaving a violation set of a live report.
+ *
+ * @param violation  the violation set the employee entered or left
+ * @param transition whether the employee entered or left the violation set
+ * @param employee   the employee, with its data when the event happened
+ */
+public record ViolationEvent(
+        Violation violation,
+        Transition transition,
+        Employee employee
+) {
+
+    /**
+     * Constructs a ViolationEvent object.
+     *
+     * @throws NullPointerException if any params is null
+     */
+    public ViolationEvent {
+        Objects.requireNonNull(violation, "Violation must not be null");
+        Objects.requireNonNull(transition, "Transition must not be null");
+        Objects.requireNonNull(employee, "Employee must not be null");
+    }
+
+    /**
+     * Violation sets of a live report.
+     */
+    public enum Violation {
+        /**
+         * Managers with a salary outside the allowed range over the average salary of their direct subordinates.
+         */
+        SALARY_POLICY,
+        /**
+         * Employees with more reporting lines until the CEO than the threshold.
+         */
+        EXCESSIVE_REPORTING_LINES
+    }
+
+    /**
+     * Transitions of an employee on a violation set.
+     */
+    public enum Transition {
+        /**
+         * The employee was not on the violation set and now is.
+         */
+        ENTERED,
+        /**
+         * The employee was on the violation set and now is not, or was removed from the hierarchy.
+         */
+        LEFT
+    }
+}
@@ -0,0 +1,17 @@
+package com.big.company.analytics.exception;
+
+/**
+ * Custom exception class for handling file writing errors.
+ * Thrown when the file cannot be created or written
+ */
+public class FileWriterException extends RuntimeException {
+
+    /**
+     * Constructs a new FileWriterException with the specified error message.
+     *
+     * @param errorMessage A String containing the error message.
+     */
+    public FileWriterException(String errorMessage) {
+        super(errorMessage);
+    }
+}
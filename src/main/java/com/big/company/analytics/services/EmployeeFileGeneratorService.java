@@ -0,0 +1,24 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.OrgChartSpec;
+import com.big.company.analytics.exception.FileWriterException;
+
+import java.io.File;
+
+/**
+ * Service for generating synthetic employee files, e.g. for load tests and benchmarks.
+ */
+public interface EmployeeFileGeneratorService {
+
+    /**
+     * Generates a file with a synthetic organization chart described by the given specification.
+     * If the file already exists, it is overwritten.
+     *
+     * @param spec the specification of the organization chart
+     * @param file the file to be written
+     * @return the number of employees written
+     * @throws FileWriterException  if the file cannot be written
+     * @throws NullPointerException if any params is null
+     */
+    long generateFile(OrgChartSpec spec, File file);
+}
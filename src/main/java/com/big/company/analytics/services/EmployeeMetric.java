@@ -0,0 +1,30 @@
+package com.big.company.analytics.services;
+
+/**
+ * An extra metric computed over an employee hierarchy on the same traversal of the reports.
+ * <p>
+ * A new instance is created for each report run, receives every employee of the hierarchy once, in no particular
+ * order, from a single thread, and then returns its result.
+ *
+ * @param <R> the type of the metric result
+ */
+public interface EmployeeMetric<R> {
+
+    /**
+     * Accepts an employee of the hierarchy.
+     *
+     * @param id                    the employee id
+     * @param salary                the employee salary
+     * @param depth                 the number of reporting lines until the ceo, 0 for the ceo
+     * @param subordinatesCount     the number of direct subordinates
+     * @param subordinatesSalarySum the sum of the salaries of the direct subordinates
+     */
+    void accept(int id, int salary, int depth, int subordinatesCount, long subordinatesSalarySum);
+
+    /**
+     * Gets the result of the metric after all employees were accepted.
+     *
+     * @return the metric result
+     */
+    R result();
+}
@@ -5,6 +5,9 @@ import com.big.company.analytics.domain.EmployeeNode;
 import com.big.company.analytics.exception.EmployeeNodeServiceException;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for generating an employee hierarchy tree.
@@ -20,4 +23,19 @@ public interface EmployeeNodeService {
      * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
      */
     EmployeeNode generateEmployeesHierarchy(List<Employee> employees);
+
+    /**
+     * Generates an employee hierarchy tree from a stream of employees, consuming them as they are provided.
+     * The stream is not closed by this method.
+     * The default implementation collects the stream and delegates to {@link #generateEmployeesHierarchy(List)}.
+     *
+     * @param employees the stream of employees to be reported
+     * @return {@code EmployeeNode} as root node of the generated employee hierarchy tree
+     * @throws NullPointerException if employees stream is null
+     * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
+     */
+    default EmployeeNode generateStreamedEmployeesHierarchy(Stream<Employee> employees) {
+        Objects.requireNonNull(employees, "Employees stream must not be null");
+        return generateEmployeesHierarchy(employees.collect(Collectors.toList()));
+    }
 }
@@ -1,13 +1,20 @@
 package com.big.company.analytics.services;
 
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
 import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
 
 import java.util.Map;
 
 /**
  * The {@code EmployeeReport} interface provides methods for generating reports
  * related to employee analytics.
+ * <p>
+ * The {@code report} methods compute a report and print it; the {@code compute} methods only compute it, so callers
+ * that only need the result (e.g. batch or server ones) do not pay for printing it, and can print it later with
+ * {@link #printReport(EmployeeHierarchyReport)}.
  */
 public interface EmployeeReportService {
 
@@ -21,10 +28,10 @@ public interface EmployeeReportService {
      * @param employeeHierarchy the root of the employee hierarchy
      * @param minimumPercentage the minimum allowed percentage increase in salary.
      * @param maximumPercentage the maximum allowed percentage increase in salary.
-     * @return a map of the managers and the salary violation description
+     * @return a map of the managers and their salary policy violation
      * @throws NullPointerException if any params is null
      */
-    Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage);
+    Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage);
 
     /**
      * Generates a report printed in console on managers who violate the salary policy by falling outside
@@ -38,10 +45,10 @@ public interface EmployeeReportService {
      * than that average.
      *
      * @param employeeHierarchy the root of the employee hierarchy
-     * @return a map of the managers and the salary violation description
+     * @return a map of the managers and their salary policy violation
      * @throws NullPointerException if any params is null
      */
-    Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy);
+    Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy);
 
     /**
      * Generates a report printed in console on managers who have an excessive number of reporting lines until the ceo,
@@ -63,4 +70,270 @@ public interface EmployeeReportService {
      * @throws NullPointerException when any params is null
      */
     Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy);
+
+    /**
+     * Generates a report printed in console on managers who violate the salary policy by falling outside
+     * the specified percentage range, reading the employees from an index-based hierarchy.
+     * Only the managers with a violation are created as {@code Employee} objects.
+     *
+     * @param employeeHierarchy the employee hierarchy
+     * @param minimumPercentage the minimum allowed percentage increase in salary.
+     * @param maximumPercentage the maximum allowed percentage increase in salary.
+     * @return a map of the managers and their salary policy violation
+     * @throws NullPointerException if any params is null
+     */
+    Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage);
+
+    /**
+     * Generates a report printed in console on managers who have an excessive number of reporting lines until the ceo,
+     * exceeding the specified threshold, reading the employees from an index-based hierarchy.
+     * Only the managers over the threshold are created as {@code Employee} objects.
+     *
+     * @param employeeHierarchy       the employee hierarchy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return a map with managers and how much reporting lines higher than the threshold
+     * @throws NullPointerException when any params is null
+     */
+    Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeHierarchy employeeHierarchy, Integer reportingLinesThreshold);
+
+    /**
+     * Computes the managers who violate the salary policy by falling outside the specified percentage range,
+     * as {@link #reportManagersSalaryPolicyViolation(EmployeeNode, Integer, Integer)} without printing them.
+     *
+     * @param employeeHierarchy the root of the employee hierarchy
+     * @param minimumPercentage the minimum allowed percentage increase in salary.
+     * @param maximumPercentage the maximum allowed percentage increase in salary.
+     * @return a map of the managers and their salary policy violation
+     * @throws NullPointerException if any params is null
+     */
+    Map<Employee, SalaryPolicyViolation> computeManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage);
+
+    /**
+     * Computes the managers who violate the salary policy by falling outside the specified percentage range from an
+     * index-based hierarchy, as {@link #reportManagersSalaryPolicyViolation(EmployeeHierarchy, Integer, Integer)}
+     * without printing them.
+     *
+     * @param employeeHierarchy the employee hierarchy
+     * @param minimumPercentage the minimum allowed percentage increase in salary.
+     * @param maximumPercentage the maximum allowed percentage increase in salary.
+     * @return a map of the managers and their salary policy violation
+     * @throws NullPointerException if any params is null
+     */
+    Map<Employee, SalaryPolicyViolation> computeManagersSalaryPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage);
+
+    /**
+     * Computes the managers who have an excessive number of reporting lines until the ceo, exceeding the specified
+     * threshold, as {@link #reportManagersWithExcessiveReportingLines(EmployeeNode, Integer)} without printing them.
+     *
+     * @param employeeHierarchy       the root of the employee hierarchy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return a map with managers and how much reporting lines higher than the threshold
+     * @throws NullPointerException when any params is null
+     */
+    Map<Employee, Integer> computeManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy, Integer reportingLinesThreshold);
+
+    /**
+     * Computes the managers who have an excessive number of reporting lines until the ceo, exceeding the specified
+     * threshold, from an index-based hierarchy, as
+     * {@link #reportManagersWithExcessiveReportingLines(EmployeeHierarchy, Integer)} without printing them.
+     *
+     * @param employeeHierarchy       the employee hierarchy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return a map with managers and how much reporting lines higher than the threshold
+     * @throws NullPointerException when any params is null
+     */
+    Map<Employee, Integer> computeManagersWithExcessiveReportingLines(EmployeeHierarchy employeeHierarchy, Integer reportingLinesThreshold);
+
+    /**
+     * Generates a report printed in console on the managers who violate the salary policy, as
+     * {@link #reportManagersSalaryPolicyViolation(EmployeeNode, Integer, Integer)} does, limited to the worst ones,
+     * from the manager whose salary is the furthest out of the allowed range.
+     *
+     * @param employeeHierarchy the root of the employee hierarchy
+     * @param minimumPercentage the minimum allowed percentage increase in salary.
+     * @param maximumPercentage the maximum allowed percentage increase in salary.
+     * @param limit             the maximum number of managers reported, or null to report all of them.
+     * @return a map of the worst managers and their salary policy violation, from the worst
+     * @throws NullPointerException     if any params but limit is null
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage,
+                                                                            Integer limit);
+
+    /**
+     * Generates a report printed in console on the managers who violate the salary policy of an index-based
+     * hierarchy, as {@link #reportManagersSalaryPolicyViolation(EmployeeHierarchy, Integer, Integer)} does, limited
+     * to the worst ones, from the manager whose salary is the furthest out of the allowed range.
+     *
+     * @param employeeHierarchy the employee hierarchy
+     * @param minimumPercentage the minimum allowed percentage increase in salary.
+     * @param maximumPercentage the maximum allowed percentage increase in salary.
+     * @param limit             the maximum number of managers reported, or null to report all of them.
+     * @return a map of the worst managers and their salary policy violation, from the worst
+     * @throws NullPointerException     if any params but limit is null
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage,
+                                                                            Integer limit);
+
+    /**
+     * Generates a report printed in console on the managers who have an excessive number of reporting lines, as
+     * {@link #reportManagersWithExcessiveReportingLines(EmployeeNode, Integer)} does, limited to the worst ones, from
+     * the deepest reporting line.
+     *
+     * @param employeeHierarchy       the root of the employee hierarchy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @param limit                   the maximum number of managers reported, or null to report all of them.
+     * @return a map with the worst managers and how much reporting lines higher than the threshold, from the worst
+     * @throws NullPointerException     when any params but limit is null
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy, Integer reportingLinesThreshold, Integer limit);
+
+    /**
+     * Generates a report printed in console on the managers who have an excessive number of reporting lines of an
+     * index-based hierarchy, as {@link #reportManagersWithExcessiveReportingLines(EmployeeHierarchy, Integer)} does,
+     * limited to the worst ones, from the deepest reporting line.
+     *
+     * @param employeeHierarchy       the employee hierarchy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @param limit                   the maximum number of managers reported, or null to report all of them.
+     * @return a map with the worst managers and how much reporting lines higher than the threshold, from the worst
+     * @throws NullPointerException     when any params but limit is null
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeHierarchy employeeHierarchy, Integer reportingLinesThreshold, Integer limit);
+
+    /**
+     * Computes both the salary policy and the excessive reporting lines reports in a single traversal of the employee
+     * hierarchy, as {@link #reportAll(EmployeeNode, Integer, Integer, Integer)} without printing them.
+     *
+     * @param employeeHierarchy       the root of the employee hierarchy
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return the report with the managers with salary policy violation and the managers with excessive reporting lines
+     * @throws NullPointerException if any params is null
+     */
+    EmployeeHierarchyReport computeAll(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold);
+
+    /**
+     * Computes both the salary policy and the excessive reporting lines reports in a single traversal of an
+     * index-based hierarchy, as {@link #reportAll(EmployeeHierarchy, Integer, Integer, Integer)} without printing them.
+     *
+     * @param employeeHierarchy       the employee hierarchy
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return the report with the managers with salary policy violation and the managers with excessive reporting lines
+     * @throws NullPointerException if any params is null
+     */
+    EmployeeHierarchyReport computeAll(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold);
+
+    /**
+     * Generates both the salary policy and the excessive reporting lines reports, printed in console, computing them
+     * in a single traversal of the employee hierarchy.
+     *
+     * @param employeeHierarchy       the root of the employee hierarchy
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return the report with the managers with salary policy violation and the managers with excessive reporting lines
+     * @throws NullPointerException if any params is null
+     */
+    EmployeeHierarchyReport reportAll(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold);
+
+    /**
+     * Generates both reports as {@link #reportAll(EmployeeNode, Integer, Integer, Integer)} does, each report limited,
+     * on its own, to its worst employees, from the worst: the managers whose salary is the furthest out of the allowed
+     * range and the employees with the most excessive reporting lines. Only the reported employees of a limited report
+     * are held in memory.
+     *
+     * @param employeeHierarchy       the root of the employee hierarchy
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @param salaryPolicyLimit       the maximum number of managers reported on the salary policy report, or null to report all of them.
+     * @param reportingLinesLimit     the maximum number of employees reported on the reporting lines report, or null to report all of them.
+     * @return the report with the worst managers with salary policy violation and the worst managers with excessive reporting lines
+     * @throws NullPointerException     if any params but the limits is null
+     * @throws IllegalArgumentException if any limit is not positive
+     */
+    EmployeeHierarchyReport reportAll(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold,
+                                      Integer salaryPolicyLimit, Integer reportingLinesLimit);
+
+    /**
+     * Generates both the salary policy and the excessive reporting lines reports, printed in console, computing them
+     * in a single traversal of the employee hierarchy, with the standard percentages of 20% and 50% and the standard
+     * reporting lines threshold of 4.
+     *
+     * @param employeeHierarchy the root of the employee hierarchy
+     * @return the report with the managers with salary policy violation and the managers with excessive reporting lines
+     * @throws NullPointerException if any params is null
+     */
+    EmployeeHierarchyReport reportAll(EmployeeNode employeeHierarchy);
+
+    /**
+     * Generates both the salary policy and the excessive reporting lines reports, printed in console, computing them
+     * in a single traversal of an index-based hierarchy.
+     * Only the reported managers are created as {@code Employee} objects.
+     *
+     * @param employeeHierarchy       the employee hierarchy
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return the report with the managers with salary policy violation and the managers with excessive reporting lines
+     * @throws NullPointerException if any params is null
+     */
+    EmployeeHierarchyReport reportAll(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold);
+
+    /**
+     * Generates both reports as {@link #reportAll(EmployeeHierarchy, Integer, Integer, Integer)} does, each report
+     * limited, on its own, to its worst employees, from the worst: the managers whose salary is the furthest out of
+     * the allowed range and the employees with the most excessive reporting lines. Only the reported employees of a
+     * limited report are held in memory.
+     *
+     * @param employeeHierarchy       the employee hierarchy
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @param salaryPolicyLimit       the maximum number of managers reported on the salary policy report, or null to report all of them.
+     * @param reportingLinesLimit     the maximum number of employees reported on the reporting lines report, or null to report all of them.
+     * @return the report with the worst managers with salary policy violation and the worst managers with excessive reporting lines
+     * @throws NullPointerException     if any params but the limits is null
+     * @throws IllegalArgumentException if any limit is not positive
+     */
+    EmployeeHierarchyReport reportAll(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold,
+                                      Integer salaryPolicyLimit, Integer reportingLinesLimit);
+
+    /**
+     * Generates both the salary policy and the excessive reporting lines reports, printed in console, computing them
+     * in a single traversal of an index-based hierarchy, with the standard percentages of 20% and 50% and the standard
+     * reporting lines threshold of 4.
+     *
+     * @param employeeHierarchy the employee hierarchy
+     * @return the report with the managers with salary policy violation and the managers with excessive reporting lines
+     * @throws NullPointerException if any params is null
+     */
+    EmployeeHierarchyReport reportAll(EmployeeHierarchy employeeHierarchy);
+
+    /**
+     * Prints both reports of an already computed report in console, as {@code reportAll} does, e.g. a report of
+     * {@code computeAll}.
+     *
+     * @param report the report with the managers with salary policy violation and the managers with excessive reporting lines
+     * @throws NullPointerException if report is null
+     */
+    void printReport(EmployeeHierarchyReport report);
+
+    /**
+     * Prints both reports of an already computed report as {@link #printReport(EmployeeHierarchyReport)} does, headed
+     * by the source the report is computed from, so the reports of several sources printed one after the other (e.g.
+     * a batch of files) can be told apart in every output format.
+     *
+     * @param source the name of the source of the report, e.g. its file name
+     * @param report the report with the managers with salary policy violation and the managers with excessive reporting lines
+     * @throws NullPointerException if any params is null
+     */
+    void printReport(String source, EmployeeHierarchyReport report);
 }
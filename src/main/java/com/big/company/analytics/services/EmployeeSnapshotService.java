@@ -0,0 +1,60 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.exception.FileWriterException;
+
+import java.io.File;
+import java.util.stream.Stream;
+
+/**
+ * Service for writing a built employee hierarchy to a binary snapshot file and reading it back, so the hierarchy
+ * is ready for the reports without parsing, validating and linking the employees again.
+ */
+public interface EmployeeSnapshotService {
+
+    /**
+     * Checks whether a file is a snapshot file, by its name.
+     *
+     * @param file the file
+     * @return true if the file is a snapshot file
+     * @throws NullPointerException if file is null
+     */
+    boolean isSnapshot(File file);
+
+    /**
+     * Writes an employee hierarchy to a snapshot file. If the file already exists, it is overwritten.
+     *
+     * @param employeeHierarchy the root of the employee hierarchy
+     * @param file              the snapshot file to be written
+     * @throws NullPointerException if any params is null
+     * @throws FileWriterException  if the file cannot be written
+     */
+    void writeSnapshot(EmployeeNode employeeHierarchy, File file);
+
+    /**
+     * Writes the employees of a stream to a snapshot file, linking them on their way to the snapshot without building
+     * the hierarchy on heap, following the same rules of the {@code EmployeeNodeService} implementations.
+     * If the file already exists, it is overwritten.
+     *
+     * @param employees the stream of employees, on any order
+     * @param file      the snapshot file to be written
+     * @throws NullPointerException         if any params is null
+     * @throws EmployeeNodeServiceException if the employees do not make a valid hierarchy
+     * @throws FileWriterException          if the file cannot be written
+     */
+    void writeSnapshot(Stream<Employee> employees, File file);
+
+    /**
+     * Reads an employee hierarchy from a snapshot file, checking its version and checksum.
+     *
+     * @param file the snapshot file
+     * @return the employee hierarchy, with the same employees and subordinates order it was written with
+     * @throws NullPointerException if file is null
+     * @throws FileReaderException  if the file is not found, cannot be read or is not a valid snapshot
+     */
+    EmployeeHierarchy readSnapshot(File file);
+}
@@ -0,0 +1,35 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service for generating an employee hierarchy stored on primitive columns.
+ */
+public interface EmployeeTableService {
+
+    /**
+     * Generates an employee hierarchy table based on the provided list of employees.
+     *
+     * @param employees the list of employees to be reported
+     * @return {@code EmployeeTable} with the generated employee hierarchy
+     * @throws NullPointerException         if employees list is null
+     * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
+     */
+    EmployeeTable generateEmployeeTable(List<Employee> employees);
+
+    /**
+     * Generates an employee hierarchy table from a stream of employees, consuming them as they are provided.
+     * The stream is not closed by this method.
+     *
+     * @param employees the stream of employees to be reported
+     * @return {@code EmployeeTable} with the generated employee hierarchy
+     * @throws NullPointerException         if employees stream is null
+     * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
+     */
+    EmployeeTable generateStreamedEmployeeTable(Stream<Employee> employees);
+}
@@ -6,6 +6,7 @@ import com.big.company.analytics.exception.FileReaderException;
 import com.big.company.analytics.exception.ParseExtractionException;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * An interface for reading elements from files.
@@ -36,4 +37,21 @@ public interface FileReaderService<T> {
      * @throws NullPointerException     if any params is null
      */
     List<T> readFile(File file);
+
+    /**
+     * Streams elements from a specified file object as they are read, without holding the whole file in memory.
+     * The returned stream holds the file open and must be closed, e.g. on a try-with-resources block.
+     * Errors found before the first element (e.g. a missing file or an invalid header) are thrown by this method,
+     * errors found on the file content are thrown while consuming the stream.
+     * The default implementation streams the list returned by {@link #readFile(File)}.
+     *
+     * @param file the CSV file object from which <b>T</b> objects will be read
+     * @return an ordered stream of elements of type <b>T</b> read from the file
+     * @throws FileReaderException      if the file is not found or cannot be loaded
+     * @throws ParseExtractionException if any error occurs during parsing of the file content
+     * @throws NullPointerException     if any params is null
+     */
+    default Stream<T> streamFile(File file) {
+        return readFile(file).stream();
+    }
 }
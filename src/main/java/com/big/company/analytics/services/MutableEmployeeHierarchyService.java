@@ -0,0 +1,36 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.MutableEmployeeHierarchy;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service for generating an employee hierarchy that can be changed in place, so small changes of the employees
+ * are applied without rebuilding the hierarchy.
+ */
+public interface MutableEmployeeHierarchyService {
+
+    /**
+     * Generates a mutable employee hierarchy based on the provided list of employees.
+     *
+     * @param employees the list of employees to be reported
+     * @return {@code MutableEmployeeHierarchy} with the generated employee hierarchy
+     * @throws NullPointerException         if employees list is null
+     * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
+     */
+    MutableEmployeeHierarchy generateMutableHierarchy(List<Employee> employees);
+
+    /**
+     * Generates a mutable employee hierarchy from a stream of employees, consuming them as they are provided.
+     * The stream is not closed by this method.
+     *
+     * @param employees the stream of employees to be reported
+     * @return {@code MutableEmployeeHierarchy} with the generated employee hierarchy
+     * @throws NullPointerException         if employees stream is null
+     * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
+     */
+    MutableEmployeeHierarchy generateStreamedMutableHierarchy(Stream<Employee> employees);
+}
@@ -0,0 +1,52 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.exception.FileWriterException;
+
+import java.io.Closeable;
+import java.util.Map;
+
+/**
+ * Destination of the reports of employees, writing each report as a whole so concurrent reports do not interleave.
+ */
+public interface ReportSink extends Closeable {
+
+    /**
+     * Writes the report of managers who violate the salary policy regarding their subordinates' average salary.
+     *
+     * @param managersWithPolicyViolation the managers who violate the salary policy along with the violation
+     * @param minimumPercentage           the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage           the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @throws FileWriterException if the report cannot be written
+     */
+    void writeSalaryPolicyViolations(Map<Employee, SalaryPolicyViolation> managersWithPolicyViolation, int minimumPercentage, int maximumPercentage);
+
+    /**
+     * Writes the report of employees with excessive reporting lines.
+     *
+     * @param managerAndReportingLines the employees with reporting lines greater than the threshold and by how much
+     * @param reportingLinesThreshold  the threshold beyond which reporting lines are considered excessive
+     * @throws FileWriterException if the report cannot be written
+     */
+    void writeExcessiveReportingLines(Map<Employee, Integer> managerAndReportingLines, int reportingLinesThreshold);
+
+    /**
+     * Writes the source the following reports are computed from, e.g. the file name on a batch of files, so the
+     * reports of several sources written into the same destination can be told apart. Nothing is written by default.
+     *
+     * @param source the name of the source
+     * @throws FileWriterException if the source cannot be written
+     */
+    default void writeSource(String source) {
+    }
+
+    /**
+     * Writes any buffered content and releases the destination. Nothing to release by default.
+     *
+     * @throws FileWriterException if the content cannot be written
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,86 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.exception.FileWriterException;
+
+import java.util.Map;
+
+/**
+ * A {@code ReportSink} writing each reported employee as its own self-describing record, so the violations can be
+ * written as soon as they are found while the hierarchy is traversed, instead of once the whole report is built.
+ * <p>
+ * A report starts with the records of its parameters, written by the {@code begin} methods, followed by the records of
+ * the reported employees of both reports in any order, and ends with {@link #endReport()}. The reporting thread holds
+ * the lock of the sink for the whole report, so concurrent reports do not interleave.
+ */
+public interface StreamingReportSink extends ReportSink {
+
+    /**
+     * Writes the parameters of the salary policy report.
+     *
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @throws FileWriterException if the record cannot be written
+     */
+    void beginSalaryPolicyViolations(int minimumPercentage, int maximumPercentage);
+
+    /**
+     * Writes a manager who violates the salary policy.
+     *
+     * @param manager   the manager
+     * @param violation the violation
+     * @throws FileWriterException if the record cannot be written
+     */
+    void writeSalaryPolicyViolation(Employee manager, SalaryPolicyViolation violation);
+
+    /**
+     * Writes the parameters of the excessive reporting lines report.
+     *
+     * @param reportingLinesThreshold the threshold beyond which reporting lines are considered excessive
+     * @throws FileWriterException if the record cannot be written
+     */
+    void beginExcessiveReportingLines(int reportingLinesThreshold);
+
+    /**
+     * Writes an employee with excessive reporting lines.
+     *
+     * @param employee                the employee
+     * @param excessiveReportingLines by how much the reporting lines of the employee are greater than the threshold
+     * @throws FileWriterException if the record cannot be written
+     */
+    void writeExcessiveReportingLine(Employee employee, int excessiveReportingLines);
+
+    /**
+     * Ends a report, writing its buffered records to the destination.
+     *
+     * @throws FileWriterException if the records cannot be written
+     */
+    void endReport();
+
+    /**
+     * {@inheritDoc}
+     * The managers are written as records of a report of their own.
+     */
+    @Override
+    default void writeSalaryPolicyViolations(Map<Employee, SalaryPolicyViolation> managersWithPolicyViolation, int minimumPercentage, int maximumPercentage) {
+        synchronized (this) {
+            beginSalaryPolicyViolations(minimumPercentage, maximumPercentage);
+            managersWithPolicyViolation.forEach(this::writeSalaryPolicyViolation);
+            endReport();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The employees are written as records of a report of their own.
+     */
+    @Override
+    default void writeExcessiveReportingLines(Map<Employee, Integer> managerAndReportingLines, int reportingLinesThreshold) {
+        synchronized (this) {
+            beginExcessiveReportingLines(reportingLinesThreshold);
+            managerAndReportingLines.forEach(this::writeExcessiveReportingLine);
+            endReport();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.ViolationEvent;
+
+/**
+ * A listener of the employees entering and leaving the violation sets of a live report.
+ */
+@FunctionalInterface
+public interface ViolationListener {
+
+    /**
+     * Receives an employee entering or leaving a violation set. It is called on the thread that changed
+     * the hierarchy, after the change was applied.
+     *
+     * @param event the violation event
+     */
+    void onViolationEvent(ViolationEvent event);
+}
@@ -1,22 +1,40 @@
 package com.big.company.analytics.services.impl;
 
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
 import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
 import com.big.company.analytics.exception.FileReaderException;
 import com.big.company.analytics.exception.ParseExtractionException;
 import com.big.company.analytics.exception.UnexpectedException;
 import com.big.company.analytics.services.AnalyticsService;
 import com.big.company.analytics.services.EmployeeNodeService;
+import com.big.company.analytics.services.EmployeeSnapshotService;
 import com.big.company.analytics.services.FileReaderService;
 import com.big.company.analytics.services.EmployeeReportService;
 
 import java.io.File;
-import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Manages analytics operations by coordinating data reading, processing, and reporting.
  * Works as the main flow for the analytics reporting operation.
+ * <p>
+ * When the file reader is also an {@link EmployeeSnapshotService} and the file is a snapshot, the hierarchy is
+ * mapped straight from the snapshot and reported without being built again.
+ * <p>
+ * When a {@link ReportResultCache} is given, a run over a file with the same content and report parameters as a
+ * cached run prints the cached report, skipping the read, build and report of the employees.
+ * <p>
+ * With report limits, only the worst employees of the limited reports are reported, each report having its own limit,
+ * holding only them in memory.
+ * <p>
+ * On {@link ExecutionMode#PIPELINED} execution, the file is parsed on its own thread while the hierarchy is linked
+ * and validated from the rows already parsed, so the build takes about as long as the slowest of both stages.
  */
 public class AnalyticsManager implements AnalyticsService {
 
@@ -45,6 +63,30 @@ public class AnalyticsManager implements AnalyticsService {
      */
     private final File file;
 
+    private final int minimumPercentage;
+    private final int maximumPercentage;
+    private final int reportingLinesThreshold;
+
+    /**
+     * Maximum number of managers reported on the salary policy report, or null to report all of them.
+     */
+    private final Integer salaryPolicyLimit;
+
+    /**
+     * Maximum number of employees reported on the reporting lines report, or null to report all of them.
+     */
+    private final Integer reportingLinesLimit;
+
+    /**
+     * Cache of the reports by file content and report parameters, or null if the reports are not cached.
+     */
+    private final ReportResultCache cache;
+
+    /**
+     * How the reading and the build of the hierarchy are executed.
+     */
+    private final ExecutionMode executionMode;
+
     /**
      * Constructs an {@code AnalyticsManager} object with the specified services and file.
      *
@@ -63,6 +105,113 @@ public class AnalyticsManager implements AnalyticsService {
         this.nodeService = Objects.requireNonNull(nodeService, "Employee node service must not be null");
         this.report = Objects.requireNonNull(report, "Employee report service must not be null");
         this.file = Objects.requireNonNull(file, "File must not be null");
+        this.minimumPercentage = Defaults.MINIMUM_PERCENTAGE;
+        this.maximumPercentage = Defaults.MAXIMUM_PERCENTAGE;
+        this.reportingLinesThreshold = Defaults.REPORTING_LINES_THRESHOLD;
+        this.salaryPolicyLimit = null;
+        this.reportingLinesLimit = null;
+        this.cache = null;
+        this.executionMode = ExecutionMode.SEQUENTIAL;
+    }
+
+    /**
+     * Constructs an {@code AnalyticsManager} object with the specified services, file, report parameters and cache.
+     *
+     * @param fileReaderService       The service for reading data from a file.
+     * @param nodeService             The service for generating employee hierarchy nodes.
+     * @param report                  The service for generating employee reports.
+     * @param file                    The file containing employee data.
+     * @param minimumPercentage       The minimum allowed percentage increase in salary, 20 if null.
+     * @param maximumPercentage       The maximum allowed percentage increase in salary, 50 if null.
+     * @param reportingLinesThreshold The maximum allowed number of reporting lines, 4 if null.
+     * @param cache                   The cache of the reports, or null if the reports are not cached.
+     * @throws NullPointerException if any of the services or the file is null.
+     */
+    public AnalyticsManager(
+            FileReaderService<Employee> fileReaderService,
+            EmployeeNodeService nodeService,
+            EmployeeReportService report,
+            File file,
+            Integer minimumPercentage,
+            Integer maximumPercentage,
+            Integer reportingLinesThreshold,
+            ReportResultCache cache) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+        this.nodeService = Objects.requireNonNull(nodeService, "Employee node service must not be null");
+        this.report = Objects.requireNonNull(report, "Employee report service must not be null");
+        this.file = Objects.requireNonNull(file, "File must not be null");
+        this.minimumPercentage = (minimumPercentage != null) ? minimumPercentage : Defaults.MINIMUM_PERCENTAGE;
+        this.maximumPercentage = (maximumPercentage != null) ? maximumPercentage : Defaults.MAXIMUM_PERCENTAGE;
+        this.reportingLinesThreshold = (reportingLinesThreshold != null) ? reportingLinesThreshold : Defaults.REPORTING_LINES_THRESHOLD;
+        this.salaryPolicyLimit = null;
+        this.reportingLinesLimit = null;
+        this.cache = cache;
+        this.executionMode = ExecutionMode.SEQUENTIAL;
+    }
+
+    /**
+     * Constructs a copy of an {@code AnalyticsManager} with another execution mode and report limits.
+     *
+     * @param other               The {@code AnalyticsManager} to be copied.
+     * @param executionMode       The execution mode.
+     * @param salaryPolicyLimit   The maximum number of managers reported on the salary policy report, or null to report all of them.
+     * @param reportingLinesLimit The maximum number of employees reported on the reporting lines report, or null to report all of them.
+     */
+    private AnalyticsManager(AnalyticsManager other, ExecutionMode executionMode, Integer salaryPolicyLimit, Integer reportingLinesLimit) {
+        this.fileReaderService = other.fileReaderService;
+        this.nodeService = other.nodeService;
+        this.report = other.report;
+        this.file = other.file;
+        this.minimumPercentage = other.minimumPercentage;
+        this.maximumPercentage = other.maximumPercentage;
+        this.reportingLinesThreshold = other.reportingLinesThreshold;
+        this.salaryPolicyLimit = salaryPolicyLimit;
+        this.reportingLinesLimit = reportingLinesLimit;
+        this.cache = other.cache;
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * Creates a copy of this {@code AnalyticsManager} with another execution mode.
+     *
+     * @param executionMode The execution mode.
+     * @return a new {@code AnalyticsManager} with the same services, file and parameters.
+     * @throws NullPointerException if executionMode is null.
+     */
+    public AnalyticsManager withExecutionMode(ExecutionMode executionMode) {
+        return new AnalyticsManager(this, Objects.requireNonNull(executionMode, "Execution mode must not be null"),
+                salaryPolicyLimit, reportingLinesLimit);
+    }
+
+    /**
+     * Creates a copy of this {@code AnalyticsManager} reporting only the worst employees of each limited report.
+     *
+     * @param salaryPolicyLimit   The maximum number of managers reported on the salary policy report, or null to report all of them.
+     * @param reportingLinesLimit The maximum number of employees reported on the reporting lines report, or null to report all of them.
+     * @return a new {@code AnalyticsManager} with the same services, file and parameters.
+     * @throws IllegalArgumentException if any limit is not positive.
+     */
+    public AnalyticsManager withReportLimits(Integer salaryPolicyLimit, Integer reportingLinesLimit) {
+        if (salaryPolicyLimit != null && salaryPolicyLimit <= 0)
+            throw new IllegalArgumentException(String.format("Salary policy limit must be positive: %d", salaryPolicyLimit));
+        if (reportingLinesLimit != null && reportingLinesLimit <= 0)
+            throw new IllegalArgumentException(String.format("Reporting lines limit must be positive: %d", reportingLinesLimit));
+        return new AnalyticsManager(this, executionMode, salaryPolicyLimit, reportingLinesLimit);
+    }
+
+    /**
+     * Modes of executing the reading and the build of the employee hierarchy.
+     */
+    public enum ExecutionMode {
+        /**
+         * Parses the file and links the hierarchy on the same thread, the hierarchy pulling the employees as parsed.
+         */
+        SEQUENTIAL,
+        /**
+         * Parses the file on its own thread, handing the employees over in batches through a bounded queue to the
+         * linking and validation of the hierarchy, so both stages run concurrently.
+         */
+        PIPELINED
     }
 
     /**
@@ -82,6 +231,13 @@ public class AnalyticsManager implements AnalyticsService {
         this.nodeService = Objects.requireNonNull(nodeService, "Employee node service must not be null");
         this.report = Objects.requireNonNull(report, "Employee report service must not be null");
         this.file = initDefaultFile();
+        this.minimumPercentage = Defaults.MINIMUM_PERCENTAGE;
+        this.maximumPercentage = Defaults.MAXIMUM_PERCENTAGE;
+        this.reportingLinesThreshold = Defaults.REPORTING_LINES_THRESHOLD;
+        this.salaryPolicyLimit = null;
+        this.reportingLinesLimit = null;
+        this.cache = null;
+        this.executionMode = ExecutionMode.SEQUENTIAL;
     }
 
     /**
@@ -95,23 +251,56 @@ public class AnalyticsManager implements AnalyticsService {
     }
 
     /**
-     * Retrieves employees from the specified CSV file.
+     * Streams employees from the specified CSV file into the employee hierarchy, so employees are linked
+     * as they are parsed instead of being loaded into a list first.
      *
      * @param csvFile The CSV file containing employee data.
-     * @return A list of employees.
-     * @throws FileReaderException      If an error occurs while extracting data from the file.
-     * @throws ParseExtractionException If an error occurs while parsing the extracted data.
-     * @throws UnexpectedException      If an unexpected error occurs.
+     * @return The root node of the employee hierarchy.
+     * @throws FileReaderException          If an error occurs while extracting data from the file.
+     * @throws ParseExtractionException     If an error occurs while parsing the extracted data.
+     * @throws EmployeeNodeServiceException If the employees do not form a valid hierarchy.
+     * @throws UnexpectedException          If an unexpected error occurs.
      */
-    private List<Employee> retrieveEmployeesFromFile(File csvFile) {
-        try {
-            return fileReaderService.readFile(csvFile);
+    private EmployeeNode generateHierarchyFromFile(File csvFile) {
+        long[] employeesLoaded = {0};
+        try (Stream<Employee> employees = (executionMode == ExecutionMode.PIPELINED) ?
+                PipelinedEmployeeStream.of(fileReaderService.streamFile(csvFile)) : fileReaderService.streamFile(csvFile)) {
+            EmployeeNode employeesHierarchy = nodeService.generateStreamedEmployeesHierarchy(employees.peek(employee -> employeesLoaded[0]++));
+            System.out.println("Reading successfully done!");
+            System.out.printf("Employees loaded: %d%n", employeesLoaded[0]);
+            return employeesHierarchy;
         } catch (FileReaderException e) {
             System.out.println("ERROR when loading the file");
             throw new FileReaderException(e.getMessage());
         } catch (ParseExtractionException e) {
             System.out.println("ERROR when reading the file");
             throw new ParseExtractionException(e.getMessage());
+        } catch (EmployeeNodeServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            System.out.println("ERROR: unexpected error");
+            throw new UnexpectedException(e.getMessage());
+        }
+    }
+
+    /**
+     * Maps the employee hierarchy from the specified snapshot file.
+     *
+     * @param snapshotService The service for reading snapshot files.
+     * @param snapshotFile    The snapshot file containing the employee hierarchy.
+     * @return The employee hierarchy.
+     * @throws FileReaderException If an error occurs while loading the snapshot.
+     * @throws UnexpectedException If an unexpected error occurs.
+     */
+    private EmployeeHierarchy loadHierarchyFromSnapshot(EmployeeSnapshotService snapshotService, File snapshotFile) {
+        try {
+            EmployeeHierarchy employeesHierarchy = snapshotService.readSnapshot(snapshotFile);
+            System.out.println("Reading successfully done!");
+            System.out.printf("Employees loaded: %d%n", employeesHierarchy.size());
+            return employeesHierarchy;
+        } catch (FileReaderException e) {
+            System.out.println("ERROR when loading the file");
+            throw new FileReaderException(e.getMessage());
         } catch (Exception e) {
             System.out.println("ERROR: unexpected error");
             throw new UnexpectedException(e.getMessage());
@@ -124,41 +313,114 @@ public class AnalyticsManager implements AnalyticsService {
     public void runAnalytics() {
         System.out.println("=========== INITIALIZING ANALYTICS REPORTS ===========");
         System.out.println();
-        System.out.println("Init reading of employees from file");
+        System.out.println("Init reading of employees from file and creating employee hierarchy...");
 
         System.out.printf("Loading file: %s%n", file.getName());
-        List<Employee> employees = retrieveEmployeesFromFile(file);
+        ReportResultCache.Key key = (cache != null) ? cacheKey() : null;
+        Optional<EmployeeHierarchyReport> cachedReport = (key != null) ? cache.get(key) : Optional.empty();
+        if (cachedReport.isPresent()) {
+            System.out.println("Report found on cache, file content and parameters unchanged!");
+            System.out.println();
 
-        System.out.println("Reading successfully done!");
-        System.out.printf("Employees loaded: %d%n", employees.size());
-        System.out.println();
+            runReports(() -> {
+                report.printReport(cachedReport.get());
+                return cachedReport.get();
+            });
+        } else if (fileReaderService instanceof EmployeeSnapshotService snapshotService && snapshotService.isSnapshot(file)) {
+            EmployeeHierarchy employeesHierarchy = loadHierarchyFromSnapshot(snapshotService, file);
 
-        System.out.println("Creating employee hierarchy...");
+            System.out.println("Employee hierarchy mapped from snapshot!");
+            System.out.println();
 
-        EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(employees);
+            System.out.println("Init report of managers with policy violation");
+            System.out.println();
 
-        System.out.println("Employee hierarchy generated!");
-        System.out.println();
+            cacheReport(key, runReports(() -> report.reportAll(employeesHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold,
+                    salaryPolicyLimit, reportingLinesLimit)));
+        } else {
+            EmployeeNode employeesHierarchy = generateHierarchyFromFile(file);
 
-        System.out.println("Init report of managers with policy violation");
-        System.out.println();
+            System.out.println("Employee hierarchy generated!");
+            System.out.println();
+
+            System.out.println("Init report of managers with policy violation");
+            System.out.println();
 
-        runReports(employeesHierarchy);
+            cacheReport(key, runReports(() -> report.reportAll(employeesHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold,
+                    salaryPolicyLimit, reportingLinesLimit)));
+        }
         System.out.println("=========== FINISHING ANALYTICS REPORTS ===========");
     }
 
     /**
-     * Runs reports on the employee hierarchy.
+     * Creates the cache key of the file and report parameters.
+     *
+     * @return The cache key.
+     * @throws FileReaderException If an error occurs while hashing the file.
+     */
+    private ReportResultCache.Key cacheKey() {
+        try {
+            return cache.keyOf(file, minimumPercentage, maximumPercentage, reportingLinesThreshold,
+                    (salaryPolicyLimit != null) ? salaryPolicyLimit : 0, (reportingLinesLimit != null) ? reportingLinesLimit : 0);
+        } catch (FileReaderException e) {
+            System.out.println("ERROR when loading the file");
+            throw e;
+        }
+    }
+
+    /**
+     * Caches the report of a run, if the reports are cached. The key was hashed before the file was read, so the file
+     * is hashed again and the report is only cached if the content is unchanged; otherwise the report of the new
+     * content would be stored under the hash of the old one and served to every later run over the old content.
+     *
+     * @param key    The cache key, or null if the reports are not cached.
+     * @param report The report of the run.
+     */
+    private void cacheReport(ReportResultCache.Key key, EmployeeHierarchyReport report) {
+        if (key == null) return;
+        String contentHash;
+        try {
+            contentHash = ReportResultCache.contentHash(file);
+        } catch (FileReaderException e) {
+            contentHash = null;
+        }
+        if (key.contentHash().equals(contentHash)) {
+            cache.put(key, report);
+        } else {
+            System.out.println("WARNING: file changed while being reported, report not cached");
+        }
+    }
+
+    /**
+     * Runs all reports on the employee hierarchy, computed together in a single traversal.
      *
-     * @param employees The root node of the employee hierarchy.
+     * @param reports The reports run over the employee hierarchy.
+     * @return The report.
      */
-    private void runReports(EmployeeNode employees) {
+    private EmployeeHierarchyReport runReports(Supplier<EmployeeHierarchyReport> reports) {
         try {
-            report.reportManagersSalaryPolicyViolation(employees);
-            report.reportManagersWithExcessiveReportingLines(employees);
+            return reports.get();
         } catch (Exception e) {
             System.out.printf("ERROR creating the reports of employees | %s%n", e.getMessage());
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Provides default values for the report parameters of the {@code AnalyticsManager}.
+     */
+    private static class Defaults {
+        /**
+         * Default minimum allowed percentage increase in salary.
+         */
+        static final int MINIMUM_PERCENTAGE = 20;
+        /**
+         * Default maximum allowed percentage increase in salary.
+         */
+        static final int MAXIMUM_PERCENTAGE = 50;
+        /**
+         * Default maximum allowed number of reporting lines.
+         */
+        static final int REPORTING_LINES_THRESHOLD = 4;
+    }
+}
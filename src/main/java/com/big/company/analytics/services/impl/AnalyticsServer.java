@@ -0,0 +1,656 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.exception.ParseExtractionException;
+import com.big.company.analytics.exception.UnexpectedException;
+import com.big.company.analytics.services.EmployeeSnapshotService;
+import com.big.company.analytics.services.EmployeeTableService;
+import com.big.company.analytics.services.FileReaderService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * A resident analytics server that keeps the employee hierarchy of a file loaded and answers report queries over
+ * HTTP, with the JDK built-in {@code com.sun.net.httpserver}, so the JVM startup, the parsing of the file and the
+ * hierarchy build are not paid on every query.
+ * <p>
+ * The file is watched with a {@link WatchService} and the hierarchy is rebuilt when it changes. The new hierarchy is
+ * swapped in atomically once fully built, so queries never see a partially loaded file; if the new content is not
+ * valid, the previous hierarchy keeps being served.
+ * <p>
+ * The loaded hierarchy is immutable and shared by every request through a single volatile reference, so requests
+ * never lock: a reload builds the new hierarchy aside and publishes it with one write. The salary policy queries are
+ * answered from a {@link SalaryPolicyIndex} built with the hierarchy, in logarithmic time for any percentage range,
+ * and the full report responses are cached by report parameters for the loaded hierarchy. When a
+ * {@link ReportResultCache} is given, the reports are also looked up there by file content before being computed,
+ * so a restarted server, or a file changed back to a previous content, is answered from the reports already stored.
+ * <p>
+ * Idle connections are multiplexed by the dispatcher thread of the JDK server, so many concurrent clients are held
+ * without a thread each. Connections not yet accepted wait on the accept backlog of the listening socket, which is
+ * large by default instead of the operating system default (typically 50), so bursts of thousands of new connections
+ * are not refused; the operating system may cap it further (e.g. {@code net.core.somaxconn} on Linux).
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>{@code GET /reports?min=20&max=50&threshold=4&salary_policy_limit=10&reporting_lines_limit=10}: both
+ *     reports, every parameter optional, each report limited to its worst employees if its limit is given</li>
+ *     <li>{@code GET /salary-policy?min=20&max=50}: the salary policy report, every parameter optional</li>
+ *     <li>{@code GET /status}: the loaded file, its number of employees and the number of reloads</li>
+ * </ul>
+ */
+public final class AnalyticsServer implements AutoCloseable {
+
+    /**
+     * Service for reading data from a file.
+     */
+    private final FileReaderService<Employee> fileReaderService;
+
+    /**
+     * Service for generating the employee hierarchy as an employee table.
+     */
+    private final EmployeeTableService tableService;
+
+    /**
+     * Engine computing the reports over the loaded hierarchy.
+     */
+    private final HierarchyReportEngine engine;
+
+    /**
+     * The watched file containing employee data.
+     */
+    private final File file;
+
+    /**
+     * Cache of the reports by file content and report parameters, or null if the reports are not cached.
+     */
+    private final ReportResultCache cache;
+
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final AtomicLong reloads = new AtomicLong();
+
+    /**
+     * The loaded hierarchy with its cached responses, swapped as a whole on reload.
+     */
+    private volatile LoadedHierarchy loaded;
+
+    private WatchService watchService;
+    private Thread watcher;
+
+    /**
+     * Constructs an {@code AnalyticsServer} for a file, bound to the given address. The server does not load the file
+     * nor accept requests until it is started.
+     *
+     * @param fileReaderService the service for reading data from a file, also used for snapshots if it is an {@link EmployeeSnapshotService}
+     * @param tableService      the service for generating the employee hierarchy
+     * @param engine            the engine computing the reports
+     * @param file              the file containing employee data
+     * @param address           the address the server is bound to, port 0 for any free port
+     * @param executor          the executor handling the requests, shut down when the server is closed;
+     *                          a fixed pool of one thread per available processor if null
+     * @throws NullPointerException if any params but executor is null
+     * @throws UnexpectedException  if the server cannot be bound to the address
+     */
+    public AnalyticsServer(
+            FileReaderService<Employee> fileReaderService,
+            EmployeeTableService tableService,
+            HierarchyReportEngine engine,
+            File file,
+            InetSocketAddress address,
+            ExecutorService executor) {
+        this(fileReaderService, tableService, engine, file, address, executor, null);
+    }
+
+    /**
+     * Constructs an {@code AnalyticsServer} for a file, bound to the given address, looking the reports up on a cache
+     * before computing them. The server does not load the file nor accept requests until it is started.
+     *
+     * @param fileReaderService the service for reading data from a file, also used for snapshots if it is an {@link EmployeeSnapshotService}
+     * @param tableService      the service for generating the employee hierarchy
+     * @param engine            the engine computing the reports
+     * @param file              the file containing employee data
+     * @param address           the address the server is bound to, port 0 for any free port
+     * @param executor          the executor handling the requests, shut down when the server is closed;
+     *                          a fixed pool of one thread per available processor if null
+     * @param cache             the cache of the reports, or null if the reports are not cached
+     * @throws NullPointerException if any params but executor and cache is null
+     * @throws UnexpectedException  if the server cannot be bound to the address
+     */
+    public AnalyticsServer(
+            FileReaderService<Employee> fileReaderService,
+            EmployeeTableService tableService,
+            HierarchyReportEngine engine,
+            File file,
+            InetSocketAddress address,
+            ExecutorService executor,
+            ReportResultCache cache) {
+        this(fileReaderService, tableService, engine, file, address, Defaults.BACKLOG, executor, cache);
+    }
+
+    /**
+     * Constructs an {@code AnalyticsServer} for a file, bound to the given address with the given accept backlog,
+     * looking the reports up on a cache before computing them. The server does not load the file nor accept requests
+     * until it is started.
+     *
+     * @param fileReaderService the service for reading data from a file, also used for snapshots if it is an {@link EmployeeSnapshotService}
+     * @param tableService      the service for generating the employee hierarchy
+     * @param engine            the engine computing the reports
+     * @param file              the file containing employee data
+     * @param address           the address the server is bound to, port 0 for any free port
+     * @param backlog           the maximum number of incoming connections waiting to be accepted
+     * @param executor          the executor handling the requests, shut down when the server is closed;
+     *                          a fixed pool of one thread per available processor if null
+     * @param cache             the cache of the reports, or null if the reports are not cached
+     * @throws NullPointerException     if any params but executor and cache is null
+     * @throws IllegalArgumentException if backlog is not positive
+     * @throws UnexpectedException      if the server cannot be bound to the address
+     */
+    public AnalyticsServer(
+            FileReaderService<Employee> fileReaderService,
+            EmployeeTableService tableService,
+            HierarchyReportEngine engine,
+            File file,
+            InetSocketAddress address,
+            int backlog,
+            ExecutorService executor,
+            ReportResultCache cache) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+        this.tableService = Objects.requireNonNull(tableService, "Employee table service must not be null");
+        this.engine = Objects.requireNonNull(engine, "Report engine must not be null");
+        this.file = Objects.requireNonNull(file, "File must not be null").getAbsoluteFile();
+        this.cache = cache;
+        Objects.requireNonNull(address, "Address must not be null");
+        if (backlog <= 0)
+            throw new IllegalArgumentException(String.format("Backlog must be positive: %d", backlog));
+
+        try {
+            this.httpServer = HttpServer.create(address, backlog);
+        } catch (IOException e) {
+            throw new UnexpectedException(String.format("Server cannot be bound to %s | %s", address, e.getMessage()));
+        }
+        this.executor = (executor != null) ? executor : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        this.httpServer.setExecutor(this.executor);
+        this.httpServer.createContext("/reports", exchange -> handle(exchange, this::reports));
+        this.httpServer.createContext("/salary-policy", exchange -> handle(exchange, this::salaryPolicy));
+        this.httpServer.createContext("/status", exchange -> handle(exchange, this::status));
+    }
+
+    /**
+     * Constructs an {@code AnalyticsServer} for a file on the given port of all local addresses, with default services.
+     *
+     * @param fileReaderService the service for reading data from a file
+     * @param file              the file containing employee data
+     * @param port              the port the server is bound to, 0 for any free port
+     * @throws NullPointerException if any params is null
+     * @throws UnexpectedException  if the server cannot be bound to the port
+     */
+    public AnalyticsServer(FileReaderService<Employee> fileReaderService, File file, int port) {
+        this(fileReaderService, file, port, null);
+    }
+
+    /**
+     * Constructs an {@code AnalyticsServer} for a file on the given port of all local addresses, with default services,
+     * looking the reports up on a cache before computing them.
+     *
+     * @param fileReaderService the service for reading data from a file
+     * @param file              the file containing employee data
+     * @param port              the port the server is bound to, 0 for any free port
+     * @param cache             the cache of the reports, or null if the reports are not cached
+     * @throws NullPointerException if any params but cache is null
+     * @throws UnexpectedException  if the server cannot be bound to the port
+     */
+    public AnalyticsServer(FileReaderService<Employee> fileReaderService, File file, int port, ReportResultCache cache) {
+        this(fileReaderService, file, port, Defaults.BACKLOG, cache);
+    }
+
+    /**
+     * Constructs an {@code AnalyticsServer} for a file on the given port of all local addresses, with default services
+     * and the given accept backlog, looking the reports up on a cache before computing them.
+     *
+     * @param fileReaderService the service for reading data from a file
+     * @param file              the file containing employee data
+     * @param port              the port the server is bound to, 0 for any free port
+     * @param backlog           the maximum number of incoming connections waiting to be accepted
+     * @param cache             the cache of the reports, or null if the reports are not cached
+     * @throws NullPointerException     if any params but cache is null
+     * @throws IllegalArgumentException if backlog is not positive
+     * @throws UnexpectedException      if the server cannot be bound to the port
+     */
+    public AnalyticsServer(FileReaderService<Employee> fileReaderService, File file, int port, int backlog, ReportResultCache cache) {
+        this(fileReaderService, new EmployeeTableGenerator(), new HierarchyReportEngine(), file, new InetSocketAddress(port),
+                backlog, null, cache);
+    }
+
+    /**
+     * Loads the file, starts watching it and starts accepting requests.
+     *
+     * @throws FileReaderException          if the file is not found or cannot be read
+     * @throws ParseExtractionException     if the file content cannot be parsed
+     * @throws EmployeeNodeServiceException if the employees do not form a valid hierarchy
+     * @throws UnexpectedException          if the file cannot be watched
+     * @throws IllegalStateException        if the server was already started
+     */
+    public synchronized void start() {
+        if (watcher != null) throw new IllegalStateException("Server already started");
+        loaded = load();
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParentFile().toPath().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new UnexpectedException(String.format("File cannot be watched | %s", e.getMessage()));
+        }
+        watcher = new Thread(this::watch, "analytics-file-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+
+        httpServer.start();
+        System.out.printf("Analytics server listening on port %d, serving file: %s%n", port(), file.getName());
+    }
+
+    /**
+     * Rebuilds the hierarchy from the file and swaps it in, keeping the previous hierarchy if the file is not valid.
+     *
+     * @return true if the hierarchy was reloaded
+     */
+    public synchronized boolean reload() {
+        try {
+            loaded = load();
+            reloads.incrementAndGet();
+            System.out.printf("File reloaded: %s | Employees loaded: %d%n", file.getName(), loaded.hierarchy().size());
+            return true;
+        } catch (RuntimeException e) {
+            System.out.printf("ERROR reloading the file, keeping the previous hierarchy | %s%n", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return the port the server is bound to
+     */
+    public int port() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * @return the number of successful reloads since the server was started
+     */
+    public long reloads() {
+        return reloads.get();
+    }
+
+    /**
+     * Stops accepting requests and watching the file.
+     */
+    @Override
+    public synchronized void close() {
+        httpServer.stop(0);
+        executor.shutdownNow();
+        if (watcher != null) {
+            watcher.interrupt();
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.out.printf("ERROR closing the file watcher | %s%n", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Builds the hierarchy of the file, mapped from the snapshot if the file is a snapshot. With a cache, the file
+     * content is hashed before and after the build, and left without hash if it changed meanwhile, so the reports of
+     * the built hierarchy are never cached under the hash of another content.
+     *
+     * @return the loaded hierarchy, without cached responses
+     */
+    private LoadedHierarchy load() {
+        String contentHash = (cache != null) ? ReportResultCache.contentHash(file) : null;
+        EmployeeHierarchy hierarchy;
+        if (fileReaderService instanceof EmployeeSnapshotService snapshotService && snapshotService.isSnapshot(file)) {
+            hierarchy = snapshotService.readSnapshot(file);
+        } else {
+            try (Stream<Employee> employees = fileReaderService.streamFile(file)) {
+                hierarchy = tableService.generateStreamedEmployeeTable(employees);
+            }
+        }
+        if (contentHash != null && !contentHash.equals(ReportResultCache.contentHash(file))) contentHash = null;
+        return new LoadedHierarchy(hierarchy, SalaryPolicyIndex.of(hierarchy), contentHash, Instant.now(), new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Waits for changes of the watched file, reloading it once the changes settle.
+     */
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                boolean changed = pollChanges(watchService.take());
+                WatchKey key;
+                while ((key = watchService.poll(Defaults.RELOAD_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= pollChanges(key);
+                }
+                if (changed) reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // server closed
+        }
+    }
+
+    /**
+     * Consumes the events of a watch key.
+     *
+     * @param key the watch key
+     * @return true if any event was about the watched file
+     */
+    private boolean pollChanges(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getName().equals(((Path) event.context()).toString()))
+                changed = true;
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Answers a report query, with the report parameters given as query parameters.
+     *
+     * @param exchange the request
+     * @return the JSON response
+     */
+    private byte[] reports(HttpExchange exchange) {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        ReportParameters parameters = new ReportParameters(
+                intParameter(query, "min", Defaults.MINIMUM_PERCENTAGE),
+                intParameter(query, "max", Defaults.MAXIMUM_PERCENTAGE),
+                intParameter(query, "threshold", Defaults.REPORTING_LINES_THRESHOLD),
+                intParameter(query, "salary_policy_limit", 0),
+                intParameter(query, "reporting_lines_limit", 0));
+
+        LoadedHierarchy current = loaded;
+        byte[] response = current.responses().get(parameters);
+        if (response == null) {
+            response = toJson(compute(current, parameters));
+            if (current.responses().size() < Defaults.CACHED_RESPONSES) current.responses().putIfAbsent(parameters, response);
+        }
+        return response;
+    }
+
+    /**
+     * Computes a report over a loaded hierarchy, or gets it from the cache if the content of the file was hashed.
+     *
+     * @param current    the loaded hierarchy
+     * @param parameters the report parameters
+     * @return the report
+     */
+    private EmployeeHierarchyReport compute(LoadedHierarchy current, ReportParameters parameters) {
+        HierarchyReportEngine reportEngine = (parameters.salaryPolicyLimit() != 0 || parameters.reportingLinesLimit() != 0) ?
+                engine.withLimits((parameters.salaryPolicyLimit() != 0) ? parameters.salaryPolicyLimit() : null,
+                        (parameters.reportingLinesLimit() != 0) ? parameters.reportingLinesLimit() : null) : engine;
+        ReportResultCache.Key key = (current.contentHash() != null) ? new ReportResultCache.Key(current.contentHash(),
+                parameters.minimumPercentage(), parameters.maximumPercentage(), parameters.reportingLinesThreshold(),
+                parameters.salaryPolicyLimit(), parameters.reportingLinesLimit()) : null;
+        Optional<EmployeeHierarchyReport> cachedReport = (key != null) ? cache.get(key) : Optional.empty();
+        if (cachedReport.isPresent()) return cachedReport.get();
+
+        EmployeeHierarchyReport report = reportEngine.compute(current.hierarchy(),
+                parameters.minimumPercentage(), parameters.maximumPercentage(), parameters.reportingLinesThreshold());
+        if (key != null) cache.put(key, report);
+        return report;
+    }
+
+    /**
+     * Answers a salary policy query, with the percentages given as query parameters.
+     *
+     * @param exchange the request
+     * @return the JSON response
+     */
+    private byte[] salaryPolicy(HttpExchange exchange) {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int minimumPercentage = intParameter(query, "min", Defaults.MINIMUM_PERCENTAGE);
+        int maximumPercentage = intParameter(query, "max", Defaults.MAXIMUM_PERCENTAGE);
+
+        StringBuilder json = new StringBuilder(256)
+                .append("{\"minimumPercentage\":").append(minimumPercentage)
+                .append(",\"maximumPercentage\":").append(maximumPercentage)
+                .append(",\"salaryPolicyViolations\":[");
+        appendEmployees(json, loaded.salaryPolicy().violations(minimumPercentage, maximumPercentage), "violation");
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Answers a status query.
+     *
+     * @param exchange the request
+     * @return the JSON response
+     */
+    private byte[] status(HttpExchange exchange) {
+        LoadedHierarchy current = loaded;
+        return String.format("{\"file\":%s,\"employees\":%d,\"loadedAt\":\"%s\",\"reloads\":%d}",
+                jsonString(file.getName()), current.hierarchy().size(), current.loadedAt(), reloads.get())
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Handles a request with the given handler, answering only GET requests and mapping errors to status codes.
+     *
+     * @param exchange the request
+     * @param handler  the handler of the request
+     * @throws IOException if the response cannot be sent
+     */
+    private void handle(HttpExchange exchange, RequestHandler handler) throws IOException {
+        try (exchange) {
+            int status;
+            byte[] body;
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                status = 405;
+                body = jsonError("Method not allowed: " + exchange.getRequestMethod());
+            } else {
+                try {
+                    body = handler.handle(exchange);
+                    status = 200;
+                } catch (IllegalArgumentException e) {
+                    status = 400;
+                    body = jsonError(e.getMessage());
+                } catch (RuntimeException e) {
+                    status = 500;
+                    body = jsonError(e.getMessage());
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream response = exchange.getResponseBody()) {
+                response.write(body);
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) return Collections.emptyMap();
+        Map<String, String> query = new LinkedHashMap<>();
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) query.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+        }
+        return query;
+    }
+
+    private static int intParameter(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid value of parameter %s: %s", name, value));
+        }
+    }
+
+    /**
+     * Renders a report as JSON, with the employees sorted by id.
+     *
+     * @param report the report
+     * @return the JSON response
+     */
+    private static byte[] toJson(EmployeeHierarchyReport report) {
+        StringBuilder json = new StringBuilder(256)
+                .append("{\"minimumPercentage\":").append(report.minimumPercentage())
+                .append(",\"maximumPercentage\":").append(report.maximumPercentage())
+                .append(",\"reportingLinesThreshold\":").append(report.reportingLinesThreshold())
+                .append(",\"salaryPolicyViolations\":[");
+        appendEmployees(json, report.salaryPolicyViolations(), "violation");
+        json.append("],\"excessiveReportingLines\":[");
+        appendEmployees(json, report.excessiveReportingLines(), "excessiveReportingLines");
+        json.append("],\"metrics\":{");
+        String separator = "";
+        for (Map.Entry<String, Object> metric : report.metrics().entrySet()) {
+            json.append(separator).append(jsonString(metric.getKey())).append(':')
+                    .append(metric.getValue() instanceof Number ? metric.getValue().toString() : jsonString(String.valueOf(metric.getValue())));
+            separator = ",";
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendEmployees(StringBuilder json, Map<Employee, ?> employees, String valueName) {
+        String separator = "";
+        for (Map.Entry<Employee, ?> entry : employees.entrySet().stream().sorted(Map.Entry.comparingByKey(Comparator.comparing(Employee::id))).toList()) {
+            Employee employee = entry.getKey();
+            json.append(separator)
+                    .append("{\"id\":").append(employee.id())
+                    .append(",\"firstName\":").append(jsonString(employee.firstName()))
+                    .append(",\"lastName\":").append(jsonString(employee.lastName()))
+                    .append(",\"salary\":").append(employee.salary())
+                    .append(",\"managerId\":").append(employee.managerId())
+                    .append(",\"").append(valueName).append("\":");
+            if (entry.getValue() instanceof SalaryPolicyViolation violation) {
+                json.append(jsonString(violation.description()))
+                        .append(",\"minimumSalaryAllowed\":").append(violation.minimumSalaryAllowed())
+                        .append(",\"maximumSalaryAllowed\":").append(violation.maximumSalaryAllowed())
+                        .append(",\"delta\":").append(violation.delta());
+            } else {
+                json.append(entry.getValue() instanceof Number ? entry.getValue().toString() : jsonString(String.valueOf(entry.getValue())));
+            }
+            json.append('}');
+            separator = ",";
+        }
+    }
+
+    private static byte[] jsonError(String message) {
+        return ("{\"error\":" + jsonString(Optional.ofNullable(message).orElse("")) + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+                    else json.append(c);
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * A handler of a request, returning the JSON response.
+     */
+    @FunctionalInterface
+    private interface RequestHandler {
+        byte[] handle(HttpExchange exchange);
+    }
+
+    /**
+     * The report parameters of a query, with a limit of 0 for a report of all the employees.
+     */
+    private record ReportParameters(int minimumPercentage, int maximumPercentage, int reportingLinesThreshold,
+                                    int salaryPolicyLimit, int reportingLinesLimit) {
+    }
+
+    /**
+     * A loaded hierarchy with the index and responses computed over it.
+     *
+     * @param hierarchy    the employee hierarchy
+     * @param salaryPolicy the salary policy index of the hierarchy
+     * @param contentHash  the hash of the loaded file content, or null if the reports are not cached
+     * @param loadedAt     when the hierarchy was loaded
+     * @param responses    the JSON report responses by report parameters, up to the first ones queried
+     */
+    private record LoadedHierarchy(
+            EmployeeHierarchy hierarchy,
+            SalaryPolicyIndex salaryPolicy,
+            String contentHash,
+            Instant loadedAt,
+            Map<ReportParameters, byte[]> responses) {
+    }
+
+    /**
+     * Provides default values for the {@code AnalyticsServer}.
+     */
+    private static class Defaults {
+        /**
+         * Default minimum allowed percentage increase in salary.
+         */
+        static final int MINIMUM_PERCENTAGE = 20;
+        /**
+         * Default maximum allowed percentage increase in salary.
+         */
+        static final int MAXIMUM_PERCENTAGE = 50;
+        /**
+         * Default maximum allowed number of reporting lines.
+         */
+        static final int REPORTING_LINES_THRESHOLD = 4;
+        /**
+         * Maximum number of report responses cached for each loaded hierarchy. Once reached, further parameters
+         * are computed on every query instead of evicting, so the cache needs no lock.
+         */
+        static final int CACHED_RESPONSES = 64;
+        /**
+         * Time waited for further changes of the file before reloading it, so a file being written is reloaded once.
+         */
+        static final long RELOAD_DEBOUNCE_MILLIS = 200;
+        /**
+         * Default maximum number of incoming connections waiting to be accepted, far above the operating system
+         * default so bursts of thousands of clients connecting at once are queued instead of refused.
+         */
+        static final int BACKLOG = 16_384;
+    }
+}
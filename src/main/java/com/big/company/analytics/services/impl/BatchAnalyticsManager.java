@@ -0,0 +1,323 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.exception.UnexpectedException;
+import com.big.company.analytics.services.AnalyticsService;
+import com.big.company.analytics.services.EmployeeReportService;
+import com.big.company.analytics.services.EmployeeSnapshotService;
+import com.big.company.analytics.services.EmployeeTableService;
+import com.big.company.analytics.services.FileReaderService;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Runs the analytics of every employees file of a directory matching a glob (e.g. one file per subsidiary) in a
+ * single JVM, reading, building and reporting the files concurrently on a bounded pool.
+ * <p>
+ * The same reader, table and report services are shared by every file, so they are warmed up once. The report of each
+ * file is printed as soon as the file is done, one file at a time, headed by its file name written through the report
+ * sink (a source record on the machine-readable formats), and only its counts are kept for the consolidated report
+ * printed once all files are done, in file name order. A file that fails is reported as failed, in console, without
+ * stopping the others. At most {@code parallelism} hierarchies and reports are held in memory at once, whatever the number of
+ * files.
+ */
+public class BatchAnalyticsManager implements AnalyticsService {
+
+    /**
+     * Service for reading data from a file, also used for snapshots if it is an {@link EmployeeSnapshotService}.
+     */
+    private final FileReaderService<Employee> fileReaderService;
+
+    /**
+     * Service for generating the employee hierarchy of each file.
+     */
+    private final EmployeeTableService tableService;
+
+    /**
+     * Service computing the report of each file, without printing it, and printing it once the file is done.
+     */
+    private final EmployeeReportService report;
+
+    /**
+     * The directory containing the employee files.
+     */
+    private final File directory;
+
+    /**
+     * The glob the names of the employee files match.
+     */
+    private final String glob;
+
+    /**
+     * The maximum number of files processed at once.
+     */
+    private final int parallelism;
+
+    /**
+     * The minimum allowed percentage increase in salary.
+     */
+    private final int minimumPercentage;
+
+    /**
+     * The maximum allowed percentage increase in salary.
+     */
+    private final int maximumPercentage;
+
+    /**
+     * The maximum allowed number of reporting lines.
+     */
+    private final int reportingLinesThreshold;
+
+    /**
+     * Lock printing the report of one file at a time.
+     */
+    private final Object printLock = new Object();
+
+    /**
+     * Constructs a {@code BatchAnalyticsManager} for the files of a directory matching a glob, with the standard
+     * percentages of 20% and 50% and the standard reporting lines threshold of 4.
+     *
+     * @param fileReaderService The service for reading data from a file.
+     * @param tableService      The service for generating the employee hierarchy of each file.
+     * @param report            The service for computing and printing the report of each file.
+     * @param directory         The directory containing the employee files.
+     * @param glob              The glob the file names match, {@code *.{csv,ehs}} if null.
+     * @param parallelism       The maximum number of files processed at once, the number of available processors if null.
+     * @throws NullPointerException     if any of the services or the directory is null.
+     * @throws IllegalArgumentException if parallelism is not positive.
+     */
+    public BatchAnalyticsManager(
+            FileReaderService<Employee> fileReaderService,
+            EmployeeTableService tableService,
+            EmployeeReportService report,
+            File directory,
+            String glob,
+            Integer parallelism) {
+        this(fileReaderService, tableService, report, directory, glob, parallelism, null, null, null);
+    }
+
+    /**
+     * Constructs a {@code BatchAnalyticsManager} for the files of a directory matching a glob, with the specified
+     * report parameters.
+     *
+     * @param fileReaderService       The service for reading data from a file.
+     * @param tableService            The service for generating the employee hierarchy of each file.
+     * @param report                  The service for computing and printing the report of each file.
+     * @param directory               The directory containing the employee files.
+     * @param glob                    The glob the file names match, {@code *.{csv,ehs}} if null.
+     * @param parallelism             The maximum number of files processed at once, the number of available processors if null.
+     * @param minimumPercentage       The minimum allowed percentage increase in salary, 20 if null.
+     * @param maximumPercentage       The maximum allowed percentage increase in salary, 50 if null.
+     * @param reportingLinesThreshold The maximum allowed number of reporting lines, 4 if null.
+     * @throws NullPointerException     if any of the services or the directory is null.
+     * @throws IllegalArgumentException if parallelism is not positive.
+     */
+    public BatchAnalyticsManager(
+            FileReaderService<Employee> fileReaderService,
+            EmployeeTableService tableService,
+            EmployeeReportService report,
+            File directory,
+            String glob,
+            Integer parallelism,
+            Integer minimumPercentage,
+            Integer maximumPercentage,
+            Integer reportingLinesThreshold) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+        this.tableService = Objects.requireNonNull(tableService, "Employee table service must not be null");
+        this.report = Objects.requireNonNull(report, "Employee report service must not be null");
+        this.directory = Objects.requireNonNull(directory, "Directory must not be null");
+        this.glob = (glob != null) ? glob : Defaults.GLOB;
+        this.parallelism = (parallelism != null) ? parallelism : Runtime.getRuntime().availableProcessors();
+        if (this.parallelism <= 0)
+            throw new IllegalArgumentException(String.format("Parallelism must be positive: %d", this.parallelism));
+        this.minimumPercentage = (minimumPercentage != null) ? minimumPercentage : Defaults.MINIMUM_PERCENTAGE;
+        this.maximumPercentage = (maximumPercentage != null) ? maximumPercentage : Defaults.MAXIMUM_PERCENTAGE;
+        this.reportingLinesThreshold = (reportingLinesThreshold != null) ? reportingLinesThreshold : Defaults.REPORTING_LINES_THRESHOLD;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void runAnalytics() {
+        runBatch();
+    }
+
+    /**
+     * Runs the analytics of every matching file, printing the report of each file as it is done, in the order the files
+     * finish, and the consolidated report once all files are done.
+     *
+     * @return the result of each file, in file name order
+     * @throws FileReaderException if the directory is not found or cannot be listed
+     * @throws UnexpectedException if the batch is interrupted
+     */
+    public List<FileResult> runBatch() {
+        System.out.println("=========== INITIALIZING BATCH ANALYTICS REPORTS ===========");
+        System.out.println();
+        List<File> files = listFiles();
+        System.out.printf("Files found: %d | Directory: %s | Glob: %s%n", files.size(), directory.getPath(), glob);
+        System.out.println();
+
+        long start = System.nanoTime();
+        List<FileResult> results = new ArrayList<>(files.size());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(files.size(), 1)));
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>(files.size());
+            for (File file : files) {
+                futures.add(executor.submit(() -> analyze(file)));
+            }
+            for (Future<FileResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedException("Batch analytics interrupted");
+        } catch (ExecutionException e) {
+            throw new UnexpectedException(e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        printConsolidatedReport(results, elapsedMillis);
+        System.out.println("=========== FINISHING BATCH ANALYTICS REPORTS ===========");
+        return results;
+    }
+
+    /**
+     * Lists the matching files of the directory, sorted by name.
+     *
+     * @return the matching files
+     * @throws FileReaderException if the directory is not found or cannot be listed
+     */
+    private List<File> listFiles() {
+        if (!directory.isDirectory())
+            throw new FileReaderException(String.format("Directory not found | Filepath: %s | Filename: %s",
+                    Optional.ofNullable(directory.getParent()).orElse("/"), directory.getName()));
+
+        List<File> files = new ArrayList<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory.toPath(), glob)) {
+            for (Path path : paths) {
+                if (Files.isRegularFile(path)) files.add(path.toFile());
+            }
+        } catch (IOException e) {
+            throw new FileReaderException("Error when reading the directory");
+        }
+        files.sort(Comparator.comparing(File::getName));
+        return files;
+    }
+
+    /**
+     * Reads, builds, reports and prints a file, catching its errors so the other files are still processed. Only the
+     * counts of the report are kept once it is printed.
+     *
+     * @param file the file
+     * @return the result of the file
+     */
+    private FileResult analyze(File file) {
+        long start = System.nanoTime();
+        FileResult result;
+        EmployeeHierarchyReport fileReport = null;
+        try {
+            EmployeeHierarchy hierarchy;
+            if (fileReaderService instanceof EmployeeSnapshotService snapshotService && snapshotService.isSnapshot(file)) {
+                hierarchy = snapshotService.readSnapshot(file);
+            } else {
+                try (Stream<Employee> employees = fileReaderService.streamFile(file)) {
+                    hierarchy = tableService.generateStreamedEmployeeTable(employees);
+                }
+            }
+            fileReport = report.computeAll(hierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold);
+            result = new FileResult(file, hierarchy.size(), fileReport.salaryPolicyViolations().size(),
+                    fileReport.excessiveReportingLines().size(), null, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            result = new FileResult(file, 0, 0, 0, e.getMessage(), (System.nanoTime() - start) / 1_000_000);
+        }
+        synchronized (printLock) {
+            if (fileReport != null) {
+                report.printReport(file.getName(), fileReport);
+            } else {
+                System.out.printf("=========== REPORT OF FILE: %s ===========%n", file.getName());
+                System.out.printf("ERROR processing the file | %s%n%n", result.error());
+            }
+        }
+        return result;
+    }
+
+    private static void printConsolidatedReport(List<FileResult> results, long elapsedMillis) {
+        System.out.println("=========== CONSOLIDATED REPORT ===========");
+        long employees = 0;
+        long salaryPolicyViolations = 0;
+        long excessiveReportingLines = 0;
+        int failed = 0;
+        for (FileResult result : results) {
+            if (result.error() != null) {
+                failed++;
+                System.out.printf("File: %s | FAILED | %s%n", result.file().getName(), result.error());
+                continue;
+            }
+            employees += result.employees();
+            salaryPolicyViolations += result.salaryPolicyViolations();
+            excessiveReportingLines += result.excessiveReportingLines();
+            System.out.printf("File: %s | Employees: %d | Salary policy violations: %d | Excessive reporting lines: %d | Time: %d ms%n",
+                    result.file().getName(), result.employees(), result.salaryPolicyViolations(),
+                    result.excessiveReportingLines(), result.elapsedMillis());
+        }
+        System.out.printf("Files: %d | Failed: %d | Employees: %d | Salary policy violations: %d | Excessive reporting lines: %d | Total time: %d ms%n",
+                results.size(), failed, employees, salaryPolicyViolations, excessiveReportingLines, elapsedMillis);
+        System.out.println();
+    }
+
+    /**
+     * The result of the analytics of a file.
+     *
+     * @param file                    the file
+     * @param employees               the number of employees of the file
+     * @param salaryPolicyViolations  the number of managers with salary policy violation of the file
+     * @param excessiveReportingLines the number of employees with excessive reporting lines of the file
+     * @param error                   the error message, or null if it succeeded
+     * @param elapsedMillis           the time taken to read, build and report the file, in milliseconds
+     */
+    public record FileResult(File file, int employees, int salaryPolicyViolations, int excessiveReportingLines,
+                             String error, long elapsedMillis) {
+    }
+
+    /**
+     * Provides default values for the {@code BatchAnalyticsManager}.
+     */
+    private static class Defaults {
+        /**
+         * Default glob of the employee file names, the CSV files and the snapshots.
+         */
+        static final String GLOB = "*.{csv,ehs}";
+        /**
+         * Default minimum allowed percentage increase in salary.
+         */
+        static final int MINIMUM_PERCENTAGE = 20;
+        /**
+         * Default maximum allowed percentage increase in salary.
+         */
+        static final int MAXIMUM_PERCENTAGE = 50;
+        /**
+         * Default maximum allowed number of reporting lines.
+         */
+        static final int REPORTING_LINES_THRESHOLD = 4;
+    }
+}
@@ -0,0 +1,158 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.exception.FileWriterException;
+import com.big.company.analytics.services.StreamingReportSink;
+
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A {@code StreamingReportSink} writing the reports in a compact binary format into a {@link WritableByteChannel}.
+ * <p>
+ * The stream starts with the magic number {@code EHRP} and the format version, as 4 byte integers, followed by the
+ * records. Each record is its length as a 4 byte integer, not counting the length itself, its type as a byte and its
+ * fields; so a reader can skip the record types it does not know. The integers and the IEEE 754 doubles are
+ * big-endian and the Strings are their length in bytes, as a 4 byte integer, followed by their UTF-8 bytes. The
+ * record types are:
+ * <ul>
+ *     <li>{@value #SALARY_POLICY}: minimum percentage, maximum percentage</li>
+ *     <li>{@value #SALARY_POLICY_VIOLATION}: id, salary, first name, last name, minimum salary allowed (double),
+ *     maximum salary allowed (double), delta (double)</li>
+ *     <li>{@value #REPORTING_LINES}: reporting lines threshold</li>
+ *     <li>{@value #EXCESSIVE_REPORTING_LINES}: id, salary, first name, last name, excessive reporting lines</li>
+ *     <li>{@value #SOURCE}: the file name the following reports are computed from</li>
+ * </ul>
+ * The records are encoded straight into a reused buffer, written to the channel whenever it fills up and at the end of
+ * each report.
+ */
+public final class BinaryReportSink implements StreamingReportSink {
+
+    /**
+     * Magic number of the report stream, "EHRP".
+     */
+    public static final int MAGIC = 0x45485250;
+
+    /**
+     * Version of the report stream format.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Record type of the parameters of the salary policy report.
+     */
+    public static final byte SALARY_POLICY = 1;
+
+    /**
+     * Record type of a manager who violates the salary policy.
+     */
+    public static final byte SALARY_POLICY_VIOLATION = 2;
+
+    /**
+     * Record type of the parameters of the excessive reporting lines report.
+     */
+    public static final byte REPORTING_LINES = 3;
+
+    /**
+     * Record type of an employee with excessive reporting lines.
+     */
+    public static final byte EXCESSIVE_REPORTING_LINES = 4;
+
+    /**
+     * Record type of the source the following reports are computed from.
+     */
+    public static final byte SOURCE = 5;
+
+    private final ReportBuffer out;
+
+    /**
+     * Constructs a {@code BinaryReportSink} writing into a channel, e.g. a file, a pipe or a socket.
+     * The magic number and the version are written along with the first report.
+     *
+     * @param channel the channel the reports are written into
+     * @throws NullPointerException if channel is null
+     */
+    public BinaryReportSink(WritableByteChannel channel) {
+        this.out = new ReportBuffer(channel, "");
+        this.out.putBinaryInt(MAGIC).putBinaryInt(VERSION);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void beginSalaryPolicyViolations(int minimumPercentage, int maximumPercentage) {
+        out.putBinaryInt(1 + 2 * Integer.BYTES).putBinaryByte(SALARY_POLICY)
+                .putBinaryInt(minimumPercentage).putBinaryInt(maximumPercentage);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeSalaryPolicyViolation(Employee manager, SalaryPolicyViolation violation) {
+        putEmployee(SALARY_POLICY_VIOLATION, manager, 3 * Double.BYTES);
+        out.putBinaryDouble(violation.minimumSalaryAllowed()).putBinaryDouble(violation.maximumSalaryAllowed())
+                .putBinaryDouble(violation.delta());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void beginExcessiveReportingLines(int reportingLinesThreshold) {
+        out.putBinaryInt(1 + Integer.BYTES).putBinaryByte(REPORTING_LINES).putBinaryInt(reportingLinesThreshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeExcessiveReportingLine(Employee employee, int excessiveReportingLines) {
+        putEmployee(EXCESSIVE_REPORTING_LINES, employee, Integer.BYTES);
+        out.putBinaryInt(excessiveReportingLines);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeSource(String source) {
+        int sourceLength = ReportBuffer.utf8Length(source);
+        out.putBinaryInt(1 + Integer.BYTES + sourceLength).putBinaryByte(SOURCE).putBinaryInt(sourceLength).putString(source);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void endReport() {
+        out.flush();
+    }
+
+    /**
+     * Writes the buffered content and closes the channel.
+     *
+     * @throws FileWriterException if the content cannot be written
+     */
+    @Override
+    public synchronized void close() {
+        out.close();
+    }
+
+    /**
+     * Writes the length, the type and the employee fields of a record.
+     *
+     * @param type        the record type
+     * @param employee    the employee
+     * @param valueLength the length of the fields following the employee fields
+     */
+    private void putEmployee(byte type, Employee employee, int valueLength) {
+        int firstNameLength = ReportBuffer.utf8Length(employee.firstName());
+        int lastNameLength = ReportBuffer.utf8Length(employee.lastName());
+        out.putBinaryInt(1 + 4 * Integer.BYTES + firstNameLength + lastNameLength + valueLength).putBinaryByte(type)
+                .putBinaryInt(employee.id()).putBinaryInt(employee.salary())
+                .putBinaryInt(firstNameLength).putString(employee.firstName())
+                .putBinaryInt(lastNameLength).putString(employee.lastName());
+    }
+}
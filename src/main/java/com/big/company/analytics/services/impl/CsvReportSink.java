@@ -0,0 +1,136 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.exception.FileWriterException;
+import com.big.company.analytics.services.StreamingReportSink;
+
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A {@code StreamingReportSink} writing the reports as a single CSV table into a {@link WritableByteChannel}, starting
+ * with a header row. Each row has a {@code type} column, with the same values and the same columns filled as the
+ * objects of the {@link NdjsonReportSink}, the {@code source} row filling the {@code file} column; the columns not
+ * filled by a row are left empty.
+ * <p>
+ * Values with a comma, a quote or a line break are quoted, doubling the quotes, and the rows end with '\n'. The rows
+ * are encoded as UTF-8 straight into a reused buffer, written to the channel whenever it fills up and at the end of
+ * each report.
+ */
+public final class CsvReportSink implements StreamingReportSink {
+
+    private static final String HEADER = "type,id,firstName,lastName,salary,minimumSalaryAllowed,maximumSalaryAllowed,delta,"
+            + "excessiveReportingLines,minimumPercentage,maximumPercentage,reportingLinesThreshold,file";
+
+    private final ReportBuffer out;
+
+    /**
+     * Constructs a {@code CsvReportSink} writing into a channel, e.g. a file, a pipe or a socket.
+     * The header row is written along with the first report.
+     *
+     * @param channel the channel the reports are written into
+     * @throws NullPointerException if channel is null
+     */
+    public CsvReportSink(WritableByteChannel channel) {
+        this.out = new ReportBuffer(channel, "\n");
+        this.out.putAscii(HEADER).putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void beginSalaryPolicyViolations(int minimumPercentage, int maximumPercentage) {
+        out.putAscii("salaryPolicy,,,,,,,,,").putInt(minimumPercentage).put(',').putInt(maximumPercentage).putAscii(",,").putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeSalaryPolicyViolation(Employee manager, SalaryPolicyViolation violation) {
+        putEmployee("salaryPolicyViolation", manager);
+        out.putDouble(violation.minimumSalaryAllowed()).put(',').putDouble(violation.maximumSalaryAllowed()).put(',')
+                .putDouble(violation.delta()).putAscii(",,,,,").putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void beginExcessiveReportingLines(int reportingLinesThreshold) {
+        out.putAscii("reportingLines,,,,,,,,,,,").putInt(reportingLinesThreshold).put(',').putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeExcessiveReportingLine(Employee employee, int excessiveReportingLines) {
+        putEmployee("excessiveReportingLines", employee);
+        out.putAscii(",,,").putInt(excessiveReportingLines).putAscii(",,,,").putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeSource(String source) {
+        out.putAscii("source,,,,,,,,,,,,");
+        putCsvString(source);
+        out.putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void endReport() {
+        out.flush();
+    }
+
+    /**
+     * Writes the buffered content and closes the channel.
+     *
+     * @throws FileWriterException if the content cannot be written
+     */
+    @Override
+    public synchronized void close() {
+        out.close();
+    }
+
+    /**
+     * Writes the columns of an employee, up to the separator of the minimum salary allowed column.
+     */
+    private void putEmployee(String type, Employee employee) {
+        out.putAscii(type).put(',').putInt(employee.id()).put(',');
+        putCsvString(employee.firstName());
+        out.put(',');
+        putCsvString(employee.lastName());
+        out.put(',').putInt(employee.salary()).put(',');
+    }
+
+    /**
+     * Encodes a CSV value, quoted only if it has a comma, a quote or a line break.
+     *
+     * @param value the String
+     */
+    private void putCsvString(String value) {
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            out.putString(value);
+            return;
+        }
+        out.put('"');
+        int i = 0;
+        while (i < value.length()) {
+            if (value.charAt(i) == '"') out.put('"');
+            i = out.putChar(value, i);
+        }
+        out.put('"');
+    }
+}
@@ -0,0 +1,183 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parses {@code Employee} objects from CSV lines stored in a {@link ByteBuffer}, scanning the bytes directly.
+ * <p>
+ * Integer fields are parsed straight from the bytes and only the first and last names are decoded into Strings.
+ * Field offsets are kept on reusable arrays, so an instance must not be shared between threads.
+ * The parsing rules mirror the {@code String.split} based parsing of {@link EmployeeCsvFileReader}: trailing empty
+ * fields are ignored and a line needs at least 4 fields, the manager id being optional.
+ */
+final class EmployeeCsvByteParser {
+
+    private static final byte DELIMITER = ',';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int COLUMNS = 5;
+    private static final int ID_INDEX = 0;
+    private static final int FIRST_NAME_INDEX = 1;
+    private static final int LAST_NAME_INDEX = 2;
+    private static final int SALARY_INDEX = 3;
+    private static final int MANAGER_ID_INDEX = 4;
+    private static final int MINIMUM_REQUIRED_VALUES = 4;
+
+    /**
+     * Canonical column index of each file column, or {@code null} when the file columns are on canonical order.
+     */
+    private final int[] headerMapper;
+
+    private int[] fieldStart = new int[COLUMNS + 1];
+    private int[] fieldEnd = new int[COLUMNS + 1];
+    private final int[] columnStart = new int[COLUMNS];
+    private final int[] columnEnd = new int[COLUMNS];
+    private byte[] scratch = new byte[64];
+
+    /**
+     * Constructs a parser for a file with the given column mapping.
+     *
+     * @param headerMapper canonical column index of each file column, or {@code null} if the file has no header
+     */
+    EmployeeCsvByteParser(int[] headerMapper) {
+        this.headerMapper = headerMapper;
+    }
+
+    /**
+     * Parses an employee from the line stored on {@code [start, end)} of the buffer, without line terminator.
+     * A trailing carriage return is ignored.
+     *
+     * @param buffer the buffer holding the line
+     * @param start  the index of the first byte of the line
+     * @param end    the index after the last byte of the line
+     * @return the parsed employee
+     * @throws LineParseException if the line is not a valid employee
+     */
+    Employee parseLine(ByteBuffer buffer, int start, int end) {
+        if (end > start && buffer.get(end - 1) == CARRIAGE_RETURN) end--;
+
+        int fields = splitFields(buffer, start, end);
+        if (fields < MINIMUM_REQUIRED_VALUES)
+            throw new LineParseException(String.format("%s %d", "Line has less elements than the required size", MINIMUM_REQUIRED_VALUES));
+
+        Arrays.fill(columnStart, -1);
+        for (int i = 0; i < fields; i++) {
+            int column = (headerMapper == null) ? i : (i < headerMapper.length ? headerMapper[i] : -1);
+            if (column < 0 || column >= COLUMNS) continue;
+            columnStart[column] = fieldStart[i];
+            columnEnd[column] = fieldEnd[i];
+        }
+        for (int column = 0; column < MINIMUM_REQUIRED_VALUES; column++) {
+            if (columnStart[column] < 0)
+                throw new LineParseException(String.format("%s %d", "Line has less elements than the required size", MINIMUM_REQUIRED_VALUES));
+        }
+
+        int id = parseInt(buffer, columnStart[ID_INDEX], columnEnd[ID_INDEX]);
+        String firstName = decode(buffer, columnStart[FIRST_NAME_INDEX], columnEnd[FIRST_NAME_INDEX]);
+        String lastName = decode(buffer, columnStart[LAST_NAME_INDEX], columnEnd[LAST_NAME_INDEX]);
+        int salary = parseInt(buffer, columnStart[SALARY_INDEX], columnEnd[SALARY_INDEX]);
+        Integer managerId = (columnStart[MANAGER_ID_INDEX] >= 0)
+                ? parseInt(buffer, columnStart[MANAGER_ID_INDEX], columnEnd[MANAGER_ID_INDEX])
+                : null;
+
+        return new Employee(id, firstName, lastName, salary, managerId);
+    }
+
+    /**
+     * Finds the field boundaries of the line, ignoring trailing empty fields.
+     *
+     * @param buffer the buffer holding the line
+     * @param start  the index of the first byte of the line
+     * @param end    the index after the last byte of the line
+     * @return the number of fields
+     */
+    private int splitFields(ByteBuffer buffer, int start, int end) {
+        int fields = 0;
+        int current = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && buffer.get(i) != DELIMITER) continue;
+            if (fields == fieldStart.length) {
+                fieldStart = Arrays.copyOf(fieldStart, fields * 2);
+                fieldEnd = Arrays.copyOf(fieldEnd, fields * 2);
+            }
+            fieldStart[fields] = current;
+            fieldEnd[fields] = i;
+            fields++;
+            current = i + 1;
+        }
+        while (fields > 0 && fieldStart[fields - 1] == fieldEnd[fields - 1]) fields--;
+        return fields;
+    }
+
+    /**
+     * Parses a signed decimal integer from {@code [start, end)} of the buffer, with the same rules
+     * as {@link Integer#parseInt(String)}.
+     *
+     * @param buffer the buffer holding the number
+     * @param start  the index of the first byte of the number
+     * @param end    the index after the last byte of the number
+     * @return the parsed integer
+     * @throws LineParseException if the bytes are not a valid integer
+     */
+    private int parseInt(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == end) throw invalidNumber(buffer, start, end);
+
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < limit / 10) throw invalidNumber(buffer, start, end);
+            result *= 10;
+            if (result < limit + digit) throw invalidNumber(buffer, start, end);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Creates the exception of an invalid number, with the same message as {@link NumberFormatException}.
+     *
+     * @param buffer the buffer holding the number
+     * @param start  the index of the first byte of the number
+     * @param end    the index after the last byte of the number
+     * @return the exception
+     */
+    private LineParseException invalidNumber(ByteBuffer buffer, int start, int end) {
+        return new LineParseException(String.format("For input string: \"%s\"", decode(buffer, start, end)));
+    }
+
+    /**
+     * Decodes {@code [start, end)} of the buffer as an UTF-8 String.
+     *
+     * @param buffer the buffer holding the text
+     * @param start  the index of the first byte of the text
+     * @param end    the index after the last byte of the text
+     * @return the decoded String
+     */
+    private String decode(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Thrown when a line is not a valid employee. The message describes the error without the line number,
+     * which is added by the caller.
+     */
+    static final class LineParseException extends RuntimeException {
+
+        LineParseException(String errorMessage) {
+            super(errorMessage, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.OrgChartSpec;
+import com.big.company.analytics.domain.OrgChartSpec.RowOrder;
+import com.big.company.analytics.exception.FileWriterException;
+import com.big.company.analytics.services.EmployeeFileGeneratorService;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * An implementation of {@code EmployeeFileGeneratorService} that writes synthetic employees to a CSV file
+ * in the format read by {@link EmployeeCsvFileReader}.
+ * <p>
+ * Employees are generated level by level, so only the current manager and level boundaries are kept in memory.
+ * When the spec asks for a bottom-up or shuffled order, rows are spread over temporary bucket files (next to the
+ * target file) holding at most {@code rowsPerBucket} rows each, and each bucket is reordered in memory when the
+ * buckets are concatenated into the target file.
+ */
+public final class EmployeeCsvFileGenerator implements EmployeeFileGeneratorService {
+
+    /**
+     * Default maximum number of rows held in memory when reordering rows.
+     */
+    private static final int DEFAULT_ROWS_PER_BUCKET = 1_000_000;
+
+    private static final String[] FIRST_NAMES = {
+            "John", "Jane", "Michael", "Emily", "David", "Sarah", "James", "Laura", "Robert", "Anna",
+            "William", "Olivia", "Daniel", "Sophia", "Thomas", "Emma", "Joseph", "Mia", "Charles", "Grace"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Wilson", "Anderson", "Taylor", "Thomas", "Moore", "Jackson", "Martin", "Lee"
+    };
+
+    /**
+     * Maximum number of rows held in memory when reordering rows.
+     */
+    private final int rowsPerBucket;
+
+    /**
+     * Constructs a new {@code EmployeeCsvFileGenerator} holding at most the given number of rows in memory
+     * when reordering rows.
+     *
+     * @param rowsPerBucket maximum number of rows held in memory when reordering rows
+     * @throws IllegalArgumentException if rowsPerBucket is not positive
+     */
+    public EmployeeCsvFileGenerator(int rowsPerBucket) {
+        if (rowsPerBucket < 1) throw new IllegalArgumentException("Rows per bucket must be positive");
+        this.rowsPerBucket = rowsPerBucket;
+    }
+
+    /**
+     * Constructs a new {@code EmployeeCsvFileGenerator} holding at most one million rows in memory
+     * when reordering rows.
+     */
+    public EmployeeCsvFileGenerator() {
+        this(DEFAULT_ROWS_PER_BUCKET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long generateFile(OrgChartSpec spec, File file) {
+        Objects.requireNonNull(spec, "Spec must not be null");
+        Objects.requireNonNull(file, "File should not be null");
+
+        Random random = new Random(spec.seed());
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath())) {
+            int[] columnOrder = createColumnOrder(spec.columns());
+            if (spec.hasHeader()) {
+                writer.write(String.join(",", spec.columns()));
+                writer.write('\n');
+            }
+            try (RowSink sink = createRowSink(spec, writer, file, random)) {
+                generateRows(spec, columnOrder, sink, random);
+            }
+        } catch (IOException | SecurityException e) {
+            throw new FileWriterException(String.format("Error when writing the file | Filepath: %s | Filename: %s",
+                    Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
+        }
+        return spec.employees();
+    }
+
+    /**
+     * Generates the employees level by level. Each manager gets its direct subordinates drawn from the fan-out
+     * distribution; once the deepest level is reached, the remaining employees are spread over the managers
+     * right above it.
+     *
+     * @param spec        the specification of the organization chart
+     * @param columnOrder the canonical column index of each output column
+     * @param sink        the sink receiving the rows
+     * @param random      the random generator
+     * @throws IOException if a row cannot be written
+     */
+    private void generateRows(OrgChartSpec spec, int[] columnOrder, RowSink sink, Random random) throws IOException {
+        StringBuilder row = new StringBuilder();
+        sink.accept(formatRow(row, columnOrder, 0, 0, -1, spec, random));
+
+        int count = 1;
+        int manager = 0;
+        int managerDepth = 0;
+        int levelStart = 0;
+        int levelEnd = 0;
+        int previousLevelStart = 0;
+        int previousLevelEnd = 0;
+        while (count < spec.employees()) {
+            if (managerDepth == spec.maxDepth()) {
+                int previousLevelSize = previousLevelEnd - previousLevelStart + 1;
+                for (int i = 0; count < spec.employees(); i++, count++) {
+                    int deepestManager = previousLevelStart + (i % previousLevelSize);
+                    sink.accept(formatRow(row, columnOrder, count, spec.maxDepth(), deepestManager, spec, random));
+                }
+                break;
+            }
+
+            int fanOut = drawFanOut(spec, random);
+            if (fanOut == 0 && manager == count - 1) fanOut = 1;
+            for (int i = 0; i < fanOut && count < spec.employees(); i++, count++) {
+                sink.accept(formatRow(row, columnOrder, count, managerDepth + 1, manager, spec, random));
+            }
+
+            if (manager == levelEnd) {
+                previousLevelStart = levelStart;
+                previousLevelEnd = levelEnd;
+                levelStart = levelEnd + 1;
+                levelEnd = count - 1;
+                managerDepth++;
+            }
+            manager++;
+        }
+    }
+
+    /**
+     * Draws the number of direct subordinates of a manager.
+     *
+     * @param spec   the specification of the organization chart
+     * @param random the random generator
+     * @return the number of direct subordinates
+     */
+    private int drawFanOut(OrgChartSpec spec, Random random) {
+        int range = spec.maxFanOut() - spec.minFanOut();
+        return switch (spec.fanOutDistribution()) {
+            case FIXED -> spec.maxFanOut();
+            case UNIFORM -> spec.minFanOut() + random.nextInt(range + 1);
+            case GEOMETRIC -> {
+                if (range == 0) yield spec.minFanOut();
+                double successProbability = 2.0 / (range + 2);
+                int extra = (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - successProbability));
+                yield spec.minFanOut() + Math.min(extra, range);
+            }
+        };
+    }
+
+    /**
+     * Draws the salary of an employee on the given depth.
+     *
+     * @param spec   the specification of the organization chart
+     * @param depth  the depth of the employee
+     * @param random the random generator
+     * @return the salary, at least 1
+     */
+    private int drawSalary(OrgChartSpec spec, int depth, Random random) {
+        double average = spec.ceoSalary() * Math.pow(spec.salaryDecay(), depth);
+        double deviation = switch (spec.salaryDistribution()) {
+            case UNIFORM -> (random.nextDouble() * 2 - 1) * spec.salarySpread();
+            case GAUSSIAN -> random.nextGaussian() * spec.salarySpread();
+        };
+        return (int) Math.max(1, Math.round(average * (1 + deviation)));
+    }
+
+    /**
+     * Formats a CSV row of an employee. Employee ids are the generation index plus one.
+     *
+     * @param row          a reusable builder
+     * @param columnOrder  the canonical column index of each output column
+     * @param index        the generation index of the employee
+     * @param depth        the depth of the employee
+     * @param managerIndex the generation index of the manager, or -1 for the CEO
+     * @param spec         the specification of the organization chart
+     * @param random       the random generator
+     * @return the formatted row, without line terminator
+     */
+    private String formatRow(StringBuilder row, int[] columnOrder, int index, int depth, int managerIndex, OrgChartSpec spec, Random random) {
+        String[] values = {
+                String.valueOf(index + 1),
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                String.valueOf(drawSalary(spec, depth, random)),
+                (managerIndex < 0) ? "" : String.valueOf(managerIndex + 1)
+        };
+        row.setLength(0);
+        for (int i = 0; i < columnOrder.length; i++) {
+            if (i > 0) row.append(',');
+            row.append(values[columnOrder[i]]);
+        }
+        return row.toString();
+    }
+
+    /**
+     * Maps each output column to its index on {@link OrgChartSpec#DEFAULT_COLUMNS}.
+     *
+     * @param columns the output columns
+     * @return the canonical column index of each output column
+     */
+    private int[] createColumnOrder(List<String> columns) {
+        List<String> defaultColumns = OrgChartSpec.DEFAULT_COLUMNS.stream().map(String::toLowerCase).toList();
+        return columns.stream().map(String::toLowerCase).mapToInt(defaultColumns::indexOf).toArray();
+    }
+
+    /**
+     * Creates the sink that writes the rows on the order asked by the spec.
+     *
+     * @param spec   the specification of the organization chart
+     * @param writer the writer of the target file
+     * @param file   the target file, whose directory holds the temporary buckets
+     * @param random the random generator
+     * @return the row sink
+     */
+    private RowSink createRowSink(OrgChartSpec spec, Writer writer, File file, Random random) {
+        if (spec.rowOrder() == RowOrder.TOP_DOWN) {
+            return row -> {
+                writer.write(row);
+                writer.write('\n');
+            };
+        }
+        return new BucketRowSink(spec, writer, file.getAbsoluteFile().getParentFile(), random);
+    }
+
+    /**
+     * Receives the generated rows and writes them to the target file.
+     */
+    private interface RowSink extends Closeable {
+
+        /**
+         * Accepts a row to be written.
+         *
+         * @param row the row, without line terminator
+         * @throws IOException if the row cannot be written
+         */
+        void accept(String row) throws IOException;
+
+        /**
+         * Writes any pending row to the target file.
+         *
+         * @throws IOException if the rows cannot be written
+         */
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    /**
+     * Row sink that reorders rows through buckets of at most {@code rowsPerBucket} rows.
+     * For a bottom-up order, rows fill the buckets sequentially and buckets are written in reverse, each reversed.
+     * For a shuffled order, rows go to a random bucket and each bucket is shuffled.
+     * When a single bucket is needed, it is kept in memory.
+     */
+    private final class BucketRowSink implements RowSink {
+        private final RowOrder rowOrder;
+        private final Writer writer;
+        private final Random random;
+        private final int bucketCount;
+        private final List<String> memoryBucket = new ArrayList<>();
+        private final File[] bucketFiles;
+        private final BufferedWriter[] bucketWriters;
+        private final File directory;
+        private long rowCount;
+
+        private BucketRowSink(OrgChartSpec spec, Writer writer, File directory, Random random) {
+            this.rowOrder = spec.rowOrder();
+            this.writer = writer;
+            this.random = random;
+            this.directory = directory;
+            this.bucketCount = (int) ((spec.employees() + (long) rowsPerBucket - 1) / rowsPerBucket);
+            this.bucketFiles = new File[bucketCount];
+            this.bucketWriters = new BufferedWriter[bucketCount];
+        }
+
+        @Override
+        public void accept(String row) throws IOException {
+            if (bucketCount == 1) {
+                memoryBucket.add(row);
+                return;
+            }
+            int bucket = (rowOrder == RowOrder.SHUFFLED) ? random.nextInt(bucketCount) : (int) (rowCount / rowsPerBucket);
+            rowCount++;
+            if (bucketWriters[bucket] == null) {
+                bucketFiles[bucket] = File.createTempFile("employees-bucket-", ".csv", directory);
+                bucketWriters[bucket] = Files.newBufferedWriter(bucketFiles[bucket].toPath());
+            }
+            bucketWriters[bucket].write(row);
+            bucketWriters[bucket].write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (bucketCount == 1) {
+                    writeReordered(memoryBucket);
+                    return;
+                }
+                for (BufferedWriter bucketWriter : bucketWriters) {
+                    if (bucketWriter != null) bucketWriter.close();
+                }
+                for (int i = 0; i < bucketCount; i++) {
+                    int bucket = (rowOrder == RowOrder.BOTTOM_UP) ? bucketCount - 1 - i : i;
+                    if (bucketFiles[bucket] == null) continue;
+                    writeReordered(Files.readAllLines(bucketFiles[bucket].toPath()));
+                    Files.delete(bucketFiles[bucket].toPath());
+                }
+            } finally {
+                for (File bucketFile : bucketFiles) {
+                    if (bucketFile != null) Files.deleteIfExists(bucketFile.toPath());
+                }
+            }
+        }
+
+        private void writeReordered(List<String> rows) throws IOException {
+            if (rowOrder == RowOrder.SHUFFLED) Collections.shuffle(rows, random);
+            else Collections.reverse(rows);
+            for (String row : rows) {
+                writer.write(row);
+                writer.write('\n');
+            }
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.big.company.analytics.services.impl;
 
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeChange;
+import com.big.company.analytics.domain.MutableEmployeeHierarchy;
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
 import com.big.company.analytics.exception.FileReaderException;
 import com.big.company.analytics.exception.ParseExtractionException;
 import com.big.company.analytics.services.FileReaderService;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -17,6 +29,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -24,6 +45,14 @@ import java.util.Optional;
  * with a fixed comma delimiter (`,`).
  * <p>
  * This implementation assumes that the CSV file has a header line that needs to be skipped.
+ * <p>
+ * The file can be parsed on three modes (see {@link ParsingMode}): line by line through a {@code BufferedReader},
+ * scanning the bytes of the memory-mapped file directly, which avoids intermediate Strings for every field, or
+ * scanning chunks of the memory-mapped file in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * Besides full exports, the reader accepts change logs of the employees, CSV files with an {@code operation} column
+ * ({@code ADD}, {@code UPDATE}, {@code DELETE} or {@code MOVE}) applied on a previously loaded
+ * {@link MutableEmployeeHierarchy}, see {@link #applyChanges(File, MutableEmployeeHierarchy)}.
  */
 public final class EmployeeCsvFileReader implements FileReaderService<Employee> {
 
@@ -38,25 +67,91 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
     private static final List<String> headerOrder =
             Arrays.asList("id", "firstname", "lastname", "salary", "managerid");
 
+    /**
+     * Defines the order of header columns in a change log CSV file.
+     */
+    private static final List<String> changeHeaderOrder =
+            Arrays.asList("operation", "id", "firstname", "lastname", "salary", "managerid");
+
+    /**
+     * Header columns required on a change log CSV file, the other ones are only required by some operations.
+     */
+    private static final List<String> requiredChangeHeaders = Arrays.asList("operation", "id");
+
     /**
      * Flag indicating whether the CSV file has a header line.
      */
     private final boolean hasHeader;
 
+    /**
+     * How the file content is parsed.
+     */
+    private final ParsingMode parsingMode;
+
+    /**
+     * Pool where the chunks of the file are parsed on {@link ParsingMode#PARALLEL} mode.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a new {@code EmployeeDataExtractor} with the specified value for whether the CSV file has a header line,
+     * the specified parsing mode and the pool where the chunks of the file are parsed on {@link ParsingMode#PARALLEL} mode.
+     *
+     * @param hasHeader   {@code true} if the CSV file has a header line to be skipped, {@code false} otherwise
+     * @param parsingMode how the file content is parsed, {@link ParsingMode#BUFFERED} if null
+     * @param pool        the pool where the chunks of the file are parsed, {@link ForkJoinPool#commonPool()} if null
+     */
+    public EmployeeCsvFileReader(Boolean hasHeader, ParsingMode parsingMode, ForkJoinPool pool) {
+        this.hasHeader = (hasHeader != null) ? hasHeader : Defaults.HAS_HEADER;
+        this.parsingMode = (parsingMode != null) ? parsingMode : Defaults.PARSING_MODE;
+        this.pool = (pool != null) ? pool : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Constructs a new {@code EmployeeDataExtractor} with the specified value for whether the CSV file has a header line
+     * and the specified parsing mode.
+     *
+     * @param hasHeader   {@code true} if the CSV file has a header line to be skipped, {@code false} otherwise
+     * @param parsingMode how the file content is parsed, {@link ParsingMode#BUFFERED} if null
+     */
+    public EmployeeCsvFileReader(Boolean hasHeader, ParsingMode parsingMode) {
+        this(hasHeader, parsingMode, null);
+    }
+
     /**
      * Constructs a new {@code EmployeeDataExtractor} with the specified value for whether the CSV file has a header line.
      *
      * @param hasHeader {@code true} if the CSV file has a header line to be skipped, {@code false} otherwise
      */
     public EmployeeCsvFileReader(Boolean hasHeader) {
-        this.hasHeader = (hasHeader != null) ? hasHeader : Defaults.HAS_HEADER;
+        this(hasHeader, Defaults.PARSING_MODE);
     }
 
     /**
      * Constructs a new {@code EmployeeDataExtractor} with default settings, assuming the CSV file has a header line.
      */
     public EmployeeCsvFileReader() {
-        this.hasHeader = Defaults.HAS_HEADER;
+        this(Defaults.HAS_HEADER, Defaults.PARSING_MODE);
+    }
+
+    /**
+     * Modes of parsing the CSV file content.
+     */
+    public enum ParsingMode {
+        /**
+         * Reads the file line by line with a {@code BufferedReader} and splits each line into Strings.
+         */
+        BUFFERED,
+        /**
+         * Maps the file into memory and parses the employees straight from its bytes.
+         * Only the first and last names are decoded into Strings.
+         */
+        MEMORY_MAPPED,
+        /**
+         * Splits the memory-mapped file into chunks aligned on line boundaries and parses them in parallel.
+         * The employees are kept on the file order.
+         */
+        PARALLEL
     }
 
     /**
@@ -92,40 +187,450 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
     public List<Employee> readFile(File file) {
         Objects.requireNonNull(file, "File should not be null");
 
-        List<Employee> employees = new ArrayList<>();
-        try (
-                FileReader fileReader = new FileReader(file);
-                BufferedReader br = new BufferedReader(fileReader)
-        ) {
-            String line;
-            int curLine = 0;
-            int[] headerMapper = new int[0];
-            while ((line = br.readLine()) != null) {
-                if (hasHeader && curLine == 0) {
-                    headerMapper = createHeaderMapper(line.split(DELIMITER));
-                    curLine++;
-                    continue;
+        try (Stream<Employee> employees = streamFile(file)) {
+            return employees.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    /**
+     * Streams {@code Employee} objects from a specified CSV file as they are parsed.
+     * The file is opened (and its header validated) when this method is called and closed when the stream is closed.
+     *
+     * @param file the CSV file object from which {@code Employee} objects will be read
+     * @return an ordered stream of {@code Employee} objects read from the CSV file
+     * @throws FileReaderException      if the file is not found or cannot be loaded, here or while consuming the stream
+     * @throws ParseExtractionException if any error occurs during parsing of the file content, here or while consuming the stream
+     * @throws NullPointerException     if any params is null
+     */
+    @Override
+    public Stream<Employee> streamFile(File file) {
+        Objects.requireNonNull(file, "File should not be null");
+
+        try {
+            return switch (parsingMode) {
+                case BUFFERED -> streamBufferedFile(file);
+                case MEMORY_MAPPED -> streamMappedFile(file);
+                case PARALLEL -> streamParallelFile(file);
+            };
+        } catch (FileNotFoundException e) {
+            throw fileNotFound(file);
+        } catch (SecurityException e) {
+            throw readingNotPermitted(file);
+        } catch (IOException | UncheckedIOException e) {
+            throw new FileReaderException("Error when reading the file");
+        }
+    }
+
+    /**
+     * Applies the changes of a change log CSV file on a previously loaded hierarchy, in the file order.
+     * The changes are applied all or none: the whole file is parsed before any change is applied, and if a change
+     * is not valid on the hierarchy, the changes applied before it are undone, so the corrected file can be sent again.
+     * The undone hierarchy has the same employees and reporting lines, though not necessarily on the same indexes.
+     *
+     * @param file      the change log CSV file
+     * @param hierarchy the hierarchy where the changes are applied
+     * @return the number of applied changes
+     * @throws FileReaderException          if the file is not found or cannot be loaded
+     * @throws ParseExtractionException     if any error occurs during parsing of the file content
+     * @throws EmployeeNodeServiceException if a change is not valid on the hierarchy, e.g. moving an employee not found
+     * @throws NullPointerException         if any params is null
+     */
+    public int applyChanges(File file, MutableEmployeeHierarchy hierarchy) {
+        Objects.requireNonNull(hierarchy, "Employees hierarchy must not be null");
+
+        List<EmployeeChange> changes;
+        try (Stream<EmployeeChange> changesStream = streamChanges(file)) {
+            changes = changesStream.toList();
+        }
+
+        List<EmployeeChange> undoChanges = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            EmployeeChange change = changes.get(i);
+            try {
+                List<EmployeeChange> inverse = inverseOf(change, hierarchy);
+                hierarchy.apply(change);
+                undoChanges.addAll(inverse);
+            } catch (EmployeeException | EmployeeNodeException e) {
+                for (int j = undoChanges.size() - 1; j >= 0; j--) {
+                    hierarchy.apply(undoChanges.get(j));
                 }
-                String[] values = (hasHeader)
-                        ? orderReadData(headerMapper, line.split(DELIMITER))
-                        : line.split(DELIMITER);
+                throw new EmployeeNodeServiceException(String.format("Error on line number %d -> %s", i + 1, e.getMessage()));
+            }
+        }
+        return changes.size();
+    }
 
-                if (values.length < Defaults.MINIMUM_REQUIRED_VALUES_BY_CSV_LINE)
-                    throw new ParseExtractionException(String.format("Error on line number %d -> %s %d", curLine, "Line has less elements than the required size", Defaults.MINIMUM_REQUIRED_VALUES_BY_CSV_LINE));
+    /**
+     * Creates the changes undoing a change not yet applied on a hierarchy. A change that fails when applied, e.g. one
+     * referring to employees not on the hierarchy, may have any inverse, since it is never undone.
+     *
+     * @param change    the change
+     * @param hierarchy the hierarchy where the change is about to be applied
+     * @return the changes undoing the change, to be applied from the last one to the first
+     */
+    private List<EmployeeChange> inverseOf(EmployeeChange change, MutableEmployeeHierarchy hierarchy) {
+        int index = hierarchy.indexOf(change.id());
+        if (change.operation() == EmployeeChange.Operation.ADD)
+            return List.of(new EmployeeChange(EmployeeChange.Operation.DELETE, change.id(), null, null, null, null));
+        if (index < 0) return List.of();
 
-                employees.add(employeeFromLineValues(values, curLine));
-                curLine++;
+        Employee employee = hierarchy.employee(index);
+        return switch (change.operation()) {
+            case UPDATE -> List.of(new EmployeeChange(EmployeeChange.Operation.UPDATE, employee.id(), employee.firstName(),
+                    employee.lastName(), employee.salary(), employee.managerId()));
+            case MOVE -> (employee.managerId() == null) ? List.of()
+                    : List.of(new EmployeeChange(EmployeeChange.Operation.MOVE, employee.id(), null, null, null, employee.managerId()));
+            default -> {
+                if (employee.managerId() == null) yield List.of();
+                List<EmployeeChange> inverse = new ArrayList<>();
+                for (int n = hierarchy.subordinatesCount(index) - 1; n >= 0; n--) {
+                    inverse.add(new EmployeeChange(EmployeeChange.Operation.MOVE, hierarchy.id(hierarchy.subordinate(index, n)),
+                            null, null, null, employee.id()));
+                }
+                inverse.add(new EmployeeChange(EmployeeChange.Operation.ADD, employee.id(), employee.firstName(),
+                        employee.lastName(), employee.salary(), employee.managerId()));
+                yield inverse;
             }
+        };
+    }
+
+    /**
+     * Streams the changes of a change log CSV file as they are parsed.
+     * <p>
+     * The file must have a header line with at least the {@code operation} and {@code id} columns, on any order,
+     * whatever the header setting of this reader. The columns not used by an operation may be empty, and change
+     * logs are always read line by line, since they are expected to be small.
+     *
+     * @param file the change log CSV file
+     * @return an ordered stream of the changes read from the file
+     * @throws FileReaderException      if the file is not found or cannot be loaded, here or while consuming the stream
+     * @throws ParseExtractionException if any error occurs during parsing of the file content, here or while consuming the stream
+     * @throws NullPointerException     if any params is null
+     */
+    public Stream<EmployeeChange> streamChanges(File file) {
+        Objects.requireNonNull(file, "File should not be null");
+
+        try {
+            return streamBufferedChanges(file);
         } catch (FileNotFoundException e) {
-            throw new FileReaderException(
-                    String.format("File not found | Filepath: %s | Filename: %s", Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
+            throw fileNotFound(file);
         } catch (SecurityException e) {
-            throw new FileReaderException(
-                    String.format("File reading not permitted | Filepath: %s | Filename: %s", Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
-        } catch (IOException e) {
+            throw readingNotPermitted(file);
+        } catch (IOException | UncheckedIOException e) {
+            throw new FileReaderException("Error when reading the file");
+        }
+    }
+
+    /**
+     * Streams the changes of a change log CSV file read line by line.
+     *
+     * @param file the change log CSV file
+     * @return an ordered stream of the changes read from the file
+     * @throws IOException              if the file is not found or cannot be read
+     * @throws ParseExtractionException if the header is not valid
+     */
+    private Stream<EmployeeChange> streamBufferedChanges(File file) throws IOException {
+        BufferedReader br = new BufferedReader(new FileReader(file));
+        try {
+            String header = br.readLine();
+            if (header == null) return closeOnEnd(Stream.empty(), br);
+            int[] headerMapper = createChangeHeaderMapper(header.split(DELIMITER));
+
+            Spliterator<EmployeeChange> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                private int curLine = 1;
+
+                @Override
+                public boolean tryAdvance(Consumer<? super EmployeeChange> action) {
+                    String line;
+                    try {
+                        line = br.readLine();
+                    } catch (IOException e) {
+                        throw new FileReaderException("Error when reading the file");
+                    }
+                    if (line == null) return false;
+
+                    action.accept(changeFromLineValues(headerMapper, line.split(DELIMITER, -1), curLine));
+                    curLine++;
+                    return true;
+                }
+            };
+            return closeOnEnd(StreamSupport.stream(spliterator, false), br);
+        } catch (IOException | RuntimeException e) {
+            br.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Streams {@code Employee} objects from a CSV file read line by line.
+     *
+     * @param file the CSV file object from which {@code Employee} objects will be read
+     * @return an ordered stream of {@code Employee} objects read from the CSV file
+     * @throws IOException              if the file is not found or cannot be read
+     * @throws ParseExtractionException if the header is not valid
+     */
+    private Stream<Employee> streamBufferedFile(File file) throws IOException {
+        BufferedReader br = new BufferedReader(new FileReader(file));
+        try {
+            int[] headerMapper = null;
+            if (hasHeader) {
+                String header = br.readLine();
+                if (header == null) return closeOnEnd(Stream.empty(), br);
+                headerMapper = createHeaderMapper(header.split(DELIMITER));
+            }
+
+            int[] finalHeaderMapper = headerMapper;
+            Spliterator<Employee> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                private int curLine = hasHeader ? 1 : 0;
+
+                @Override
+                public boolean tryAdvance(Consumer<? super Employee> action) {
+                    String line;
+                    try {
+                        line = br.readLine();
+                    } catch (IOException e) {
+                        throw new FileReaderException("Error when reading the file");
+                    }
+                    if (line == null) return false;
+
+                    String[] values = (finalHeaderMapper != null)
+                            ? orderReadData(finalHeaderMapper, line.split(DELIMITER))
+                            : line.split(DELIMITER);
+
+                    if (values.length < Defaults.MINIMUM_REQUIRED_VALUES_BY_CSV_LINE)
+                        throw new ParseExtractionException(String.format("Error on line number %d -> %s %d", curLine, "Line has less elements than the required size", Defaults.MINIMUM_REQUIRED_VALUES_BY_CSV_LINE));
+
+                    action.accept(employeeFromLineValues(values, curLine));
+                    curLine++;
+                    return true;
+                }
+            };
+            return closeOnEnd(StreamSupport.stream(spliterator, false), br);
+        } catch (IOException | RuntimeException e) {
+            br.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Streams {@code Employee} objects from a memory-mapped CSV file. The file is mapped on regions of at most
+     * {@link Defaults#MAPPED_REGION_SIZE} bytes, each region starting at the beginning of a line.
+     *
+     * @param file the CSV file object from which {@code Employee} objects will be read
+     * @return an ordered stream of {@code Employee} objects read from the CSV file
+     * @throws IOException              if the file is not found or cannot be read
+     * @throws ParseExtractionException if the header is not valid
+     */
+    private Stream<Employee> streamMappedFile(File file) throws IOException {
+        FileChannel channel = new FileInputStream(file).getChannel();
+        try {
+            MappedLines lines = new MappedLines(channel);
+            int[] headerMapper = null;
+            if (hasHeader) {
+                if (!lines.next()) return closeOnEnd(Stream.empty(), channel);
+                headerMapper = createHeaderMapper(lines.decode().split(DELIMITER));
+            }
+
+            EmployeeCsvByteParser parser = new EmployeeCsvByteParser(headerMapper);
+            Spliterator<Employee> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                private int curLine = hasHeader ? 1 : 0;
+
+                @Override
+                public boolean tryAdvance(Consumer<? super Employee> action) {
+                    try {
+                        if (!lines.next()) return false;
+                    } catch (IOException e) {
+                        throw new FileReaderException("Error when reading the file");
+                    }
+                    action.accept(employeeFromLine(parser, lines.region, lines.lineStart, lines.lineEnd, curLine));
+                    curLine++;
+                    return true;
+                }
+            };
+            return closeOnEnd(StreamSupport.stream(spliterator, false), channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Streams {@code Employee} objects from a memory-mapped CSV file, parsing chunks of the file in parallel.
+     * The header is parsed first, then the remaining bytes are split into chunks of up to {@link Defaults#CHUNK_SIZE}
+     * that start at the beginning of a line. At most {@link Defaults#CHUNKS_PER_THREAD} chunks for each thread of the
+     * pool are parsed ahead of the consumer, and each chunk is dropped once its employees are returned, so only those
+     * chunks are held in memory whatever the size of the file. The stream returns the employees of each chunk on the
+     * file order as soon as the chunk is parsed. Each chunk counts its own lines, so line numbers of parsing errors are
+     * resolved from the number of lines of the previous chunks.
+     *
+     * @param file the CSV file object from which {@code Employee} objects will be read
+     * @return an ordered stream of {@code Employee} objects read from the CSV file
+     * @throws IOException              if the file is not found or cannot be read
+     * @throws ParseExtractionException if the header is not valid
+     */
+    private Stream<Employee> streamParallelFile(File file) throws IOException {
+        FileChannel channel = new FileInputStream(file).getChannel();
+        try {
+            long fileSize = channel.size();
+            if (fileSize == 0) return closeOnEnd(Stream.empty(), channel);
+
+            long dataStart = 0;
+            int[] headerMapper = null;
+            if (hasHeader) {
+                long headerEnd = findLineEnd(channel, 0, fileSize);
+                ByteBuffer headerBytes = ByteBuffer.allocate((int) Math.min(headerEnd, Defaults.MAPPED_REGION_SIZE));
+                channel.read(headerBytes, 0);
+                String header = StandardCharsets.UTF_8.decode(headerBytes.flip()).toString();
+                if (header.endsWith("\r")) header = header.substring(0, header.length() - 1);
+                headerMapper = createHeaderMapper(header.split(DELIMITER));
+                dataStart = Math.min(headerEnd + 1, fileSize);
+            }
+
+            List<ChunkTask> tasks = createChunkTasks(channel, dataStart, fileSize, headerMapper);
+            int chunksAhead = pool.getParallelism() * Defaults.CHUNKS_PER_THREAD;
+            tasks.stream().limit(chunksAhead).forEach(pool::execute);
+
+            int[] lineNumber = {hasHeader ? 1 : 0};
+            return IntStream.range(0, tasks.size())
+                    .boxed()
+                    .flatMap(index -> {
+                        if (index + chunksAhead < tasks.size()) pool.execute(tasks.get(index + chunksAhead));
+                        ChunkResult result = joinChunk(tasks.get(index));
+                        tasks.set(index, null);
+                        if (result.error() != null)
+                            throw new ParseExtractionException(String.format("Error on line number %d -> %s", lineNumber[0] + result.lines(), result.error()));
+                        lineNumber[0] += result.lines();
+                        return result.employees().stream();
+                    })
+                    .onClose(() -> {
+                        tasks.stream().filter(Objects::nonNull).forEach(task -> task.cancel(false));
+                        closeQuietly(channel);
+                    });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for a chunk to be parsed.
+     *
+     * @param task the chunk task
+     * @return the result of the chunk
+     * @throws FileReaderException if the chunk could not be mapped
+     */
+    private ChunkResult joinChunk(ChunkTask task) {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
             throw new FileReaderException("Error when reading the file");
         }
-        return employees;
+    }
+
+    /**
+     * Splits {@code [dataStart, fileSize)} of the file into chunks that start at the beginning of a line.
+     * Chunks are of {@link Defaults#CHUNK_SIZE}, rounded up to the end of a line, or smaller on small files so there
+     * are at least {@link Defaults#CHUNKS_PER_THREAD} chunks for each thread of the pool.
+     *
+     * @param channel      the channel of the file
+     * @param dataStart    the position of the first data line
+     * @param fileSize     the size of the file
+     * @param headerMapper the header mapper array, or null if the file has no header
+     * @return the chunk tasks on the file order
+     * @throws IOException if the file cannot be read
+     */
+    private List<ChunkTask> createChunkTasks(FileChannel channel, long dataStart, long fileSize, int[] headerMapper) throws IOException {
+        long dataSize = fileSize - dataStart;
+        long minimumChunks = (long) pool.getParallelism() * Defaults.CHUNKS_PER_THREAD;
+        long chunkSize = Math.max(1, Math.min(Defaults.CHUNK_SIZE, (dataSize + minimumChunks - 1) / minimumChunks));
+
+        List<ChunkTask> tasks = new ArrayList<>();
+        long start = dataStart;
+        while (start < fileSize) {
+            long end = (start + chunkSize >= fileSize) ? fileSize : Math.min(findLineEnd(channel, start + chunkSize - 1, fileSize) + 1, fileSize);
+            if (end - start > Defaults.MAPPED_REGION_SIZE)
+                throw new FileReaderException(String.format("File has a line longer than %d bytes", Defaults.MAPPED_REGION_SIZE / 2));
+            tasks.add(new ChunkTask(channel, start, end, headerMapper));
+            start = end;
+        }
+        return tasks;
+    }
+
+    /**
+     * Finds the position of the first line feed at or after {@code from}.
+     *
+     * @param channel  the channel of the file
+     * @param from     the position where the search starts
+     * @param fileSize the size of the file
+     * @return the position of the line feed, or {@code fileSize} if there is none
+     * @throws IOException if the file cannot be read
+     */
+    private long findLineEnd(FileChannel channel, long from, long fileSize) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(Defaults.LINE_SEARCH_WINDOW_SIZE);
+        long position = from;
+        while (position < fileSize) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') return position + i;
+            }
+            position += read;
+        }
+        return fileSize;
+    }
+
+    /**
+     * Parses an {@code Employee} object from a CSV line stored on a buffer.
+     *
+     * @param parser     the parser of the file lines
+     * @param buffer     the buffer holding the line
+     * @param start      the index of the first byte of the line
+     * @param end        the index after the last byte of the line
+     * @param lineNumber the line number from which the data was read
+     * @return the parsed {@code Employee} object
+     * @throws ParseExtractionException if any error occurs during parsing of the employee data
+     */
+    private Employee employeeFromLine(EmployeeCsvByteParser parser, ByteBuffer buffer, int start, int end, int lineNumber) {
+        try {
+            return parser.parseLine(buffer, start, end);
+        } catch (EmployeeCsvByteParser.LineParseException e) {
+            throw new ParseExtractionException(String.format("Error on line number %d -> %s", lineNumber, e.getMessage()));
+        }
+    }
+
+    /**
+     * Closes the resource when the stream is closed.
+     *
+     * @param stream   the stream
+     * @param resource the resource to be closed
+     * @return the stream
+     */
+    private <T> Stream<T> closeOnEnd(Stream<T> stream, Closeable resource) {
+        return stream.onClose(() -> closeQuietly(resource));
+    }
+
+    /**
+     * Closes a resource, ignoring errors since all data was already read.
+     *
+     * @param resource the resource to be closed
+     */
+    private static void closeQuietly(Closeable resource) {
+        try {
+            resource.close();
+        } catch (IOException ignored) {
+            // nothing left to read from the resource
+        }
+    }
+
+    private FileReaderException fileNotFound(File file) {
+        return new FileReaderException(
+                String.format("File not found | Filepath: %s | Filename: %s", Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
+    }
+
+    private FileReaderException readingNotPermitted(File file) {
+        return new FileReaderException(
+                String.format("File reading not permitted | Filepath: %s | Filename: %s", Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
     }
 
     /**
@@ -162,6 +667,52 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
         }
     }
 
+    /**
+     * Constructs an {@code EmployeeChange} object from an array of values of a change log CSV line.
+     * Blank values and columns missing on the line are read as null.
+     *
+     * @param headerMapper the position on {@code changeHeaderOrder} of each column, -1 for unknown columns
+     * @param values       the array of values of the line
+     * @param lineNumber   the line number from which the data was read
+     * @return the constructed {@code EmployeeChange} object
+     * @throws ParseExtractionException if any error occurs during parsing of the change data
+     */
+    private EmployeeChange changeFromLineValues(int[] headerMapper, String[] values, int lineNumber) {
+        String[] orderedData = new String[changeHeaderOrder.size()];
+        for (int i = 0; i < Math.min(values.length, headerMapper.length); i++) {
+            if (headerMapper[i] >= 0 && !values[i].isBlank()) orderedData[headerMapper[i]] = values[i].trim();
+        }
+        try {
+            if (orderedData[0] == null) throw new IllegalArgumentException("Change operation is missing");
+            return new EmployeeChange(
+                    EmployeeChange.Operation.valueOf(orderedData[0].toUpperCase()),
+                    (orderedData[1] == null) ? null : Integer.valueOf(orderedData[1]),
+                    orderedData[2],
+                    orderedData[3],
+                    (orderedData[4] == null) ? null : Integer.valueOf(orderedData[4]),
+                    (orderedData[5] == null) ? null : Integer.valueOf(orderedData[5]));
+        } catch (Exception e) {
+            throw new ParseExtractionException(String.format("Error on line number %d -> %s", lineNumber, e.getMessage()));
+        }
+    }
+
+    /**
+     * Creates a header mapper array to map change log CSV header columns to their respective positions
+     * described on {@code changeHeaderOrder}.
+     *
+     * @param header the array representing the header line of the change log CSV file
+     * @return the header mapper array, with -1 for unknown columns
+     * @throws ParseExtractionException if a required column is not found
+     */
+    private int[] createChangeHeaderMapper(String[] header) throws ParseExtractionException {
+        List<String> headerList = Arrays.stream(header).map(column -> column.trim().toLowerCase()).toList();
+        requiredChangeHeaders.forEach(requiredHeader -> {
+            if (!headerList.contains(requiredHeader))
+                throw new ParseExtractionException(String.format("Required header not found on header file: %s", requiredHeader));
+        });
+        return headerList.stream().mapToInt(changeHeaderOrder::indexOf).toArray();
+    }
+
     /**
      * Creates a header mapper array to map CSV header columns to their respective positions
      * described on {@code headerOrder}.
@@ -194,6 +745,128 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
         return orderedData;
     }
 
+    /**
+     * Iterates over the lines of a file memory-mapped on regions of at most {@link Defaults#MAPPED_REGION_SIZE} bytes,
+     * each region starting at the beginning of a line. The current line is stored on {@code [lineStart, lineEnd)}
+     * of {@code region}, without line feed.
+     */
+    private static final class MappedLines {
+        private final FileChannel channel;
+        private final long fileSize;
+        private long regionPosition;
+        private MappedByteBuffer region;
+        private int regionSize;
+        private int nextLineStart;
+        private int lineStart;
+        private int lineEnd;
+        private int lines;
+
+        private MappedLines(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.fileSize = channel.size();
+        }
+
+        /**
+         * Moves to the next line, mapping the next region of the file when needed.
+         *
+         * @return {@code true} if there is a next line, {@code false} at the end of the file
+         * @throws IOException         if the file cannot be mapped
+         * @throws FileReaderException if a line is longer than a region
+         */
+        private boolean next() throws IOException {
+            while (true) {
+                if (region != null) {
+                    for (int i = nextLineStart; i < regionSize; i++) {
+                        if (region.get(i) == '\n') return moveTo(nextLineStart, i, i + 1);
+                    }
+                    if (regionPosition + regionSize == fileSize)
+                        return nextLineStart < regionSize && moveTo(nextLineStart, regionSize, regionSize);
+                    if (nextLineStart == 0)
+                        throw new FileReaderException(String.format("Line number %d is longer than %d bytes", lines, Defaults.MAPPED_REGION_SIZE));
+                    regionPosition += nextLineStart;
+                } else if (fileSize == 0) {
+                    return false;
+                }
+                regionSize = (int) Math.min(Defaults.MAPPED_REGION_SIZE, fileSize - regionPosition);
+                region = channel.map(FileChannel.MapMode.READ_ONLY, regionPosition, regionSize);
+                nextLineStart = 0;
+            }
+        }
+
+        private boolean moveTo(int start, int end, int next) {
+            lineStart = start;
+            lineEnd = end;
+            nextLineStart = next;
+            lines++;
+            return true;
+        }
+
+        /**
+         * Decodes the current line as an UTF-8 String, without trailing carriage return.
+         *
+         * @return the current line
+         */
+        private String decode() {
+            String line = StandardCharsets.UTF_8.decode(region.slice(lineStart, lineEnd - lineStart)).toString();
+            return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+        }
+    }
+
+    /**
+     * Result of parsing a chunk of the file.
+     *
+     * @param employees the employees parsed before any error
+     * @param lines     the number of lines parsed before any error
+     * @param error     the description of the parsing error, without line number, or null if there was none
+     */
+    private record ChunkResult(List<Employee> employees, int lines, String error) {
+    }
+
+    /**
+     * Parses the lines of a chunk of the file, stopping at the first invalid line.
+     */
+    private static final class ChunkTask extends RecursiveTask<ChunkResult> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final int[] headerMapper;
+
+        private ChunkTask(FileChannel channel, long start, long end, int[] headerMapper) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.headerMapper = headerMapper;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            MappedByteBuffer chunk;
+            try {
+                chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            EmployeeCsvByteParser parser = new EmployeeCsvByteParser(headerMapper);
+            List<Employee> employees = new ArrayList<>();
+            int size = (int) (end - start);
+            int lineStart = 0;
+            int lines = 0;
+            for (int i = 0; i <= size; i++) {
+                boolean endOfLine = (i < size) ? chunk.get(i) == '\n' : lineStart < size;
+                if (!endOfLine) continue;
+                try {
+                    employees.add(parser.parseLine(chunk, lineStart, i));
+                } catch (EmployeeCsvByteParser.LineParseException e) {
+                    return new ChunkResult(employees, lines, e.getMessage());
+                }
+                lines++;
+                lineStart = i + 1;
+            }
+            return new ChunkResult(employees, lines, null);
+        }
+    }
+
     /**
      * Provides default values for the {@code EmployeeDataExtractorService}.
      */
@@ -202,6 +875,26 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
          * Default value indicating whether the CSV file has a header line.
          */
         static final boolean HAS_HEADER = true;
+        /**
+         * Default parsing mode of the file content.
+         */
+        static final ParsingMode PARSING_MODE = ParsingMode.BUFFERED;
+        /**
+         * Maximum size of each memory-mapped region of the file.
+         */
+        static final long MAPPED_REGION_SIZE = 256L * 1024 * 1024;
+        /**
+         * Size of each chunk of the file parsed on parallel parsing mode, before rounding up to the end of a line.
+         */
+        static final long CHUNK_SIZE = 4L * 1024 * 1024;
+        /**
+         * Number of chunks of the file parsed ahead of the consumer for each thread of the pool on parallel parsing mode.
+         */
+        static final int CHUNKS_PER_THREAD = 4;
+        /**
+         * Number of bytes read at once when searching the end of a line.
+         */
+        static final int LINE_SEARCH_WINDOW_SIZE = 4096;
         /**
          * Default minimum required values for each line on csv be considered valid
          */
@@ -1,13 +1,22 @@
 package com.big.company.analytics.services.impl;
 
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
 import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.MutableEmployeeHierarchy;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
 import com.big.company.analytics.services.EmployeeReportService;
+import com.big.company.analytics.services.ReportSink;
+import com.big.company.analytics.services.StreamingReportSink;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * Implementation of the {@code EmployeeReport} interface that generates reports based on
@@ -32,11 +41,65 @@ public class EmployeeHierarchyReportService implements EmployeeReportService {
      */
     private static final int DEFAULT_MAXIMUM_PERCENTAGE = 50;
 
+    /**
+     * Reporting lines threshold no employee exceeds, so the limited salary policy report, computed by the report
+     * engine, collects no reporting lines.
+     */
+    private static final int NO_REPORTING_LINES_THRESHOLD = Integer.MAX_VALUE;
+
+    /**
+     * Salary policy limit of the limited reporting lines report, computed by the report engine, so it holds a single
+     * salary policy violation that is not reported.
+     */
+    private static final int SALARY_POLICY_LIMIT_OF_REPORTING_LINES = 1;
+
+    /**
+     * Engine computing all reports in a single traversal.
+     */
+    private final HierarchyReportEngine engine;
+
+    /**
+     * Destination the reports are written into.
+     */
+    private final ReportSink sink;
+
+    /**
+     * Constructs an {@code EmployeeHierarchyReportService} whose combined reports have no extra metrics,
+     * printing the reports in console.
+     */
+    public EmployeeHierarchyReportService() {
+        this(new HierarchyReportEngine());
+    }
+
+    /**
+     * Constructs an {@code EmployeeHierarchyReportService} whose combined reports are computed by the given engine,
+     * including its extra metrics.
+     *
+     * @param engine the engine computing the combined reports
+     * @throws NullPointerException if the engine is null
+     */
+    public EmployeeHierarchyReportService(HierarchyReportEngine engine) {
+        this(engine, TextReportSink.stdout());
+    }
+
+    /**
+     * Constructs an {@code EmployeeHierarchyReportService} whose combined reports are computed by the given engine,
+     * writing the reports into the given sink instead of the console.
+     *
+     * @param engine the engine computing the combined reports
+     * @param sink   the destination the reports are written into
+     * @throws NullPointerException if any params is null
+     */
+    public EmployeeHierarchyReportService(HierarchyReportEngine engine, ReportSink sink) {
+        this.engine = Objects.requireNonNull(engine, "Report engine must not be null");
+        this.sink = Objects.requireNonNull(sink, "Report sink must not be null");
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy) {
+    public Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy) {
         return reportManagersSalaryPolicyViolation(employeeHierarchy, DEFAULT_MINIMUM_PERCENTAGE, DEFAULT_MAXIMUM_PERCENTAGE);
     }
 
@@ -44,96 +107,160 @@ public class EmployeeHierarchyReportService implements EmployeeReportService {
      * {@inheritDoc}
      */
     @Override
-    public Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+    public Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        Map<Employee, SalaryPolicyViolation> managersWithPolicyViolation =
+                computeManagersSalaryPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage);
+        printReportManagersSalaryPolicyViolation(managersWithPolicyViolation, minimumPercentage, maximumPercentage);
+
+        return managersWithPolicyViolation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, SalaryPolicyViolation> computeManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
         Objects.requireNonNull(minimumPercentage, "Minimum Percentage must not be null");
         Objects.requireNonNull(maximumPercentage, "Maximum Percentage must not be null");
 
         if (employeeHierarchy == null)
             throw new NullPointerException("Employees hierarchy must not be null");
 
-        Map<Employee, String> managersWithPolicyViolation =
-                findManagersWithPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage);
-        printReportManagersSalaryPolicyViolation(managersWithPolicyViolation, minimumPercentage, maximumPercentage);
-
-        return managersWithPolicyViolation;
+        return findManagersWithPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage);
     }
 
     /**
      * Prints a report of managers who violate the salary policy regarding their subordinates' average salary.
-     * This method prints the details of managers with their corresponding violation descriptions.
+     * This method writes the details of managers with their corresponding violations into the report sink.
      *
-     * @param managersWithPolicyViolation a map containing managers who violate the salary policy along with the violation description
+     * @param managersWithPolicyViolation a map containing managers who violate the salary policy along with the violation
      * @param minimumPercentage           the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
      * @param maximumPercentage           the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
      */
-    private synchronized void printReportManagersSalaryPolicyViolation(Map<Employee, String> managersWithPolicyViolation, Integer minimumPercentage, Integer maximumPercentage) {
-        StringBuilder report = new StringBuilder();
-        report.append(String.format("----- Report of employees with salary policy violation -----%n"));
-        report.append(String.format("-> Minimum percentage allowed: %d %n", minimumPercentage));
-        report.append(String.format("-> Maximum percentage allowed: %d %n", maximumPercentage));
-        report.append(String.format("-> Number of employees with salary policy violation: %d%n", managersWithPolicyViolation.size()));
-        report.append(String.format("%-12s|%-12s|%-12s|%-12s|%-12s%n",
-                "ID",
-                "FIRST NAME",
-                "LAST NAME",
-                "SALARY",
-                "VIOLATION"));
-
-        managersWithPolicyViolation.forEach((employee, violationDescr) ->
-                report.append(String.format("%-12d|%-12s|%-12s|%-12d|%s%n",
-                        employee.id(),
-                        employee.firstName(),
-                        employee.lastName(),
-                        employee.salary(),
-                        violationDescr)));
-
-        System.out.println(report);
+    private void printReportManagersSalaryPolicyViolation(Map<Employee, SalaryPolicyViolation> managersWithPolicyViolation, Integer minimumPercentage, Integer maximumPercentage) {
+        sink.writeSalaryPolicyViolations(managersWithPolicyViolation, minimumPercentage, maximumPercentage);
     }
 
     /**
      * Finds managers who violate the salary policy regarding their subordinates' average salary.
+     * The hierarchy is traversed with an explicit stack, so deep hierarchies do not exhaust the thread stack,
+     * and each average is checked as soon as it is computed.
      *
      * @param employeeHierarchy the root node of the employee hierarchy
      * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
      * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
-     * @return a map containing managers who violate the salary policy along with the violation description
-     */
-    private Map<Employee, String> findManagersWithPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
-        Map<Employee, Double> managersAndAverage = new HashMap<>();
-        getNodesSubordinatesSalaryAverage(employeeHierarchy, managersAndAverage);
-
-        Map<Employee, String> managersAndPolicyViolation = new HashMap<>();
-        managersAndAverage.forEach(((employee, average) -> {
-            double minimumSalaryAllowed = average * (1 + ((double) minimumPercentage / 100));
-            double maximumSalaryAllowed = average * (1 + ((double) maximumPercentage / 100));
-            double salary = employee.salary().doubleValue();
-
-            if (salary < minimumSalaryAllowed)
-                managersAndPolicyViolation.put(employee,
-                        String.format("Salary is %.2f lesser than the minimum salary allowed", minimumSalaryAllowed - salary));
-
-            if (salary > maximumSalaryAllowed)
-                managersAndPolicyViolation.put(employee,
-                        String.format("Salary is %.2f higher than the maximum salary allowed", salary - maximumSalaryAllowed));
-        }));
+     * @return a map containing managers who violate the salary policy along with the violation
+     */
+    protected Map<Employee, SalaryPolicyViolation> findManagersWithPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        Map<Employee, SalaryPolicyViolation> managersAndPolicyViolation = new HashMap<>();
+        Deque<EmployeeNode> stack = new ArrayDeque<>();
+        stack.push(employeeHierarchy);
+        while (!stack.isEmpty()) {
+            EmployeeNode node = stack.pop();
+            if (node.subordinates().isEmpty()) continue;
+
+            long salariesSum = 0;
+            for (EmployeeNode subordinate : node.subordinates()) {
+                salariesSum += subordinate.employee().salary();
+                stack.push(subordinate);
+            }
+            SalaryPolicyViolation violation = SalaryPolicyViolation.check(node.employee().id(), node.employee().salary(),
+                    (double) salariesSum / node.subordinates().size(), minimumPercentage, maximumPercentage);
+            if (violation != null) managersAndPolicyViolation.put(node.employee(), violation);
+        }
         return managersAndPolicyViolation;
     }
 
     /**
-     * Calculates the average salary of subordinates for each manager node in the employee hierarchy.
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        Map<Employee, SalaryPolicyViolation> managersWithPolicyViolation =
+                computeManagersSalaryPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage);
+        printReportManagersSalaryPolicyViolation(managersWithPolicyViolation, minimumPercentage, maximumPercentage);
+
+        return managersWithPolicyViolation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, SalaryPolicyViolation> computeManagersSalaryPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        Objects.requireNonNull(minimumPercentage, "Minimum Percentage must not be null");
+        Objects.requireNonNull(maximumPercentage, "Maximum Percentage must not be null");
+
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        return findManagersWithPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage,
+                                                                                   Integer limit) {
+        if (limit == null) return reportManagersSalaryPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage);
+        Objects.requireNonNull(minimumPercentage, "Minimum Percentage must not be null");
+        Objects.requireNonNull(maximumPercentage, "Maximum Percentage must not be null");
+
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        Map<Employee, SalaryPolicyViolation> managersWithPolicyViolation = new HierarchyReportEngine().withLimits(limit, null)
+                .compute(employeeHierarchy, minimumPercentage, maximumPercentage, NO_REPORTING_LINES_THRESHOLD).salaryPolicyViolations();
+        printReportManagersSalaryPolicyViolation(managersWithPolicyViolation, minimumPercentage, maximumPercentage);
+
+        return managersWithPolicyViolation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, SalaryPolicyViolation> reportManagersSalaryPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage,
+                                                                                   Integer limit) {
+        if (limit == null) return reportManagersSalaryPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage);
+        Objects.requireNonNull(minimumPercentage, "Minimum Percentage must not be null");
+        Objects.requireNonNull(maximumPercentage, "Maximum Percentage must not be null");
+
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        Map<Employee, SalaryPolicyViolation> managersWithPolicyViolation = new HierarchyReportEngine().withLimits(limit, null)
+                .compute(employeeHierarchy, minimumPercentage, maximumPercentage, NO_REPORTING_LINES_THRESHOLD).salaryPolicyViolations();
+        printReportManagersSalaryPolicyViolation(managersWithPolicyViolation, minimumPercentage, maximumPercentage);
+
+        return managersWithPolicyViolation;
+    }
+
+    /**
+     * Finds managers who violate the salary policy regarding their subordinates' average salary,
+     * visiting each employee of an index-based hierarchy once.
      *
-     * @param node   the current node in the employee hierarchy
-     * @param result a map to store the manager node and its corresponding average salary of subordinates
+     * @param employeeHierarchy the employee hierarchy
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return a map containing managers who violate the salary policy along with the violation
      */
-    private void getNodesSubordinatesSalaryAverage(EmployeeNode node, Map<Employee, Double> result) {
-        if (node.subordinates().isEmpty()) return;
-        Double average = node.subordinates().stream()
-                .collect(Collectors.averagingInt(child -> child.employee().salary()));
-        result.put(node.employee(), average);
+    private Map<Employee, SalaryPolicyViolation> findManagersWithPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        Map<Employee, SalaryPolicyViolation> managersAndPolicyViolation = new HashMap<>();
+        for (int index = 0; index < employeeHierarchy.size(); index++) {
+            int subordinatesCount = employeeHierarchy.subordinatesCount(index);
+            if (subordinatesCount == 0) continue;
 
-        for (EmployeeNode subordinate : node.subordinates()) {
-            getNodesSubordinatesSalaryAverage(subordinate, result);
+            long salariesSum = 0;
+            for (int n = 0; n < subordinatesCount; n++) {
+                salariesSum += employeeHierarchy.salary(employeeHierarchy.subordinate(index, n));
+            }
+            SalaryPolicyViolation violation = SalaryPolicyViolation.check(employeeHierarchy.id(index), employeeHierarchy.salary(index),
+                    (double) salariesSum / subordinatesCount, minimumPercentage, maximumPercentage);
+            if (violation != null) managersAndPolicyViolation.put(employeeHierarchy.employee(index), violation);
         }
+        return managersAndPolicyViolation;
     }
 
     /**
@@ -149,47 +276,41 @@ public class EmployeeHierarchyReportService implements EmployeeReportService {
      */
     @Override
     public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy, Integer reportingLinesThreshold) {
+        Map<Employee, Integer> managerAndReportingLines = computeManagersWithExcessiveReportingLines(employeeHierarchy, reportingLinesThreshold);
+        printReportManagersWithExcessiveReportingLines(managerAndReportingLines, reportingLinesThreshold);
+
+        return managerAndReportingLines;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, Integer> computeManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy, Integer reportingLinesThreshold) {
         Objects.requireNonNull(reportingLinesThreshold, "Reporting lines threshold must not be null");
 
         if (employeeHierarchy == null)
             throw new NullPointerException("Employees hierarchy must not be null");
 
-        Map<Employee, Integer> managerAndReportingLines = getNodesWithDepthGreaterThan(employeeHierarchy, reportingLinesThreshold);
-        printReportManagersWithExcessiveReportingLines(managerAndReportingLines, reportingLinesThreshold);
-
-        return managerAndReportingLines;
+        return getNodesWithDepthGreaterThan(employeeHierarchy, reportingLinesThreshold);
     }
 
     /**
      * Prints a report of managers with excessive reporting lines.
-     * This method prints the details of managers along with the number of reporting lines exceeding the specified threshold.
+     * This method writes the details of managers along with the number of reporting lines exceeding the specified threshold
+     * into the report sink.
      *
      * @param managerAndReportingLines a map containing managers with reporting lines greater than the depth threshold
      * @param reportingLinesThreshold  the threshold depth beyond which reporting lines are considered excessive
      */
-    private synchronized void printReportManagersWithExcessiveReportingLines(Map<Employee, Integer> managerAndReportingLines, Integer reportingLinesThreshold) {
-        StringBuilder report = new StringBuilder();
-        report.append(String.format("----- Report of employees with reporting line higher than %d -----%n", reportingLinesThreshold));
-        report.append(String.format("-> Number of employees with excessive reporting lines: %d%n", managerAndReportingLines.size()));
-        report.append(String.format("%-12s|%-12s|%-12s|%-12s%n",
-                "ID",
-                "FIRST NAME",
-                "LAST NAME",
-                "EXCESSIVE REPORTING LINES"));
-
-        managerAndReportingLines.forEach(((employee, reportingLines) ->
-                report.append(String.format("%-12d|%-12s|%-12s|%-12d%n",
-                        employee.id(),
-                        employee.firstName(),
-                        employee.lastName(),
-                        reportingLines))));
-
-        System.out.println(report);
+    private void printReportManagersWithExcessiveReportingLines(Map<Employee, Integer> managerAndReportingLines, Integer reportingLinesThreshold) {
+        sink.writeExcessiveReportingLines(managerAndReportingLines, reportingLinesThreshold);
     }
 
 
     /**
      * Retrieves managers with reporting lines greater than a specified depth threshold.
+     * The hierarchy is traversed with an explicit stack, so deep hierarchies do not exhaust the thread stack.
      *
      * @param employeeHierarchy the root node of the employee hierarchy
      * @param depthThreshold    the threshold depth beyond which reporting lines are considered excessive
@@ -197,25 +318,288 @@ public class EmployeeHierarchyReportService implements EmployeeReportService {
      */
     private Map<Employee, Integer> getNodesWithDepthGreaterThan(EmployeeNode employeeHierarchy, Integer depthThreshold) {
         Map<Employee, Integer> managerAndReportingLines = new HashMap<>();
-        int rootDepth = 0;
-        traverseDepthGreaterThan(employeeHierarchy, rootDepth, depthThreshold, managerAndReportingLines);
+        Deque<NodeAtDepth> stack = new ArrayDeque<>();
+        stack.push(new NodeAtDepth(employeeHierarchy, 0));
+        while (!stack.isEmpty()) {
+            NodeAtDepth current = stack.pop();
+            if (current.depth() > depthThreshold) {
+                managerAndReportingLines.put(current.node().employee(), current.depth() - depthThreshold);
+            }
+            for (EmployeeNode subordinate : current.node().subordinates()) {
+                stack.push(new NodeAtDepth(subordinate, current.depth() + 1));
+            }
+        }
+        return managerAndReportingLines;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeHierarchy employeeHierarchy, Integer reportingLinesThreshold) {
+        Map<Employee, Integer> managerAndReportingLines = computeManagersWithExcessiveReportingLines(employeeHierarchy, reportingLinesThreshold);
+        printReportManagersWithExcessiveReportingLines(managerAndReportingLines, reportingLinesThreshold);
+
         return managerAndReportingLines;
     }
 
     /**
-     * Traverses the employee hierarchy to find managers with reporting lines greater than a specified depth threshold.
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, Integer> computeManagersWithExcessiveReportingLines(EmployeeHierarchy employeeHierarchy, Integer reportingLinesThreshold) {
+        Objects.requireNonNull(reportingLinesThreshold, "Reporting lines threshold must not be null");
+
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        return getIndexesWithDepthGreaterThan(employeeHierarchy, reportingLinesThreshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy, Integer reportingLinesThreshold, Integer limit) {
+        if (limit == null) return reportManagersWithExcessiveReportingLines(employeeHierarchy, reportingLinesThreshold);
+        Objects.requireNonNull(reportingLinesThreshold, "Reporting lines threshold must not be null");
+
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        Map<Employee, Integer> managerAndReportingLines = new HierarchyReportEngine().withLimits(SALARY_POLICY_LIMIT_OF_REPORTING_LINES, limit)
+                .compute(employeeHierarchy, DEFAULT_MINIMUM_PERCENTAGE, DEFAULT_MAXIMUM_PERCENTAGE, reportingLinesThreshold).excessiveReportingLines();
+        printReportManagersWithExcessiveReportingLines(managerAndReportingLines, reportingLinesThreshold);
+
+        return managerAndReportingLines;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeHierarchy employeeHierarchy, Integer reportingLinesThreshold, Integer limit) {
+        if (limit == null) return reportManagersWithExcessiveReportingLines(employeeHierarchy, reportingLinesThreshold);
+        Objects.requireNonNull(reportingLinesThreshold, "Reporting lines threshold must not be null");
+
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        Map<Employee, Integer> managerAndReportingLines = new HierarchyReportEngine().withLimits(SALARY_POLICY_LIMIT_OF_REPORTING_LINES, limit)
+                .compute(employeeHierarchy, DEFAULT_MINIMUM_PERCENTAGE, DEFAULT_MAXIMUM_PERCENTAGE, reportingLinesThreshold).excessiveReportingLines();
+        printReportManagersWithExcessiveReportingLines(managerAndReportingLines, reportingLinesThreshold);
+
+        return managerAndReportingLines;
+    }
+
+    /**
+     * Retrieves managers with reporting lines greater than a specified depth threshold from an index-based hierarchy.
+     * The hierarchy is traversed with an explicit stack of indexes and depths.
      *
-     * @param node           the current node being traversed
-     * @param depth          the depth of the current node in the hierarchy
-     * @param depthThreshold the threshold depth beyond which reporting lines are considered excessive
-     * @param result         a map to store managers with excessive reporting lines
-     */
-    private void traverseDepthGreaterThan(EmployeeNode node, int depth, Integer depthThreshold, Map<Employee, Integer> result) {
-        if (depth > depthThreshold) {
-            result.put(node.employee(), depth - depthThreshold);
+     * @param employeeHierarchy the employee hierarchy
+     * @param depthThreshold    the threshold depth beyond which reporting lines are considered excessive
+     * @return a map containing managers with reporting lines greater than the depth threshold
+     */
+    private Map<Employee, Integer> getIndexesWithDepthGreaterThan(EmployeeHierarchy employeeHierarchy, Integer depthThreshold) {
+        Map<Employee, Integer> managerAndReportingLines = new HashMap<>();
+        int[] indexes = new int[16];
+        int[] depths = new int[16];
+        int top = 0;
+        indexes[top] = employeeHierarchy.root();
+        depths[top++] = 0;
+        while (top > 0) {
+            int index = indexes[--top];
+            int depth = depths[top];
+            if (depth > depthThreshold) managerAndReportingLines.put(employeeHierarchy.employee(index), depth - depthThreshold);
+
+            int subordinatesCount = employeeHierarchy.subordinatesCount(index);
+            if (top + subordinatesCount > indexes.length) {
+                int capacity = Math.max(indexes.length * 2, top + subordinatesCount);
+                indexes = Arrays.copyOf(indexes, capacity);
+                depths = Arrays.copyOf(depths, capacity);
+            }
+            for (int n = 0; n < subordinatesCount; n++) {
+                indexes[top] = employeeHierarchy.subordinate(index, n);
+                depths[top++] = depth + 1;
+            }
         }
-        for (EmployeeNode subordinate : node.subordinates()) {
-            traverseDepthGreaterThan(subordinate, depth + 1, depthThreshold, result);
+        return managerAndReportingLines;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeHierarchyReport reportAll(EmployeeNode employeeHierarchy) {
+        return reportAll(employeeHierarchy, DEFAULT_MINIMUM_PERCENTAGE, DEFAULT_MAXIMUM_PERCENTAGE, DEFAULT_REPORTING_LINES_THRESHOLD);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeHierarchyReport reportAll(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold) {
+        return reportAll(employeeHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold, null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeHierarchyReport reportAll(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold,
+                                             Integer salaryPolicyLimit, Integer reportingLinesLimit) {
+        Objects.requireNonNull(minimumPercentage, "Minimum Percentage must not be null");
+        Objects.requireNonNull(maximumPercentage, "Maximum Percentage must not be null");
+        Objects.requireNonNull(reportingLinesThreshold, "Reporting lines threshold must not be null");
+
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        HierarchyReportEngine reportEngine = (salaryPolicyLimit != null || reportingLinesLimit != null) ?
+                engine.withLimits(salaryPolicyLimit, reportingLinesLimit) : engine;
+        return computeAndWrite(sink -> reportEngine.compute(employeeHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold, sink),
+                minimumPercentage, maximumPercentage, reportingLinesThreshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeHierarchyReport reportAll(EmployeeHierarchy employeeHierarchy) {
+        return reportAll(employeeHierarchy, DEFAULT_MINIMUM_PERCENTAGE, DEFAULT_MAXIMUM_PERCENTAGE, DEFAULT_REPORTING_LINES_THRESHOLD);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeHierarchyReport reportAll(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold) {
+        return reportAll(employeeHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold, null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeHierarchyReport reportAll(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold,
+                                             Integer salaryPolicyLimit, Integer reportingLinesLimit) {
+        Objects.requireNonNull(minimumPercentage, "Minimum Percentage must not be null");
+        Objects.requireNonNull(maximumPercentage, "Maximum Percentage must not be null");
+        Objects.requireNonNull(reportingLinesThreshold, "Reporting lines threshold must not be null");
+
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        HierarchyReportEngine reportEngine = (salaryPolicyLimit != null || reportingLinesLimit != null) ?
+                engine.withLimits(salaryPolicyLimit, reportingLinesLimit) : engine;
+        return computeAndWrite(sink -> reportEngine.compute(employeeHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold, sink),
+                minimumPercentage, maximumPercentage, reportingLinesThreshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeHierarchyReport computeAll(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold) {
+        Objects.requireNonNull(minimumPercentage, "Minimum Percentage must not be null");
+        Objects.requireNonNull(maximumPercentage, "Maximum Percentage must not be null");
+        Objects.requireNonNull(reportingLinesThreshold, "Reporting lines threshold must not be null");
+
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        return engine.compute(employeeHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeHierarchyReport computeAll(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold) {
+        Objects.requireNonNull(minimumPercentage, "Minimum Percentage must not be null");
+        Objects.requireNonNull(maximumPercentage, "Maximum Percentage must not be null");
+        Objects.requireNonNull(reportingLinesThreshold, "Reporting lines threshold must not be null");
+
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        return engine.compute(employeeHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold);
+    }
+
+    /**
+     * Generates both the salary policy and the excessive reporting lines reports of a mutable hierarchy, printed in
+     * console, and returns them as a live report that keeps both violation sets current as the hierarchy is changed
+     * through it.
+     *
+     * @param employeeHierarchy       the employee hierarchy, to be changed only through the live report from now on
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return the live report of the hierarchy
+     * @throws NullPointerException if any params is null
+     */
+    public LiveEmployeeHierarchyReport reportLive(MutableEmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage, Integer reportingLinesThreshold) {
+        return new LiveEmployeeHierarchyReport(employeeHierarchy,
+                reportAll(employeeHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The salary policy report is printed first.
+     */
+    @Override
+    public void printReport(EmployeeHierarchyReport report) {
+        Objects.requireNonNull(report, "Report must not be null");
+        printReportManagersSalaryPolicyViolation(report.salaryPolicyViolations(), report.minimumPercentage(), report.maximumPercentage());
+        printReportManagersWithExcessiveReportingLines(report.excessiveReportingLines(), report.reportingLinesThreshold());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The source and the report are written while holding the lock of the sink, so no other report comes in between.
+     */
+    @Override
+    public void printReport(String source, EmployeeHierarchyReport report) {
+        Objects.requireNonNull(source, "Source must not be null");
+        Objects.requireNonNull(report, "Report must not be null");
+        synchronized (sink) {
+            sink.writeSource(source);
+            printReport(report);
+        }
+    }
+
+    /**
+     * Computes a combined report, writing it into the report sink. A {@link StreamingReportSink} gets each violation
+     * as soon as it is found, holding its lock for the whole report, while any other sink gets the report once computed.
+     *
+     * @param computation             the computation of the report, writing the violations into the given sink if not null
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return the report
+     */
+    private EmployeeHierarchyReport computeAndWrite(Function<StreamingReportSink, EmployeeHierarchyReport> computation,
+                                                    int minimumPercentage, int maximumPercentage, int reportingLinesThreshold) {
+        if (!(sink instanceof StreamingReportSink streamingSink)) {
+            EmployeeHierarchyReport report = computation.apply(null);
+            printReport(report);
+            return report;
         }
+        synchronized (streamingSink) {
+            streamingSink.beginSalaryPolicyViolations(minimumPercentage, maximumPercentage);
+            streamingSink.beginExcessiveReportingLines(reportingLinesThreshold);
+            EmployeeHierarchyReport report = computation.apply(streamingSink);
+            streamingSink.endReport();
+            return report;
+        }
+    }
+
+    /**
+     * A node of the employee hierarchy waiting to be visited, with its depth.
+     *
+     * @param node  the node of the employee hierarchy
+     * @param depth the depth of the node in the hierarchy
+     */
+    private record NodeAtDepth(EmployeeNode node, int depth) {
     }
 }
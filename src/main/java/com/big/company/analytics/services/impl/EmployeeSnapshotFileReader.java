@@ -0,0 +1,179 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.OffHeapEmployeeHierarchy;
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.exception.ParseExtractionException;
+import com.big.company.analytics.services.EmployeeSnapshotService;
+import com.big.company.analytics.services.FileReaderService;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An implementation of {@code FileReaderService} that reads binary snapshot files of an employee hierarchy,
+ * recognized by the {@value #SNAPSHOT_EXTENSION} extension, and delegates every other file to another reader
+ * (by default {@link EmployeeCsvFileReader}).
+ * <p>
+ * Snapshots are {@link OffHeapEmployeeHierarchy} store files: versioned, checksummed and memory-mapped when read,
+ * so the hierarchy is not loaded on heap. The employees of a snapshot are read on breadth-first order from the CEO,
+ * so every manager comes before its subordinates.
+ */
+public final class EmployeeSnapshotFileReader implements FileReaderService<Employee>, EmployeeSnapshotService {
+
+    /**
+     * Extension of the snapshot files.
+     */
+    public static final String SNAPSHOT_EXTENSION = ".ehs";
+
+    /**
+     * Reader of the files that are not snapshots.
+     */
+    private final FileReaderService<Employee> fileReaderService;
+
+    /**
+     * Constructs a new {@code EmployeeSnapshotFileReader} delegating the files that are not snapshots to the given reader.
+     *
+     * @param fileReaderService the reader of the files that are not snapshots
+     * @throws NullPointerException if fileReaderService is null
+     */
+    public EmployeeSnapshotFileReader(FileReaderService<Employee> fileReaderService) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+    }
+
+    /**
+     * Constructs a new {@code EmployeeSnapshotFileReader} delegating the files that are not snapshots to an
+     * {@link EmployeeCsvFileReader} with default settings.
+     */
+    public EmployeeSnapshotFileReader() {
+        this(new EmployeeCsvFileReader());
+    }
+
+    /**
+     * Read {@code Employee} objects from a snapshot or delegated file specified by path and filename.
+     *
+     * @param path     the path to the directory containing the file
+     * @param fileName the name of the file
+     * @return a list of {@code Employee} objects read from the file
+     * @throws FileReaderException      if the file is not found or cannot be loaded
+     * @throws ParseExtractionException if any error occurs during parsing of the file content
+     * @throws NullPointerException     if any params is null
+     */
+    @Override
+    public List<Employee> readFile(String path, String fileName) {
+        Objects.requireNonNull(path, "Path should not be null");
+        Objects.requireNonNull(fileName, "File name should not be null");
+        if (path.isBlank() || fileName.isBlank())
+            throw new FileReaderException("Path and filename should not be blank");
+
+        return readFile(new File(Paths.get(path, fileName).toString()));
+    }
+
+    /**
+     * Read {@code Employee} objects from a snapshot or delegated file.
+     *
+     * @param file the file object from which {@code Employee} objects will be read
+     * @return a list of {@code Employee} objects read from the file
+     * @throws FileReaderException      if the file is not found or cannot be loaded
+     * @throws ParseExtractionException if any error occurs during parsing of the file content
+     * @throws NullPointerException     if any params is null
+     */
+    @Override
+    public List<Employee> readFile(File file) {
+        Objects.requireNonNull(file, "File should not be null");
+        if (!isSnapshot(file)) return fileReaderService.readFile(file);
+
+        try (Stream<Employee> employees = streamFile(file)) {
+            return employees.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    /**
+     * Streams {@code Employee} objects from a snapshot or delegated file.
+     * The employees of a snapshot are streamed on breadth-first order from the CEO.
+     *
+     * @param file the file object from which {@code Employee} objects will be read
+     * @return an ordered stream of {@code Employee} objects read from the file
+     * @throws FileReaderException      if the file is not found or cannot be loaded
+     * @throws ParseExtractionException if any error occurs during parsing of the file content
+     * @throws NullPointerException     if any params is null
+     */
+    @Override
+    public Stream<Employee> streamFile(File file) {
+        Objects.requireNonNull(file, "File should not be null");
+        if (!isSnapshot(file)) return fileReaderService.streamFile(file);
+
+        EmployeeHierarchy employeeHierarchy = readSnapshot(file);
+        return IntStream.range(0, employeeHierarchy.size()).mapToObj(employeeHierarchy::employee);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSnapshot(File file) {
+        Objects.requireNonNull(file, "File should not be null");
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeSnapshot(EmployeeNode employeeHierarchy, File file) {
+        Objects.requireNonNull(employeeHierarchy, "Employees hierarchy must not be null");
+        Objects.requireNonNull(file, "File should not be null");
+        try (OffHeapEmployeeHierarchy.Builder builder = OffHeapEmployeeHierarchy.builder(file)) {
+            Deque<EmployeeNode> queue = new ArrayDeque<>();
+            queue.add(employeeHierarchy);
+            while (!queue.isEmpty()) {
+                EmployeeNode node = queue.poll();
+                Employee employee = node.employee();
+                builder.add(new Employee(employee.id(), employee.firstName(), employee.lastName(), employee.salary(),
+                        (node == employeeHierarchy) ? null : employee.managerId()));
+                queue.addAll(node.subordinates());
+            }
+            builder.build();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The employees are added to an {@link OffHeapEmployeeHierarchy.Builder} of the snapshot file as they are
+     * streamed, so only the builder scratch file, next to the snapshot, grows with the number of employees.
+     */
+    @Override
+    public void writeSnapshot(Stream<Employee> employees, File file) {
+        Objects.requireNonNull(employees, "Employees stream must not be null");
+        Objects.requireNonNull(file, "File should not be null");
+        try (OffHeapEmployeeHierarchy.Builder builder = OffHeapEmployeeHierarchy.builder(file)) {
+            employees.forEachOrdered(builder::add);
+            builder.build();
+        } catch (EmployeeNodeException | EmployeeException e) {
+            throw new EmployeeNodeServiceException(String.format("Error when creating Employee Hierarchy | %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeHierarchy readSnapshot(File file) {
+        return OffHeapEmployeeHierarchy.map(file);
+    }
+}
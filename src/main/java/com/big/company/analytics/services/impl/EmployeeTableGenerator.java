@@ -0,0 +1,44 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.services.EmployeeTableService;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Generates an employee hierarchy table with {@link EmployeeTable.Builder}, accepting the employees on any order.
+ * The hierarchy is validated with the same rules of {@link IndexedEmployeeNodeGenerator}: employees whose manager
+ * is not found are removed with their subordinates, and reporting line cycles are rejected.
+ */
+public class EmployeeTableGenerator implements EmployeeTableService {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeTable generateEmployeeTable(List<Employee> employees) {
+        Objects.requireNonNull(employees, "Employees list must not be null");
+        return generateStreamedEmployeeTable(employees.stream());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeTable generateStreamedEmployeeTable(Stream<Employee> employees) {
+        Objects.requireNonNull(employees, "Employees stream must not be null");
+        try {
+            EmployeeTable.Builder builder = EmployeeTable.builder();
+            employees.forEachOrdered(builder::add);
+            return builder.build();
+        } catch (EmployeeNodeException | EmployeeException e) {
+            throw new EmployeeNodeServiceException(String.format("Error when creating Employee Hierarchy | %s", e.getMessage()));
+        }
+    }
+}
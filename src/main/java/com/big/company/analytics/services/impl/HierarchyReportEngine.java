@@ -0,0 +1,357 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.services.EmployeeMetric;
+import com.big.company.analytics.services.StreamingReportSink;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Computes the salary policy and reporting lines reports, plus any registered extra metrics, in a single traversal
+ * of the employee hierarchy. Each manager average salary is computed while its subordinates are pushed to the
+ * traversal stack, so no intermediate map is built. Nothing is printed, unless a {@link StreamingReportSink} is given,
+ * into which each violation is written as soon as it is found.
+ * <p>
+ * Each report can be limited to its worst violations on its own, the managers furthest out of the salary range for
+ * the salary policy report and the employees with the deepest reporting lines for the reporting lines report, ordered
+ * from the worst and written into the sink once the traversal ends. They are collected on a {@link WorstViolationsHeap} of primitives by the same traversal, so only
+ * the kept violations are held whatever the number of violators, and on index-based hierarchies only the violations
+ * entering the heap are created as {@code Employee} objects.
+ * <p>
+ * The engine is immutable: {@link #withMetric(String, Supplier)} and {@link #withLimits(Integer, Integer)} return a
+ * new engine.
+ */
+public final class HierarchyReportEngine {
+
+    /**
+     * Factories of the extra metrics, by metric name, on registration order.
+     */
+    private final Map<String, Supplier<? extends EmployeeMetric<?>>> metricFactories;
+
+    /**
+     * Maximum number of violations kept on the salary policy report, or 0 to keep all of them.
+     */
+    private final int salaryPolicyLimit;
+
+    /**
+     * Maximum number of violations kept on the reporting lines report, or 0 to keep all of them.
+     */
+    private final int reportingLinesLimit;
+
+    /**
+     * Constructs a new {@code HierarchyReportEngine} without extra metrics.
+     */
+    public HierarchyReportEngine() {
+        this(Collections.emptyMap(), 0, 0);
+    }
+
+    private HierarchyReportEngine(Map<String, Supplier<? extends EmployeeMetric<?>>> metricFactories, int salaryPolicyLimit, int reportingLinesLimit) {
+        this.metricFactories = metricFactories;
+        this.salaryPolicyLimit = salaryPolicyLimit;
+        this.reportingLinesLimit = reportingLinesLimit;
+    }
+
+    /**
+     * Registers an extra metric, computed on every report run by a new instance created by the factory.
+     *
+     * @param name    the name of the metric on the report
+     * @param factory the factory of the metric instances
+     * @return a new engine with all metrics of this engine plus the given one
+     * @throws NullPointerException     if any params is null
+     * @throws IllegalArgumentException if a metric with the same name is already registered
+     */
+    public HierarchyReportEngine withMetric(String name, Supplier<? extends EmployeeMetric<?>> factory) {
+        Objects.requireNonNull(name, "Metric name must not be null");
+        Objects.requireNonNull(factory, "Metric factory must not be null");
+        if (metricFactories.containsKey(name))
+            throw new IllegalArgumentException(String.format("Metric %s is already registered", name));
+
+        Map<String, Supplier<? extends EmployeeMetric<?>>> newMetricFactories = new LinkedHashMap<>(metricFactories);
+        newMetricFactories.put(name, factory);
+        return new HierarchyReportEngine(Collections.unmodifiableMap(newMetricFactories), salaryPolicyLimit, reportingLinesLimit);
+    }
+
+    /**
+     * Limits each report to its worst violations, from the worst, ties going to the lowest id: the managers whose
+     * salary is the furthest out of the allowed range on the salary policy report, and the employees with the most
+     * excessive reporting lines on the reporting lines report.
+     *
+     * @param salaryPolicyLimit   the maximum number of managers reported on the salary policy report, or null to report all of them
+     * @param reportingLinesLimit the maximum number of employees reported on the reporting lines report, or null to report all of them
+     * @return a new engine with all metrics of this engine, reporting up to the given number of employees on each report
+     * @throws IllegalArgumentException if any limit is not positive
+     */
+    public HierarchyReportEngine withLimits(Integer salaryPolicyLimit, Integer reportingLinesLimit) {
+        if (salaryPolicyLimit != null && salaryPolicyLimit <= 0)
+            throw new IllegalArgumentException(String.format("Salary policy limit must be positive: %d", salaryPolicyLimit));
+        if (reportingLinesLimit != null && reportingLinesLimit <= 0)
+            throw new IllegalArgumentException(String.format("Reporting lines limit must be positive: %d", reportingLinesLimit));
+        return new HierarchyReportEngine(metricFactories, (salaryPolicyLimit != null) ? salaryPolicyLimit : 0,
+                (reportingLinesLimit != null) ? reportingLinesLimit : 0);
+    }
+
+    /**
+     * Computes all reports of an {@code EmployeeNode} hierarchy in a single traversal.
+     *
+     * @param employeeHierarchy       the root of the employee hierarchy
+     * @param minimumPercentage       the minimum allowed percentage increase in salary
+     * @param maximumPercentage       the maximum allowed percentage increase in salary
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @return the report with both violation sets and the extra metrics
+     * @throws NullPointerException if employeeHierarchy is null
+     */
+    public EmployeeHierarchyReport compute(EmployeeNode employeeHierarchy, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold) {
+        return compute(employeeHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold, null);
+    }
+
+    /**
+     * Computes all reports of an {@code EmployeeNode} hierarchy in a single traversal, writing each violation into a
+     * sink as soon as it is found.
+     *
+     * @param employeeHierarchy       the root of the employee hierarchy
+     * @param minimumPercentage       the minimum allowed percentage increase in salary
+     * @param maximumPercentage       the maximum allowed percentage increase in salary
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @param sink                    the sink the violations are written into, or null to write nothing
+     * @return the report with both violation sets and the extra metrics
+     * @throws NullPointerException if employeeHierarchy is null
+     */
+    public EmployeeHierarchyReport compute(EmployeeNode employeeHierarchy, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold,
+                                           StreamingReportSink sink) {
+        Objects.requireNonNull(employeeHierarchy, "Employees hierarchy must not be null");
+        ViolationCollector<SalaryPolicyViolation> salaryPolicyViolations =
+                new ViolationCollector<>(salaryPolicyLimit, (sink != null) ? sink::writeSalaryPolicyViolation : null);
+        ViolationCollector<Integer> excessiveReportingLines =
+                new ViolationCollector<>(reportingLinesLimit, (sink != null) ? sink::writeExcessiveReportingLine : null);
+        EmployeeMetric<?>[] metrics = createMetrics();
+
+        Deque<EmployeeNode> nodes = new ArrayDeque<>();
+        IntStack depths = new IntStack();
+        nodes.push(employeeHierarchy);
+        depths.push(0);
+        while (!nodes.isEmpty()) {
+            EmployeeNode node = nodes.pop();
+            int depth = depths.pop();
+            Employee employee = node.employee();
+            if (depth > reportingLinesThreshold) {
+                int slot = excessiveReportingLines.offer(depth - reportingLinesThreshold, employee.id());
+                if (slot >= 0) excessiveReportingLines.put(slot, employee, depth - reportingLinesThreshold);
+            }
+
+            long subordinatesSalarySum = 0;
+            for (EmployeeNode subordinate : node.subordinates()) {
+                subordinatesSalarySum += subordinate.employee().salary();
+                nodes.push(subordinate);
+                depths.push(depth + 1);
+            }
+            int subordinatesCount = node.subordinates().size();
+            if (subordinatesCount > 0) {
+                SalaryPolicyViolation violation = SalaryPolicyViolation.check(employee.id(), employee.salary(),
+                        (double) subordinatesSalarySum / subordinatesCount, minimumPercentage, maximumPercentage);
+                int slot = (violation != null) ? salaryPolicyViolations.offer(violation.magnitude(), employee.id()) : -1;
+                if (slot >= 0) salaryPolicyViolations.put(slot, employee, violation);
+            }
+            for (EmployeeMetric<?> metric : metrics) {
+                metric.accept(employee.id(), employee.salary(), depth, subordinatesCount, subordinatesSalarySum);
+            }
+        }
+        return new EmployeeHierarchyReport(minimumPercentage, maximumPercentage, reportingLinesThreshold,
+                salaryPolicyViolations.result(), excessiveReportingLines.result(), collectMetrics(metrics));
+    }
+
+    /**
+     * Computes all reports of an index-based hierarchy in a single traversal.
+     * Only the reported employees are created as {@code Employee} objects.
+     *
+     * @param employeeHierarchy       the employee hierarchy
+     * @param minimumPercentage       the minimum allowed percentage increase in salary
+     * @param maximumPercentage       the maximum allowed percentage increase in salary
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @return the report with both violation sets and the extra metrics
+     * @throws NullPointerException if employeeHierarchy is null
+     */
+    public EmployeeHierarchyReport compute(EmployeeHierarchy employeeHierarchy, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold) {
+        return compute(employeeHierarchy, minimumPercentage, maximumPercentage, reportingLinesThreshold, null);
+    }
+
+    /**
+     * Computes all reports of an index-based hierarchy in a single traversal, writing each violation into a sink as
+     * soon as it is found. Only the reported employees are created as {@code Employee} objects.
+     *
+     * @param employeeHierarchy       the employee hierarchy
+     * @param minimumPercentage       the minimum allowed percentage increase in salary
+     * @param maximumPercentage       the maximum allowed percentage increase in salary
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @param sink                    the sink the violations are written into, or null to write nothing
+     * @return the report with both violation sets and the extra metrics
+     * @throws NullPointerException if employeeHierarchy is null
+     */
+    public EmployeeHierarchyReport compute(EmployeeHierarchy employeeHierarchy, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold,
+                                           StreamingReportSink sink) {
+        Objects.requireNonNull(employeeHierarchy, "Employees hierarchy must not be null");
+        ViolationCollector<SalaryPolicyViolation> salaryPolicyViolations =
+                new ViolationCollector<>(salaryPolicyLimit, (sink != null) ? sink::writeSalaryPolicyViolation : null);
+        ViolationCollector<Integer> excessiveReportingLines =
+                new ViolationCollector<>(reportingLinesLimit, (sink != null) ? sink::writeExcessiveReportingLine : null);
+        EmployeeMetric<?>[] metrics = createMetrics();
+
+        IntStack indexes = new IntStack();
+        IntStack depths = new IntStack();
+        indexes.push(employeeHierarchy.root());
+        depths.push(0);
+        while (!indexes.isEmpty()) {
+            int index = indexes.pop();
+            int depth = depths.pop();
+            if (depth > reportingLinesThreshold) {
+                int slot = excessiveReportingLines.offer(depth - reportingLinesThreshold, employeeHierarchy.id(index));
+                if (slot >= 0) excessiveReportingLines.put(slot, employeeHierarchy.employee(index), depth - reportingLinesThreshold);
+            }
+
+            int subordinatesCount = employeeHierarchy.subordinatesCount(index);
+            long subordinatesSalarySum = 0;
+            for (int n = 0; n < subordinatesCount; n++) {
+                int subordinate = employeeHierarchy.subordinate(index, n);
+                subordinatesSalarySum += employeeHierarchy.salary(subordinate);
+                indexes.push(subordinate);
+                depths.push(depth + 1);
+            }
+            int salary = employeeHierarchy.salary(index);
+            if (subordinatesCount > 0) {
+                SalaryPolicyViolation violation = SalaryPolicyViolation.check(employeeHierarchy.id(index), salary,
+                        (double) subordinatesSalarySum / subordinatesCount, minimumPercentage, maximumPercentage);
+                int slot = (violation != null) ? salaryPolicyViolations.offer(violation.magnitude(), violation.managerId()) : -1;
+                if (slot >= 0) salaryPolicyViolations.put(slot, employeeHierarchy.employee(index), violation);
+            }
+            for (EmployeeMetric<?> metric : metrics) {
+                metric.accept(employeeHierarchy.id(index), salary, depth, subordinatesCount, subordinatesSalarySum);
+            }
+        }
+        return new EmployeeHierarchyReport(minimumPercentage, maximumPercentage, reportingLinesThreshold,
+                salaryPolicyViolations.result(), excessiveReportingLines.result(), collectMetrics(metrics));
+    }
+
+    private EmployeeMetric<?>[] createMetrics() {
+        return metricFactories.values().stream()
+                .map(factory -> Objects.requireNonNull(factory.get(), "Metric must not be null"))
+                .toArray(EmployeeMetric<?>[]::new);
+    }
+
+    private Map<String, Object> collectMetrics(EmployeeMetric<?>[] metrics) {
+        Map<String, Object> results = new LinkedHashMap<>();
+        int i = 0;
+        for (String name : metricFactories.keySet()) {
+            results.put(name, metrics[i++].result());
+        }
+        return results;
+    }
+
+    /**
+     * Collects the violations of one report found by a traversal: every violation, written into the sink as soon as
+     * it is found, or, with a limit, only the worst ones, written into the sink from the worst once collected.
+     * <p>
+     * A violation is first offered by magnitude and id, and only put, with its employee, if it is collected, so the
+     * employee is not created for a violation that is not kept.
+     *
+     * @param <V> the type of the violations
+     */
+    private static final class ViolationCollector<V> {
+
+        /**
+         * Writes a violation into the sink, or null to write nothing.
+         */
+        private final BiConsumer<Employee, V> writer;
+
+        /**
+         * Every violation, or null with a limit.
+         */
+        private final Map<Employee, V> violations;
+
+        /**
+         * The worst violations with a limit, their employees and values stored at the slots given by the heap.
+         */
+        private final WorstViolationsHeap heap;
+        private Employee[] employees;
+        private Object[] values;
+
+        private ViolationCollector(int limit, BiConsumer<Employee, V> writer) {
+            this.writer = writer;
+            this.violations = (limit == 0) ? new HashMap<>() : null;
+            this.heap = (limit == 0) ? null : new WorstViolationsHeap(limit);
+            this.employees = (heap != null) ? new Employee[heap.capacity()] : null;
+            this.values = (heap != null) ? new Object[heap.capacity()] : null;
+        }
+
+        /**
+         * Offers a violation, before its employee is created.
+         *
+         * @param magnitude how much the employee is out of the policy
+         * @param id        the id of the employee
+         * @return the slot the violation is put at, or -1 if it is not collected
+         */
+        private int offer(double magnitude, int id) {
+            return (heap != null) ? heap.offer(magnitude, id) : 0;
+        }
+
+        private void put(int slot, Employee employee, V violation) {
+            if (heap == null) {
+                violations.put(employee, violation);
+                if (writer != null) writer.accept(employee, violation);
+                return;
+            }
+            if (slot >= employees.length) {
+                employees = Arrays.copyOf(employees, heap.capacity());
+                values = Arrays.copyOf(values, heap.capacity());
+            }
+            employees[slot] = employee;
+            values[slot] = violation;
+        }
+
+        /**
+         * @return the collected violations, ordered from the worst with a limit
+         */
+        @SuppressWarnings("unchecked")
+        private Map<Employee, V> result() {
+            if (heap == null) return violations;
+            Map<Employee, V> worstViolations = new LinkedHashMap<>();
+            for (int slot : heap.drainSlotsFromWorst()) {
+                worstViolations.put(employees[slot], (V) values[slot]);
+                if (writer != null) writer.accept(employees[slot], (V) values[slot]);
+            }
+            return worstViolations;
+        }
+    }
+
+    /**
+     * A growable stack of primitive ints.
+     */
+    private static final class IntStack {
+        private int[] values = new int[16];
+        private int size;
+
+        private void push(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        private int pop() {
+            return values[--size];
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
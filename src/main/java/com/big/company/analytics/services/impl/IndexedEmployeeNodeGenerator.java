@@ -0,0 +1,159 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.services.EmployeeNodeService;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Generates an employee hierarchy by indexing the employees by id and linking each one to its manager.
+ * <p>
+ * Unlike {@link EmployeeNodeGenerator}, which searches the whole tree for the manager of every employee and
+ * retries the ones whose manager was not added yet, this implementation builds the hierarchy in linear time
+ * regardless of the order of the employees list. Employees are linked as they arrive, so they can be consumed
+ * straight from a stream: an employee whose manager was not seen yet waits until it arrives.
+ * Employees whose reporting line never reaches the CEO because of a cycle (e.g. A reports to B and B reports to A)
+ * are rejected.
+ */
+public class IndexedEmployeeNodeGenerator implements EmployeeNodeService {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeNode generateEmployeesHierarchy(List<Employee> employees) {
+        Objects.requireNonNull(employees, "Employees list must not be null");
+        return generateStreamedEmployeesHierarchy(employees.stream());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployeeNode generateStreamedEmployeesHierarchy(Stream<Employee> employees) {
+        Objects.requireNonNull(employees, "Employees stream must not be null");
+        try {
+            HierarchyLinker linker = new HierarchyLinker();
+            employees.forEachOrdered(linker::link);
+            return linker.finish();
+        } catch (EmployeeNodeException | EmployeeException e) {
+            throw new EmployeeNodeServiceException(String.format("Error when creating Employee Hierarchy | %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Links the employees to their managers as they arrive.
+     */
+    private static final class HierarchyLinker {
+
+        /**
+         * Nodes of the employees linked so far, indexed by employee id.
+         */
+        private final Map<Integer, EmployeeNode> nodesById = new HashMap<>();
+
+        /**
+         * Nodes of the employees whose manager was not seen yet, indexed by manager id, on arrival order.
+         */
+        private final Map<Integer, List<EmployeeNode>> waitingForManager = new LinkedHashMap<>();
+
+        private EmployeeNode root;
+
+        /**
+         * Creates the node of an employee, adds it as a subordinate of its manager (or waits for the manager)
+         * and adopts the employees waiting for it.
+         *
+         * @param employee the employee to be linked
+         * @throws EmployeeNodeException if an employee with the same id was already linked
+         * @throws EmployeeException     if the employee is a second CEO
+         */
+        private void link(Employee employee) {
+            EmployeeNode node = new EmployeeNode(employee);
+            if (nodesById.putIfAbsent(employee.id(), node) != null)
+                throw new EmployeeNodeException(String.format("Employee id %d is duplicated on the list", employee.id()));
+
+            if (employee.getManagerId().isEmpty()) {
+                if (root != null) throw new EmployeeException("Employee list has more than one CEO");
+                root = node;
+            } else {
+                Integer managerId = employee.getManagerId().get();
+                EmployeeNode manager = nodesById.get(managerId);
+                if (manager != null) manager.subordinates().add(node);
+                else waitingForManager.computeIfAbsent(managerId, id -> new ArrayList<>()).add(node);
+            }
+
+            List<EmployeeNode> subordinates = waitingForManager.remove(employee.id());
+            if (subordinates != null) node.subordinates().addAll(subordinates);
+        }
+
+        /**
+         * Removes the employees whose manager never arrived and validates the reporting lines.
+         *
+         * @return the CEO node
+         * @throws EmployeeException     if no CEO was linked
+         * @throws EmployeeNodeException if any employee reporting line has a cycle
+         */
+        private EmployeeNode finish() {
+            if (root == null) throw new EmployeeException("Employee list has no CEO");
+
+            List<EmployeeNode> orphans = new ArrayList<>();
+            waitingForManager.forEach((managerId, nodes) -> nodes.forEach(node -> {
+                System.out.printf("Warning -> Removing employee with id %d due no manager id %d was found on the list%n", node.employee().id(), managerId);
+                orphans.add(node);
+            }));
+            validateReportingLines(orphans);
+            return root;
+        }
+
+        /**
+         * Validates that every employee is reachable either from the CEO or from a removed employee.
+         * Since each employee has at most one manager, the remaining ones must be part of (or report to) a cycle,
+         * and the one with the lowest id is reported.
+         *
+         * @param orphans the nodes of the employees whose manager was not found
+         * @throws EmployeeNodeException if any employee reporting line has a cycle
+         */
+        private void validateReportingLines(List<EmployeeNode> orphans) {
+            Set<Integer> reachedIds = new HashSet<>((int) (nodesById.size() / 0.75f) + 1);
+            collectIds(root, reachedIds);
+            orphans.forEach(orphan -> collectIds(orphan, reachedIds));
+            if (reachedIds.size() == nodesById.size()) return;
+
+            nodesById.keySet().stream()
+                    .filter(id -> !reachedIds.contains(id))
+                    .min(Integer::compare)
+                    .ifPresent(id -> {
+                        throw new EmployeeNodeException(String.format("Employee with id %d has a cycle on its reporting line", id));
+                    });
+        }
+
+        /**
+         * Collects the employee ids of the hierarchy rooted at the given node.
+         *
+         * @param node   the root of the hierarchy to be traversed
+         * @param result the set where the ids are collected
+         */
+        private void collectIds(EmployeeNode node, Set<Integer> result) {
+            Deque<EmployeeNode> stack = new ArrayDeque<>();
+            stack.push(node);
+            while (!stack.isEmpty()) {
+                EmployeeNode current = stack.pop();
+                result.add(current.employee().id());
+                current.subordinates().forEach(stack::push);
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeChange;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
+import com.big.company.analytics.domain.MutableEmployeeHierarchy;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.domain.ViolationEvent;
+import com.big.company.analytics.domain.ViolationEvent.Transition;
+import com.big.company.analytics.domain.ViolationEvent.Violation;
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+import com.big.company.analytics.services.ViolationListener;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds the salary policy and excessive reporting lines violation sets of a {@link MutableEmployeeHierarchy},
+ * kept current as the hierarchy is changed through this report, without walking the whole hierarchy again.
+ * <p>
+ * Each change rechecks only the employees it affects, using the depths and subordinates salary sums kept by the
+ * hierarchy: the salary policy of the changed employee and of its old and new managers, and the reporting lines of
+ * the added employee or of the moved subtree. Employees entering or leaving a violation set are sent to the
+ * registered {@link ViolationListener}s.
+ * <p>
+ * The hierarchy must only be changed through this report once it is created. All methods are synchronized,
+ * and the listeners are called while holding the lock.
+ */
+public final class LiveEmployeeHierarchyReport {
+
+    private final MutableEmployeeHierarchy hierarchy;
+    private final int minimumPercentage;
+    private final int maximumPercentage;
+    private final int reportingLinesThreshold;
+
+    /**
+     * Salary policy violations, by employee id.
+     */
+    private final Map<Integer, SalaryPolicyViolation> salaryPolicyViolations = new HashMap<>();
+
+    /**
+     * Number of reporting lines over the threshold, by employee id.
+     */
+    private final Map<Integer, Integer> excessiveReportingLines = new HashMap<>();
+
+    private final List<ViolationListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a {@code LiveEmployeeHierarchyReport} starting from a report computed over the hierarchy.
+     *
+     * @param hierarchy the hierarchy, to be changed only through this report from now on
+     * @param report    the report of the current state of the hierarchy
+     * @throws NullPointerException if any params is null
+     */
+    LiveEmployeeHierarchyReport(MutableEmployeeHierarchy hierarchy, EmployeeHierarchyReport report) {
+        this.hierarchy = Objects.requireNonNull(hierarchy, "Employees hierarchy must not be null");
+        Objects.requireNonNull(report, "Report must not be null");
+        this.minimumPercentage = report.minimumPercentage();
+        this.maximumPercentage = report.maximumPercentage();
+        this.reportingLinesThreshold = report.reportingLinesThreshold();
+        report.salaryPolicyViolations().forEach((employee, violation) -> salaryPolicyViolations.put(employee.id(), violation));
+        report.excessiveReportingLines().forEach((employee, reportingLines) -> excessiveReportingLines.put(employee.id(), reportingLines));
+    }
+
+    /**
+     * Registers a listener of the violation events.
+     *
+     * @param listener the listener
+     * @throws NullPointerException if listener is null
+     */
+    public void addListener(ViolationListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener must not be null"));
+    }
+
+    /**
+     * Unregisters a listener of the violation events.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(ViolationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Applies a change of an employee on the hierarchy and updates the violation sets.
+     *
+     * @param change the change to be applied
+     * @throws NullPointerException  if change is null
+     * @throws EmployeeException     if the change is not allowed for the CEO
+     * @throws EmployeeNodeException if the change refers to employees not on the hierarchy, adds a duplicated id
+     *                               or creates a cycle
+     */
+    public synchronized void apply(EmployeeChange change) {
+        Objects.requireNonNull(change, "Change must not be null");
+        switch (change.operation()) {
+            case ADD -> add(change.employee());
+            case UPDATE -> update(change.employee());
+            case DELETE -> remove(change.id());
+            case MOVE -> move(change.id(), change.managerId());
+        }
+    }
+
+    /**
+     * Adds an employee to the hierarchy, as in {@link MutableEmployeeHierarchy#add(Employee)},
+     * rechecking the salary policy of its manager and its reporting lines.
+     *
+     * @param employee the employee to be added
+     */
+    public synchronized void add(Employee employee) {
+        int index = hierarchy.add(employee);
+        checkSalaryPolicy(hierarchy.managerIndex(index));
+        checkReportingLines(index);
+    }
+
+    /**
+     * Updates an employee of the hierarchy, as in {@link MutableEmployeeHierarchy#update(Employee)},
+     * rechecking its salary policy and the one of its manager, and its subtree reporting lines if it was moved.
+     *
+     * @param employee the employee with the new data
+     */
+    public synchronized void update(Employee employee) {
+        Objects.requireNonNull(employee, "Employee must not be null");
+        int index = hierarchy.indexOf(employee.id());
+        int oldManagerId = (index < 0 || index == hierarchy.root()) ? -1 : hierarchy.id(hierarchy.managerIndex(index));
+        index = hierarchy.update(employee);
+
+        checkSalaryPolicy(index);
+        if (index == hierarchy.root()) return;
+        checkSalaryPolicy(hierarchy.managerIndex(index));
+        if (oldManagerId != employee.managerId()) {
+            checkSalaryPolicy(hierarchy.indexOf(oldManagerId));
+            checkSubtreeReportingLines(index);
+        }
+    }
+
+    /**
+     * Moves an employee of the hierarchy, as in {@link MutableEmployeeHierarchy#move(int, int)},
+     * rechecking the salary policy of its old and new managers and the reporting lines of its subtree.
+     *
+     * @param id        the id of the employee
+     * @param managerId the id of the new manager
+     */
+    public synchronized void move(int id, int managerId) {
+        int index = hierarchy.indexOf(id);
+        int oldManagerId = (index < 0 || index == hierarchy.root()) ? -1 : hierarchy.id(hierarchy.managerIndex(index));
+        index = hierarchy.move(id, managerId);
+        if (oldManagerId == managerId) return;
+
+        checkSalaryPolicy(hierarchy.indexOf(oldManagerId));
+        checkSalaryPolicy(hierarchy.managerIndex(index));
+        checkSubtreeReportingLines(index);
+    }
+
+    /**
+     * Removes an employee of the hierarchy, as in {@link MutableEmployeeHierarchy#remove(int)}, taking it out of
+     * the violation sets and rechecking the salary policy of its manager and the reporting lines of its subordinates.
+     *
+     * @param id the id of the employee
+     */
+    public synchronized void remove(int id) {
+        int index = hierarchy.indexOf(id);
+        if (index < 0 || index == hierarchy.root()) {
+            hierarchy.remove(id);
+            return;
+        }
+        Employee employee = hierarchy.employee(index);
+        int[] subordinateIds = new int[hierarchy.subordinatesCount(index)];
+        for (int n = 0; n < subordinateIds.length; n++) {
+            subordinateIds[n] = hierarchy.id(hierarchy.subordinate(index, n));
+        }
+        hierarchy.remove(id);
+
+        if (salaryPolicyViolations.remove(id) != null) notifyListeners(Violation.SALARY_POLICY, Transition.LEFT, employee);
+        if (excessiveReportingLines.remove(id) != null) notifyListeners(Violation.EXCESSIVE_REPORTING_LINES, Transition.LEFT, employee);
+        checkSalaryPolicy(hierarchy.indexOf(employee.managerId()));
+        for (int subordinateId : subordinateIds) {
+            checkSubtreeReportingLines(hierarchy.indexOf(subordinateId));
+        }
+    }
+
+    /**
+     * Gets the managers with salary policy violation and the violation.
+     *
+     * @return a new map of the managers and their salary policy violation
+     */
+    public synchronized Map<Employee, SalaryPolicyViolation> salaryPolicyViolations() {
+        return toEmployees(salaryPolicyViolations);
+    }
+
+    /**
+     * Gets the employees with excessive reporting lines and how much reporting lines higher than the threshold.
+     *
+     * @return a new map with the employees and how much reporting lines higher than the threshold
+     */
+    public synchronized Map<Employee, Integer> excessiveReportingLines() {
+        return toEmployees(excessiveReportingLines);
+    }
+
+    /**
+     * Gets the current state of the violation sets as a report, without extra metrics.
+     *
+     * @return the report of the current state of the hierarchy
+     */
+    public synchronized EmployeeHierarchyReport toReport() {
+        return new EmployeeHierarchyReport(minimumPercentage, maximumPercentage, reportingLinesThreshold,
+                toEmployees(salaryPolicyViolations), toEmployees(excessiveReportingLines), Collections.emptyMap());
+    }
+
+    /**
+     * Rechecks the salary policy of an employee.
+     *
+     * @param index the index of the employee, ignored if negative
+     */
+    private void checkSalaryPolicy(int index) {
+        if (index < 0) return;
+        int subordinatesCount = hierarchy.subordinatesCount(index);
+        SalaryPolicyViolation violation = (subordinatesCount == 0) ? null : SalaryPolicyViolation.check(hierarchy.id(index),
+                hierarchy.salary(index), (double) hierarchy.subordinatesSalarySum(index) / subordinatesCount, minimumPercentage, maximumPercentage);
+        track(salaryPolicyViolations, Violation.SALARY_POLICY, index, violation);
+    }
+
+    /**
+     * Rechecks the reporting lines of an employee.
+     *
+     * @param index the index of the employee
+     */
+    private void checkReportingLines(int index) {
+        int depth = hierarchy.depth(index);
+        track(excessiveReportingLines, Violation.EXCESSIVE_REPORTING_LINES, index,
+                (depth > reportingLinesThreshold) ? depth - reportingLinesThreshold : null);
+    }
+
+    /**
+     * Rechecks the reporting lines of every employee of a subtree, traversed with an explicit stack.
+     *
+     * @param index the index of the root of the subtree
+     */
+    private void checkSubtreeReportingLines(int index) {
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = index;
+        while (top > 0) {
+            int current = stack[--top];
+            checkReportingLines(current);
+            int subordinatesCount = hierarchy.subordinatesCount(current);
+            if (top + subordinatesCount > stack.length)
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + subordinatesCount));
+            for (int n = 0; n < subordinatesCount; n++) {
+                stack[top++] = hierarchy.subordinate(current, n);
+            }
+        }
+    }
+
+    /**
+     * Sets or clears the violation of an employee, notifying the listeners when it enters or leaves the violation set.
+     *
+     * @param violations the violation set, by employee id
+     * @param violation  the violation set type
+     * @param index      the index of the employee
+     * @param value      the violation value, or null if the employee has no violation
+     * @param <V>        the type of the violation value
+     */
+    private <V> void track(Map<Integer, V> violations, Violation violation, int index, V value) {
+        int id = hierarchy.id(index);
+        V previous = (value == null) ? violations.remove(id) : violations.put(id, value);
+        if (previous == null && value != null) notifyListeners(violation, Transition.ENTERED, hierarchy.employee(index));
+        else if (previous != null && value == null) notifyListeners(violation, Transition.LEFT, hierarchy.employee(index));
+    }
+
+    private void notifyListeners(Violation violation, Transition transition, Employee employee) {
+        if (listeners.isEmpty()) return;
+        ViolationEvent event = new ViolationEvent(violation, transition, employee);
+        for (ViolationListener listener : listeners) {
+            listener.onViolationEvent(event);
+        }
+    }
+
+    private <V> Map<Employee, V> toEmployees(Map<Integer, V> violations) {
+        Map<Employee, V> employees = new HashMap<>();
+        violations.forEach((id, value) -> employees.put(hierarchy.employee(hierarchy.indexOf(id)), value));
+        return employees;
+    }
+}
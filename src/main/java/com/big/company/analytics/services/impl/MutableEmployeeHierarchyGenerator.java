@@ -0,0 +1,40 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.MutableEmployeeHierarchy;
+import com.big.company.analytics.services.MutableEmployeeHierarchyService;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Generates a mutable employee hierarchy, accepting the employees on any order.
+ * The employees are first linked on an {@code EmployeeTable} by {@link EmployeeTableGenerator}, with the same
+ * validation rules, and then copied to the {@link MutableEmployeeHierarchy}.
+ */
+public class MutableEmployeeHierarchyGenerator implements MutableEmployeeHierarchyService {
+
+    /**
+     * Generator of the table the mutable hierarchy is copied from.
+     */
+    private final EmployeeTableGenerator tableGenerator = new EmployeeTableGenerator();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MutableEmployeeHierarchy generateMutableHierarchy(List<Employee> employees) {
+        Objects.requireNonNull(employees, "Employees list must not be null");
+        return generateStreamedMutableHierarchy(employees.stream());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MutableEmployeeHierarchy generateStreamedMutableHierarchy(Stream<Employee> employees) {
+        Objects.requireNonNull(employees, "Employees stream must not be null");
+        return MutableEmployeeHierarchy.from(tableGenerator.generateStreamedEmployeeTable(employees));
+    }
+}
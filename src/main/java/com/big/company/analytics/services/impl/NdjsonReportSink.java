@@ -0,0 +1,144 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.exception.FileWriterException;
+import com.big.company.analytics.services.StreamingReportSink;
+
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A {@code StreamingReportSink} writing the reports as newline delimited JSON, one object per line, into a
+ * {@link WritableByteChannel}. Each object has a {@code type} field:
+ * <ul>
+ *     <li>{@code salaryPolicy}: {@code minimumPercentage}, {@code maximumPercentage}</li>
+ *     <li>{@code salaryPolicyViolation}: {@code id}, {@code firstName}, {@code lastName}, {@code salary},
+ *     {@code minimumSalaryAllowed}, {@code maximumSalaryAllowed}, {@code delta}</li>
+ *     <li>{@code reportingLines}: {@code reportingLinesThreshold}</li>
+ *     <li>{@code excessiveReportingLines}: {@code id}, {@code firstName}, {@code lastName}, {@code salary}, {@code excessiveReportingLines}</li>
+ *     <li>{@code source}: {@code file}, the file the following reports are computed from</li>
+ * </ul>
+ * The objects are encoded as UTF-8 straight into a reused buffer, written to the channel whenever it fills up and at
+ * the end of each report.
+ */
+public final class NdjsonReportSink implements StreamingReportSink {
+
+    private final ReportBuffer out;
+
+    /**
+     * Constructs a {@code NdjsonReportSink} writing into a channel, e.g. a file, a pipe or a socket.
+     *
+     * @param channel the channel the reports are written into
+     * @throws NullPointerException if channel is null
+     */
+    public NdjsonReportSink(WritableByteChannel channel) {
+        this.out = new ReportBuffer(channel, "\n");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void beginSalaryPolicyViolations(int minimumPercentage, int maximumPercentage) {
+        out.putAscii("{\"type\":\"salaryPolicy\",\"minimumPercentage\":").putInt(minimumPercentage)
+                .putAscii(",\"maximumPercentage\":").putInt(maximumPercentage).put('}').putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeSalaryPolicyViolation(Employee manager, SalaryPolicyViolation violation) {
+        putEmployee("salaryPolicyViolation", manager);
+        out.putAscii(",\"minimumSalaryAllowed\":").putDouble(violation.minimumSalaryAllowed())
+                .putAscii(",\"maximumSalaryAllowed\":").putDouble(violation.maximumSalaryAllowed())
+                .putAscii(",\"delta\":").putDouble(violation.delta()).put('}').putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void beginExcessiveReportingLines(int reportingLinesThreshold) {
+        out.putAscii("{\"type\":\"reportingLines\",\"reportingLinesThreshold\":").putInt(reportingLinesThreshold).put('}').putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeExcessiveReportingLine(Employee employee, int excessiveReportingLines) {
+        putEmployee("excessiveReportingLines", employee);
+        out.putAscii(",\"excessiveReportingLines\":").putInt(excessiveReportingLines).put('}').putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeSource(String source) {
+        out.putAscii("{\"type\":\"source\",\"file\":");
+        putJsonString(source);
+        out.put('}').putLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void endReport() {
+        out.flush();
+    }
+
+    /**
+     * Writes the buffered content and closes the channel.
+     *
+     * @throws FileWriterException if the content cannot be written
+     */
+    @Override
+    public synchronized void close() {
+        out.close();
+    }
+
+    /**
+     * Opens an employee object, leaving it open for the reported value.
+     */
+    private void putEmployee(String type, Employee employee) {
+        out.putAscii("{\"type\":\"").putAscii(type).putAscii("\",\"id\":").putInt(employee.id())
+                .putAscii(",\"firstName\":");
+        putJsonString(employee.firstName());
+        out.putAscii(",\"lastName\":");
+        putJsonString(employee.lastName());
+        out.putAscii(",\"salary\":").putInt(employee.salary());
+    }
+
+    /**
+     * Encodes a JSON string, escaping the quotes, backslashes and control characters.
+     *
+     * @param value the String
+     */
+    private void putJsonString(String value) {
+        out.put('"');
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.putAscii("\\\"");
+                case '\\' -> out.putAscii("\\\\");
+                case '\n' -> out.putAscii("\\n");
+                case '\r' -> out.putAscii("\\r");
+                case '\t' -> out.putAscii("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.putAscii("\\u00").put(Character.forDigit(c >> 4, 16)).put(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        i = out.putChar(value, i);
+                        continue;
+                    }
+                }
+            }
+            i++;
+        }
+        out.put('"');
+    }
+}
@@ -0,0 +1,150 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Implementation of the {@code EmployeeReport} interface that finds the managers with salary policy violation of an
+ * {@code EmployeeNode} hierarchy in parallel, splitting the hierarchy into subtree tasks on a {@link ForkJoinPool}.
+ * <p>
+ * Each task owns a set of whole subtrees and evaluates them sequentially with an explicit stack. After evaluating
+ * a threshold of employees it forks a new task with the pending subtrees closest to its roots, which are usually the
+ * largest ones. Each task collects its violations on its own map, merged on a fixed order when the tasks are joined,
+ * so no locking is needed and the result is the same as the sequential report whatever the scheduling of the pool.
+ * <p>
+ * All other reports are computed as in {@link EmployeeHierarchyReportService}.
+ */
+public class ParallelEmployeeHierarchyReportService extends EmployeeHierarchyReportService {
+
+    /**
+     * Pool where the subtree tasks are run.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Number of employees evaluated by a task before it forks part of its pending subtrees.
+     */
+    private final int sequentialThreshold;
+
+    /**
+     * Constructs a {@code ParallelEmployeeHierarchyReportService} with the specified pool and threshold.
+     *
+     * @param pool                the pool where the subtree tasks are run, {@link ForkJoinPool#commonPool()} if null
+     * @param sequentialThreshold the number of employees evaluated by a task before it forks part of its pending
+     *                            subtrees, {@code 4096} if null
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public ParallelEmployeeHierarchyReportService(ForkJoinPool pool, Integer sequentialThreshold) {
+        this.pool = (pool != null) ? pool : ForkJoinPool.commonPool();
+        this.sequentialThreshold = (sequentialThreshold != null) ? sequentialThreshold : Defaults.SEQUENTIAL_THRESHOLD;
+        if (this.sequentialThreshold < 1)
+            throw new IllegalArgumentException(String.format("Sequential threshold must be positive: %d", this.sequentialThreshold));
+    }
+
+    /**
+     * Constructs a {@code ParallelEmployeeHierarchyReportService} running on the common pool with the default threshold.
+     */
+    public ParallelEmployeeHierarchyReportService() {
+        this(null, null);
+    }
+
+    /**
+     * Finds managers who violate the salary policy regarding their subordinates' average salary,
+     * evaluating the subtrees of the hierarchy in parallel.
+     *
+     * @param employeeHierarchy the root node of the employee hierarchy
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return a map containing managers who violate the salary policy along with the violation
+     */
+    @Override
+    protected Map<Employee, SalaryPolicyViolation> findManagersWithPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        Objects.requireNonNull(employeeHierarchy, "Employees hierarchy must not be null");
+        Deque<EmployeeNode> roots = new ArrayDeque<>();
+        roots.push(employeeHierarchy);
+        return pool.invoke(new SubtreesTask(roots, minimumPercentage, maximumPercentage, sequentialThreshold));
+    }
+
+    /**
+     * Finds the managers with salary policy violation of a set of subtrees, forking part of them when the threshold
+     * of evaluated employees is reached.
+     */
+    private static final class SubtreesTask extends RecursiveTask<Map<Employee, SalaryPolicyViolation>> {
+        private final Deque<EmployeeNode> pending;
+        private final int minimumPercentage;
+        private final int maximumPercentage;
+        private final int sequentialThreshold;
+
+        private SubtreesTask(Deque<EmployeeNode> pending, int minimumPercentage, int maximumPercentage, int sequentialThreshold) {
+            this.pending = pending;
+            this.minimumPercentage = minimumPercentage;
+            this.maximumPercentage = maximumPercentage;
+            this.sequentialThreshold = sequentialThreshold;
+        }
+
+        @Override
+        protected Map<Employee, SalaryPolicyViolation> compute() {
+            Map<Employee, SalaryPolicyViolation> managersAndPolicyViolation = new HashMap<>();
+            List<SubtreesTask> forked = new ArrayList<>();
+            int evaluated = 0;
+            while (!pending.isEmpty()) {
+                if (evaluated == sequentialThreshold && pending.size() > 1) {
+                    forked.add(splitPending());
+                    evaluated = 0;
+                }
+                EmployeeNode node = pending.pop();
+                evaluated++;
+                if (node.subordinates().isEmpty()) continue;
+
+                long salariesSum = 0;
+                for (EmployeeNode subordinate : node.subordinates()) {
+                    salariesSum += subordinate.employee().salary();
+                    pending.push(subordinate);
+                }
+                SalaryPolicyViolation violation = SalaryPolicyViolation.check(node.employee().id(), node.employee().salary(),
+                        (double) salariesSum / node.subordinates().size(), minimumPercentage, maximumPercentage);
+                if (violation != null) managersAndPolicyViolation.put(node.employee(), violation);
+            }
+            for (SubtreesTask task : forked) {
+                managersAndPolicyViolation.putAll(task.join());
+            }
+            return managersAndPolicyViolation;
+        }
+
+        /**
+         * Moves the bottom half of the pending subtrees, the closest ones to the roots of this task, to a new forked task.
+         *
+         * @return the forked task
+         */
+        private SubtreesTask splitPending() {
+            Deque<EmployeeNode> split = new ArrayDeque<>();
+            for (int n = pending.size() / 2; n > 0; n--) {
+                split.push(pending.pollLast());
+            }
+            SubtreesTask task = new SubtreesTask(split, minimumPercentage, maximumPercentage, sequentialThreshold);
+            task.fork();
+            return task;
+        }
+    }
+
+    /**
+     * Provides default values for the {@code ParallelEmployeeHierarchyReportService}.
+     */
+    private static class Defaults {
+        /**
+         * Default number of employees evaluated by a task before it forks part of its pending subtrees.
+         */
+        static final int SEQUENTIAL_THRESHOLD = 4096;
+    }
+}
@@ -0,0 +1,184 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.exception.UnexpectedException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Decouples the parsing of an employees stream from its consumer, running the parsing on its own thread and handing
+ * the employees over in batches through a bounded queue, so the consumer (the hierarchy linking and validation)
+ * works on the early rows while the later ones are still being parsed.
+ * <p>
+ * The queue bounds how far the parsing runs ahead of the consumer. An error of the parsing, exceptions and errors
+ * alike (e.g. {@link OutOfMemoryError}), is thrown by the consumer side once the employees parsed before it are
+ * consumed, keeping the order of the sequential execution, so the consumer never waits for a parsing thread that is
+ * gone. Closing the returned stream stops the parsing thread.
+ */
+final class PipelinedEmployeeStream {
+
+    /**
+     * Marks the end of the parsed employees.
+     */
+    private static final List<Employee> END = new ArrayList<>(0);
+
+    private final BlockingQueue<List<Employee>> queue;
+    private final int batchSize;
+    private final Thread parser;
+
+    /**
+     * Batch being filled by the parsing thread.
+     */
+    private List<Employee> pending;
+
+    /**
+     * Error thrown by the parsing, published to the consumer by the end marker.
+     */
+    private volatile Throwable error;
+
+    private PipelinedEmployeeStream(Stream<Employee> source, int batchSize, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.pending = new ArrayList<>(batchSize);
+        this.parser = new Thread(() -> parse(source), "analytics-parser");
+        this.parser.setDaemon(true);
+    }
+
+    /**
+     * Starts parsing the source stream on its own thread.
+     *
+     * @param source the source stream, closed by the parsing thread when done
+     * @return an ordered stream of the parsed employees
+     * @throws NullPointerException if source is null
+     */
+    static Stream<Employee> of(Stream<Employee> source) {
+        Objects.requireNonNull(source, "Employees stream must not be null");
+        PipelinedEmployeeStream pipeline = new PipelinedEmployeeStream(source, Defaults.BATCH_SIZE, Defaults.QUEUE_CAPACITY);
+        pipeline.parser.start();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pipeline.new BatchIterator(), Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(pipeline.parser::interrupt);
+    }
+
+    /**
+     * Parses the source stream into batches, ending with the end marker, also after any error of the parsing.
+     *
+     * @param source the source stream
+     */
+    private void parse(Stream<Employee> source) {
+        try (source) {
+            source.forEachOrdered(this::add);
+            if (!pending.isEmpty()) queue.put(pending);
+        } catch (InterruptedException | ParsingInterruptedException e) {
+            // the consumer stopped reading, so nothing else is handed over
+            return;
+        } catch (Throwable e) {
+            error = e;
+        }
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            // the consumer stopped reading
+        }
+    }
+
+    /**
+     * Rethrows the error of the parsing on the consumer thread.
+     *
+     * @param error the error of the parsing
+     * @return never returns, declared so the caller can throw it
+     */
+    private static RuntimeException rethrow(Throwable error) {
+        if (error instanceof RuntimeException exception) throw exception;
+        if (error instanceof Error fatal) throw fatal;
+        throw new UnexpectedException(String.format("Error when parsing the employees | %s", error));
+    }
+
+    /**
+     * Adds a parsed employee to the pending batch, handing the batch over once full.
+     *
+     * @param employee the parsed employee
+     * @throws ParsingInterruptedException if the consumer stopped reading
+     */
+    private void add(Employee employee) {
+        pending.add(employee);
+        if (pending.size() < batchSize) return;
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            throw new ParsingInterruptedException();
+        }
+        pending = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * Iterates the employees of the batches taken from the queue, on the consumer thread.
+     */
+    private final class BatchIterator implements Iterator<Employee> {
+
+        private List<Employee> batch = List.of();
+        private int position;
+
+        @Override
+        public boolean hasNext() {
+            while (position == batch.size()) {
+                if (batch == END) return false;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UnexpectedException("Reading of employees interrupted");
+                }
+                position = 0;
+                if (batch == END && error != null) throw rethrow(error);
+            }
+            return true;
+        }
+
+        @Override
+        public Employee next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return batch.get(position++);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Employee> action) {
+            while (hasNext()) {
+                action.accept(batch.get(position++));
+            }
+        }
+    }
+
+    /**
+     * Stops the parsing once the consumer stopped reading.
+     */
+    private static final class ParsingInterruptedException extends RuntimeException {
+        ParsingInterruptedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Provides default values for the {@code PipelinedEmployeeStream}.
+     */
+    private static class Defaults {
+        /**
+         * Number of employees handed over at once, so the queue synchronization is paid once per batch.
+         */
+        static final int BATCH_SIZE = 1024;
+        /**
+         * Number of batches the parsing can run ahead of the consumer.
+         */
+        static final int QUEUE_CAPACITY = 16;
+    }
+}
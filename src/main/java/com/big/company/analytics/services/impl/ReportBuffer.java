@@ -0,0 +1,376 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.exception.FileWriterException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Encodes the reports straight into a reused buffer, which is written to a {@link WritableByteChannel} (the console,
+ * a file or a pipe) whenever it fills up, so writing a report takes the same memory whatever the number of rows.
+ * Text is encoded as UTF-8 and numbers either in decimal or as big-endian bytes.
+ * <p>
+ * Not thread-safe, the sinks owning a buffer synchronize its use.
+ */
+final class ReportBuffer {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] lineSeparator;
+
+    /**
+     * Digits of the integer being encoded, least significant first.
+     */
+    private final byte[] digits = new byte[20];
+
+    /**
+     * Constructs a {@code ReportBuffer} writing into a channel.
+     *
+     * @param channel       the channel the reports are written into
+     * @param lineSeparator the separator ending each line
+     * @throws NullPointerException if any params is null
+     */
+    ReportBuffer(WritableByteChannel channel, String lineSeparator) {
+        this.channel = Objects.requireNonNull(channel, "Channel must not be null");
+        this.lineSeparator = lineSeparator.getBytes(StandardCharsets.UTF_8);
+        this.buffer = ByteBuffer.allocate(Defaults.BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a channel writing into whatever {@code System.out} is when written, so the console can still be
+     * redirected.
+     *
+     * @return the console channel, never closed
+     */
+    static WritableByteChannel consoleChannel() {
+        return new SystemOutChannel();
+    }
+
+    /**
+     * Opens a channel writing into a file. If the file already exists, it is overwritten.
+     *
+     * @param file the file
+     * @return the file channel
+     * @throws NullPointerException if file is null
+     * @throws FileWriterException  if the file cannot be opened
+     */
+    static WritableByteChannel fileChannel(File file) {
+        Objects.requireNonNull(file, "File should not be null");
+        try {
+            return FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException | SecurityException e) {
+            throw new FileWriterException(String.format("Error when writing the file | Filepath: %s | Filename: %s",
+                    Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
+        }
+    }
+
+    /**
+     * Writes the buffered content into the channel.
+     *
+     * @throws FileWriterException if the content cannot be written
+     */
+    void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new FileWriterException("Error when writing the report");
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Writes the buffered content and closes the channel.
+     *
+     * @throws FileWriterException if the content cannot be written
+     */
+    void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new FileWriterException("Error when writing the report");
+        }
+    }
+
+    ReportBuffer putLine() {
+        ensureRemaining(lineSeparator.length);
+        buffer.put(lineSeparator);
+        return this;
+    }
+
+    /**
+     * Encodes an ASCII character.
+     *
+     * @param value the character
+     * @return this buffer
+     */
+    ReportBuffer put(char value) {
+        ensureRemaining(1);
+        buffer.put((byte) value);
+        return this;
+    }
+
+    ReportBuffer putAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            ensureRemaining(1);
+            buffer.put((byte) value.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Encodes a String as UTF-8, replacing unpaired surrogates by '?' as the String encoder does.
+     *
+     * @param value the String
+     * @return this buffer
+     */
+    ReportBuffer putString(String value) {
+        int i = 0;
+        while (i < value.length()) {
+            i = putChar(value, i);
+        }
+        return this;
+    }
+
+    /**
+     * Encodes the character of a String at a position as UTF-8, along with the next one if both are a surrogate pair.
+     *
+     * @param value the String
+     * @param i     the position of the character
+     * @return the position of the next character not encoded
+     */
+    int putChar(String value, int i) {
+        char c = value.charAt(i);
+        ensureRemaining(4);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6))).put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+            buffer.put((byte) (0xF0 | (codePoint >> 18))).put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                    .put((byte) (0x80 | ((codePoint >> 6) & 0x3F))).put((byte) (0x80 | (codePoint & 0x3F)));
+            return i + 2;
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12))).put((byte) (0x80 | ((c >> 6) & 0x3F))).put((byte) (0x80 | (c & 0x3F)));
+        }
+        return i + 1;
+    }
+
+    /**
+     * Counts the bytes of a String encoded by {@link #putString(String)}.
+     *
+     * @param value the String
+     * @return the number of bytes
+     */
+    static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encodes a String left aligned on a column, padded with spaces up to the column width, as {@code %-12s} does.
+     *
+     * @param value the String
+     * @param width the column width
+     * @return this buffer
+     */
+    ReportBuffer putPadded(String value, int width) {
+        putString(value);
+        return putSpaces(width - value.length());
+    }
+
+    /**
+     * Encodes an integer left aligned on a column, padded with spaces up to the column width, as {@code %-12d} does.
+     *
+     * @param value the integer
+     * @param width the column width
+     * @return this buffer
+     */
+    ReportBuffer putPaddedInt(int value, int width) {
+        return putSpaces(width - putDigits(value));
+    }
+
+    ReportBuffer putInt(int value) {
+        putDigits(value);
+        return this;
+    }
+
+    /**
+     * Encodes an integer as 4 big-endian bytes.
+     *
+     * @param value the integer
+     * @return this buffer
+     */
+    ReportBuffer putBinaryInt(int value) {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+        return this;
+    }
+
+    /**
+     * Encodes a double in decimal, as {@link Double#toString(double)} does. Unlike the other encodings, it creates the
+     * String of the shortest representation of the double, so the text reports use {@link #putFixed2(double)}.
+     *
+     * @param value the double
+     * @return this buffer
+     */
+    ReportBuffer putDouble(double value) {
+        return putAscii(Double.toString(value));
+    }
+
+    /**
+     * Encodes a double in decimal with 2 fraction digits, as {@code %.2f} does with a '.' separator, without creating
+     * any object.
+     * <p>
+     * {@code %.2f} rounds half up the shortest decimal representing the double (e.g. 1.005 is 1.01, although the
+     * double is slightly less). The double is scaled by 100 and the rounding error of the scaling is recovered with a
+     * fused multiply-add, so the cents are rounded from the exact value of the double; it is only rounded up otherwise
+     * when the half cent next to it is represented by the double itself. Doubles too large for that, NaN and
+     * infinities are formatted as Strings.
+     *
+     * @param value the double
+     * @return this buffer
+     */
+    ReportBuffer putFixed2(double value) {
+        double magnitude = Math.abs(value);
+        if (!(magnitude < Defaults.MAXIMUM_FIXED2)) return putAscii(String.format(Locale.ROOT, "%.2f", value));
+
+        double scaled = magnitude * 100;
+        double error = Math.fma(magnitude, 100, -scaled);
+        double whole = Math.floor(scaled);
+        double fraction = scaled - whole;
+        boolean roundUp = fraction > 0.5 || (fraction == 0.5 && error >= 0) || (2 * whole + 1) / 200 == magnitude;
+        long cents = (long) whole + (roundUp ? 1 : 0);
+
+        if (Double.doubleToRawLongBits(value) < 0) put('-');
+        putDigits(cents / 100);
+        ensureRemaining(3);
+        buffer.put((byte) '.').put((byte) ('0' + cents % 100 / 10)).put((byte) ('0' + cents % 10));
+        return this;
+    }
+
+    /**
+     * Encodes a double as its 8 big-endian IEEE 754 bytes.
+     *
+     * @param value the double
+     * @return this buffer
+     */
+    ReportBuffer putBinaryDouble(double value) {
+        ensureRemaining(Double.BYTES);
+        buffer.putDouble(value);
+        return this;
+    }
+
+    ReportBuffer putBinaryByte(int value) {
+        ensureRemaining(1);
+        buffer.put((byte) value);
+        return this;
+    }
+
+    /**
+     * Encodes an integer in decimal.
+     *
+     * @param value the integer, greater than {@link Long#MIN_VALUE}
+     * @return the number of characters encoded
+     */
+    private int putDigits(long value) {
+        long remaining = Math.abs(value);
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+
+        ensureRemaining(count + 1);
+        if (value < 0) buffer.put((byte) '-');
+        for (int i = count - 1; i >= 0; i--) {
+            buffer.put(digits[i]);
+        }
+        return (value < 0) ? count + 1 : count;
+    }
+
+    private ReportBuffer putSpaces(int count) {
+        for (int i = 0; i < count; i++) {
+            ensureRemaining(1);
+            buffer.put((byte) ' ');
+        }
+        return this;
+    }
+
+    private void ensureRemaining(int bytes) {
+        if (buffer.remaining() < bytes) flush();
+    }
+
+    /**
+     * A channel writing into whatever {@code System.out} is when written, so the console can still be redirected.
+     */
+    private static final class SystemOutChannel implements WritableByteChannel {
+
+        @Override
+        public int write(ByteBuffer source) {
+            int length = source.remaining();
+            PrintStream out = System.out;
+            out.write(source.array(), source.arrayOffset() + source.position(), length);
+            out.flush();
+            source.position(source.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // the console is never closed
+        }
+    }
+
+    /**
+     * Provides default values for the {@code ReportBuffer}.
+     */
+    private static class Defaults {
+        /**
+         * Size of the buffer the rows are encoded into.
+         */
+        static final int BUFFER_SIZE = 1 << 16;
+        /**
+         * Magnitude up to which {@link #putFixed2(double)} encodes the digits itself, so the gap between two doubles
+         * stays far below a thousandth and no decimal shorter than a half cent can represent the double.
+         */
+        static final double MAXIMUM_FIXED2 = 0x1p33;
+    }
+}
@@ -0,0 +1,70 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.exception.FileWriterException;
+import com.big.company.analytics.services.ReportSink;
+
+import java.io.File;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Formats the reports can be written in.
+ */
+public enum ReportFormat {
+    /**
+     * Text tables with fixed width columns, for people to read.
+     */
+    TEXT(TextReportSink::new),
+    /**
+     * Newline delimited JSON, one object per reported employee, written as the violations are found.
+     */
+    NDJSON(NdjsonReportSink::new),
+    /**
+     * A CSV table, one row per reported employee, written as the violations are found.
+     */
+    CSV(CsvReportSink::new),
+    /**
+     * Length-prefixed binary records, one per reported employee, written as the violations are found.
+     */
+    BINARY(BinaryReportSink::new);
+
+    private final Function<WritableByteChannel, ReportSink> factory;
+
+    ReportFormat(Function<WritableByteChannel, ReportSink> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a sink writing the reports on this format into a channel.
+     *
+     * @param channel the channel the reports are written into
+     * @return the sink, to be closed once all reports are written
+     * @throws NullPointerException if channel is null
+     */
+    public ReportSink open(WritableByteChannel channel) {
+        return factory.apply(Objects.requireNonNull(channel, "Channel must not be null"));
+    }
+
+    /**
+     * Creates a sink writing the reports on this format into the console, i.e. whatever {@code System.out} is when
+     * each report is written.
+     *
+     * @return the console sink
+     */
+    public ReportSink toConsole() {
+        return open(ReportBuffer.consoleChannel());
+    }
+
+    /**
+     * Creates a sink writing the reports on this format into a file. If the file already exists, it is overwritten.
+     *
+     * @param file the file the reports are written into
+     * @return the file sink, to be closed once all reports are written
+     * @throws NullPointerException if file is null
+     * @throws FileWriterException  if the file cannot be opened
+     */
+    public ReportSink toFile(File file) {
+        return open(ReportBuffer.fileChannel(file));
+    }
+}
@@ -0,0 +1,384 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.exception.UnexpectedException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * A size-bounded, least recently used cache of the reports computed over a file, keyed by the SHA-256 hash of the
+ * file content and the report parameters. A renamed or touched file with the same content hits the cache, and any
+ * change of its content misses it, without relying on the file timestamps.
+ * <p>
+ * The reports are held in memory and, when a directory is given, also stored there as one binary file per key
+ * ({@value #REPORT_EXTENSION}), so runs on other JVMs, e.g. a scheduler running the application once per file, hit
+ * the reports stored by the previous runs. Each file is written aside and moved into place, so concurrent runs never
+ * read a partially written report, and the least recently used files are deleted beyond the maximum size. Reports
+ * with extra metrics are only held in memory, and an unreadable report file is a miss.
+ * <p>
+ * The cached reports are immutable copies, so changing a report given to or returned by the cache does not change
+ * the cached one. Hashing reads the whole file, but it is much cheaper than parsing it and building the hierarchy.
+ * All methods are thread-safe.
+ */
+public final class ReportResultCache {
+
+    /**
+     * Extension of the report files stored on the cache directory.
+     */
+    public static final String REPORT_EXTENSION = ".ehr";
+
+    private static final int HASH_BUFFER_SIZE = 1 << 16;
+    private static final int MAGIC = 0x45485243;
+    private static final int VERSION = 1;
+
+    private final int maximumSize;
+    private final Path directory;
+    private final Map<Key, EmployeeHierarchyReport> reports;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructs a {@code ReportResultCache} holding up to the given number of reports.
+     *
+     * @param maximumSize the maximum number of reports held, the least recently used is evicted when exceeded
+     * @throws IllegalArgumentException if maximumSize is not positive
+     */
+    public ReportResultCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * Constructs a {@code ReportResultCache} holding up to the given number of reports in memory and as many report
+     * files on a directory, shared by every cache on the same directory.
+     *
+     * @param maximumSize the maximum number of reports held, the least recently used is evicted when exceeded
+     * @param directory   the directory where the reports are stored, created if missing; memory only if null
+     * @throws IllegalArgumentException if maximumSize is not positive
+     * @throws FileReaderException      if the directory cannot be created
+     */
+    public ReportResultCache(int maximumSize, File directory) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException(String.format("Maximum cache size must be positive: %d", maximumSize));
+        this.maximumSize = maximumSize;
+        this.directory = (directory != null) ? createDirectory(directory) : null;
+        this.reports = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, EmployeeHierarchyReport> eldest) {
+                return size() > ReportResultCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Creates the key of the report of a file, hashing its content.
+     *
+     * @param file                    the file the report is computed over
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return the key of the report
+     * @throws NullPointerException if file is null
+     * @throws FileReaderException  if the file is not found or cannot be read
+     */
+    public Key keyOf(File file, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold) {
+        return keyOf(file, minimumPercentage, maximumPercentage, reportingLinesThreshold, 0, 0);
+    }
+
+    /**
+     * Creates the key of the report of a file limited to the worst employees of each report, hashing its content.
+     *
+     * @param file                    the file the report is computed over
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @param salaryPolicyLimit       the maximum number of managers reported on the salary policy report, 0 for all of them.
+     * @param reportingLinesLimit     the maximum number of employees reported on the reporting lines report, 0 for all of them.
+     * @return the key of the report
+     * @throws NullPointerException if file is null
+     * @throws FileReaderException  if the file is not found or cannot be read
+     */
+    public Key keyOf(File file, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold,
+                     int salaryPolicyLimit, int reportingLinesLimit) {
+        Objects.requireNonNull(file, "File should not be null");
+        return new Key(contentHash(file), minimumPercentage, maximumPercentage, reportingLinesThreshold,
+                salaryPolicyLimit, reportingLinesLimit);
+    }
+
+    /**
+     * Hashes the content of a file, so the keys of several report parameters over the same content can be created
+     * without reading the file again.
+     *
+     * @param file the file
+     * @return the SHA-256 hash of the file content, in hexadecimal
+     * @throws NullPointerException if file is null
+     * @throws FileReaderException  if the file is not found or cannot be read
+     */
+    public static String contentHash(File file) {
+        Objects.requireNonNull(file, "File should not be null");
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnexpectedException(e.getMessage());
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                digest.update(buffer.flip());
+                buffer.clear();
+            }
+        } catch (NoSuchFileException e) {
+            throw new FileReaderException(String.format("File not found | Filepath: %s | Filename: %s",
+                    Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
+        } catch (IOException e) {
+            throw new FileReaderException("Error when reading the file");
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Gets a cached report, from memory or else from the cache directory, counting a hit or a miss.
+     *
+     * @param key the key of the report
+     * @return the cached report, if present
+     * @throws NullPointerException if key is null
+     */
+    public Optional<EmployeeHierarchyReport> get(Key key) {
+        Objects.requireNonNull(key, "Key must not be null");
+        EmployeeHierarchyReport report;
+        synchronized (reports) {
+            report = reports.get(key);
+        }
+        if (report == null && directory != null) {
+            report = readReport(key);
+            if (report != null) {
+                synchronized (reports) {
+                    reports.put(key, report);
+                }
+            }
+        }
+        (report != null ? hits : misses).incrementAndGet();
+        return Optional.ofNullable(report);
+    }
+
+    /**
+     * Caches an immutable copy of a report, evicting the least recently used one if the cache is full, and stores it
+     * on the cache directory if any. A report that cannot be stored is only held in memory.
+     *
+     * @param key    the key of the report
+     * @param report the report
+     * @throws NullPointerException if any params is null
+     */
+    public void put(Key key, EmployeeHierarchyReport report) {
+        Objects.requireNonNull(key, "Key must not be null");
+        Objects.requireNonNull(report, "Report must not be null");
+        EmployeeHierarchyReport copy = new EmployeeHierarchyReport(report.minimumPercentage(), report.maximumPercentage(),
+                report.reportingLinesThreshold(), Collections.unmodifiableMap(new LinkedHashMap<>(report.salaryPolicyViolations())),
+                Collections.unmodifiableMap(new LinkedHashMap<>(report.excessiveReportingLines())),
+                Collections.unmodifiableMap(new LinkedHashMap<>(report.metrics())));
+        synchronized (reports) {
+            reports.put(key, copy);
+        }
+        if (directory != null && copy.metrics().isEmpty()) writeReport(key, copy);
+    }
+
+    /**
+     * Removes every cached report held in memory. The report files and the hit and miss counters are kept.
+     */
+    public void clear() {
+        synchronized (reports) {
+            reports.clear();
+        }
+    }
+
+    /**
+     * @return the number of cached reports
+     */
+    public int size() {
+        synchronized (reports) {
+            return reports.size();
+        }
+    }
+
+    /**
+     * @return the number of lookups that found a cached report
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups that found no cached report
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    private static Path createDirectory(File directory) {
+        try {
+            return Files.createDirectories(directory.toPath());
+        } catch (IOException | SecurityException e) {
+            throw new FileReaderException(String.format("Cache directory cannot be created | Filepath: %s | Filename: %s",
+                    Optional.ofNullable(directory.getParent()).orElse("/"), directory.getName()));
+        }
+    }
+
+    private Path reportFile(Key key) {
+        return directory.resolve(String.format("%s_%d_%d_%d_%d_%d%s", key.contentHash(), key.minimumPercentage(),
+                key.maximumPercentage(), key.reportingLinesThreshold(), key.salaryPolicyLimit(), key.reportingLinesLimit(),
+                REPORT_EXTENSION));
+    }
+
+    /**
+     * Reads a report file, marking it as recently used.
+     *
+     * @param key the key of the report
+     * @return the report, or null if there is no valid report file for the key
+     */
+    private EmployeeHierarchyReport readReport(Key key) {
+        Path file = reportFile(key);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) return null;
+            int minimumPercentage = input.readInt();
+            int maximumPercentage = input.readInt();
+            int reportingLinesThreshold = input.readInt();
+
+            Map<Employee, SalaryPolicyViolation> salaryPolicyViolations = new LinkedHashMap<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                Employee manager = readEmployee(input);
+                salaryPolicyViolations.put(manager, new SalaryPolicyViolation(manager.id(), manager.salary(),
+                        input.readDouble(), input.readDouble(), input.readDouble()));
+            }
+            Map<Employee, Integer> excessiveReportingLines = new LinkedHashMap<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                excessiveReportingLines.put(readEmployee(input), input.readInt());
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return new EmployeeHierarchyReport(minimumPercentage, maximumPercentage, reportingLinesThreshold,
+                    Collections.unmodifiableMap(salaryPolicyViolations), Collections.unmodifiableMap(excessiveReportingLines), Map.of());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Employee readEmployee(DataInputStream input) throws IOException {
+        int id = input.readInt();
+        String firstName = input.readUTF();
+        String lastName = input.readUTF();
+        int salary = input.readInt();
+        Integer managerId = input.readBoolean() ? input.readInt() : null;
+        return new Employee(id, firstName, lastName, salary, managerId);
+    }
+
+    /**
+     * Writes a report file aside and moves it into place, then deletes the least recently used report files beyond
+     * the maximum size. Errors are ignored, the report is still held in memory.
+     *
+     * @param key    the key of the report
+     * @param report the report
+     */
+    private void writeReport(Key key, EmployeeHierarchyReport report) {
+        Path temporaryFile = null;
+        try {
+            temporaryFile = Files.createTempFile(directory, "report-", ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(report.minimumPercentage());
+                output.writeInt(report.maximumPercentage());
+                output.writeInt(report.reportingLinesThreshold());
+                output.writeInt(report.salaryPolicyViolations().size());
+                for (Map.Entry<Employee, SalaryPolicyViolation> entry : report.salaryPolicyViolations().entrySet()) {
+                    writeEmployee(output, entry.getKey());
+                    output.writeDouble(entry.getValue().minimumSalaryAllowed());
+                    output.writeDouble(entry.getValue().maximumSalaryAllowed());
+                    output.writeDouble(entry.getValue().delta());
+                }
+                output.writeInt(report.excessiveReportingLines().size());
+                for (Map.Entry<Employee, Integer> entry : report.excessiveReportingLines().entrySet()) {
+                    writeEmployee(output, entry.getKey());
+                    output.writeInt(entry.getValue());
+                }
+            }
+            Files.move(temporaryFile, reportFile(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            evictReportFiles();
+        } catch (IOException | RuntimeException e) {
+            if (temporaryFile != null) temporaryFile.toFile().delete();
+        }
+    }
+
+    private static void writeEmployee(DataOutputStream output, Employee employee) throws IOException {
+        output.writeInt(employee.id());
+        output.writeUTF(employee.firstName());
+        output.writeUTF(employee.lastName());
+        output.writeInt(employee.salary());
+        output.writeBoolean(employee.managerId() != null);
+        if (employee.managerId() != null) output.writeInt(employee.managerId());
+    }
+
+    private void evictReportFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(directory)) {
+            files = paths.filter(path -> path.getFileName().toString().endsWith(REPORT_EXTENSION)).toList();
+        }
+        if (files.size() <= maximumSize) return;
+        files.stream()
+                .sorted(Comparator.comparing(path -> path.toFile().lastModified(), Comparator.reverseOrder()))
+                .skip(maximumSize)
+                .forEach(path -> path.toFile().delete());
+    }
+
+    /**
+     * The key of a cached report.
+     *
+     * @param contentHash             the SHA-256 hash of the file content, in hexadecimal
+     * @param minimumPercentage       the minimum allowed percentage increase in salary.
+     * @param maximumPercentage       the maximum allowed percentage increase in salary.
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @param salaryPolicyLimit       the maximum number of managers reported on the salary policy report, 0 for all of them.
+     * @param reportingLinesLimit     the maximum number of employees reported on the reporting lines report, 0 for all of them.
+     */
+    public record Key(String contentHash, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold,
+                      int salaryPolicyLimit, int reportingLinesLimit) {
+
+        /**
+         * Constructs the key of a report of all the employees.
+         *
+         * @param contentHash             the SHA-256 hash of the file content, in hexadecimal
+         * @param minimumPercentage       the minimum allowed percentage increase in salary.
+         * @param maximumPercentage       the maximum allowed percentage increase in salary.
+         * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+         */
+        public Key(String contentHash, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold) {
+            this(contentHash, minimumPercentage, maximumPercentage, reportingLinesThreshold, 0, 0);
+        }
+    }
+}
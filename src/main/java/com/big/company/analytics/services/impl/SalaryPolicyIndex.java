@@ -0,0 +1,161 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable index of the managers of a hierarchy sorted by the ratio of their salary to the average salary of
+ * their direct subordinates, answering the salary policy report for any percentage range without traversing the
+ * hierarchy again.
+ * <p>
+ * The managers earning less than the minimum allowed are a prefix of the sorted managers, and the ones earning more
+ * than the maximum allowed are a suffix, so a query costs two binary searches plus the reported managers. The ratios
+ * are kept as floats, so the managers close to the bounds are checked again exactly as
+ * {@link EmployeeHierarchyReportService} does, giving the same violations.
+ * <p>
+ * Building the index costs a traversal and a sort of the managers; it is meant to be built once per loaded hierarchy
+ * and shared by every query. The hierarchy must not be changed while the index is in use.
+ */
+public final class SalaryPolicyIndex {
+
+    /**
+     * Relative slack of the float ratios around the bounds, wide enough to cover the float rounding.
+     */
+    private static final double BOUND_SLACK = 1e-6;
+
+    private final EmployeeHierarchy hierarchy;
+
+    /**
+     * Indexes of the managers, sorted by ratio.
+     */
+    private final int[] managers;
+
+    /**
+     * Ratio of the salary of each manager to the average salary of its direct subordinates, sorted.
+     */
+    private final float[] ratios;
+
+    /**
+     * Average salary of the direct subordinates of each manager, on the sorted order.
+     */
+    private final double[] averages;
+
+    private SalaryPolicyIndex(EmployeeHierarchy hierarchy, int[] managers, float[] ratios, double[] averages) {
+        this.hierarchy = hierarchy;
+        this.managers = managers;
+        this.ratios = ratios;
+        this.averages = averages;
+    }
+
+    /**
+     * Builds the index of the managers of a hierarchy.
+     *
+     * @param employeeHierarchy the employee hierarchy
+     * @return the index of its managers
+     * @throws NullPointerException if employeeHierarchy is null
+     */
+    public static SalaryPolicyIndex of(EmployeeHierarchy employeeHierarchy) {
+        Objects.requireNonNull(employeeHierarchy, "Employees hierarchy must not be null");
+        int size = employeeHierarchy.size();
+        double[] averageByIndex = new double[size];
+        long[] keys = new long[size];
+        int count = 0;
+        for (int index = 0; index < size; index++) {
+            int subordinatesCount = employeeHierarchy.subordinatesCount(index);
+            if (subordinatesCount == 0) continue;
+            long subordinatesSalarySum = 0;
+            for (int n = 0; n < subordinatesCount; n++) {
+                subordinatesSalarySum += employeeHierarchy.salary(employeeHierarchy.subordinate(index, n));
+            }
+            double average = (double) subordinatesSalarySum / subordinatesCount;
+            float ratio = (float) (employeeHierarchy.salary(index) / average);
+            // 0 / 0 is neither under the minimum nor over the maximum, whatever the percentages
+            if (Float.isNaN(ratio)) continue;
+            averageByIndex[index] = average;
+            keys[count++] = ((long) sortableBits(ratio) << 32) | index;
+        }
+        Arrays.sort(keys, 0, count);
+
+        int[] managers = new int[count];
+        float[] ratios = new float[count];
+        double[] averages = new double[count];
+        for (int i = 0; i < count; i++) {
+            int index = (int) keys[i];
+            managers[i] = index;
+            ratios[i] = fromSortableBits((int) (keys[i] >>> 32));
+            averages[i] = averageByIndex[index];
+        }
+        return new SalaryPolicyIndex(employeeHierarchy, managers, ratios, averages);
+    }
+
+    /**
+     * Gets the managers with salary policy violation for a percentage range, as
+     * {@link EmployeeHierarchyReportService#reportManagersSalaryPolicyViolation(EmployeeHierarchy, Integer, Integer)}
+     * without printing them.
+     *
+     * @param minimumPercentage the minimum allowed percentage increase in salary.
+     * @param maximumPercentage the maximum allowed percentage increase in salary.
+     * @return a new map of the managers and their salary policy violation
+     */
+    public Map<Employee, SalaryPolicyViolation> violations(int minimumPercentage, int maximumPercentage) {
+        Map<Employee, SalaryPolicyViolation> violations = new HashMap<>();
+        int underpaidEnd = firstAtLeast((1 + (double) minimumPercentage / 100) * (1 + BOUND_SLACK));
+        for (int i = 0; i < underpaidEnd; i++) {
+            addViolation(violations, i, minimumPercentage, maximumPercentage);
+        }
+        int overpaidStart = Math.max(underpaidEnd, firstAtLeast((1 + (double) maximumPercentage / 100) * (1 - BOUND_SLACK)));
+        for (int i = overpaidStart; i < managers.length; i++) {
+            addViolation(violations, i, minimumPercentage, maximumPercentage);
+        }
+        return violations;
+    }
+
+    /**
+     * @return the number of indexed managers
+     */
+    public int size() {
+        return managers.length;
+    }
+
+    private void addViolation(Map<Employee, SalaryPolicyViolation> violations, int i, int minimumPercentage, int maximumPercentage) {
+        int index = managers[i];
+        SalaryPolicyViolation violation = SalaryPolicyViolation.check(hierarchy.id(index), hierarchy.salary(index), averages[i],
+                minimumPercentage, maximumPercentage);
+        if (violation != null) violations.put(hierarchy.employee(index), violation);
+    }
+
+    /**
+     * Binary searches the first sorted ratio not lower than the given value.
+     *
+     * @param value the value
+     * @return the position of the first ratio not lower than the value, or the number of managers if none
+     */
+    private int firstAtLeast(double value) {
+        int low = 0;
+        int high = ratios.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ratios[middle] < value) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Maps a float to an int with the same signed order, so the ratios can be sorted as part of a long key.
+     */
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+    }
+
+    private static float fromSortableBits(int bits) {
+        return Float.intBitsToFloat(bits ^ ((bits >> 31) & 0x7fffffff));
+    }
+}
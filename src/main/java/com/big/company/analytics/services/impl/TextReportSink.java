@@ -0,0 +1,125 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.exception.FileWriterException;
+import com.big.company.analytics.services.ReportSink;
+
+import java.io.File;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+
+/**
+ * A {@code ReportSink} writing the reports as text tables, with fixed width columns separated by '|', into a
+ * {@link WritableByteChannel} (the console, a file or a pipe).
+ * <p>
+ * The rows are encoded as UTF-8 straight into a reused buffer, which is written to the channel whenever it fills up,
+ * so writing a report creates no objects per row and takes the same memory whatever the number of rows. The violations
+ * are written as {@link SalaryPolicyViolation#description()} describes them, with the amount encoded in place.
+ */
+public final class TextReportSink implements ReportSink {
+
+    /**
+     * Width of the padded columns.
+     */
+    private static final int COLUMN_WIDTH = 12;
+
+    private final ReportBuffer out;
+
+    /**
+     * Constructs a {@code TextReportSink} writing into a channel, e.g. a file, a pipe or a socket.
+     *
+     * @param channel the channel the reports are written into
+     * @throws NullPointerException if channel is null
+     */
+    public TextReportSink(WritableByteChannel channel) {
+        this.out = new ReportBuffer(channel, System.lineSeparator());
+    }
+
+    /**
+     * Creates a {@code TextReportSink} writing into the console, i.e. whatever {@code System.out} is when each report
+     * is written.
+     *
+     * @return the console sink
+     */
+    public static TextReportSink stdout() {
+        return new TextReportSink(ReportBuffer.consoleChannel());
+    }
+
+    /**
+     * Creates a {@code TextReportSink} writing into a file. If the file already exists, it is overwritten.
+     *
+     * @param file the file the reports are written into
+     * @return the file sink, to be closed once all reports are written
+     * @throws NullPointerException if file is null
+     * @throws FileWriterException  if the file cannot be opened
+     */
+    public static TextReportSink toFile(File file) {
+        return new TextReportSink(ReportBuffer.fileChannel(file));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeSalaryPolicyViolations(Map<Employee, SalaryPolicyViolation> managersWithPolicyViolation, int minimumPercentage, int maximumPercentage) {
+        out.putAscii("----- Report of employees with salary policy violation -----").putLine();
+        out.putAscii("-> Minimum percentage allowed: ").putInt(minimumPercentage).putAscii(" ").putLine();
+        out.putAscii("-> Maximum percentage allowed: ").putInt(maximumPercentage).putAscii(" ").putLine();
+        out.putAscii("-> Number of employees with salary policy violation: ").putInt(managersWithPolicyViolation.size()).putLine();
+        out.putPadded("ID", COLUMN_WIDTH).put('|').putPadded("FIRST NAME", COLUMN_WIDTH).put('|')
+                .putPadded("LAST NAME", COLUMN_WIDTH).put('|').putPadded("SALARY", COLUMN_WIDTH).put('|')
+                .putPadded("VIOLATION", COLUMN_WIDTH).putLine();
+
+        for (Map.Entry<Employee, SalaryPolicyViolation> entry : managersWithPolicyViolation.entrySet()) {
+            Employee employee = entry.getKey();
+            out.putPaddedInt(employee.id(), COLUMN_WIDTH).put('|')
+                    .putPadded(employee.firstName(), COLUMN_WIDTH).put('|')
+                    .putPadded(employee.lastName(), COLUMN_WIDTH).put('|')
+                    .putPaddedInt(employee.salary(), COLUMN_WIDTH).put('|')
+                    .putAscii("Salary is ").putFixed2(entry.getValue().magnitude())
+                    .putAscii(entry.getValue().isUnderpaid() ? " lesser than the minimum salary allowed" : " higher than the maximum salary allowed")
+                    .putLine();
+        }
+        out.putLine().flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void writeExcessiveReportingLines(Map<Employee, Integer> managerAndReportingLines, int reportingLinesThreshold) {
+        out.putAscii("----- Report of employees with reporting line higher than ").putInt(reportingLinesThreshold).putAscii(" -----").putLine();
+        out.putAscii("-> Number of employees with excessive reporting lines: ").putInt(managerAndReportingLines.size()).putLine();
+        out.putPadded("ID", COLUMN_WIDTH).put('|').putPadded("FIRST NAME", COLUMN_WIDTH).put('|')
+                .putPadded("LAST NAME", COLUMN_WIDTH).put('|').putPadded("EXCESSIVE REPORTING LINES", COLUMN_WIDTH).putLine();
+
+        for (Map.Entry<Employee, Integer> entry : managerAndReportingLines.entrySet()) {
+            Employee employee = entry.getKey();
+            out.putPaddedInt(employee.id(), COLUMN_WIDTH).put('|')
+                    .putPadded(employee.firstName(), COLUMN_WIDTH).put('|')
+                    .putPadded(employee.lastName(), COLUMN_WIDTH).put('|')
+                    .putPaddedInt(entry.getValue(), COLUMN_WIDTH).putLine();
+        }
+        out.putLine().flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The source is written as a banner line.
+     */
+    @Override
+    public synchronized void writeSource(String source) {
+        out.putAscii("=========== REPORT OF FILE: ").putString(source).putAscii(" ===========").putLine();
+    }
+
+    /**
+     * Writes the buffered content and closes the channel.
+     *
+     * @throws FileWriterException if the content cannot be written
+     */
+    @Override
+    public synchronized void close() {
+        out.close();
+    }
+}
@@ -0,0 +1,147 @@
+package com.big.company.analytics.services.impl;
+
+import java.util.Arrays;
+
+/**
+ * A bounded min-heap of primitives keeping the worst {@code K} violations offered to it, by magnitude, so the worst
+ * violators of a hierarchy are found in O(n log K) time holding O(K) memory, whatever the number of violators.
+ * <p>
+ * The heap only holds the magnitude and the employee id of each violation, the id breaking the ties in favour of the
+ * lowest one, so the result does not depend on the traversal order. Anything else the caller needs about a kept
+ * violation is stored by the caller on its own arrays, at the slot returned by {@link #offer(double, int)}; the slot
+ * of an evicted violation is handed over to the violation replacing it. The slots are given on increasing order until
+ * the heap is full, and the arrays grow up to {@code K} elements as needed, so a large {@code K} costs nothing until
+ * there are that many violations.
+ * <p>
+ * Not thread-safe.
+ */
+final class WorstViolationsHeap {
+
+    private final int limit;
+    private double[] magnitudes;
+    private int[] ids;
+    private int[] slots;
+    private int size;
+
+    /**
+     * Constructs a {@code WorstViolationsHeap} keeping up to a number of violations.
+     *
+     * @param limit the number of violations kept
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    WorstViolationsHeap(int limit) {
+        if (limit <= 0)
+            throw new IllegalArgumentException(String.format("Limit must be positive: %d", limit));
+        this.limit = limit;
+        int capacity = Math.min(limit, Defaults.INITIAL_CAPACITY);
+        this.magnitudes = new double[capacity];
+        this.ids = new int[capacity];
+        this.slots = new int[capacity];
+    }
+
+    /**
+     * Offers a violation, kept if it is among the worst ones offered so far.
+     *
+     * @param magnitude the magnitude of the violation
+     * @param id        the id of the employee
+     * @return the slot where the caller stores the violation, or -1 if it is not kept
+     */
+    int offer(double magnitude, int id) {
+        if (size < limit) {
+            if (size == magnitudes.length) grow();
+            int slot = size;
+            magnitudes[size] = magnitude;
+            ids[size] = id;
+            slots[size] = slot;
+            siftUp(size++);
+            return slot;
+        }
+        if (!isWorse(magnitude, id, 0)) return -1;
+        int slot = slots[0];
+        magnitudes[0] = magnitude;
+        ids[0] = id;
+        siftDown(0);
+        return slot;
+    }
+
+    /**
+     * Empties the heap.
+     *
+     * @return the slots of the kept violations, from the worst to the least bad
+     */
+    int[] drainSlotsFromWorst() {
+        int[] result = new int[size];
+        while (size > 0) {
+            result[size - 1] = slots[0];
+            swap(0, --size);
+            siftDown(0);
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of slots the caller arrays must hold, at least the highest slot given plus one
+     */
+    int capacity() {
+        return magnitudes.length;
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(limit, 2L * magnitudes.length);
+        magnitudes = Arrays.copyOf(magnitudes, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        slots = Arrays.copyOf(slots, capacity);
+    }
+
+    /**
+     * Whether a violation is worse than the one at a position of the heap: higher magnitude, or same magnitude and
+     * lower id.
+     */
+    private boolean isWorse(double magnitude, int id, int position) {
+        return magnitude > magnitudes[position] || (magnitude == magnitudes[position] && id < ids[position]);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!isWorse(magnitudes[parent], ids[parent], position)) return;
+            swap(parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int least = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && isWorse(magnitudes[least], ids[least], left)) least = left;
+            if (right < size && isWorse(magnitudes[least], ids[least], right)) least = right;
+            if (least == position) return;
+            swap(position, least);
+            position = least;
+        }
+    }
+
+    private void swap(int i, int j) {
+        double magnitude = magnitudes[i];
+        magnitudes[i] = magnitudes[j];
+        magnitudes[j] = magnitude;
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        int slot = slots[i];
+        slots[i] = slots[j];
+        slots[j] = slot;
+    }
+
+    /**
+     * Provides default values for the {@code WorstViolationsHeap}.
+     */
+    private static class Defaults {
+        /**
+         * Number of violations the heap holds before growing.
+         */
+        static final int INITIAL_CAPACITY = 16;
+    }
+}
@@ -2,6 +2,7 @@ package com.big.company.analytics.domain;
 
 import com.big.company.analytics.exception.EmployeeNodeException;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.test.util.DeepChainFixture;
 
 import static com.big.company.analytics.test.util.AssertThrows.*;
 
@@ -80,4 +81,20 @@ class EmployeeNodeTests {
         assertThrows("Employee doesn't have a manager", EmployeeNodeException.class,
                 () -> employeeNode.addEmployee(ceo));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldTraverseMillionLevelChainWithoutStackOverflow() {
+        EmployeeNode chain = DeepChainFixture.chain(DeepChainFixture.MILLION_LEVELS);
+        assertEquals(DeepChainFixture.MILLION_LEVELS, chain.size());
+
+        assertEquals(DeepChainFixture.chain(DeepChainFixture.MILLION_LEVELS), chain);
+        assertEquals(DeepChainFixture.chain(DeepChainFixture.MILLION_LEVELS).hashCode(), chain.hashCode());
+
+        Employee lastLevel = new Employee(DeepChainFixture.MILLION_LEVELS + 1, "Level", "Last", 30000, DeepChainFixture.MILLION_LEVELS);
+        assertTrue(chain.addEmployee(lastLevel));
+        assertEquals(DeepChainFixture.MILLION_LEVELS + 1, chain.size());
+        assertNotEquals(DeepChainFixture.chain(DeepChainFixture.MILLION_LEVELS), chain);
+        assertFalse(chain.addEmployee(new Employee(0, "Mark", "Has Mysterious Manager", 30000, -1)));
+        assertEquals("EmployeeNode[employee=" + chain.employee() + ", subordinates=1]", chain.toString());
+    }
+}
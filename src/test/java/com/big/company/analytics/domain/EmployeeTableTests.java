@@ -0,0 +1,97 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.IndexedEmployeeNodeGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeTableTests {
+
+    @Test
+    void shouldStoreHierarchyOnBreadthFirstOrder() {
+        EmployeeTable table = EmployeeTable.builder()
+                .add(new Employee(3, "Bob", "Ronstad", 47000, 2))
+                .add(new Employee(1, "Joe", "Doe", 60000, null))
+                .add(new Employee(4, "Alice", "Doe", 50000, 1))
+                .add(new Employee(2, "Martin", "Chekov", 45000, 1))
+                .build();
+
+        assertEquals(4, table.size());
+        assertEquals(0, table.root());
+        assertEquals(1, table.id(table.root()));
+        assertEquals(-1, table.managerIndex(table.root()));
+        assertEquals(2, table.subordinatesCount(table.root()));
+        assertEquals(4, table.id(table.subordinate(table.root(), 0)));
+        assertEquals(2, table.id(table.subordinate(table.root(), 1)));
+
+        int bob = table.subordinate(table.subordinate(table.root(), 1), 0);
+        assertEquals(new Employee(3, "Bob", "Ronstad", 47000, 2), table.employee(bob));
+        assertEquals(0, table.subordinatesCount(bob));
+        assertEquals(7, table.distinctNames());
+        assertThrows("Index 1 out of bounds for length 1", IndexOutOfBoundsException.class,
+                () -> table.subordinate(table.subordinate(table.root(), 1), 1));
+    }
+
+    @Test
+    void shouldCreateTableFromEmployeeNode() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        EmployeeNode employeesHierarchy = new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        EmployeeTable table = EmployeeTable.from(employeesHierarchy);
+
+        assertEquals(employeesHierarchy.size(), table.size());
+        assertEquals(employeesHierarchy.employee(), table.employee(table.root()));
+        assertEquals(employeesHierarchy.subordinates().size(), table.subordinatesCount(table.root()));
+        for (int n = 0; n < table.subordinatesCount(table.root()); n++) {
+            assertEquals(employeesHierarchy.subordinates().get(n).employee(), table.employee(table.subordinate(table.root(), n)));
+        }
+        for (int index = 1; index < table.size(); index++) {
+            assertTrue(table.managerIndex(index) < index);
+        }
+        assertTrue(table.estimatedMemoryFootprint() >= 28L * table.size());
+    }
+
+    @Test
+    void shouldInvalidEmployeesFails() {
+        assertThrows("Employee must not be null", NullPointerException.class,
+                () -> EmployeeTable.builder().add(null));
+        assertThrows("Employee list has no CEO", EmployeeException.class,
+                () -> EmployeeTable.builder().add(new Employee(2, "Martin", "Chekov", 45000, 1)).build());
+        assertThrows("Employee list has more than one CEO", EmployeeException.class,
+                () -> EmployeeTable.builder()
+                        .add(new Employee(1, "Joe", "Doe", 60000, null))
+                        .add(new Employee(2, "Martin", "Chekov", 45000, null)));
+        assertThrows("Employee id 2 is duplicated on the list", EmployeeNodeException.class,
+                () -> EmployeeTable.builder()
+                        .add(new Employee(1, "Joe", "Doe", 60000, null))
+                        .add(new Employee(2, "Martin", "Chekov", 45000, 1))
+                        .add(new Employee(2, "Jane", "Twin", 45000, 1))
+                        .build());
+        assertThrows("Employee with id 3 has a cycle on its reporting line", EmployeeNodeException.class,
+                () -> EmployeeTable.builder()
+                        .add(new Employee(1, "Joe", "Doe", 60000, null))
+                        .add(new Employee(5, "Brett", "Hardleaf", 34000, 4))
+                        .add(new Employee(4, "Alice", "Hasacat", 50000, 3))
+                        .add(new Employee(3, "Bob", "Ronstad", 47000, 4))
+                        .build());
+    }
+
+    @Test
+    void shouldRemoveEmployeesWithoutValidManager() {
+        EmployeeTable table = EmployeeTable.builder()
+                .add(new Employee(1, "Joe", "Doe", 60000, null))
+                .add(new Employee(2, "Martin", "Chekov", 45000, 999))
+                .add(new Employee(3, "Bob", "Ronstad", 47000, 2))
+                .add(new Employee(4, "Alice", "Hasacat", 50000, 1))
+                .build();
+
+        assertEquals(2, table.size());
+        assertEquals(4, table.id(table.subordinate(table.root(), 0)));
+    }
+}
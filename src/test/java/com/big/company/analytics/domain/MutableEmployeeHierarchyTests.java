@@ -0,0 +1,132 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeTableGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutableEmployeeHierarchyTests {
+
+    @Test
+    void shouldKeepAggregatesCurrentAfterChanges() {
+        MutableEmployeeHierarchy hierarchy = MutableEmployeeHierarchy.withCeo(new Employee(1, "Joe", "Doe", 60000, null));
+        hierarchy.add(new Employee(2, "Martin", "Chekov", 45000, 1));
+        hierarchy.add(new Employee(3, "Bob", "Ronstad", 47000, 2));
+        hierarchy.add(new Employee(4, "Alice", "Hasacat", 50000, 3));
+
+        assertEquals(4, hierarchy.size());
+        assertEquals(3, hierarchy.depth(hierarchy.indexOf(4)));
+        assertEquals(47000, hierarchy.subordinatesSalarySum(hierarchy.indexOf(2)));
+
+        hierarchy.update(new Employee(3, "Bob", "Ronstad", 52000, 2));
+        assertEquals(52000, hierarchy.subordinatesSalarySum(hierarchy.indexOf(2)));
+
+        hierarchy.move(3, 1);
+        assertEquals(1, hierarchy.depth(hierarchy.indexOf(3)));
+        assertEquals(2, hierarchy.depth(hierarchy.indexOf(4)));
+        assertEquals(0, hierarchy.subordinatesSalarySum(hierarchy.indexOf(2)));
+        assertEquals(97000, hierarchy.subordinatesSalarySum(hierarchy.root()));
+
+        hierarchy.remove(3);
+        assertEquals(3, hierarchy.size());
+        assertEquals(-1, hierarchy.indexOf(3));
+        assertEquals(1, hierarchy.depth(hierarchy.indexOf(4)));
+        assertEquals(new Employee(4, "Alice", "Hasacat", 50000, 1), hierarchy.employee(hierarchy.indexOf(4)));
+        assertEquals(95000, hierarchy.subordinatesSalarySum(hierarchy.root()));
+        assertThrows("Index 3 out of bounds for length 3", IndexOutOfBoundsException.class, () -> hierarchy.id(3));
+    }
+
+    @Test
+    void shouldReportSameAsRebuiltHierarchyAfterRandomChanges() {
+        List<Employee> employees = new ArrayList<>(new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv"));
+        MutableEmployeeHierarchy hierarchy = MutableEmployeeHierarchy.from(new EmployeeTableGenerator().generateEmployeeTable(employees));
+        Random random = new Random(42);
+        int nextId = 1_000_000;
+        for (int change = 0; change < 2_000; change++) {
+            int index = random.nextInt(hierarchy.size());
+            int id = hierarchy.id(index);
+            int otherId = hierarchy.id(random.nextInt(hierarchy.size()));
+            switch (random.nextInt(4)) {
+                case 0 -> hierarchy.add(new Employee(nextId++, "New", "Hire", 30000 + random.nextInt(50000), id));
+                case 1 -> {
+                    if (index != hierarchy.root()) hierarchy.remove(id);
+                }
+                case 2 -> {
+                    Employee employee = hierarchy.employee(index);
+                    hierarchy.update(new Employee(id, employee.firstName(), employee.lastName(),
+                            30000 + random.nextInt(50000), employee.managerId()));
+                }
+                default -> {
+                    try {
+                        if (index != hierarchy.root()) hierarchy.move(id, otherId);
+                    } catch (EmployeeNodeException e) {
+                        assertTrue(e.getMessage().endsWith("has a cycle on its reporting line"));
+                    }
+                }
+            }
+        }
+        assertConsistent(hierarchy);
+
+        List<Employee> changedEmployees = new ArrayList<>();
+        for (int index = 0; index < hierarchy.size(); index++) {
+            changedEmployees.add(hierarchy.employee(index));
+        }
+        EmployeeTable rebuilt = new EmployeeTableGenerator().generateEmployeeTable(changedEmployees);
+        EmployeeHierarchyReportService report = new EmployeeHierarchyReportService();
+        assertEquals(rebuilt.size(), hierarchy.size());
+        assertEquals(report.reportManagersSalaryPolicyViolation(rebuilt, 20, 50), report.reportManagersSalaryPolicyViolation(hierarchy, 20, 50));
+        assertEquals(report.reportManagersWithExcessiveReportingLines(rebuilt, 4), report.reportManagersWithExcessiveReportingLines(hierarchy, 4));
+    }
+
+    @Test
+    void shouldInvalidChangesFails() {
+        MutableEmployeeHierarchy hierarchy = MutableEmployeeHierarchy.withCeo(new Employee(1, "Joe", "Doe", 60000, null));
+        hierarchy.add(new Employee(2, "Martin", "Chekov", 45000, 1));
+        hierarchy.add(new Employee(3, "Bob", "Ronstad", 47000, 2));
+
+        assertThrows("Employee with id 2 is not a CEO", EmployeeException.class,
+                () -> MutableEmployeeHierarchy.withCeo(new Employee(2, "Martin", "Chekov", 45000, 1)));
+        assertThrows("Employee must not be null", NullPointerException.class, () -> hierarchy.add(null));
+        assertThrows("Employee with id 4 has no manager", EmployeeException.class,
+                () -> hierarchy.add(new Employee(4, "Elon", "Musk", 250000, null)));
+        assertThrows("Employee id 3 is duplicated on the hierarchy", EmployeeNodeException.class,
+                () -> hierarchy.add(new Employee(3, "Jane", "Twin", 45000, 1)));
+        assertThrows("Manager id 9 was not found on the hierarchy", EmployeeNodeException.class,
+                () -> hierarchy.add(new Employee(4, "Alice", "Hasacat", 50000, 9)));
+        assertThrows("Employee id 9 was not found on the hierarchy", EmployeeNodeException.class,
+                () -> hierarchy.remove(9));
+        assertThrows("Employee with id 2 has a cycle on its reporting line", EmployeeNodeException.class,
+                () -> hierarchy.move(2, 3));
+        assertThrows("CEO cannot be moved", EmployeeException.class, () -> hierarchy.move(1, 2));
+        assertThrows("CEO cannot be removed", EmployeeException.class, () -> hierarchy.remove(1));
+        assertThrows("Employee with id 2 cannot be changed to or from CEO", EmployeeException.class,
+                () -> hierarchy.update(new Employee(2, "Martin", "Chekov", 45000, null)));
+        assertConsistent(hierarchy);
+    }
+
+    private static void assertConsistent(MutableEmployeeHierarchy hierarchy) {
+        assertEquals(-1, hierarchy.managerIndex(hierarchy.root()));
+        assertEquals(0, hierarchy.depth(hierarchy.root()));
+        for (int index = 0; index < hierarchy.size(); index++) {
+            assertEquals(index, hierarchy.indexOf(hierarchy.id(index)));
+            long salariesSum = 0;
+            for (int n = 0; n < hierarchy.subordinatesCount(index); n++) {
+                int subordinate = hierarchy.subordinate(index, n);
+                assertEquals(index, hierarchy.managerIndex(subordinate));
+                assertEquals(hierarchy.depth(index) + 1, hierarchy.depth(subordinate));
+                salariesSum += hierarchy.salary(subordinate);
+            }
+            assertEquals(salariesSum, hierarchy.subordinatesSalarySum(index));
+        }
+    }
+}
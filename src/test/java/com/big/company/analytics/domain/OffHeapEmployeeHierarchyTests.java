@@ -0,0 +1,201 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.exception.EmployeeNodeException;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.services.EmployeeReportService;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeTableGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapEmployeeHierarchyTests {
+
+    EmployeeTable table;
+
+    @BeforeEach
+    void init() {
+        this.table = new EmployeeTableGenerator().generateEmployeeTable(
+                new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv"));
+    }
+
+    @Test
+    void shouldCopyHierarchyToDirectBuffers() {
+        assertSameHierarchy(table, OffHeapEmployeeHierarchy.copyOf(table));
+    }
+
+    @Test
+    void shouldWriteAndMapStoreFile(@TempDir Path tempDir) {
+        File storeFile = tempDir.resolve("hierarchy.bin").toFile();
+        assertSameHierarchy(table, OffHeapEmployeeHierarchy.copyOf(table, storeFile));
+        assertSameHierarchy(table, OffHeapEmployeeHierarchy.map(storeFile));
+    }
+
+    @Test
+    void shouldKeepMappedStoreWhenFileIsRewritten(@TempDir Path tempDir) {
+        File storeFile = tempDir.resolve("hierarchy.bin").toFile();
+        OffHeapEmployeeHierarchy previousStore = OffHeapEmployeeHierarchy.copyOf(table, storeFile);
+        OffHeapEmployeeHierarchy mappedStore = OffHeapEmployeeHierarchy.map(storeFile);
+
+        EmployeeTable smallerTable = new EmployeeTableGenerator().generateEmployeeTable(
+                new EmployeeCsvFileReader().readFile(TEST_FILEPATH, TEST_FILENAME));
+        OffHeapEmployeeHierarchy.copyOf(smallerTable, storeFile);
+
+        assertSameHierarchy(table, previousStore);
+        assertSameHierarchy(table, mappedStore);
+        assertSameHierarchy(smallerTable, OffHeapEmployeeHierarchy.map(storeFile));
+        assertArrayEquals(new String[]{"hierarchy.bin"}, tempDir.toFile().list());
+    }
+
+    @Test
+    void shouldBuildStoreStraightFromEmployees(@TempDir Path tempDir) {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        OffHeapEmployeeHierarchy.Builder builder = OffHeapEmployeeHierarchy.builder();
+        employees.forEach(builder::add);
+        assertSameHierarchy(table, builder.build());
+
+        File storeFile = tempDir.resolve("hierarchy.bin").toFile();
+        try (OffHeapEmployeeHierarchy.Builder fileBuilder = OffHeapEmployeeHierarchy.builder(storeFile)) {
+            employees.forEach(fileBuilder::add);
+            assertSameHierarchy(table, fileBuilder.build());
+        }
+        assertSameHierarchy(table, OffHeapEmployeeHierarchy.map(storeFile));
+        assertArrayEquals(new String[]{"hierarchy.bin"}, tempDir.toFile().list());
+    }
+
+    @Test
+    void shouldBuildStoreLargerThanScratchSegments() {
+        EmployeeTable.Builder tableBuilder = EmployeeTable.builder();
+        OffHeapEmployeeHierarchy.Builder builder = OffHeapEmployeeHierarchy.builder();
+        for (int id = 300_000; id > 0; id--) {
+            Employee employee = new Employee(id, "First" + (id % 5_000), "Last" + (id % 7_000), 40000 + id % 1000, (id == 1) ? null : id / 2);
+            tableBuilder.add(employee);
+            builder.add(employee);
+        }
+        assertSameHierarchy(tableBuilder.build(), builder.build());
+    }
+
+    @Test
+    void shouldBuilderFollowTableRules() {
+        OffHeapEmployeeHierarchy store = OffHeapEmployeeHierarchy.builder()
+                .add(new Employee(3, "Bob", "Ronstad", 47000, 2))
+                .add(new Employee(1, "Joe", "Doe", 60000, null))
+                .add(new Employee(5, "Brett", "Hardleaf", 34000, 999))
+                .add(new Employee(4, "Alice", "Doe", 50000, 1))
+                .add(new Employee(2, "Martin", "Chekov", 45000, 1))
+                .build();
+        assertSameHierarchy(EmployeeTable.builder()
+                .add(new Employee(3, "Bob", "Ronstad", 47000, 2))
+                .add(new Employee(1, "Joe", "Doe", 60000, null))
+                .add(new Employee(5, "Brett", "Hardleaf", 34000, 999))
+                .add(new Employee(4, "Alice", "Doe", 50000, 1))
+                .add(new Employee(2, "Martin", "Chekov", 45000, 1))
+                .build(), store);
+        assertEquals(4, store.size());
+
+        assertThrows("Employee must not be null", NullPointerException.class,
+                () -> OffHeapEmployeeHierarchy.builder().add(null));
+        assertThrows("File should not be null", NullPointerException.class,
+                () -> OffHeapEmployeeHierarchy.builder(null));
+        assertThrows("Employee list has no CEO", EmployeeException.class,
+                () -> OffHeapEmployeeHierarchy.builder().add(new Employee(2, "Martin", "Chekov", 45000, 1)).build());
+        assertThrows("Employee list has more than one CEO", EmployeeException.class,
+                () -> OffHeapEmployeeHierarchy.builder()
+                        .add(new Employee(1, "Joe", "Doe", 60000, null))
+                        .add(new Employee(2, "Martin", "Chekov", 45000, null)));
+        assertThrows("Employee id 2 is duplicated on the list", EmployeeNodeException.class,
+                () -> OffHeapEmployeeHierarchy.builder()
+                        .add(new Employee(1, "Joe", "Doe", 60000, null))
+                        .add(new Employee(2, "Martin", "Chekov", 45000, 1))
+                        .add(new Employee(2, "Jane", "Twin", 45000, 1)));
+        assertThrows("Employee with id 3 has a cycle on its reporting line", EmployeeNodeException.class,
+                () -> OffHeapEmployeeHierarchy.builder()
+                        .add(new Employee(1, "Joe", "Doe", 60000, null))
+                        .add(new Employee(5, "Brett", "Hardleaf", 34000, 4))
+                        .add(new Employee(4, "Alice", "Hasacat", 50000, 3))
+                        .add(new Employee(3, "Bob", "Ronstad", 47000, 4))
+                        .build());
+
+        OffHeapEmployeeHierarchy.Builder builtBuilder = OffHeapEmployeeHierarchy.builder().add(new Employee(1, "Joe", "Doe", 60000, null));
+        builtBuilder.build();
+        assertThrows("Builder is already built or closed", IllegalStateException.class,
+                () -> builtBuilder.add(new Employee(2, "Martin", "Chekov", 45000, 1)));
+    }
+
+    @Test
+    void shouldReportSameManagersOverOffHeapHierarchy() {
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+        EmployeeHierarchy offHeapHierarchy = OffHeapEmployeeHierarchy.copyOf(table);
+
+        assertEquals(966, report.reportManagersSalaryPolicyViolation(offHeapHierarchy, 20, 50).size());
+        assertEquals(report.reportManagersSalaryPolicyViolation(table, 20, 50),
+                report.reportManagersSalaryPolicyViolation(offHeapHierarchy, 20, 50));
+        assertEquals(report.reportManagersWithExcessiveReportingLines(table, 4),
+                report.reportManagersWithExcessiveReportingLines(offHeapHierarchy, 4));
+    }
+
+    @Test
+    void shouldInvalidStoreFileFails(@TempDir Path tempDir) throws IOException {
+        assertThrows("File should not be null", NullPointerException.class,
+                () -> OffHeapEmployeeHierarchy.map(null));
+        assertThrows("File not found | Filepath: / | Filename: NoFile", FileReaderException.class,
+                () -> OffHeapEmployeeHierarchy.map(new File("NoFile")));
+
+        File csvFile = new File(TEST_FILEPATH, "HugeData.csv");
+        assertThrows(String.format("Invalid hierarchy store file | Filepath: %s | Filename: HugeData.csv", csvFile.getParent()), FileReaderException.class,
+                () -> OffHeapEmployeeHierarchy.map(csvFile));
+
+        File truncatedFile = tempDir.resolve("truncated.bin").toFile();
+        OffHeapEmployeeHierarchy.copyOf(table, truncatedFile);
+        byte[] bytes = Files.readAllBytes(truncatedFile.toPath());
+        Files.write(truncatedFile.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(String.format("Invalid hierarchy store file | Filepath: %s | Filename: truncated.bin", truncatedFile.getParent()), FileReaderException.class,
+                () -> OffHeapEmployeeHierarchy.map(truncatedFile));
+    }
+
+    @Test
+    void shouldCorruptedStoreFileFails(@TempDir Path tempDir) throws IOException {
+        File corruptedFile = tempDir.resolve("corrupted.bin").toFile();
+        OffHeapEmployeeHierarchy.copyOf(table, corruptedFile);
+        byte[] bytes = Files.readAllBytes(corruptedFile.toPath());
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(corruptedFile.toPath(), bytes);
+        assertThrows(String.format("Corrupted hierarchy store file, checksum mismatch | Filepath: %s | Filename: corrupted.bin", corruptedFile.getParent()), FileReaderException.class,
+                () -> OffHeapEmployeeHierarchy.map(corruptedFile));
+
+        File oldVersionFile = tempDir.resolve("old.bin").toFile();
+        OffHeapEmployeeHierarchy.copyOf(table, oldVersionFile);
+        bytes = Files.readAllBytes(oldVersionFile.toPath());
+        bytes[4] = 1;
+        Files.write(oldVersionFile.toPath(), bytes);
+        assertThrows(String.format("Unsupported hierarchy store version 1, expected 2 | Filepath: %s | Filename: old.bin", oldVersionFile.getParent()), FileReaderException.class,
+                () -> OffHeapEmployeeHierarchy.map(oldVersionFile));
+    }
+
+    private static void assertSameHierarchy(EmployeeHierarchy expected, EmployeeHierarchy actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.root(), actual.root());
+        for (int index = 0; index < expected.size(); index++) {
+            assertEquals(expected.employee(index), actual.employee(index));
+            assertEquals(expected.managerIndex(index), actual.managerIndex(index));
+            assertEquals(expected.subordinatesCount(index), actual.subordinatesCount(index));
+            for (int n = 0; n < expected.subordinatesCount(index); n++) {
+                assertEquals(expected.subordinate(index, n), actual.subordinate(index, n));
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.services.impl.AnalyticsServer;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.HierarchyReportEngine;
+import com.big.company.analytics.services.impl.ReportResultCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsServerTests {
+
+    @TempDir
+    Path tempDir;
+
+    File file;
+    AnalyticsServer server;
+    HttpClient client;
+
+    @BeforeEach
+    void init() throws IOException {
+        this.file = tempDir.resolve(TEST_FILENAME).toFile();
+        Files.copy(new File(TEST_FILEPATH, TEST_FILENAME).toPath(), file.toPath());
+        this.server = new AnalyticsServer(new EmployeeCsvFileReader(), file, 0);
+        this.client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void close() {
+        server.close();
+    }
+
+    @Test
+    void shouldAnswerReportQueries() throws Exception {
+        server.start();
+        EmployeeHierarchyReport report = new HierarchyReportEngine().compute(
+                new EmployeeNodeGenerator().generateEmployeesHierarchy(new EmployeeCsvFileReader().readFile(file)), 20, 50, 2);
+
+        HttpResponse<String> response = get("/reports?threshold=2");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("{\"minimumPercentage\":20,\"maximumPercentage\":50,\"reportingLinesThreshold\":2,"));
+        report.salaryPolicyViolations().forEach((employee, violation) ->
+                assertTrue(response.body().contains(String.format("{\"id\":%d,", employee.id()))));
+        report.excessiveReportingLines().forEach((employee, reportingLines) ->
+                assertTrue(response.body().contains(String.format("\"excessiveReportingLines\":%d}", reportingLines))));
+        assertEquals(response.body(), get("/reports?threshold=2").body());
+        String limitedReports = get("/reports?threshold=2&salary_policy_limit=1&reporting_lines_limit=1").body();
+        assertEquals(1, limitedReports.split("\"violation\":").length - 1);
+        assertEquals(1, limitedReports.split("\"excessiveReportingLines\":").length - 2);
+        String salaryLimitedReports = get("/reports?threshold=2&salary_policy_limit=1").body();
+        assertEquals(1, salaryLimitedReports.split("\"violation\":").length - 1);
+        assertEquals(report.excessiveReportingLines().size(), salaryLimitedReports.split("\"excessiveReportingLines\":").length - 2);
+        assertEquals(400, get("/reports?salary_policy_limit=-1").statusCode());
+        assertEquals(400, get("/reports?reporting_lines_limit=-1").statusCode());
+
+        Map<Employee, SalaryPolicyViolation> salaryPolicyViolations = new EmployeeHierarchyReportService().reportManagersSalaryPolicyViolation(
+                new EmployeeNodeGenerator().generateEmployeesHierarchy(new EmployeeCsvFileReader().readFile(file)), 10, 30);
+        String salaryPolicy = get("/salary-policy?min=10&max=30").body();
+        assertTrue(salaryPolicy.startsWith("{\"minimumPercentage\":10,\"maximumPercentage\":30,\"salaryPolicyViolations\":["));
+        assertEquals(salaryPolicyViolations.size(), salaryPolicy.split("\"violation\":").length - 1);
+        salaryPolicyViolations.forEach((employee, violation) ->
+                assertTrue(salaryPolicy.contains(String.format("{\"id\":%d,", employee.id()))));
+
+        assertEquals(400, get("/reports?min=abc").statusCode());
+        assertEquals("{\"error\":\"Invalid value of parameter min: abc\"}", get("/reports?min=abc").body());
+        assertEquals(405, client.send(HttpRequest.newBuilder(uri("/reports")).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertTrue(get("/status").body().contains("\"employees\":100,"));
+    }
+
+    @Test
+    void shouldReloadFileWhenChanged() throws Exception {
+        server.start();
+        Files.writeString(file.toPath(), Files.readString(file.toPath()) + "201,New,Employee,40000,200\n");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (server.reloads() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(server.reloads() > 0);
+        assertTrue(get("/status").body().contains("\"employees\":101,"));
+    }
+
+    @Test
+    void shouldKeepPreviousHierarchyWhenReloadFails() throws Exception {
+        server.start();
+        String reports = get("/reports").body();
+
+        Files.writeString(file.toPath(), "Id,firstName,lastName,salary,managerId\n1,Invalid,Line,WrongFormat,\n");
+        assertFalse(server.reload());
+        assertEquals(reports, get("/reports").body());
+        assertTrue(get("/status").body().contains("\"employees\":100,"));
+    }
+
+    @Test
+    void shouldAnswerReportsFromCacheOfPreviousServer() throws Exception {
+        File cacheDir = tempDir.resolve("cache").toFile();
+        server.close();
+        server = new AnalyticsServer(new EmployeeCsvFileReader(), file, 0, new ReportResultCache(8, cacheDir));
+        server.start();
+        String reports = get("/reports?threshold=2").body();
+        server.close();
+
+        ReportResultCache cache = new ReportResultCache(8, cacheDir);
+        server = new AnalyticsServer(new EmployeeCsvFileReader(), file, 0, cache);
+        server.start();
+        assertEquals(reports, get("/reports?threshold=2").body());
+        assertEquals(1, cache.hits());
+        assertEquals(0, cache.misses());
+    }
+
+    @Test
+    void shouldAnswerBurstOfConcurrentConnections() throws Exception {
+        server.close();
+        server = new AnalyticsServer(new EmployeeCsvFileReader(), file, 0, 4096, null);
+        server.start();
+
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                sockets.add(new Socket(InetAddress.getLoopbackAddress(), server.port()));
+            }
+            for (Socket socket : sockets) {
+                socket.getOutputStream().write("GET /status HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"
+                        .getBytes(StandardCharsets.US_ASCII));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                assertEquals("HTTP/1.1 200 OK", reader.readLine());
+            }
+        } finally {
+            for (Socket socket : sockets) socket.close();
+        }
+    }
+
+    @Test
+    void shouldInvalidServerFails() {
+        assertThrows("File must not be null", NullPointerException.class,
+                () -> new AnalyticsServer(new EmployeeCsvFileReader(), null, 0));
+        assertThrows("Backlog must be positive: 0", IllegalArgumentException.class,
+                () -> new AnalyticsServer(new EmployeeCsvFileReader(), file, 0, 0, null));
+        AnalyticsServer noFileServer = new AnalyticsServer(new EmployeeCsvFileReader(), tempDir.resolve("NoFile").toFile(), 0);
+        try (noFileServer) {
+            assertThrows(String.format("File not found | Filepath: %s | Filename: NoFile", tempDir), FileReaderException.class,
+                    noFileServer::start);
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.port() + path);
+    }
+}
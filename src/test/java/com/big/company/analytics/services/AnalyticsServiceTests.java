@@ -1,27 +1,53 @@
 package com.big.company.analytics.services;
 
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
+import com.big.company.analytics.domain.EmployeeNode;
 import com.big.company.analytics.exception.FileReaderException;
 import com.big.company.analytics.exception.ParseExtractionException;
 import com.big.company.analytics.services.impl.AnalyticsManager;
+import com.big.company.analytics.services.impl.AnalyticsManager.ExecutionMode;
+import com.big.company.analytics.services.impl.BatchAnalyticsManager;
+import com.big.company.analytics.services.impl.BatchAnalyticsManager.FileResult;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
 import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
 import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.EmployeeSnapshotFileReader;
+import com.big.company.analytics.services.impl.EmployeeTableGenerator;
+import com.big.company.analytics.services.impl.HierarchyReportEngine;
+import com.big.company.analytics.services.impl.ReportFormat;
+import com.big.company.analytics.services.impl.ReportResultCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AnalyticsServiceTests {
 
@@ -48,6 +74,252 @@ class AnalyticsServiceTests {
                 () -> new AnalyticsManager(fileReaderService, nodeService, reportService, null));
     }
 
+    @Test
+    void shouldAnalyticsManagerReportFromSnapshot(@TempDir Path tempDir) {
+        EmployeeSnapshotFileReader snapshotReader = new EmployeeSnapshotFileReader();
+        File snapshotFile = tempDir.resolve("SampleData" + EmployeeSnapshotFileReader.SNAPSHOT_EXTENSION).toFile();
+        snapshotReader.writeSnapshot(nodeService.generateEmployeesHierarchy(fileReaderService.readFile(TEST_FILEPATH, TEST_FILENAME)), snapshotFile);
+
+        assertDoesNotThrow(new AnalyticsManager(snapshotReader, nodeService, reportService, snapshotFile)::runAnalytics);
+        assertDoesNotThrow(new AnalyticsManager(snapshotReader, nodeService, reportService, new File(TEST_FILEPATH, TEST_FILENAME))::runAnalytics);
+    }
+
+    @Test
+    void shouldAnalyticsManagerSkipUnchangedRunsWithCache(@TempDir Path tempDir) throws IOException {
+        int[] filesRead = {0};
+        FileReaderService<Employee> countingFileReaderService = new FileReaderService<>() {
+            @Override
+            public List<Employee> readFile(String path, String fileName) {
+                return readFile(new File(path, fileName));
+            }
+
+            @Override
+            public List<Employee> readFile(File file) {
+                filesRead[0]++;
+                return fileReaderService.readFile(file);
+            }
+        };
+        ReportResultCache cache = new ReportResultCache(2);
+        File file = tempDir.resolve(TEST_FILENAME).toFile();
+        Files.copy(new File(TEST_FILEPATH, TEST_FILENAME).toPath(), file.toPath());
+        File copiedFile = tempDir.resolve("CopiedData.csv").toFile();
+        Files.copy(file.toPath(), copiedFile.toPath());
+
+        new AnalyticsManager(countingFileReaderService, nodeService, reportService, file, null, null, null, cache).runAnalytics();
+        new AnalyticsManager(countingFileReaderService, nodeService, reportService, file, null, null, null, cache).runAnalytics();
+        new AnalyticsManager(countingFileReaderService, nodeService, reportService, copiedFile, 20, 50, 4, cache).runAnalytics();
+        assertEquals(1, filesRead[0]);
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+
+        new AnalyticsManager(countingFileReaderService, nodeService, reportService, file, 10, 50, 4, cache).runAnalytics();
+        Files.writeString(file.toPath(), Files.readString(file.toPath()).replace("John,Doe,60000", "John,Doe,60001"));
+        new AnalyticsManager(countingFileReaderService, nodeService, reportService, file, null, null, null, cache).runAnalytics();
+        assertEquals(3, filesRead[0]);
+        assertEquals(3, cache.misses());
+        assertEquals(2, cache.size());
+
+        new AnalyticsManager(countingFileReaderService, nodeService, reportService, copiedFile, null, null, null, cache).runAnalytics();
+        assertEquals(4, filesRead[0]);
+        assertEquals(4, cache.misses());
+    }
+
+    @Test
+    void shouldAnalyticsManagerNotCacheReportOfFileChangedWhileRead(@TempDir Path tempDir) throws IOException {
+        File file = tempDir.resolve(TEST_FILENAME).toFile();
+        Files.copy(new File(TEST_FILEPATH, TEST_FILENAME).toPath(), file.toPath());
+        String originalContent = Files.readString(file.toPath());
+        FileReaderService<Employee> rewritingFileReaderService = new FileReaderService<>() {
+            @Override
+            public List<Employee> readFile(String path, String fileName) {
+                return readFile(new File(path, fileName));
+            }
+
+            @Override
+            public List<Employee> readFile(File file) {
+                try {
+                    Files.writeString(file.toPath(), originalContent.replace("John,Doe,60000", "John,Doe,60001"));
+                } catch (IOException e) {
+                    throw new FileReaderException(e.getMessage());
+                }
+                return fileReaderService.readFile(file);
+            }
+        };
+        ReportResultCache cache = new ReportResultCache(2);
+
+        new AnalyticsManager(rewritingFileReaderService, nodeService, reportService, file, null, null, null, cache).runAnalytics();
+        assertEquals(0, cache.size());
+
+        Files.writeString(file.toPath(), originalContent);
+        new AnalyticsManager(fileReaderService, nodeService, reportService, file, null, null, null, cache).runAnalytics();
+        assertEquals(0, cache.hits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldReportResultCacheShareReportsOnDirectory(@TempDir Path tempDir) throws IOException {
+        int[] filesRead = {0};
+        FileReaderService<Employee> countingFileReaderService = new FileReaderService<>() {
+            @Override
+            public List<Employee> readFile(String path, String fileName) {
+                return readFile(new File(path, fileName));
+            }
+
+            @Override
+            public List<Employee> readFile(File file) {
+                filesRead[0]++;
+                return fileReaderService.readFile(file);
+            }
+        };
+        File file = tempDir.resolve(TEST_FILENAME).toFile();
+        Files.copy(new File(TEST_FILEPATH, TEST_FILENAME).toPath(), file.toPath());
+        File cacheDir = tempDir.resolve("cache").toFile();
+
+        new AnalyticsManager(countingFileReaderService, nodeService, reportService, file, null, null, 2, new ReportResultCache(2, cacheDir)).runAnalytics();
+        ReportResultCache nextRunCache = new ReportResultCache(2, cacheDir);
+        new AnalyticsManager(countingFileReaderService, nodeService, reportService, file, null, null, 2, nextRunCache).runAnalytics();
+        assertEquals(1, filesRead[0]);
+        assertEquals(1, nextRunCache.hits());
+
+        EmployeeHierarchyReport report = reportService.reportAll(
+                nodeService.generateEmployeesHierarchy(fileReaderService.readFile(file)), 20, 50, 2);
+        EmployeeHierarchyReport cachedReport = nextRunCache.get(nextRunCache.keyOf(file, 20, 50, 2)).orElseThrow();
+        assertEquals(report.salaryPolicyViolations(), cachedReport.salaryPolicyViolations());
+        assertEquals(report.excessiveReportingLines(), cachedReport.excessiveReportingLines());
+        assertThrows(UnsupportedOperationException.class, () -> cachedReport.excessiveReportingLines().clear());
+
+        ReportResultCache.Key key = nextRunCache.keyOf(file, 10, 50, 2);
+        Map<Employee, Integer> excessiveReportingLines = new HashMap<>(report.excessiveReportingLines());
+        nextRunCache.put(key, new EmployeeHierarchyReport(10, 50, 2, report.salaryPolicyViolations(), excessiveReportingLines, Map.of()));
+        excessiveReportingLines.clear();
+        assertEquals(report.excessiveReportingLines(), nextRunCache.get(key).orElseThrow().excessiveReportingLines());
+
+        nextRunCache.put(nextRunCache.keyOf(file, 30, 50, 2), report);
+        try (Stream<Path> reportFiles = Files.list(cacheDir.toPath())) {
+            assertEquals(2, reportFiles.filter(path -> path.toString().endsWith(ReportResultCache.REPORT_EXTENSION)).count());
+        }
+        try (Stream<Path> reportFiles = Files.list(cacheDir.toPath())) {
+            for (Path reportFile : reportFiles.toList()) Files.writeString(reportFile, "corrupted");
+        }
+        ReportResultCache corruptedCache = new ReportResultCache(2, cacheDir);
+        assertTrue(corruptedCache.get(key).isEmpty());
+        assertEquals(1, corruptedCache.misses());
+    }
+
+    @Test
+    void shouldAnalyticsManagerCacheLimitedReportsApart() {
+        ReportResultCache cache = new ReportResultCache(4);
+        File file = new File(TEST_FILEPATH, TEST_FILENAME);
+        AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, file, null, null, 2, cache);
+
+        analyticsManager.withReportLimits(null, 1).runAnalytics();
+        analyticsManager.runAnalytics();
+        analyticsManager.withReportLimits(1, null).runAnalytics();
+        analyticsManager.withReportLimits(null, 1).runAnalytics();
+        assertEquals(3, cache.misses());
+        assertEquals(1, cache.hits());
+        EmployeeHierarchyReport fullReport = cache.get(cache.keyOf(file, 20, 50, 2)).orElseThrow();
+        EmployeeHierarchyReport linesLimitedReport = cache.get(cache.keyOf(file, 20, 50, 2, 0, 1)).orElseThrow();
+        assertEquals(1, linesLimitedReport.excessiveReportingLines().size());
+        assertEquals(fullReport.salaryPolicyViolations(), linesLimitedReport.salaryPolicyViolations());
+        EmployeeHierarchyReport salaryLimitedReport = cache.get(cache.keyOf(file, 20, 50, 2, 1, 0)).orElseThrow();
+        assertEquals(1, salaryLimitedReport.salaryPolicyViolations().size());
+        assertEquals(fullReport.excessiveReportingLines(), salaryLimitedReport.excessiveReportingLines());
+        assertThrows("Salary policy limit must be positive: 0", IllegalArgumentException.class,
+                () -> analyticsManager.withReportLimits(0, null));
+        assertThrows("Reporting lines limit must be positive: 0", IllegalArgumentException.class,
+                () -> analyticsManager.withReportLimits(null, 0));
+    }
+
+    @Test
+    void shouldReportResultCacheWithInvalidParametersFails() {
+        assertThrows("Maximum cache size must be positive: 0", IllegalArgumentException.class,
+                () -> new ReportResultCache(0));
+        assertThrows("File not found | Filepath: / | Filename: NoFile", FileReaderException.class,
+                () -> new ReportResultCache(1).keyOf(new File("NoFile"), 20, 50, 4));
+    }
+
+    @Test
+    void shouldBatchAnalyticsReportEveryFileOfDirectory(@TempDir Path tempDir) throws IOException {
+        for (String fileName : List.of("SampleData.csv", "UnorderedData.csv", "WrongFormatData.csv", "HugeData.csv")) {
+            Files.copy(new File(TEST_FILEPATH, fileName).toPath(), tempDir.resolve(fileName));
+        }
+        Files.writeString(tempDir.resolve("Notes.txt"), "not an employees file");
+        EmployeeSnapshotFileReader snapshotReader = new EmployeeSnapshotFileReader();
+        snapshotReader.writeSnapshot(nodeService.generateEmployeesHierarchy(fileReaderService.readFile(TEST_FILEPATH, TEST_FILENAME)),
+                tempDir.resolve("SnapshotData" + EmployeeSnapshotFileReader.SNAPSHOT_EXTENSION).toFile());
+
+        List<FileResult> results = new BatchAnalyticsManager(snapshotReader, new EmployeeTableGenerator(), reportService,
+                tempDir.toFile(), null, 2).runBatch();
+
+        assertEquals(List.of("HugeData.csv", "SampleData.csv", "SnapshotData.ehs", "UnorderedData.csv", "WrongFormatData.csv"),
+                results.stream().map(result -> result.file().getName()).toList());
+        for (FileResult result : results.subList(0, 4)) {
+            assertNull(result.error());
+            EmployeeHierarchyReport expected = reportService.computeAll(
+                    nodeService.generateEmployeesHierarchy(snapshotReader.readFile(result.file())), 20, 50, 4);
+            assertEquals(expected.salaryPolicyViolations().size(), result.salaryPolicyViolations());
+            assertEquals(expected.excessiveReportingLines().size(), result.excessiveReportingLines());
+        }
+        assertEquals(results.get(1).employees(), results.get(2).employees());
+        assertEquals("Error on line number 2 -> For input string: \"WrongFormat\"", results.get(4).error());
+
+        assertEquals(1, new BatchAnalyticsManager(fileReaderService, new EmployeeTableGenerator(), reportService,
+                tempDir.toFile(), "Sample*.csv", null).runBatch().size());
+
+        FileResult strict = new BatchAnalyticsManager(fileReaderService, new EmployeeTableGenerator(), reportService,
+                tempDir.toFile(), "Huge*.csv", null, 5, 10, 1).runBatch().get(0);
+        EmployeeHierarchyReport expected = reportService.computeAll(
+                nodeService.generateEmployeesHierarchy(fileReaderService.readFile(TEST_FILEPATH, "HugeData.csv")), 5, 10, 1);
+        assertEquals(expected.salaryPolicyViolations().size(), strict.salaryPolicyViolations());
+        assertEquals(expected.excessiveReportingLines().size(), strict.excessiveReportingLines());
+        assertTrue(strict.excessiveReportingLines() > results.get(0).excessiveReportingLines());
+    }
+
+    @Test
+    void shouldBatchAnalyticsWriteSourceOfEachFileIntoMachineReadableReports(@TempDir Path tempDir) throws IOException {
+        Path directory = Files.createDirectory(tempDir.resolve("subsidiaries"));
+        for (String fileName : List.of("SampleData.csv", "HugeData.csv", "WrongFormatData.csv")) {
+            Files.copy(new File(TEST_FILEPATH, fileName).toPath(), directory.resolve(fileName));
+        }
+        File reportFile = tempDir.resolve("report.ndjson").toFile();
+        List<FileResult> results;
+        try (ReportSink sink = ReportFormat.NDJSON.toFile(reportFile)) {
+            results = new BatchAnalyticsManager(fileReaderService, new EmployeeTableGenerator(),
+                    new EmployeeHierarchyReportService(new HierarchyReportEngine(), sink), directory.toFile(), null, 2).runBatch();
+        }
+
+        Map<String, int[]> recordsBySource = new HashMap<>();
+        int[] records = null;
+        for (String line : Files.readAllLines(reportFile.toPath())) {
+            if (line.startsWith("{\"type\":\"source\",")) {
+                records = new int[2];
+                recordsBySource.put(line.substring("{\"type\":\"source\",\"file\":\"".length(), line.length() - 2), records);
+            } else {
+                assertNotNull(records, line);
+                if (line.startsWith("{\"type\":\"salaryPolicyViolation\",")) records[0]++;
+                if (line.startsWith("{\"type\":\"excessiveReportingLines\",")) records[1]++;
+            }
+        }
+        assertEquals(Set.of("HugeData.csv", "SampleData.csv"), recordsBySource.keySet());
+        for (FileResult result : results.subList(0, 2)) {
+            int[] fileRecords = recordsBySource.get(result.file().getName());
+            assertArrayEquals(new int[]{result.salaryPolicyViolations(), result.excessiveReportingLines()}, fileRecords);
+        }
+        assertNotNull(results.get(2).error());
+    }
+
+    @Test
+    void shouldBatchAnalyticsWithInvalidParametersFails() {
+        EmployeeTableGenerator tableService = new EmployeeTableGenerator();
+        assertThrows("Directory must not be null", NullPointerException.class,
+                () -> new BatchAnalyticsManager(fileReaderService, tableService, reportService, null, null, null));
+        assertThrows("Parallelism must be positive: 0", IllegalArgumentException.class,
+                () -> new BatchAnalyticsManager(fileReaderService, tableService, reportService, new File(TEST_FILEPATH), null, 0));
+        assertThrows("Directory not found | Filepath: / | Filename: NoDirectory", FileReaderException.class,
+                new BatchAnalyticsManager(fileReaderService, tableService, reportService, new File("NoDirectory"), null, null)::runAnalytics);
+    }
+
     @Test
     void shouldAnalyticsManagerWithSpecificFileSuccessfullyOverwritesDefaultFile() {
         File specificFile = new File("specificFile.csv");
@@ -85,6 +357,55 @@ class AnalyticsServiceTests {
         File file = new File(TEST_FILEPATH + fileName);
         AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, file);
         assertDoesNotThrow(analyticsManager::runAnalytics);
+        assertDoesNotThrow(analyticsManager.withExecutionMode(ExecutionMode.PIPELINED)::runAnalytics);
+    }
+
+    @Test
+    void shouldPipelinedExecutionBuildSameHierarchy() {
+        List<Employee> employees = new ArrayList<>();
+        EmployeeNodeService recordingNodeService = new EmployeeNodeService() {
+            @Override
+            public EmployeeNode generateEmployeesHierarchy(List<Employee> list) {
+                employees.addAll(list);
+                return nodeService.generateEmployeesHierarchy(list);
+            }
+        };
+        File file = new File(TEST_FILEPATH, "HugeData.csv");
+        new AnalyticsManager(fileReaderService, recordingNodeService, reportService, file)
+                .withExecutionMode(ExecutionMode.PIPELINED).runAnalytics();
+
+        assertEquals(fileReaderService.readFile(file), employees);
+        assertThrows("Execution mode must not be null", NullPointerException.class,
+                () -> new AnalyticsManager(fileReaderService, nodeService, reportService, file).withExecutionMode(null));
+    }
+
+    @Test
+    void shouldPipelinedExecutionRethrowParsingErrors() {
+        File file = new File(TEST_FILEPATH, "HugeData.csv");
+        FileReaderService<Employee> failingFileReaderService = new FileReaderService<>() {
+            @Override
+            public List<Employee> readFile(String path, String fileName) {
+                return readFile(new File(path, fileName));
+            }
+
+            @Override
+            public List<Employee> readFile(File file) {
+                return fileReaderService.readFile(file);
+            }
+
+            @Override
+            public Stream<Employee> streamFile(File file) {
+                int[] parsed = {0};
+                return fileReaderService.streamFile(file).peek(employee -> {
+                    if (++parsed[0] == 2000) throw new StackOverflowError("Parser stack exhausted");
+                });
+            }
+        };
+        AnalyticsManager analyticsManager = new AnalyticsManager(failingFileReaderService, nodeService, reportService, file)
+                .withExecutionMode(ExecutionMode.PIPELINED);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows("Parser stack exhausted", StackOverflowError.class, analyticsManager::runAnalytics));
     }
 
     private static Stream<Arguments> invalidDataFiles() {
@@ -111,6 +432,7 @@ class AnalyticsServiceTests {
         AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, file);
 
         assertThrows(message, ParseExtractionException.class, analyticsManager::runAnalytics);
+        assertThrows(message, ParseExtractionException.class, analyticsManager.withExecutionMode(ExecutionMode.PIPELINED)::runAnalytics);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.OrgChartSpec;
+import com.big.company.analytics.domain.OrgChartSpec.FanOutDistribution;
+import com.big.company.analytics.domain.OrgChartSpec.RowOrder;
+import com.big.company.analytics.services.impl.EmployeeCsvFileGenerator;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.IndexedEmployeeNodeGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeFileGeneratorServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(RowOrder.class)
+    void shouldGenerateReadableHierarchyOnAnyOrder(RowOrder rowOrder) {
+        File file = tempDir.resolve("Generated.csv").toFile();
+        OrgChartSpec spec = OrgChartSpec.builder(10_000).maxDepth(6).rowOrder(rowOrder).build();
+
+        EmployeeFileGeneratorService generatorService = new EmployeeCsvFileGenerator(1_000);
+        assertEquals(10_000, generatorService.generateFile(spec, file));
+
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(file);
+        EmployeeNode employeesHierarchy = new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        assertEquals(10_000, employeesHierarchy.size());
+        assertEquals(6, maxDepth(employeesHierarchy));
+        assertEquals(1, Objects.requireNonNull(tempDir.toFile().list()).length);
+
+        if (rowOrder == RowOrder.BOTTOM_UP) assertTrue(employees.get(employees.size() - 1).getManagerId().isEmpty());
+        if (rowOrder == RowOrder.TOP_DOWN) assertTrue(employees.get(0).getManagerId().isEmpty());
+    }
+
+    @Test
+    void shouldGenerateDeepChainAndFlatHierarchies() {
+        EmployeeFileGeneratorService generatorService = new EmployeeCsvFileGenerator();
+        File chainFile = tempDir.resolve("Chain.csv").toFile();
+        generatorService.generateFile(OrgChartSpec.builder(500).maxDepth(1_000)
+                .minFanOut(1).maxFanOut(1).fanOutDistribution(FanOutDistribution.FIXED).build(), chainFile);
+        EmployeeNode chain = new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(new EmployeeCsvFileReader().readFile(chainFile));
+        assertEquals(499, maxDepth(chain));
+
+        File flatFile = tempDir.resolve("Flat.csv").toFile();
+        generatorService.generateFile(OrgChartSpec.builder(500).maxDepth(1).build(), flatFile);
+        EmployeeNode flat = new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(new EmployeeCsvFileReader().readFile(flatFile));
+        assertEquals(499, flat.subordinates().size());
+    }
+
+    @Test
+    void shouldGeneratePermutedColumnsAndNoHeader() throws IOException {
+        EmployeeFileGeneratorService generatorService = new EmployeeCsvFileGenerator();
+        File permutedFile = tempDir.resolve("Permuted.csv").toFile();
+        OrgChartSpec permutedSpec = OrgChartSpec.builder(100).columns("salary", "firstName", "Id", "LastName", "managerId").build();
+        generatorService.generateFile(permutedSpec, permutedFile);
+        assertEquals("salary,firstName,Id,LastName,managerId", Files.readAllLines(permutedFile.toPath()).get(0));
+
+        File noHeaderFile = tempDir.resolve("NoHeader.csv").toFile();
+        generatorService.generateFile(OrgChartSpec.builder(100).hasHeader(false).build(), noHeaderFile);
+        assertEquals(100, Files.readAllLines(noHeaderFile.toPath()).size());
+
+        assertEquals(new EmployeeCsvFileReader().readFile(permutedFile), new EmployeeCsvFileReader(false).readFile(noHeaderFile));
+    }
+
+    @Test
+    void shouldInvalidSpecFails() {
+        assertThrows("Columns must be a permutation of [id, firstName, lastName, salary, managerId]", IllegalArgumentException.class,
+                () -> OrgChartSpec.builder(100).columns("id", "firstName", "salary", "managerId").build());
+        assertThrows("Max depth must be at least 1", IllegalArgumentException.class,
+                () -> OrgChartSpec.builder(100).maxDepth(0).build());
+        assertThrows("Spec must not be null", NullPointerException.class,
+                () -> new EmployeeCsvFileGenerator().generateFile(null, tempDir.toFile()));
+    }
+
+    private static int maxDepth(EmployeeNode root) {
+        int maxDepth = 0;
+        Deque<EmployeeNode> nodes = new ArrayDeque<>();
+        Deque<Integer> depths = new ArrayDeque<>();
+        nodes.push(root);
+        depths.push(0);
+        while (!nodes.isEmpty()) {
+            EmployeeNode node = nodes.pop();
+            int depth = depths.pop();
+            maxDepth = Math.max(maxDepth, depth);
+            for (EmployeeNode subordinate : node.subordinates()) {
+                nodes.push(subordinate);
+                depths.push(depth + 1);
+            }
+        }
+        return maxDepth;
+    }
+}
@@ -5,16 +5,24 @@ import com.big.company.analytics.domain.EmployeeNode;
 import com.big.company.analytics.exception.EmployeeNodeServiceException;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
 import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.IndexedEmployeeNodeGenerator;
 import com.big.company.analytics.test.util.AssertThrows;
+import com.big.company.analytics.test.util.DeepChainFixture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class EmployeeNodeServiceTests {
 
@@ -51,4 +59,101 @@ class EmployeeNodeServiceTests {
         AssertThrows.assertThrows("Error when creating Employee Hierarchy | Employee list has more than one CEO", EmployeeNodeServiceException.class,
                 () -> nodeService.generateEmployeesHierarchy(employees));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldIndexedGeneratorBuildSameHierarchyAsGenerator() {
+        EmployeeNode expected = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        EmployeeNode employeesHierarchy = new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        assertEquals(expected, employeesHierarchy);
+    }
+
+    @Test
+    void shouldIndexedGeneratorBuildHierarchyWithUnorderedListSuccessfully() {
+        List<Employee> unorderedEmployees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "UnorderedData.csv");
+        EmployeeNodeService nodeService = new IndexedEmployeeNodeGenerator();
+        assertEquals(5, nodeService.generateEmployeesHierarchy(unorderedEmployees).size());
+
+        List<Employee> shuffledEmployees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        Collections.shuffle(shuffledEmployees);
+        assertEquals(2900, nodeService.generateEmployeesHierarchy(shuffledEmployees).size());
+    }
+
+    @Test
+    void shouldIndexedGeneratorInvalidEmployeesListFails() {
+        EmployeeNodeService nodeService = new IndexedEmployeeNodeGenerator();
+        assertThrows("Employees list must not be null", NullPointerException.class,
+                () -> nodeService.generateEmployeesHierarchy(null));
+
+        List<Employee> employeesWithDuplicatedId = new ArrayList<>(employees);
+        employeesWithDuplicatedId.add(new Employee(102, "Jane", "Twin", 55000, 101));
+        assertThrows("Error when creating Employee Hierarchy | Employee id 102 is duplicated on the list", EmployeeNodeServiceException.class,
+                () -> nodeService.generateEmployeesHierarchy(employeesWithDuplicatedId));
+
+        employees.add(new Employee(345, "Elon", "Musk", 250000, null));
+        assertThrows("Error when creating Employee Hierarchy | Employee list has more than one CEO", EmployeeNodeServiceException.class,
+                () -> nodeService.generateEmployeesHierarchy(employees));
+    }
+
+    @Test
+    void shouldIndexedGeneratorRejectReportingLineCycles() {
+        List<Employee> employeesWithCycle = Arrays.asList(
+                new Employee(1, "Joe", "Doe", 60000, null),
+                new Employee(2, "Martin", "Chekov", 45000, 1),
+                new Employee(3, "Bob", "Ronstad", 47000, 4),
+                new Employee(4, "Alice", "Hasacat", 50000, 3),
+                new Employee(5, "Brett", "Hardleaf", 34000, 4)
+        );
+        EmployeeNodeService nodeService = new IndexedEmployeeNodeGenerator();
+        assertThrows("Error when creating Employee Hierarchy | Employee with id 3 has a cycle on its reporting line", EmployeeNodeServiceException.class,
+                () -> nodeService.generateEmployeesHierarchy(employeesWithCycle));
+
+        List<Employee> employeesManagingThemselves = Arrays.asList(
+                new Employee(1, "Joe", "Doe", 60000, null),
+                new Employee(2, "Martin", "Chekov", 45000, 2)
+        );
+        assertThrows("Error when creating Employee Hierarchy | Employee with id 2 has a cycle on its reporting line", EmployeeNodeServiceException.class,
+                () -> nodeService.generateEmployeesHierarchy(employeesManagingThemselves));
+    }
+
+    @Test
+    void shouldIndexedGeneratorDropSubordinatesOfEmployeesWithoutValidManager() {
+        List<Employee> employeesWithOrphans = Arrays.asList(
+                new Employee(1, "Joe", "Doe", 60000, null),
+                new Employee(2, "Martin", "Chekov", 45000, 999),
+                new Employee(3, "Bob", "Ronstad", 47000, 2),
+                new Employee(4, "Alice", "Hasacat", 50000, 1)
+        );
+        EmployeeNode employeesHierarchy = new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(employeesWithOrphans);
+        assertEquals(2, employeesHierarchy.size());
+        assertTrue(employeesHierarchy.subordinates().stream().allMatch(node -> node.employee().id() == 4));
+    }
+
+    @Test
+    void shouldIndexedGeneratorBuildHierarchyFromStreamedFile() {
+        EmployeeNode expected = new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(
+                new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv"));
+        try (Stream<Employee> employees = new EmployeeCsvFileReader().streamFile(new File(TEST_FILEPATH, "HugeData.csv"))) {
+            assertEquals(expected, new IndexedEmployeeNodeGenerator().generateStreamedEmployeesHierarchy(employees));
+        }
+
+        EmployeeNode expectedUnordered = new EmployeeNodeGenerator().generateEmployeesHierarchy(
+                new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "UnorderedData.csv"));
+        try (Stream<Employee> employees = new EmployeeCsvFileReader().streamFile(new File(TEST_FILEPATH, "UnorderedData.csv"))) {
+            assertEquals(expectedUnordered.size(), new EmployeeNodeGenerator().generateStreamedEmployeesHierarchy(employees).size());
+        }
+
+        assertThrows("Employees stream must not be null", NullPointerException.class,
+                () -> new IndexedEmployeeNodeGenerator().generateStreamedEmployeesHierarchy(null));
+        assertThrows("Error when creating Employee Hierarchy | Employee list has no CEO", EmployeeNodeServiceException.class,
+                () -> new IndexedEmployeeNodeGenerator().generateStreamedEmployeesHierarchy(Stream.of(new Employee(2, "Martin", "Chekov", 45000, 1))));
+    }
+
+    @Test
+    void shouldIndexedGeneratorBuildMillionLevelChain() {
+        List<Employee> chainEmployees = DeepChainFixture.chainEmployees(DeepChainFixture.MILLION_LEVELS);
+        Collections.reverse(chainEmployees);
+        EmployeeNode chain = new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(chainEmployees);
+        assertEquals(DeepChainFixture.MILLION_LEVELS, chain.size());
+        assertEquals(DeepChainFixture.chain(DeepChainFixture.MILLION_LEVELS), chain);
+    }
+}
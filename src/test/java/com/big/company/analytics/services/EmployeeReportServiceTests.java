@@ -1,20 +1,53 @@
 package com.big.company.analytics.services;
 
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeHierarchyReport;
 import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.domain.MutableEmployeeHierarchy;
+import com.big.company.analytics.domain.SalaryPolicyViolation;
+import com.big.company.analytics.domain.ViolationEvent;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
 
 import static com.big.company.analytics.test.util.AssertThrows.*;
 
+import com.big.company.analytics.services.impl.BinaryReportSink;
 import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
 import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.EmployeeTableGenerator;
+import com.big.company.analytics.services.impl.HierarchyReportEngine;
+import com.big.company.analytics.services.impl.LiveEmployeeHierarchyReport;
+import com.big.company.analytics.services.impl.MutableEmployeeHierarchyGenerator;
+import com.big.company.analytics.services.impl.ParallelEmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.ReportFormat;
+import com.big.company.analytics.services.impl.SalaryPolicyIndex;
+import com.big.company.analytics.services.impl.TextReportSink;
+import com.big.company.analytics.test.util.DeepChainFixture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
@@ -38,7 +71,7 @@ class EmployeeReportServiceTests {
         this.employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "SalaryViolationPolicyData.csv");
         EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(employees);
 
-        Map<Employee, String> managers = report.reportManagersSalaryPolicyViolation(employeesHierarchy);
+        Map<Employee, SalaryPolicyViolation> managers = report.reportManagersSalaryPolicyViolation(employeesHierarchy);
 
         Integer expectedNumberOfManagersWithPolicyViolation = 2;
         assertEquals(expectedNumberOfManagersWithPolicyViolation, managers.size());
@@ -47,6 +80,21 @@ class EmployeeReportServiceTests {
 
         Integer expectedNumberOfManagersWithCustomPolicyViolation = 3;
         assertEquals(expectedNumberOfManagersWithCustomPolicyViolation, managers.size());
+        managers.forEach((manager, violation) -> {
+            assertEquals(manager.id(), violation.managerId());
+            assertEquals(manager.salary(), violation.salary());
+            assertTrue(violation.minimumSalaryAllowed() < violation.maximumSalaryAllowed());
+            if (violation.isUnderpaid()) {
+                assertEquals(manager.salary() - violation.minimumSalaryAllowed(), violation.delta());
+                assertEquals(String.format(Locale.ROOT, "Salary is %.2f lesser than the minimum salary allowed", violation.minimumSalaryAllowed() - manager.salary()),
+                        violation.description());
+            } else {
+                assertEquals(manager.salary() - violation.maximumSalaryAllowed(), violation.delta());
+                assertEquals(String.format(Locale.ROOT, "Salary is %.2f higher than the maximum salary allowed", manager.salary() - violation.maximumSalaryAllowed()),
+                        violation.description());
+            }
+            assertEquals(Math.abs(violation.delta()), violation.magnitude());
+        });
     }
 
     @Test
@@ -98,4 +146,502 @@ class EmployeeReportServiceTests {
                         .thenAccept(employees -> assertEquals(2779, employees.size()))
         ).forEach(CompletableFuture::join);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReportSameManagersOverEmployeeTable() {
+        for (String fileName : List.of("SalaryViolationPolicyData.csv", "HugeData.csv", TEST_FILENAME)) {
+            List<Employee> fileEmployees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, fileName);
+            EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(fileEmployees);
+            EmployeeHierarchy employeeTable = new EmployeeTableGenerator().generateEmployeeTable(fileEmployees);
+
+            assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, 20, 50),
+                    report.reportManagersSalaryPolicyViolation(employeeTable, 20, 50));
+            assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, 27, 50),
+                    report.reportManagersSalaryPolicyViolation(EmployeeTable.from(employeesHierarchy), 27, 50));
+            assertEquals(report.reportManagersWithExcessiveReportingLines(employeesHierarchy, 4),
+                    report.reportManagersWithExcessiveReportingLines(employeeTable, 4));
+        }
+    }
+
+    @Test
+    void shouldFailsWhenCallEmployeeTableReportsMethodsIsNull() {
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> report.reportManagersSalaryPolicyViolation((EmployeeHierarchy) null, 20, 50));
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> report.reportManagersWithExcessiveReportingLines((EmployeeHierarchy) null, 4));
+
+        EmployeeHierarchy employeeTable = new EmployeeTableGenerator().generateEmployeeTable(employees);
+
+        assertThrows("Minimum Percentage must not be null", NullPointerException.class,
+                () -> report.reportManagersSalaryPolicyViolation(employeeTable, null, null));
+        assertThrows("Reporting lines threshold must not be null", NullPointerException.class,
+                () -> report.reportManagersWithExcessiveReportingLines(employeeTable, null));
+    }
+
+    @Test
+    void shouldReportMillionLevelChainWithoutStackOverflow() {
+        EmployeeNode chain = DeepChainFixture.chain(DeepChainFixture.MILLION_LEVELS);
+        int reportingLinesThreshold = DeepChainFixture.MILLION_LEVELS - 5;
+
+        Map<Employee, Integer> managers = report.reportManagersWithExcessiveReportingLines(chain, reportingLinesThreshold);
+        assertEquals(4, managers.size());
+        assertEquals(4, managers.get(new Employee(DeepChainFixture.MILLION_LEVELS, "Level", String.valueOf(DeepChainFixture.MILLION_LEVELS),
+                DeepChainFixture.SALARY, DeepChainFixture.MILLION_LEVELS - 1)));
+        assertEquals(managers, report.reportManagersWithExcessiveReportingLines(EmployeeTable.from(chain), reportingLinesThreshold));
+
+        assertTrue(report.reportManagersSalaryPolicyViolation(chain, -100, 0).isEmpty());
+        assertTrue(report.reportManagersSalaryPolicyViolation(EmployeeTable.from(chain), -100, 0).isEmpty());
+    }
+
+    @Test
+    void shouldReportAllInSinglePassSameAsSeparateReports() {
+        for (String fileName : List.of("SalaryViolationPolicyData.csv", "HugeData.csv", TEST_FILENAME)) {
+            List<Employee> fileEmployees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, fileName);
+            EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(fileEmployees);
+
+            EmployeeHierarchyReport allReports = report.reportAll(employeesHierarchy, 27, 50, 6);
+            assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, 27, 50), allReports.salaryPolicyViolations());
+            assertEquals(report.reportManagersWithExcessiveReportingLines(employeesHierarchy, 6), allReports.excessiveReportingLines());
+
+            EmployeeHierarchyReport tableReports = report.reportAll(EmployeeTable.from(employeesHierarchy), 27, 50, 6);
+            assertEquals(allReports, tableReports);
+        }
+
+        EmployeeHierarchyReport defaultReports = report.reportAll(nodeService.generateEmployeesHierarchy(employees));
+        assertEquals(20, defaultReports.minimumPercentage());
+        assertEquals(50, defaultReports.maximumPercentage());
+        assertEquals(4, defaultReports.reportingLinesThreshold());
+        assertEquals(65, defaultReports.excessiveReportingLines().size());
+    }
+
+    @Test
+    void shouldComputeExtraMetricsOnSameTraversal() {
+        HierarchyReportEngine engine = new HierarchyReportEngine()
+                .withMetric("maxDepth", () -> new EmployeeMetric<Integer>() {
+                    private int maxDepth;
+
+                    @Override
+                    public void accept(int id, int salary, int depth, int subordinatesCount, long subordinatesSalarySum) {
+                        maxDepth = Math.max(maxDepth, depth);
+                    }
+
+                    @Override
+                    public Integer result() {
+                        return maxDepth;
+                    }
+                })
+                .withMetric("payroll", () -> new EmployeeMetric<Long>() {
+                    private long payroll;
+
+                    @Override
+                    public void accept(int id, int salary, int depth, int subordinatesCount, long subordinatesSalarySum) {
+                        payroll += salary;
+                    }
+
+                    @Override
+                    public Long result() {
+                        return payroll;
+                    }
+                });
+        EmployeeReportService metricsReport = new EmployeeHierarchyReportService(engine);
+        EmployeeNode chain = DeepChainFixture.chain(1_000);
+
+        EmployeeHierarchyReport allReports = metricsReport.reportAll(chain);
+        assertEquals(List.of("maxDepth", "payroll"), List.copyOf(allReports.metrics().keySet()));
+        assertEquals(999, allReports.metrics().get("maxDepth"));
+        assertEquals(1_000L * DeepChainFixture.SALARY, allReports.metrics().get("payroll"));
+        assertEquals(allReports.metrics(), metricsReport.reportAll(EmployeeTable.from(chain), 20, 50, 4).metrics());
+
+        assertThrows("Metric payroll is already registered", IllegalArgumentException.class,
+                () -> engine.withMetric("payroll", () -> null));
+        assertThrows("Report engine must not be null", NullPointerException.class,
+                () -> new EmployeeHierarchyReportService(null));
+    }
+
+    @Test
+    void shouldFailsWhenCallReportAllMethodsIsNull() {
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> report.reportAll((EmployeeNode) null));
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> report.reportAll((EmployeeHierarchy) null, 20, 50, 4));
+
+        EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(employees);
+
+        assertThrows("Minimum Percentage must not be null", NullPointerException.class,
+                () -> report.reportAll(employeesHierarchy, null, 50, 4));
+        assertThrows("Reporting lines threshold must not be null", NullPointerException.class,
+                () -> report.reportAll(employeesHierarchy, 20, 50, null));
+    }
+
+    @Test
+    void shouldReportSameManagersInParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int sequentialThreshold : List.of(1, 7, 4096)) {
+                EmployeeReportService parallelReport = new ParallelEmployeeHierarchyReportService(pool, sequentialThreshold);
+                for (String fileName : List.of("SalaryViolationPolicyData.csv", "HugeData.csv", TEST_FILENAME)) {
+                    EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(
+                            new EmployeeCsvFileReader().readFile(TEST_FILEPATH, fileName));
+
+                    assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy),
+                            parallelReport.reportManagersSalaryPolicyViolation(employeesHierarchy));
+                    assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, 27, 50),
+                            parallelReport.reportManagersSalaryPolicyViolation(employeesHierarchy, 27, 50));
+                }
+            }
+
+            EmployeeNode chain = DeepChainFixture.chain(DeepChainFixture.MILLION_LEVELS);
+            assertEquals(report.reportManagersSalaryPolicyViolation(chain, 50, 60),
+                    new ParallelEmployeeHierarchyReportService(pool, 16).reportManagersSalaryPolicyViolation(chain, 50, 60));
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThrows("Sequential threshold must be positive: 0", IllegalArgumentException.class,
+                () -> new ParallelEmployeeHierarchyReportService(null, 0));
+    }
+
+    @Test
+    void shouldSalaryPolicyIndexReportSameManagersForAnyRange() {
+        EmployeeTable table = new EmployeeTableGenerator().generateEmployeeTable(
+                new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv"));
+        SalaryPolicyIndex index = SalaryPolicyIndex.of(table);
+
+        int[] percentages = {-10, 0, 10, 20, 33, 50, 75, 100};
+        for (int minimumPercentage : percentages) {
+            for (int maximumPercentage : percentages) {
+                assertEquals(report.reportManagersSalaryPolicyViolation(table, minimumPercentage, maximumPercentage),
+                        index.violations(minimumPercentage, maximumPercentage));
+            }
+        }
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> SalaryPolicyIndex.of(null));
+    }
+
+    @Test
+    void shouldComputeReportsWithoutPrinting(@TempDir Path tempDir) throws IOException {
+        File reportFile = tempDir.resolve("report.txt").toFile();
+        EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(employees);
+        EmployeeTable employeeTable = new EmployeeTableGenerator().generateEmployeeTable(employees);
+        try (TextReportSink sink = TextReportSink.toFile(reportFile)) {
+            EmployeeReportService computeOnly = new EmployeeHierarchyReportService(new HierarchyReportEngine(), sink);
+
+            assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, 20, 50),
+                    computeOnly.computeManagersSalaryPolicyViolation(employeesHierarchy, 20, 50));
+            assertEquals(report.reportManagersSalaryPolicyViolation(employeeTable, 20, 50),
+                    computeOnly.computeManagersSalaryPolicyViolation(employeeTable, 20, 50));
+            assertEquals(report.reportManagersWithExcessiveReportingLines(employeesHierarchy, 2),
+                    computeOnly.computeManagersWithExcessiveReportingLines(employeesHierarchy, 2));
+            assertEquals(report.reportManagersWithExcessiveReportingLines(employeeTable, 2),
+                    computeOnly.computeManagersWithExcessiveReportingLines(employeeTable, 2));
+            assertEquals(report.reportAll(employeesHierarchy, 20, 50, 2), computeOnly.computeAll(employeesHierarchy, 20, 50, 2));
+            assertEquals(report.reportAll(employeeTable, 20, 50, 2), computeOnly.computeAll(employeeTable, 20, 50, 2));
+        }
+        assertEquals(0, reportFile.length());
+
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class, () -> report.computeAll((EmployeeNode) null, 20, 50, 2));
+        assertThrows("Reporting lines threshold must not be null", NullPointerException.class, () -> report.computeAll(employeeTable, 20, 50, null));
+        assertThrows("Minimum Percentage must not be null", NullPointerException.class, () -> report.computeManagersSalaryPolicyViolation(employeeTable, null, 50));
+    }
+
+    @Test
+    void shouldWriteReportsWithSameLayoutIntoSink(@TempDir Path tempDir) throws IOException {
+        File reportFile = tempDir.resolve("report.txt").toFile();
+        EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(employees);
+        EmployeeHierarchyReport allReports;
+        try (TextReportSink sink = TextReportSink.toFile(reportFile)) {
+            allReports = new EmployeeHierarchyReportService(new HierarchyReportEngine(), sink).reportAll(employeesHierarchy, 20, 50, 2);
+        }
+
+        StringBuilder expected = new StringBuilder();
+        expected.append(String.format("----- Report of employees with salary policy violation -----%n"));
+        expected.append(String.format("-> Minimum percentage allowed: %d %n", 20));
+        expected.append(String.format("-> Maximum percentage allowed: %d %n", 50));
+        expected.append(String.format("-> Number of employees with salary policy violation: %d%n", allReports.salaryPolicyViolations().size()));
+        expected.append(String.format("%-12s|%-12s|%-12s|%-12s|%-12s%n", "ID", "FIRST NAME", "LAST NAME", "SALARY", "VIOLATION"));
+        allReports.salaryPolicyViolations().forEach((employee, violation) -> expected.append(String.format("%-12d|%-12s|%-12s|%-12d|%s%n",
+                employee.id(), employee.firstName(), employee.lastName(), employee.salary(), violation.description())));
+        expected.append(System.lineSeparator());
+        expected.append(String.format("----- Report of employees with reporting line higher than %d -----%n", 2));
+        expected.append(String.format("-> Number of employees with excessive reporting lines: %d%n", allReports.excessiveReportingLines().size()));
+        expected.append(String.format("%-12s|%-12s|%-12s|%-12s%n", "ID", "FIRST NAME", "LAST NAME", "EXCESSIVE REPORTING LINES"));
+        allReports.excessiveReportingLines().forEach((employee, reportingLines) -> expected.append(String.format("%-12d|%-12s|%-12s|%-12d%n",
+                employee.id(), employee.firstName(), employee.lastName(), reportingLines)));
+        expected.append(System.lineSeparator());
+
+        assertFalse(allReports.excessiveReportingLines().isEmpty());
+        assertEquals(expected.toString(), Files.readString(reportFile.toPath()));
+
+        Employee unicodeEmployee = new Employee(-7, "Zoë", "Ñandú 😀", 1234567890, 1);
+        try (TextReportSink sink = TextReportSink.toFile(reportFile)) {
+            sink.writeExcessiveReportingLines(Map.of(unicodeEmployee, Integer.MIN_VALUE), 4);
+        }
+        assertTrue(Files.readString(reportFile.toPath()).contains(String.format("%-12d|%-12s|%-12s|%-12d%n",
+                -7, "Zoë", "Ñandú 😀", Integer.MIN_VALUE)));
+
+        Random random = new Random(42);
+        Map<Employee, SalaryPolicyViolation> violations = new LinkedHashMap<>();
+        double[] deltas = {0.125, -0.125, 1.005, -2.675, 0.005, 0.015, 0.994999, 0.995, -1e-9, 99.995, 8e9 + 0.005, 1e15 + 0.5, -Double.MAX_VALUE};
+        for (int i = 0; i < deltas.length + 10000; i++) {
+            double delta = (i < deltas.length) ? deltas[i] : (i % 2 == 0)
+                    ? (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10))
+                    : (random.nextInt(2_000_000_000) - 1_000_000_000 + 0.5) / 100;
+            violations.put(new Employee(i, "First", "Last", 1000, 1), new SalaryPolicyViolation(i, 1000, 900, 1100, delta));
+        }
+        try (TextReportSink sink = TextReportSink.toFile(reportFile)) {
+            sink.writeSalaryPolicyViolations(violations, 20, 50);
+        }
+        String report = Files.readString(reportFile.toPath());
+        violations.forEach((employee, violation) -> assertTrue(report.contains(String.format("%-12d|%-12s|%-12s|%-12d|%s%n",
+                employee.id(), employee.firstName(), employee.lastName(), employee.salary(), violation.description())), violation::description));
+    }
+
+    @Test
+    void shouldStreamReportsInMachineReadableFormats(@TempDir Path tempDir) throws IOException {
+        EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(employees);
+        Map<ReportFormat, File> reportFiles = new EnumMap<>(ReportFormat.class);
+        EmployeeHierarchyReport allReports = null;
+        for (ReportFormat format : List.of(ReportFormat.NDJSON, ReportFormat.CSV, ReportFormat.BINARY)) {
+            File reportFile = tempDir.resolve("report." + format.name().toLowerCase()).toFile();
+            try (ReportSink sink = format.toFile(reportFile)) {
+                allReports = new EmployeeHierarchyReportService(new HierarchyReportEngine(), sink).reportAll(employeesHierarchy, 20, 50, 2);
+            }
+            reportFiles.put(format, reportFile);
+        }
+        assertNotNull(allReports);
+        assertFalse(allReports.salaryPolicyViolations().isEmpty());
+        assertFalse(allReports.excessiveReportingLines().isEmpty());
+
+        List<String> ndjson = Files.readAllLines(reportFiles.get(ReportFormat.NDJSON).toPath());
+        assertEquals(2 + allReports.salaryPolicyViolations().size() + allReports.excessiveReportingLines().size(), ndjson.size());
+        assertEquals("{\"type\":\"salaryPolicy\",\"minimumPercentage\":20,\"maximumPercentage\":50}", ndjson.get(0));
+        assertEquals("{\"type\":\"reportingLines\",\"reportingLinesThreshold\":2}", ndjson.get(1));
+        allReports.salaryPolicyViolations().forEach((employee, violation) -> assertTrue(ndjson.contains(String.format(
+                "{\"type\":\"salaryPolicyViolation\",\"id\":%d,\"firstName\":\"%s\",\"lastName\":\"%s\",\"salary\":%d,\"minimumSalaryAllowed\":%s,\"maximumSalaryAllowed\":%s,\"delta\":%s}",
+                employee.id(), employee.firstName(), employee.lastName(), employee.salary(),
+                violation.minimumSalaryAllowed(), violation.maximumSalaryAllowed(), violation.delta()))));
+        allReports.excessiveReportingLines().forEach((employee, reportingLines) -> assertTrue(ndjson.contains(String.format(
+                "{\"type\":\"excessiveReportingLines\",\"id\":%d,\"firstName\":\"%s\",\"lastName\":\"%s\",\"salary\":%d,\"excessiveReportingLines\":%d}",
+                employee.id(), employee.firstName(), employee.lastName(), employee.salary(), reportingLines))));
+
+        List<String> csv = Files.readAllLines(reportFiles.get(ReportFormat.CSV).toPath());
+        assertEquals(3 + allReports.salaryPolicyViolations().size() + allReports.excessiveReportingLines().size(), csv.size());
+        assertEquals("type,id,firstName,lastName,salary,minimumSalaryAllowed,maximumSalaryAllowed,delta,excessiveReportingLines,"
+                + "minimumPercentage,maximumPercentage,reportingLinesThreshold,file", csv.get(0));
+        assertEquals("salaryPolicy,,,,,,,,,20,50,,", csv.get(1));
+        assertEquals("reportingLines,,,,,,,,,,,2,", csv.get(2));
+        allReports.salaryPolicyViolations().forEach((employee, violation) -> assertTrue(csv.contains(String.format("salaryPolicyViolation,%d,%s,%s,%d,%s,%s,%s,,,,,",
+                employee.id(), employee.firstName(), employee.lastName(), employee.salary(),
+                violation.minimumSalaryAllowed(), violation.maximumSalaryAllowed(), violation.delta()))));
+        allReports.excessiveReportingLines().forEach((employee, reportingLines) -> assertTrue(csv.contains(String.format("excessiveReportingLines,%d,%s,%s,%d,,,,%d,,,,",
+                employee.id(), employee.firstName(), employee.lastName(), employee.salary(), reportingLines))));
+
+        Map<Employee, SalaryPolicyViolation> binaryViolations = new HashMap<>();
+        Map<Employee, Integer> binaryReportingLines = new HashMap<>();
+        try (DataInputStream input = new DataInputStream(new FileInputStream(reportFiles.get(ReportFormat.BINARY)))) {
+            assertEquals(BinaryReportSink.MAGIC, input.readInt());
+            assertEquals(BinaryReportSink.VERSION, input.readInt());
+            while (input.available() > 0) {
+                byte[] record = new byte[input.readInt()];
+                input.readFully(record);
+                DataInputStream fields = new DataInputStream(new ByteArrayInputStream(record));
+                switch (fields.readByte()) {
+                    case BinaryReportSink.SALARY_POLICY -> assertArrayEquals(new int[]{20, 50}, new int[]{fields.readInt(), fields.readInt()});
+                    case BinaryReportSink.REPORTING_LINES -> assertEquals(2, fields.readInt());
+                    case BinaryReportSink.SALARY_POLICY_VIOLATION -> {
+                        int id = fields.readInt();
+                        int salary = fields.readInt();
+                        binaryViolations.put(new Employee(id, readString(fields), readString(fields), salary, null),
+                                new SalaryPolicyViolation(id, salary, fields.readDouble(), fields.readDouble(), fields.readDouble()));
+                    }
+                    case BinaryReportSink.EXCESSIVE_REPORTING_LINES -> {
+                        int id = fields.readInt();
+                        int salary = fields.readInt();
+                        binaryReportingLines.put(new Employee(id, readString(fields), readString(fields), salary, null), fields.readInt());
+                    }
+                    default -> fail("Unknown record type");
+                }
+                assertEquals(0, fields.available());
+            }
+        }
+        assertEquals(withoutManagers(allReports.salaryPolicyViolations()), binaryViolations);
+        assertEquals(withoutManagers(allReports.excessiveReportingLines()), binaryReportingLines);
+
+        Employee quotedEmployee = new Employee(7, "Zoë \"Z\"\\\u0001", "Doe, Jr.\n😀", 1000, null);
+        SalaryPolicyViolation violation = new SalaryPolicyViolation(7, 1000, 1200.0, 1500.0, -200.0);
+        File reportFile = tempDir.resolve("quoted").toFile();
+        try (ReportSink sink = ReportFormat.NDJSON.toFile(reportFile)) {
+            sink.writeSalaryPolicyViolations(Map.of(quotedEmployee, violation), 20, 50);
+        }
+        assertTrue(Files.readString(reportFile.toPath()).contains("\"firstName\":\"Zoë \\\"Z\\\"\\\\\\u0001\",\"lastName\":\"Doe, Jr.\\n😀\","
+                + "\"salary\":1000,\"minimumSalaryAllowed\":1200.0,\"maximumSalaryAllowed\":1500.0,\"delta\":-200.0}\n"));
+        try (ReportSink sink = ReportFormat.CSV.toFile(reportFile)) {
+            sink.writeSalaryPolicyViolations(Map.of(quotedEmployee, violation), 20, 50);
+        }
+        assertTrue(Files.readString(reportFile.toPath()).contains("salaryPolicyViolation,7,\"Zoë \"\"Z\"\"\\\u0001\",\"Doe, Jr.\n😀\",1000,1200.0,1500.0,-200.0,,,,,\n"));
+
+        String source = "Subsidiary, \"Zoë\".csv";
+        try (ReportSink sink = ReportFormat.NDJSON.toFile(reportFile)) {
+            sink.writeSource(source);
+        }
+        assertEquals("{\"type\":\"source\",\"file\":\"Subsidiary, \\\"Zoë\\\".csv\"}\n", Files.readString(reportFile.toPath()));
+        try (ReportSink sink = ReportFormat.CSV.toFile(reportFile)) {
+            sink.writeSource(source);
+        }
+        assertEquals("source,,,,,,,,,,,,\"Subsidiary, \"\"Zoë\"\".csv\"", Files.readAllLines(reportFile.toPath()).get(1));
+        try (ReportSink sink = ReportFormat.TEXT.toFile(reportFile)) {
+            sink.writeSource(source);
+        }
+        assertEquals("=========== REPORT OF FILE: " + source + " ===========", Files.readAllLines(reportFile.toPath()).get(0));
+        try (ReportSink sink = ReportFormat.BINARY.toFile(reportFile)) {
+            sink.writeSource(source);
+        }
+        try (DataInputStream input = new DataInputStream(new FileInputStream(reportFile))) {
+            input.skipNBytes(2 * Integer.BYTES);
+            assertEquals(1 + Integer.BYTES + source.getBytes(StandardCharsets.UTF_8).length, input.readInt());
+            assertEquals(BinaryReportSink.SOURCE, input.readByte());
+            assertEquals(source, readString(input));
+            assertEquals(0, input.available());
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static <V> Map<Employee, V> withoutManagers(Map<Employee, V> report) {
+        Map<Employee, V> employees = new HashMap<>();
+        report.forEach((employee, value) -> employees.put(
+                new Employee(employee.id(), employee.firstName(), employee.lastName(), employee.salary(), null), value));
+        return employees;
+    }
+
+    @Test
+    void shouldKeepLiveReportSameAsFullReportAfterChanges() {
+        EmployeeHierarchyReportService hierarchyReport = new EmployeeHierarchyReportService();
+        MutableEmployeeHierarchy hierarchy = new MutableEmployeeHierarchyGenerator()
+                .generateMutableHierarchy(new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv"));
+        LiveEmployeeHierarchyReport liveReport = hierarchyReport.reportLive(hierarchy, 20, 50, 4);
+
+        Map<ViolationEvent.Violation, Map<Integer, Integer>> entries = new HashMap<>();
+        List<ViolationEvent> events = new ArrayList<>();
+        liveReport.addListener(events::add);
+        liveReport.addListener(event -> entries.computeIfAbsent(event.violation(), violation -> new HashMap<>())
+                .merge(event.employee().id(), (event.transition() == ViolationEvent.Transition.ENTERED) ? 1 : -1, Integer::sum));
+
+        Random random = new Random(7);
+        int nextId = 1_000_000;
+        for (int change = 0; change < 2_000; change++) {
+            int index = random.nextInt(hierarchy.size());
+            int id = hierarchy.id(index);
+            switch (random.nextInt(4)) {
+                case 0 -> liveReport.add(new Employee(nextId++, "New", "Hire", 30000 + random.nextInt(50000), id));
+                case 1 -> {
+                    if (index != hierarchy.root()) liveReport.remove(id);
+                }
+                case 2 -> {
+                    Employee employee = hierarchy.employee(index);
+                    liveReport.update(new Employee(id, employee.firstName(), employee.lastName(),
+                            30000 + random.nextInt(50000), employee.managerId()));
+                }
+                default -> {
+                    int managerId = hierarchy.id(random.nextInt(hierarchy.size()));
+                    try {
+                        if (index != hierarchy.root()) liveReport.move(id, managerId);
+                    } catch (RuntimeException e) {
+                        assertTrue(e.getMessage().endsWith("has a cycle on its reporting line"));
+                    }
+                }
+            }
+        }
+
+        EmployeeHierarchyReport fullReport = hierarchyReport.reportAll(hierarchy, 20, 50, 4);
+        assertEquals(fullReport.salaryPolicyViolations(), liveReport.salaryPolicyViolations());
+        assertEquals(fullReport.excessiveReportingLines(), liveReport.excessiveReportingLines());
+        assertEquals(fullReport, liveReport.toReport());
+        assertFalse(events.isEmpty());
+
+        EmployeeHierarchyReport initialReport = report.reportAll(new MutableEmployeeHierarchyGenerator()
+                .generateMutableHierarchy(new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv")), 20, 50, 4);
+        entries.getOrDefault(ViolationEvent.Violation.EXCESSIVE_REPORTING_LINES, Map.of()).forEach((id, balance) -> {
+            boolean wasExcessive = initialReport.excessiveReportingLines().keySet().stream().anyMatch(employee -> employee.id().equals(id));
+            boolean isExcessive = fullReport.excessiveReportingLines().keySet().stream().anyMatch(employee -> employee.id().equals(id));
+            assertEquals((isExcessive ? 1 : 0) - (wasExcessive ? 1 : 0), balance);
+        });
+    }
+
+    @Test
+    void shouldReportTopWorstViolatorsSameAsSortedFullReport(@TempDir Path tempDir) throws IOException {
+        EmployeeHierarchyReportService hierarchyReport = new EmployeeHierarchyReportService();
+        List<Employee> fileEmployees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(fileEmployees);
+        EmployeeHierarchy employeeTable = new EmployeeTableGenerator().generateEmployeeTable(fileEmployees);
+
+        List<Map.Entry<Employee, SalaryPolicyViolation>> salaryViolations =
+                new ArrayList<>(report.computeManagersSalaryPolicyViolation(employeesHierarchy, 20, 50).entrySet());
+        salaryViolations.sort(Comparator.comparingDouble((Map.Entry<Employee, SalaryPolicyViolation> entry) -> -entry.getValue().magnitude())
+                .thenComparing(entry -> entry.getKey().id()));
+        List<Map.Entry<Employee, Integer>> reportingLines =
+                new ArrayList<>(report.computeManagersWithExcessiveReportingLines(employeesHierarchy, 4).entrySet());
+        reportingLines.sort(Comparator.comparingInt((Map.Entry<Employee, Integer> entry) -> -entry.getValue())
+                .thenComparing(entry -> entry.getKey().id()));
+
+        for (int limit : List.of(1, 10, 17, 500, 5000)) {
+            List<Map.Entry<Employee, SalaryPolicyViolation>> expectedSalaryViolations =
+                    salaryViolations.subList(0, Math.min(limit, salaryViolations.size()));
+            List<Map.Entry<Employee, Integer>> expectedReportingLines =
+                    reportingLines.subList(0, Math.min(limit, reportingLines.size()));
+
+            EmployeeHierarchyReport nodeReport = new HierarchyReportEngine().withLimits(limit, limit).compute(employeesHierarchy, 20, 50, 4);
+            assertEquals(expectedSalaryViolations, new ArrayList<>(nodeReport.salaryPolicyViolations().entrySet()));
+            assertEquals(expectedReportingLines, new ArrayList<>(nodeReport.excessiveReportingLines().entrySet()));
+
+            EmployeeHierarchyReport tableReport = hierarchyReport.reportAll(employeeTable, 20, 50, 4, limit, limit);
+            assertEquals(expectedSalaryViolations, new ArrayList<>(tableReport.salaryPolicyViolations().entrySet()));
+            assertEquals(expectedReportingLines, new ArrayList<>(tableReport.excessiveReportingLines().entrySet()));
+
+            EmployeeHierarchyReport salaryLimitedReport = hierarchyReport.reportAll(employeesHierarchy, 20, 50, 4, limit, null);
+            assertEquals(expectedSalaryViolations, new ArrayList<>(salaryLimitedReport.salaryPolicyViolations().entrySet()));
+            assertEquals(report.computeManagersWithExcessiveReportingLines(employeesHierarchy, 4), salaryLimitedReport.excessiveReportingLines());
+            EmployeeHierarchyReport linesLimitedReport = new HierarchyReportEngine().withLimits(null, limit).compute(employeeTable, 20, 50, 4);
+            assertEquals(report.computeManagersSalaryPolicyViolation(employeesHierarchy, 20, 50), linesLimitedReport.salaryPolicyViolations());
+            assertEquals(expectedReportingLines, new ArrayList<>(linesLimitedReport.excessiveReportingLines().entrySet()));
+
+            assertEquals(expectedSalaryViolations,
+                    new ArrayList<>(hierarchyReport.reportManagersSalaryPolicyViolation(employeesHierarchy, 20, 50, limit).entrySet()));
+            assertEquals(expectedSalaryViolations,
+                    new ArrayList<>(hierarchyReport.reportManagersSalaryPolicyViolation(employeeTable, 20, 50, limit).entrySet()));
+            assertEquals(expectedReportingLines,
+                    new ArrayList<>(hierarchyReport.reportManagersWithExcessiveReportingLines(employeesHierarchy, 4, limit).entrySet()));
+            assertEquals(expectedReportingLines,
+                    new ArrayList<>(hierarchyReport.reportManagersWithExcessiveReportingLines(employeeTable, 4, limit).entrySet()));
+        }
+        assertEquals(report.computeAll(employeesHierarchy, 20, 50, 4), hierarchyReport.reportAll(employeesHierarchy, 20, 50, 4, null, null));
+        assertEquals(report.computeManagersSalaryPolicyViolation(employeesHierarchy, 20, 50),
+                hierarchyReport.reportManagersSalaryPolicyViolation(employeesHierarchy, 20, 50, null));
+        assertEquals(report.computeManagersWithExcessiveReportingLines(employeesHierarchy, 4),
+                hierarchyReport.reportManagersWithExcessiveReportingLines(employeeTable, 4, null));
+
+        File reportFile = tempDir.resolve("report.ndjson").toFile();
+        try (ReportSink sink = ReportFormat.NDJSON.toFile(reportFile)) {
+            new EmployeeHierarchyReportService(new HierarchyReportEngine(), sink).reportAll(employeeTable, 20, 50, 4, 3, 3);
+        }
+        List<String> ndjson = Files.readAllLines(reportFile.toPath());
+        assertEquals(8, ndjson.size());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(ndjson.get(2 + i).startsWith(String.format("{\"type\":\"salaryPolicyViolation\",\"id\":%d,", salaryViolations.get(i).getKey().id())));
+            assertTrue(ndjson.get(5 + i).startsWith(String.format("{\"type\":\"excessiveReportingLines\",\"id\":%d,", reportingLines.get(i).getKey().id())));
+        }
+
+        assertThrows("Salary policy limit must be positive: 0", IllegalArgumentException.class,
+                () -> new HierarchyReportEngine().withLimits(0, null));
+        assertThrows("Reporting lines limit must be positive: -1", IllegalArgumentException.class,
+                () -> hierarchyReport.reportAll(employeeTable, 20, 50, 4, null, -1));
+        assertThrows("Salary policy limit must be positive: 0", IllegalArgumentException.class,
+                () -> hierarchyReport.reportManagersSalaryPolicyViolation(employeeTable, 20, 50, 0));
+        assertThrows("Reporting lines limit must be positive: 0", IllegalArgumentException.class,
+                () -> hierarchyReport.reportManagersWithExcessiveReportingLines(employeesHierarchy, 4, 0));
+    }
+}
@@ -0,0 +1,62 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeTableGenerator;
+import com.big.company.analytics.services.impl.IndexedEmployeeNodeGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmployeeTableServiceTests {
+
+    @Test
+    void shouldGenerateSameHierarchyAsNodeGenerator() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        EmployeeNode employeesHierarchy = new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+
+        List<Employee> shuffledEmployees = new ArrayList<>(employees);
+        Collections.shuffle(shuffledEmployees);
+        EmployeeTable table = new EmployeeTableGenerator().generateEmployeeTable(shuffledEmployees);
+
+        assertEquals(employeesHierarchy.size(), table.size());
+        assertEquals(employeesHierarchy.employee(), table.employee(table.root()));
+        for (int index = 0; index < table.size(); index++) {
+            int managerIndex = table.managerIndex(index);
+            if (managerIndex >= 0) assertEquals(table.employee(index).managerId(), table.id(managerIndex));
+        }
+    }
+
+    @Test
+    void shouldGenerateTableFromStreamedFile() {
+        try (Stream<Employee> employees = new EmployeeCsvFileReader().streamFile(new File(TEST_FILEPATH, TEST_FILENAME))) {
+            assertEquals(100, new EmployeeTableGenerator().generateStreamedEmployeeTable(employees).size());
+        }
+    }
+
+    @Test
+    void shouldInvalidEmployeesListFails() {
+        EmployeeTableService tableService = new EmployeeTableGenerator();
+        assertThrows("Employees list must not be null", NullPointerException.class,
+                () -> tableService.generateEmployeeTable(null));
+        assertThrows("Employees stream must not be null", NullPointerException.class,
+                () -> tableService.generateStreamedEmployeeTable(null));
+
+        List<Employee> employees = new ArrayList<>(new EmployeeCsvFileReader().readFile(TEST_FILEPATH, TEST_FILENAME));
+        employees.add(new Employee(345, "Elon", "Musk", 250000, null));
+        assertThrows("Error when creating Employee Hierarchy | Employee list has more than one CEO", EmployeeNodeServiceException.class,
+                () -> tableService.generateEmployeeTable(employees));
+    }
+}
@@ -1,16 +1,39 @@
 package com.big.company.analytics.services;
 
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeChange;
+import com.big.company.analytics.domain.MutableEmployeeHierarchy;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
 import com.big.company.analytics.exception.FileReaderException;
 import com.big.company.analytics.exception.ParseExtractionException;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader.ParsingMode;
+import com.big.company.analytics.services.impl.EmployeeSnapshotFileReader;
+import com.big.company.analytics.services.impl.IndexedEmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.MutableEmployeeHierarchyGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
 import static org.junit.jupiter.api.Assertions.*;
 import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
@@ -119,4 +142,254 @@ class FileReaderServiceTests {
 
         assertEquals(expectedEmployees.size(), employeeData.size());
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SampleData.csv", "HugeData.csv", "UnorderedData.csv", "ValidatedDataWithHeader.csv",
+            "DataWithOddCaseHeader.csv", "InvertedColumnsData.csv", "SalaryViolationPolicyData.csv"})
+    void shouldMemoryMappedModeReadSameDataAsBufferedMode(String fileName) {
+        FileReaderService<Employee> mappedFileReaderService = new EmployeeCsvFileReader(true, ParsingMode.MEMORY_MAPPED);
+        assertEquals(fileReaderService.readFile(TEST_FILEPATH, fileName), mappedFileReaderService.readFile(TEST_FILEPATH, fileName));
+
+        FileReaderService<Employee> mappedFileReaderServiceWithoutHeader = new EmployeeCsvFileReader(false, ParsingMode.MEMORY_MAPPED);
+        assertEquals(new EmployeeCsvFileReader(false).readFile(TEST_FILEPATH, "ValidatedDataWithoutHeader.csv"),
+                mappedFileReaderServiceWithoutHeader.readFile(TEST_FILEPATH, "ValidatedDataWithoutHeader.csv"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SampleData.csv", "HugeData.csv", "UnorderedData.csv", "ValidatedDataWithHeader.csv",
+            "DataWithOddCaseHeader.csv", "InvertedColumnsData.csv", "SalaryViolationPolicyData.csv"})
+    void shouldParallelModeReadSameDataAsBufferedMode(String fileName) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            FileReaderService<Employee> parallelFileReaderService = new EmployeeCsvFileReader(true, ParsingMode.PARALLEL, pool);
+            assertEquals(fileReaderService.readFile(TEST_FILEPATH, fileName), parallelFileReaderService.readFile(TEST_FILEPATH, fileName));
+        } finally {
+            pool.shutdown();
+        }
+
+        FileReaderService<Employee> parallelFileReaderServiceWithoutHeader = new EmployeeCsvFileReader(false, ParsingMode.PARALLEL);
+        assertEquals(new EmployeeCsvFileReader(false).readFile(TEST_FILEPATH, "ValidatedDataWithoutHeader.csv"),
+                parallelFileReaderServiceWithoutHeader.readFile(TEST_FILEPATH, "ValidatedDataWithoutHeader.csv"));
+    }
+
+    @Test
+    void shouldParallelModeKeepErrorMessagesAndLineNumbers(@TempDir Path tempDir) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            FileReaderService<Employee> parallelFileReaderService = new EmployeeCsvFileReader(true, ParsingMode.PARALLEL, pool);
+            assertThrows("Error on line number 2 -> For input string: \"WrongFormat\"", ParseExtractionException.class,
+                    () -> parallelFileReaderService.readFile(TEST_FILEPATH, "WrongFormatData.csv"));
+            assertThrows("Error on line number 2 -> Line has less elements than the required size 4", ParseExtractionException.class,
+                    () -> parallelFileReaderService.readFile(TEST_FILEPATH, "MissingData.csv"));
+            assertThrows("Required header not found on header file: lastname", ParseExtractionException.class,
+                    () -> parallelFileReaderService.readFile(TEST_FILEPATH, "DataWithInvalidHeader.csv"));
+
+            List<String> lines = new ArrayList<>(Files.readAllLines(Path.of(TEST_FILEPATH, "HugeData.csv")));
+            lines.set(2500, "2500,Wrong,Salary,NotANumber,101");
+            lines.set(2800, "2800,Wrong,Salary,NotANumber,101");
+            File wrongFormatFile = tempDir.resolve("WrongFormatHugeData.csv").toFile();
+            Files.write(wrongFormatFile.toPath(), lines);
+            assertThrows("Error on line number 2500 -> For input string: \"NotANumber\"", ParseExtractionException.class,
+                    () -> parallelFileReaderService.readFile(wrongFormatFile));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldMemoryMappedModeKeepErrorMessages() {
+        FileReaderService<Employee> mappedFileReaderService = new EmployeeCsvFileReader(true, ParsingMode.MEMORY_MAPPED);
+        assertThrows("Error on line number 2 -> For input string: \"WrongFormat\"", ParseExtractionException.class,
+                () -> mappedFileReaderService.readFile(TEST_FILEPATH, "WrongFormatData.csv"));
+        assertThrows("Error on line number 2 -> Line has less elements than the required size 4", ParseExtractionException.class,
+                () -> mappedFileReaderService.readFile(TEST_FILEPATH, "MissingData.csv"));
+        assertThrows("Required header not found on header file: lastname", ParseExtractionException.class,
+                () -> mappedFileReaderService.readFile(TEST_FILEPATH, "DataWithInvalidHeader.csv"));
+        assertThrows("File not found | Filepath: / | Filename: NoFile", FileReaderException.class,
+                () -> mappedFileReaderService.readFile(new File("NoFile")));
+
+        FileReaderService<Employee> mappedFileReaderServiceWithoutHeader = new EmployeeCsvFileReader(false, ParsingMode.MEMORY_MAPPED);
+        assertThrows("Error on line number 0 -> For input string: \"Id\"", ParseExtractionException.class,
+                () -> mappedFileReaderServiceWithoutHeader.readFile(TEST_FILEPATH, "ValidatedDataWithHeader.csv"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"BUFFERED", "MEMORY_MAPPED", "PARALLEL"})
+    void shouldStreamSameDataAsReadFile(String parsingMode) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            FileReaderService<Employee> streamingFileReaderService = new EmployeeCsvFileReader(true, ParsingMode.valueOf(parsingMode), pool);
+            File file = new File(TEST_FILEPATH, "HugeData.csv");
+            try (Stream<Employee> employees = streamingFileReaderService.streamFile(file)) {
+                assertEquals(fileReaderService.readFile(file), employees.toList());
+            }
+            try (Stream<Employee> employees = streamingFileReaderService.streamFile(file)) {
+                assertEquals(fileReaderService.readFile(file).subList(0, 10), employees.limit(10).toList());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldParallelModeParseLimitedChunksAhead(@TempDir Path tempDir) throws IOException {
+        File file = tempDir.resolve("LargeData.csv").toFile();
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath())) {
+            writer.write("Id,firstName,lastName,salary,managerId\n");
+            writer.write("1,John,Doe,60000,\n");
+            for (int id = 2; id <= 1_200_000; id++) {
+                writer.write(id + ",Jane,Smith,55000,1\n");
+            }
+        }
+        AtomicInteger chunksStarted = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(1) {
+            @Override
+            public void execute(ForkJoinTask<?> task) {
+                chunksStarted.incrementAndGet();
+                super.execute(task);
+            }
+        };
+        try {
+            FileReaderService<Employee> parallelFileReaderService = new EmployeeCsvFileReader(true, ParsingMode.PARALLEL, pool);
+            try (Stream<Employee> employees = parallelFileReaderService.streamFile(file)) {
+                Iterator<Employee> iterator = employees.iterator();
+                for (int i = 0; i < 100_000; i++) {
+                    iterator.next();
+                }
+                // the 4 chunks parsed ahead of the pool thread, plus the one started when the first chunk was consumed
+                assertEquals(5, chunksStarted.get());
+                assertTrue(iterator.hasNext());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"BUFFERED", "MEMORY_MAPPED", "PARALLEL"})
+    void shouldStreamKeepExceptionContract(String parsingMode) {
+        FileReaderService<Employee> streamingFileReaderService = new EmployeeCsvFileReader(true, ParsingMode.valueOf(parsingMode));
+        assertThrows("File should not be null", NullPointerException.class,
+                () -> streamingFileReaderService.streamFile(null));
+        assertThrows("File not found | Filepath: / | Filename: NoFile", FileReaderException.class,
+                () -> streamingFileReaderService.streamFile(new File("NoFile")));
+        assertThrows("Required header not found on header file: lastname", ParseExtractionException.class,
+                () -> streamingFileReaderService.streamFile(new File(TEST_FILEPATH, "DataWithInvalidHeader.csv")));
+
+        try (Stream<Employee> employees = streamingFileReaderService.streamFile(new File(TEST_FILEPATH, "WrongFormatData.csv"))) {
+            assertThrows("Error on line number 2 -> For input string: \"WrongFormat\"", ParseExtractionException.class,
+                    () -> employees.forEach(employee -> { }));
+        }
+    }
+
+    @Test
+    void shouldReadSnapshotWithSameDataAsCsvFile(@TempDir Path tempDir) {
+        EmployeeSnapshotFileReader snapshotReader = new EmployeeSnapshotFileReader(fileReaderService);
+        File csvFile = new File(TEST_FILEPATH, "HugeData.csv");
+        File snapshotFile = tempDir.resolve("HugeData" + EmployeeSnapshotFileReader.SNAPSHOT_EXTENSION).toFile();
+        List<Employee> employees = fileReaderService.readFile(csvFile);
+        snapshotReader.writeSnapshot(new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(employees), snapshotFile);
+
+        assertFalse(snapshotReader.isSnapshot(csvFile));
+        assertTrue(snapshotReader.isSnapshot(snapshotFile));
+        assertEquals(employees, snapshotReader.readFile(csvFile));
+
+        List<Employee> snapshotEmployees = snapshotReader.readFile(tempDir.toString(), snapshotFile.getName());
+        assertNull(snapshotEmployees.get(0).managerId());
+        assertEquals(employees.stream().sorted(Comparator.comparing(Employee::id)).toList(),
+                snapshotEmployees.stream().sorted(Comparator.comparing(Employee::id)).toList());
+        try (Stream<Employee> streamedEmployees = snapshotReader.streamFile(snapshotFile)) {
+            assertEquals(snapshotEmployees, streamedEmployees.toList());
+        }
+        assertThrows("File not found | Filepath: / | Filename: NoFile.ehs", FileReaderException.class,
+                () -> snapshotReader.readFile(new File("NoFile" + EmployeeSnapshotFileReader.SNAPSHOT_EXTENSION)));
+    }
+
+    @Test
+    void shouldWriteSnapshotStraightFromStreamedEmployees(@TempDir Path tempDir) {
+        EmployeeSnapshotFileReader snapshotReader = new EmployeeSnapshotFileReader(fileReaderService);
+        File csvFile = new File(TEST_FILEPATH, "HugeData.csv");
+        File nodeSnapshotFile = tempDir.resolve("HugeDataNode" + EmployeeSnapshotFileReader.SNAPSHOT_EXTENSION).toFile();
+        File streamSnapshotFile = tempDir.resolve("HugeData" + EmployeeSnapshotFileReader.SNAPSHOT_EXTENSION).toFile();
+        snapshotReader.writeSnapshot(new IndexedEmployeeNodeGenerator().generateEmployeesHierarchy(fileReaderService.readFile(csvFile)), nodeSnapshotFile);
+        try (Stream<Employee> employees = fileReaderService.streamFile(csvFile)) {
+            snapshotReader.writeSnapshot(employees, streamSnapshotFile);
+        }
+
+        assertEquals(snapshotReader.readFile(nodeSnapshotFile), snapshotReader.readFile(streamSnapshotFile));
+        assertEquals(2, tempDir.toFile().list().length);
+        assertThrows("Employees stream must not be null", NullPointerException.class,
+                () -> snapshotReader.writeSnapshot((Stream<Employee>) null, streamSnapshotFile));
+        assertThrows("Error when creating Employee Hierarchy | Employee list has no CEO", EmployeeNodeServiceException.class,
+                () -> snapshotReader.writeSnapshot(Stream.of(new Employee(2, "Martin", "Chekov", 45000, 1)), streamSnapshotFile));
+    }
+
+    @Test
+    void shouldApplyChangeLogOnLoadedHierarchy() {
+        EmployeeCsvFileReader reader = new EmployeeCsvFileReader();
+        MutableEmployeeHierarchy hierarchy = new MutableEmployeeHierarchyGenerator()
+                .generateMutableHierarchy(reader.readFile(TEST_FILEPATH, TEST_FILENAME));
+        int loadedSize = hierarchy.size();
+
+        try (Stream<EmployeeChange> changes = reader.streamChanges(new File(TEST_FILEPATH, "ChangeLogData.csv"))) {
+            assertEquals(new EmployeeChange(EmployeeChange.Operation.MOVE, 105, null, null, null, 102),
+                    changes.toList().get(2));
+        }
+        assertEquals(5, reader.applyChanges(new File(TEST_FILEPATH, "ChangeLogData.csv"), hierarchy));
+
+        assertEquals(loadedSize + 1, hierarchy.size());
+        assertEquals(-1, hierarchy.indexOf(104));
+        assertEquals(new Employee(202, "Alan", "Turing", 47000, 201), hierarchy.employee(hierarchy.indexOf(202)));
+        assertEquals(51000, hierarchy.salary(hierarchy.indexOf(103)));
+        assertEquals(102, hierarchy.id(hierarchy.managerIndex(hierarchy.indexOf(105))));
+        assertEquals(3, hierarchy.depth(hierarchy.indexOf(202)));
+    }
+
+    @Test
+    void shouldInvalidChangeLogFails(@TempDir Path tempDir) throws IOException {
+        EmployeeCsvFileReader reader = new EmployeeCsvFileReader();
+        MutableEmployeeHierarchy hierarchy = new MutableEmployeeHierarchyGenerator()
+                .generateMutableHierarchy(reader.readFile(TEST_FILEPATH, TEST_FILENAME));
+
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> reader.applyChanges(new File(TEST_FILEPATH, "ChangeLogData.csv"), null));
+        assertThrows("Required header not found on header file: operation", ParseExtractionException.class,
+                () -> reader.applyChanges(new File(TEST_FILEPATH, TEST_FILENAME), hierarchy));
+
+        Path invalidOperation = Files.writeString(tempDir.resolve("InvalidOperation.csv"),
+                "operation,id,managerId\nMOVE,105,102\nFIRE,106,\n");
+        assertThrows("Error on line number 2 -> No enum constant com.big.company.analytics.domain.EmployeeChange.Operation.FIRE",
+                ParseExtractionException.class, () -> reader.applyChanges(invalidOperation.toFile(), hierarchy));
+
+        Path missingManager = Files.writeString(tempDir.resolve("MissingManager.csv"), "operation,id,managerId\nMOVE,105,\n");
+        assertThrows("Error on line number 1 -> Employee manager id is missing", ParseExtractionException.class,
+                () -> reader.applyChanges(missingManager.toFile(), hierarchy));
+
+        Path unknownEmployee = Files.writeString(tempDir.resolve("UnknownEmployee.csv"), "operation,id\nDELETE,104\nDELETE,999\n");
+        assertThrows("Error on line number 2 -> Employee id 999 was not found on the hierarchy", EmployeeNodeServiceException.class,
+                () -> reader.applyChanges(unknownEmployee.toFile(), hierarchy));
+        assertNotEquals(-1, hierarchy.indexOf(104));
+    }
+
+    @Test
+    void shouldUndoAppliedChangesWhenChangeLogFails(@TempDir Path tempDir) throws IOException {
+        EmployeeCsvFileReader reader = new EmployeeCsvFileReader();
+        List<Employee> employees = reader.readFile(TEST_FILEPATH, TEST_FILENAME);
+        MutableEmployeeHierarchy hierarchy = new MutableEmployeeHierarchyGenerator().generateMutableHierarchy(employees);
+        List<String> changeLog = new ArrayList<>(Files.readAllLines(Path.of(TEST_FILEPATH, "ChangeLogData.csv")));
+
+        List<String> failingChangeLog = new ArrayList<>(changeLog);
+        failingChangeLog.add("MOVE,102,,,,202");
+        Path failingChanges = Files.write(tempDir.resolve("FailingChangeLog.csv"), failingChangeLog);
+        assertThrows("Error on line number 6 -> Employee with id 102 has a cycle on its reporting line", EmployeeNodeServiceException.class,
+                () -> reader.applyChanges(failingChanges.toFile(), hierarchy));
+
+        Comparator<Employee> byId = Comparator.comparing(Employee::id);
+        assertEquals(employees.stream().sorted(byId).toList(),
+                IntStream.range(0, hierarchy.size()).mapToObj(hierarchy::employee).sorted(byId).toList());
+
+        Path correctedChanges = Files.write(tempDir.resolve("CorrectedChangeLog.csv"), changeLog);
+        assertEquals(5, reader.applyChanges(correctedChanges.toFile(), hierarchy));
+        assertEquals(new Employee(202, "Alan", "Turing", 47000, 201), hierarchy.employee(hierarchy.indexOf(202)));
+    }
 }
@@ -0,0 +1,58 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.domain.MutableEmployeeHierarchy;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeTableGenerator;
+import com.big.company.analytics.services.impl.MutableEmployeeHierarchyGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MutableEmployeeHierarchyServiceTests {
+
+    @Test
+    void shouldGenerateSameHierarchyAsTableGenerator() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        EmployeeTable table = new EmployeeTableGenerator().generateEmployeeTable(employees);
+        MutableEmployeeHierarchy hierarchy = new MutableEmployeeHierarchyGenerator().generateMutableHierarchy(employees);
+
+        assertEquals(table.size(), hierarchy.size());
+        for (int index = 0; index < table.size(); index++) {
+            int mutableIndex = hierarchy.indexOf(table.id(index));
+            assertEquals(table.employee(index), hierarchy.employee(mutableIndex));
+            assertEquals(table.subordinatesCount(index), hierarchy.subordinatesCount(mutableIndex));
+        }
+    }
+
+    @Test
+    void shouldGenerateMutableHierarchyFromStreamedFile() {
+        try (Stream<Employee> employees = new EmployeeCsvFileReader().streamFile(new File(TEST_FILEPATH, TEST_FILENAME))) {
+            assertEquals(100, new MutableEmployeeHierarchyGenerator().generateStreamedMutableHierarchy(employees).size());
+        }
+    }
+
+    @Test
+    void shouldInvalidEmployeesListFails() {
+        MutableEmployeeHierarchyService hierarchyService = new MutableEmployeeHierarchyGenerator();
+        assertThrows("Employees list must not be null", NullPointerException.class,
+                () -> hierarchyService.generateMutableHierarchy(null));
+        assertThrows("Employees stream must not be null", NullPointerException.class,
+                () -> hierarchyService.generateStreamedMutableHierarchy(null));
+
+        List<Employee> employees = new ArrayList<>(new EmployeeCsvFileReader().readFile(TEST_FILEPATH, TEST_FILENAME));
+        employees.add(new Employee(345, "Elon", "Musk", 250000, null));
+        assertThrows("Error when creating Employee Hierarchy | Employee list has more than one CEO", EmployeeNodeServiceException.class,
+                () -> hierarchyService.generateMutableHierarchy(employees));
+    }
+}
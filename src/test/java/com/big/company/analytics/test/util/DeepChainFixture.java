@@ -0,0 +1,36 @@
+package com.big.company.analytics.test.util;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a single reporting line where every employee reports to the previous one, deep enough to overflow
+ * the thread stack on any recursive traversal. Employee ids go from 1 (the CEO) to the number of levels,
+ * and everyone has the same salary.
+ */
+public class DeepChainFixture {
+    public static final int MILLION_LEVELS = 1_000_000;
+    public static final int SALARY = 50000;
+
+    public static List<Employee> chainEmployees(int levels) {
+        List<Employee> employees = new ArrayList<>(levels);
+        for (int id = 1; id <= levels; id++) {
+            employees.add(new Employee(id, "Level", String.valueOf(id), SALARY, (id == 1) ? null : id - 1));
+        }
+        return employees;
+    }
+
+    public static EmployeeNode chain(int levels) {
+        EmployeeNode root = new EmployeeNode(new Employee(1, "Level", "1", SALARY, null));
+        EmployeeNode current = root;
+        for (int id = 2; id <= levels; id++) {
+            EmployeeNode subordinate = new EmployeeNode(new Employee(id, "Level", String.valueOf(id), SALARY, id - 1));
+            current.subordinates().add(subordinate);
+            current = subordinate;
+        }
+        return root;
+    }
+}